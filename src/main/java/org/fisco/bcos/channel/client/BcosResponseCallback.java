@@ -2,6 +2,7 @@ package org.fisco.bcos.channel.client;
 
 import io.netty.util.Timeout;
 import org.fisco.bcos.channel.dto.BcosResponse;
+import org.fisco.bcos.channel.handler.NodeStats;
 import org.fisco.bcos.channel.protocol.ChannelMessageError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +11,9 @@ public abstract class BcosResponseCallback {
     private static Logger logger = LoggerFactory.getLogger(BcosResponseCallback.class);
 
     private Timeout timeout;
+    private NodeStats nodeStats;
+    private long sendTime;
+    private InFlightLimiter inFlightLimiter;
 
     public abstract void onResponse(BcosResponse response);
 
@@ -32,4 +36,47 @@ public abstract class BcosResponseCallback {
     public void setTimeout(Timeout timeout) {
         this.timeout = timeout;
     }
+
+    public NodeStats getNodeStats() {
+        return nodeStats;
+    }
+
+    /** account the request to the load of the node it is sent to */
+    public void setNodeStats(NodeStats nodeStats) {
+        this.nodeStats = nodeStats;
+        this.sendTime = nodeStats.onRequest();
+    }
+
+    /** the permit taken from the limiter is released when the request completes */
+    void setInFlightLimiter(InFlightLimiter inFlightLimiter) {
+        this.inFlightLimiter = inFlightLimiter;
+    }
+
+    void recordResponse() {
+        if (nodeStats != null) {
+            nodeStats.onResponse(sendTime);
+        }
+        releaseInFlight();
+    }
+
+    void recordTimeout() {
+        if (nodeStats != null) {
+            nodeStats.onTimeout(sendTime);
+        }
+        releaseInFlight();
+    }
+
+    void recordCancel() {
+        if (nodeStats != null) {
+            nodeStats.onCancel();
+        }
+        releaseInFlight();
+    }
+
+    private void releaseInFlight() {
+        if (inFlightLimiter != null) {
+            inFlightLimiter.release();
+            inFlightLimiter = null;
+        }
+    }
 }
@@ -23,6 +23,7 @@ import org.fisco.bcos.web3j.protocol.core.DefaultBlockParameterName;
 import org.fisco.bcos.web3j.protocol.core.methods.request.Transaction;
 import org.fisco.bcos.web3j.protocol.core.methods.response.Call;
 import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.fisco.bcos.web3j.tx.CallCache;
 
 public class CallContract {
 
@@ -31,12 +32,22 @@ public class CallContract {
 
     private Credentials credentials;
     private Web3j web3j;
+    private CallCache callCache;
 
     public CallContract(Credentials credentials, Web3j web3j) {
         this.credentials = credentials;
         this.web3j = web3j;
     }
 
+    public CallCache getCallCache() {
+        return callCache;
+    }
+
+    /** @param callCache cache answering the calls while the block number is unchanged */
+    public void setCallCache(CallCache callCache) {
+        this.callCache = callCache;
+    }
+
     public CallResult call(String contractAddress, String funcName, Type... args) {
         final Function function =
                 new Function(
@@ -46,12 +57,16 @@ public class CallContract {
         String data = FunctionEncoder.encode(function);
         Call ethCall;
         try {
-            ethCall =
-                    web3j.call(
-                                    Transaction.createEthCallTransaction(
-                                            credentials.getAddress(), contractAddress, data),
-                                    DefaultBlockParameterName.LATEST)
-                            .send();
+            if (callCache != null) {
+                ethCall = callCache.call(credentials.getAddress(), contractAddress, data);
+            } else {
+                ethCall =
+                        web3j.call(
+                                        Transaction.createEthCallTransaction(
+                                                credentials.getAddress(), contractAddress, data),
+                                        DefaultBlockParameterName.LATEST)
+                                .send();
+            }
         } catch (Exception e) {
             return new CallResult(StatusCode.ExceptionCatched, e.getMessage(), "0x");
         }
@@ -1,6 +1,5 @@
 package org.fisco.bcos.channel.client;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.Timeout;
 import java.security.SecureRandom;
@@ -36,7 +35,7 @@ public abstract class ChannelResponseCallback {
             }
 
             if (message.getSeq() != null) {
-                service.getSeq2Callback().remove(message.getSeq());
+                service.removeCallback(message.getSeq());
             }
 
             if (timeout != null) {
@@ -60,7 +59,7 @@ public abstract class ChannelResponseCallback {
             logger.error("timeout processing error:", e);
         }
 
-        service.getSeq2Callback().remove(message.getSeq());
+        service.removeCallback(message.getSeq());
         timeout.cancel();
     }
 
@@ -135,11 +134,7 @@ public abstract class ChannelResponseCallback {
                             getFromConnection().getHost(), getFromConnection().getPort());
 
             if (ctx != null && ChannelHandlerContextHelper.isChannelAvailable(ctx)) {
-                ByteBuf out = ctx.alloc().buffer();
-                message.writeHeader(out);
-                message.writeExtra(out);
-
-                ctx.writeAndFlush(out);
+                ctx.writeAndFlush(message);
 
                 logger.debug(
                         "send message to "
@@ -167,7 +162,7 @@ public abstract class ChannelResponseCallback {
 
             // 彻底失败后，删掉这个seq
             if (message.getSeq() != null) {
-                service.getSeq2Callback().remove(message.getSeq());
+                service.removeCallback(message.getSeq());
             }
 
             if (timeout != null) {
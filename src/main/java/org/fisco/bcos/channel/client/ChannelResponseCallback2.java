@@ -1,6 +1,5 @@
 package org.fisco.bcos.channel.client;
 
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.util.Timeout;
 import java.security.SecureRandom;
@@ -39,7 +38,7 @@ public abstract class ChannelResponseCallback2 {
             }
 
             if (message.getSeq() != null) {
-                service.getSeq2Callback().remove(message.getSeq());
+                service.removeCallback(message.getSeq());
             }
 
             if (timeout != null) {
@@ -63,7 +62,7 @@ public abstract class ChannelResponseCallback2 {
             logger.error("timeout processing error:", e);
         }
 
-        service.getSeq2Callback().remove(message.getSeq());
+        service.removeCallback(message.getSeq());
         timeout.cancel();
     }
 
@@ -98,11 +97,7 @@ public abstract class ChannelResponseCallback2 {
                             getFromConnection().getHost(), getFromConnection().getPort());
 
             if (ctx != null && ChannelHandlerContextHelper.isChannelAvailable(ctx)) {
-                ByteBuf out = ctx.alloc().buffer();
-                message.writeHeader(out);
-                message.writeExtra(out);
-
-                ctx.writeAndFlush(out);
+                ctx.writeAndFlush(message);
 
                 logger.debug(
                         "send message to  {}:{} success ",
@@ -128,7 +123,7 @@ public abstract class ChannelResponseCallback2 {
 
             // 彻底失败后，删掉这个seq
             if (message.getSeq() != null) {
-                service.getSeq2Callback().remove(message.getSeq());
+                service.removeCallback(message.getSeq());
             }
 
             if (timeout != null) {
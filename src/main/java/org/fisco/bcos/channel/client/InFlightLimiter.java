@@ -0,0 +1,340 @@
+package org.fisco.bcos.channel.client;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.fisco.bcos.channel.handler.ChannelHandlerContextHelper;
+import org.fisco.bcos.channel.handler.DispatcherLane;
+
+/**
+ * Limits the requests of a Service waiting for a response, in total and per connection. A
+ * connection whose netty outbound buffer is above its high water mark is not used either. When no
+ * request can be sent the caller waits with {@link Policy#BLOCK}, the request is rejected with
+ * {@link Policy#FAIL_FAST}, or it is deferred until a permit is released with {@link Policy#DEFER}.
+ * Netty event loop and dispatcher lane threads never wait, as the responses that release the
+ * permits are handled on them: their requests are deferred under BLOCK.
+ */
+public class InFlightLimiter {
+
+    public enum Policy {
+        /** wait up to blockTimeoutMillis for a permit, then reject */
+        BLOCK,
+        /** reject at once */
+        FAIL_FAST,
+        /**
+         * return a future completed when a permit is released, rejected after blockTimeoutMillis
+         */
+        DEFER
+    }
+
+    // 0 for no limit
+    private int maxInFlight = 0;
+    private int maxInFlightPerConnection = 0;
+    private Policy policy = Policy.FAIL_FAST;
+    private long blockTimeoutMillis = 10000;
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final LongAdder rejected = new LongAdder();
+    private final Object lock = new Object();
+    private int waiters = 0;
+
+    // deferred requests in arrival order, guarded by deferredLock when taken
+    private final Queue<Deferred> deferred = new ConcurrentLinkedQueue<Deferred>();
+    private final Object deferredLock = new Object();
+    private final AtomicBoolean pollScheduled = new AtomicBoolean(false);
+    private final LongAdder deferrals = new LongAdder();
+    private volatile ScheduledThreadPoolExecutor poller;
+
+    /**
+     * Take a permit for a request to the selected connection, or to another one of the candidates
+     * if the selected one is saturated.
+     *
+     * @param selected connection chosen by the node selection strategy
+     * @param candidates connections to fall back to
+     * @return connection to send the request to, null if the request is rejected
+     * @throws InterruptedException if interrupted while blocked
+     */
+    public ChannelHandlerContext acquire(
+            ChannelHandlerContext selected, ChannelHandlerContext[] candidates)
+            throws InterruptedException {
+        ChannelHandlerContext ctx = tryAcquire(selected, candidates);
+        if (ctx != null) {
+            return ctx;
+        }
+        // the thread that would release the permit must not wait for it
+        if (policy == Policy.BLOCK && mayBlock()) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+            synchronized (lock) {
+                ++waiters;
+                try {
+                    while (true) {
+                        ctx = tryAcquire(selected, candidates);
+                        if (ctx != null) {
+                            return ctx;
+                        }
+                        long remaining =
+                                TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        // writability changes are not signalled, so poll for them
+                        lock.wait(Math.min(remaining, 10));
+                    }
+                } finally {
+                    --waiters;
+                }
+            }
+        }
+        rejected.increment();
+        return null;
+    }
+
+    /**
+     * Take a permit without blocking the event loop or the dispatcher lanes. The future is done at
+     * once unless the request is deferred, it is then completed by the thread releasing a permit,
+     * or with null after blockTimeoutMillis.
+     *
+     * @param selected connection chosen by the node selection strategy
+     * @param candidates connections to fall back to
+     * @return future of the connection to send the request to, of null if the request is rejected
+     * @throws InterruptedException if interrupted while blocked
+     */
+    public CompletableFuture<ChannelHandlerContext> acquireAsync(
+            ChannelHandlerContext selected, ChannelHandlerContext[] candidates)
+            throws InterruptedException {
+        if (policy == Policy.FAIL_FAST || (policy == Policy.BLOCK && mayBlock())) {
+            return CompletableFuture.completedFuture(acquire(selected, candidates));
+        }
+        // the deferred requests go first
+        if (deferred.isEmpty()) {
+            ChannelHandlerContext ctx = tryAcquire(selected, candidates);
+            if (ctx != null) {
+                return CompletableFuture.completedFuture(ctx);
+            }
+        }
+        Deferred request = new Deferred(selected, candidates);
+        deferred.add(request);
+        deferrals.increment();
+        drainDeferred();
+        schedulePoll();
+        return request.future;
+    }
+
+    /** @return whether the calling thread may wait for a permit */
+    private static boolean mayBlock() {
+        return !(Thread.currentThread() instanceof FastThreadLocalThread)
+                && !DispatcherLane.isLaneThread();
+    }
+
+    /** hands the released permits to the deferred requests, in arrival order */
+    private void drainDeferred() {
+        List<Deferred> ready = new ArrayList<Deferred>();
+        synchronized (deferredLock) {
+            long now = System.nanoTime();
+            Deferred request;
+            while ((request = deferred.peek()) != null) {
+                if (now - request.deadline > 0) {
+                    deferred.poll();
+                    rejected.increment();
+                    ready.add(request);
+                    continue;
+                }
+                request.ctx = tryAcquire(request.selected, request.candidates);
+                if (request.ctx == null) {
+                    break;
+                }
+                deferred.poll();
+                ready.add(request);
+            }
+        }
+        // the requests are sent by the completions, outside of the lock
+        for (Deferred request : ready) {
+            request.future.complete(request.ctx);
+        }
+    }
+
+    /** writability changes and timeouts are not signalled, so poll for them */
+    private void schedulePoll() {
+        if (deferred.isEmpty() || !pollScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        getPoller()
+                .schedule(
+                        () -> {
+                            pollScheduled.set(false);
+                            drainDeferred();
+                            schedulePoll();
+                        },
+                        10,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    private ScheduledThreadPoolExecutor getPoller() {
+        ScheduledThreadPoolExecutor poller = this.poller;
+        if (poller == null) {
+            synchronized (deferredLock) {
+                poller = this.poller;
+                if (poller == null) {
+                    poller =
+                            new ScheduledThreadPoolExecutor(
+                                    1,
+                                    runnable -> {
+                                        Thread thread = new Thread(runnable, "in-flight-limiter");
+                                        thread.setDaemon(true);
+                                        return thread;
+                                    });
+                    this.poller = poller;
+                }
+            }
+        }
+        return poller;
+    }
+
+    private ChannelHandlerContext tryAcquire(
+            ChannelHandlerContext selected, ChannelHandlerContext[] candidates) {
+        while (true) {
+            int current = inFlight.get();
+            if (maxInFlight > 0 && current >= maxInFlight) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                break;
+            }
+        }
+
+        ChannelHandlerContext ctx = null;
+        if (isAvailable(selected)) {
+            ctx = selected;
+        } else {
+            for (ChannelHandlerContext candidate : candidates) {
+                if (isAvailable(candidate)) {
+                    ctx = candidate;
+                    break;
+                }
+            }
+        }
+        if (ctx == null) {
+            inFlight.decrementAndGet();
+        }
+        return ctx;
+    }
+
+    /** @return whether the connection is writable and below the per connection limit */
+    public boolean isAvailable(ChannelHandlerContext ctx) {
+        if (!ctx.channel().isWritable()) {
+            return false;
+        }
+        return maxInFlightPerConnection <= 0
+                || ChannelHandlerContextHelper.getNodeStats(ctx).getInFlight()
+                        < maxInFlightPerConnection;
+    }
+
+    /** called once for each acquired permit, when the response, a timeout or an error arrives */
+    public void release() {
+        inFlight.decrementAndGet();
+        if (policy == Policy.BLOCK) {
+            synchronized (lock) {
+                if (waiters > 0) {
+                    lock.notify();
+                }
+            }
+        }
+        if (!deferred.isEmpty()) {
+            drainDeferred();
+        }
+    }
+
+    /** @return whether a new request would be rejected or have to wait for the global limit */
+    public boolean isSaturated() {
+        return maxInFlight > 0 && inFlight.get() >= maxInFlight;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /** @return requests waiting for a permit without blocking their thread */
+    public int getDeferredCount() {
+        return deferred.size();
+    }
+
+    /** @return requests that have been deferred */
+    public long getDeferralCount() {
+        return deferrals.sum();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getMaxInFlightPerConnection() {
+        return maxInFlightPerConnection;
+    }
+
+    public void setMaxInFlightPerConnection(int maxInFlightPerConnection) {
+        this.maxInFlightPerConnection = maxInFlightPerConnection;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(Policy policy) {
+        this.policy = policy;
+    }
+
+    public long getBlockTimeoutMillis() {
+        return blockTimeoutMillis;
+    }
+
+    public void setBlockTimeoutMillis(long blockTimeoutMillis) {
+        this.blockTimeoutMillis = blockTimeoutMillis;
+    }
+
+    private class Deferred {
+        private final ChannelHandlerContext selected;
+        private final ChannelHandlerContext[] candidates;
+        private final long deadline =
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        private final CompletableFuture<ChannelHandlerContext> future =
+                new CompletableFuture<ChannelHandlerContext>();
+        private ChannelHandlerContext ctx;
+
+        Deferred(ChannelHandlerContext selected, ChannelHandlerContext[] candidates) {
+            this.selected = selected;
+            this.candidates = candidates;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InFlightLimiter [inFlight="
+                + getInFlight()
+                + ", rejected="
+                + getRejectedCount()
+                + ", deferred="
+                + getDeferredCount()
+                + ", maxInFlight="
+                + maxInFlight
+                + ", maxInFlightPerConnection="
+                + maxInFlightPerConnection
+                + "]";
+    }
+}
@@ -1,34 +1,32 @@
 package org.fisco.bcos.channel.client;
 
-import java.util.Arrays;
 import java.util.List;
 import org.fisco.bcos.web3j.crypto.Hash;
+import org.fisco.bcos.web3j.crypto.HashDigest;
 import org.fisco.bcos.web3j.protocol.core.methods.response.MerkleProofUnit;
+import org.fisco.bcos.web3j.utils.Numeric;
 
 public class Merkle {
     public static String calculateMerkleRoot(List<MerkleProofUnit> merkleProofUnits, String hash) {
         if (merkleProofUnits == null) {
             return hash;
         }
-        String result = hash;
+        // hash of left siblings, the current node and right siblings, fed to the digest in place
+        HashDigest digest = Hash.newDigest();
+        byte[] result = Numeric.hexStringToByteArray(hash);
         for (MerkleProofUnit merkleProofUnit : merkleProofUnits) {
-            String left = splicing(merkleProofUnit.getLeft());
-            String right = splicing(merkleProofUnit.getRight());
-            String input = splicing("0x", left, result.substring(2), right);
-            result = Hash.sha3(input);
+            update(digest, merkleProofUnit.getLeft());
+            digest.update(result, 0, result.length);
+            update(digest, merkleProofUnit.getRight());
+            result = digest.doFinal();
         }
-        return result;
+        return Numeric.toHexString(result);
     }
 
-    private static String splicing(List<String> stringList) {
-        StringBuilder result = new StringBuilder();
-        for (String eachString : stringList) {
-            result.append(eachString);
+    private static void update(HashDigest digest, List<String> hexList) {
+        for (String hex : hexList) {
+            byte[] bytes = Numeric.hexStringToByteArray(hex);
+            digest.update(bytes, 0, bytes.length);
         }
-        return result.toString();
-    }
-
-    private static String splicing(String... stringList) {
-        return splicing(Arrays.<String>asList(stringList));
     }
 }
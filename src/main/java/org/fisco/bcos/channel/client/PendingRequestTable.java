@@ -0,0 +1,116 @@
+package org.fisco.bcos.channel.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free open addressing table of pending requests, keyed by the packed seq value produced by
+ * {@link SeqGenerator}.
+ *
+ * <p>Packed seqs are increasing counters, so consecutive requests land in consecutive slots and
+ * probing is short. A request which can not find a slot within {@link #MAX_PROBE} steps (more than
+ * capacity requests outstanding) is kept in an overflow map instead.
+ */
+public class PendingRequestTable<V> {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    public static final int MAX_PROBE = 32;
+
+    private static final long EMPTY = 0;
+    private static final long TOMBSTONE = -1;
+
+    private final int mask;
+    private final AtomicLongArray keys;
+    private final AtomicReferenceArray<V> values;
+    private final ConcurrentHashMap<Long, V> overflow = new ConcurrentHashMap<Long, V>();
+
+    public PendingRequestTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity number of slots, rounded up to a power of two */
+    public PendingRequestTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBE) - 1) << 1;
+        mask = size - 1;
+        keys = new AtomicLongArray(size);
+        values = new AtomicReferenceArray<V>(size);
+    }
+
+    public void put(long key, V value) {
+        checkKey(key);
+        for (int i = 0; i < MAX_PROBE; ++i) {
+            int index = (int) (key + i) & mask;
+            long current = keys.get(index);
+            if ((current == EMPTY || current == TOMBSTONE)
+                    && keys.compareAndSet(index, current, key)) {
+                values.set(index, value);
+                return;
+            }
+        }
+        overflow.put(key, value);
+    }
+
+    public V get(long key) {
+        int index = find(key);
+        if (index >= 0) {
+            return values.get(index);
+        }
+        return overflow.isEmpty() ? null : overflow.get(key);
+    }
+
+    public V remove(long key) {
+        int index = find(key);
+        if (index >= 0) {
+            V value = values.get(index);
+            if (value != null && values.compareAndSet(index, value, null)) {
+                keys.compareAndSet(index, key, TOMBSTONE);
+                return value;
+            }
+            return null;
+        }
+        return overflow.isEmpty() ? null : overflow.remove(key);
+    }
+
+    /** @return all pending values, a weakly consistent snapshot */
+    public List<V> values() {
+        List<V> result = new ArrayList<V>();
+        for (int i = 0; i < values.length(); ++i) {
+            V value = values.get(i);
+            if (value != null) {
+                result.add(value);
+            }
+        }
+        result.addAll(overflow.values());
+        return result;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private int find(long key) {
+        if (key <= 0) {
+            return -1;
+        }
+        for (int i = 0; i < MAX_PROBE; ++i) {
+            int index = (int) (key + i) & mask;
+            long current = keys.get(index);
+            if (current == key) {
+                return index;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void checkKey(long key) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("invalid pending request key: " + key);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.fisco.bcos.channel.client;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the 32 byte seq field of channel messages.
+ *
+ * <p>A seq is the lowercase hex form of a 64 bit random prefix, drawn once per generator, followed
+ * by a 64 bit counter. The wire format is unchanged (32 ascii characters), but a seq produced by
+ * this generator can be matched against pending requests by its packed counter value, without
+ * building a String on the receive path.
+ */
+public class SeqGenerator {
+
+    public static final int SEQ_LENGTH = 32;
+
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private final long prefix;
+    private final AtomicLong counter = new AtomicLong(0);
+
+    public SeqGenerator() {
+        this(new SecureRandom().nextLong());
+    }
+
+    public SeqGenerator(long prefix) {
+        this.prefix = prefix;
+    }
+
+    public long getPrefix() {
+        return prefix;
+    }
+
+    /** @return next packed seq value, never 0 */
+    public long nextPacked() {
+        long next = counter.incrementAndGet();
+        if (next == 0) {
+            next = counter.incrementAndGet();
+        }
+        return next;
+    }
+
+    public String next() {
+        return toSeq(prefix, nextPacked());
+    }
+
+    /** @return true if the seq high part was produced by this generator */
+    public boolean owns(long seqHigh) {
+        return seqHigh == prefix;
+    }
+
+    /**
+     * @param seq seq string
+     * @return packed counter value of a seq produced by this generator, or 0 if it is foreign
+     */
+    public long unpack(String seq) {
+        if (seq == null || seq.length() != SEQ_LENGTH) {
+            return 0;
+        }
+
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < SEQ_LENGTH; ++i) {
+            int digit = hexDigit(seq.charAt(i));
+            if (digit < 0) {
+                return 0;
+            }
+            if (i < SEQ_LENGTH / 2) {
+                high = (high << 4) | digit;
+            } else {
+                low = (low << 4) | digit;
+            }
+        }
+
+        return owns(high) ? low : 0;
+    }
+
+    public static String toSeq(long high, long low) {
+        char[] chars = new char[SEQ_LENGTH];
+        for (int i = 0; i < SEQ_LENGTH / 2; ++i) {
+            int shift = (SEQ_LENGTH / 2 - 1 - i) * 4;
+            chars[i] = HEX_CHARS[(int) (high >>> shift) & 0xf];
+            chars[i + SEQ_LENGTH / 2] = HEX_CHARS[(int) (low >>> shift) & 0xf];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * lowercase hex digit value, uppercase letters are rejected so that a seq rebuilt by {@link
+     * #toSeq(long, long)} is always identical to the one on the wire
+     */
+    public static int hexDigit(int c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
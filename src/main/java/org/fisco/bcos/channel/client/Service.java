@@ -1,7 +1,6 @@
 package org.fisco.bcos.channel.client;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.util.HashedWheelTimer;
@@ -22,6 +21,7 @@ import java.security.cert.CertificateException;
 import java.security.spec.InvalidKeySpecException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -30,8 +30,10 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import org.fisco.bcos.channel.dto.BcosBlockNotification;
 import org.fisco.bcos.channel.dto.BcosHeartbeat;
@@ -59,6 +61,7 @@ import org.fisco.bcos.channel.handler.ConnectionCallback;
 import org.fisco.bcos.channel.handler.ConnectionInfo;
 import org.fisco.bcos.channel.handler.GroupChannelConnectionsConfig;
 import org.fisco.bcos.channel.handler.Message;
+import org.fisco.bcos.channel.handler.NodeStats;
 import org.fisco.bcos.channel.protocol.ChannelMessageError;
 import org.fisco.bcos.channel.protocol.ChannelMessageType;
 import org.fisco.bcos.channel.protocol.NodeRequestSdkVerifyTopic;
@@ -94,16 +97,32 @@ public class Service {
     private GroupChannelConnectionsConfig allChannelConnections;
     private ChannelPushCallback pushCallback;
     private Map<String, Object> seq2Callback = new ConcurrentHashMap<String, Object>();
+    private SeqGenerator seqGenerator = new SeqGenerator();
+    /** callbacks of requests whose seq was produced by seqGenerator */
+    private PendingRequestTable<Object> pendingCallbacks = new PendingRequestTable<Object>();
+
     private int groupId;
     // private static ObjectMapper objectMapper = new ObjectMapper();
     private BigInteger number = BigInteger.valueOf(0);
     private ConcurrentHashMap<String, BigInteger> nodeToBlockNumberMap = new ConcurrentHashMap<>();
+    /** connections of groupId, set by run */
+    private ChannelConnections groupChannelConnections;
     /** add transaction seq callback */
     private Map<String, Object> seq2TransactionCallback = new ConcurrentHashMap<String, Object>();
 
+    private PendingRequestTable<Object> pendingTransactionCallbacks =
+            new PendingRequestTable<Object>();
+
     private Timer timeoutHandler = new HashedWheelTimer();
+    /** limits the rpc requests waiting for a response, null for no limit */
+    private InFlightLimiter inFlightLimiter;
+
     private ThreadPoolTaskExecutor threadPool;
     private BlockNotifyCallBack blockNotifyCallBack = new DefaultBlockNotifyCallBack();
+    /** notified of new blocks besides blockNotifyCallBack, on the thread receiving the notify */
+    private List<BlockNotifyCallBack> blockNotifyListeners =
+            new CopyOnWriteArrayList<BlockNotifyCallBack>();
+
     private Set<String> topics = new HashSet<String>();
     private transient AMOPVerifyUtil topicVerify = new AMOPVerifyUtil();
     // event filter manager
@@ -143,6 +162,18 @@ public class Service {
         this.blockNotifyCallBack = blockNotifyCallBack;
     }
 
+    /**
+     * @param listener notified of each new highest block number, in addition to the block notify
+     *     callback. It is called on the thread receiving the notify and must not block.
+     */
+    public void addBlockNotifyListener(BlockNotifyCallBack listener) {
+        blockNotifyListeners.add(listener);
+    }
+
+    public void removeBlockNotifyListener(BlockNotifyCallBack listener) {
+        blockNotifyListeners.remove(listener);
+    }
+
     public void setTopics(Set<String> topics) {
         try {
             this.topics = topics;
@@ -178,11 +209,65 @@ public class Service {
         return nodeToBlockNumberMap;
     }
 
+    /**
+     * record the block number of a node and refresh the routing snapshot of the group connections
+     *
+     * @param node node key, ip followed by port
+     * @param blockNumber latest block number of the node
+     */
+    public void updateNodeBlockNumber(String node, BigInteger blockNumber) {
+        BigInteger oldBlockNumber = nodeToBlockNumberMap.put(node, blockNumber);
+        if (!blockNumber.equals(oldBlockNumber)) {
+            refreshRoutingTable();
+        }
+    }
+
+    /**
+     * rebuild the routing snapshot of the group connections, called when a connection becomes
+     * available as its protocol version is set
+     */
+    public void refreshRoutingTable() {
+        ChannelConnections channelConnections = getGroupChannelConnections();
+        if (channelConnections != null) {
+            channelConnections.refreshRoutingTable();
+        }
+    }
+
+    /** @return load statistics of the connected nodes of the group, keyed by ip:port */
+    public Map<String, NodeStats> getNodeStats() {
+        ChannelConnections channelConnections = getGroupChannelConnections();
+        if (channelConnections == null) {
+            return Collections.emptyMap();
+        }
+        return channelConnections.getNodeStats();
+    }
+
+    private ChannelConnections getGroupChannelConnections() {
+        if (groupChannelConnections == null) {
+            groupChannelConnections =
+                    allChannelConnections
+                            .getAllChannelConnections()
+                            .stream()
+                            .filter(x -> x.getGroupId() == groupId)
+                            .findFirst()
+                            .orElse(null);
+        }
+        return groupChannelConnections;
+    }
+
     public void setNodeToBlockNumberMap(
             ConcurrentHashMap<String, BigInteger> nodeToBlockNumberMap) {
         this.nodeToBlockNumberMap = nodeToBlockNumberMap;
     }
 
+    public InFlightLimiter getInFlightLimiter() {
+        return inFlightLimiter;
+    }
+
+    public void setInFlightLimiter(InFlightLimiter inFlightLimiter) {
+        this.inFlightLimiter = inFlightLimiter;
+    }
+
     public Set<String> getTopics() {
         return this.topics;
     }
@@ -310,6 +395,7 @@ public class Service {
 
             if (channelConnections.getGroupId() == groupId) {
                 flag = 1;
+                groupChannelConnections = channelConnections;
                 try {
                     ConnectionCallback connectionCallback = new ConnectionCallback(topics);
                     connectionCallback.setChannelService(this);
@@ -322,6 +408,9 @@ public class Service {
 
                     channelConnections.init();
                     channelConnections.setThreadPool(threadPool);
+                    if (allChannelConnections.isSharedTransport()) {
+                        channelConnections.setTransport(allChannelConnections.getTransport());
+                    }
                     channelConnections.startConnect();
 
                     int sleepTime = 0;
@@ -388,86 +477,39 @@ public class Service {
     }
 
     public BcosResponse sendEthereumMessage(BcosRequest request) {
-        class Callback extends BcosResponseCallback {
-            public transient BcosResponse bcosResponse;
-            public transient Semaphore semaphore = new Semaphore(1, true);
-
-            Callback() {
-                try {
-                    semaphore.acquire(1);
-
-                } catch (InterruptedException e) {
-                    logger.error("error :", e);
-                    Thread.currentThread().interrupt();
-                }
-            }
-
-            @Override
-            public void onResponse(BcosResponse response) {
-                bcosResponse = response;
-
-                if (bcosResponse != null && bcosResponse.getContent() != null) {
-                    logger.debug("response: {}", response.getContent());
-                } else {
-                    logger.error("response is null");
-                }
-
-                semaphore.release();
-            }
-        };
-
-        Callback callback = new Callback();
+        return sendEthereumMessageAsync(request).join();
+    }
 
+    /**
+     * send a bcos request without blocking, the future is completed by the response handler
+     *
+     * @param request bcos request
+     * @return future of the response, completed normally also on error and timeout, see {@link
+     *     BcosResponse#getErrorCode()}
+     */
+    public CompletableFuture<BcosResponse> sendEthereumMessageAsync(BcosRequest request) {
+        BcosResponseFuture callback = new BcosResponseFuture();
         asyncSendEthereumMessage(request, callback);
-        try {
-            callback.semaphore.acquire(1);
-        } catch (InterruptedException e) {
-            logger.error("system error:", e);
-            Thread.currentThread().interrupt();
-        }
-
-        return callback.bcosResponse;
+        return callback.future;
     }
 
     public BcosResponse sendEthereumMessage(
             BcosRequest request, TransactionSucCallback transactionSucCallback) {
-        class Callback extends BcosResponseCallback {
-            private transient BcosResponse ethereumResponse;
-            private transient Semaphore semaphore = new Semaphore(1, true);
-
-            Callback() {
-                try {
-                    semaphore.acquire(1);
-                } catch (InterruptedException e) {
-                    logger.error("error:", e);
-                    Thread.currentThread().interrupt();
-                }
-            }
-
-            @Override
-            public void onResponse(BcosResponse response) {
-                ethereumResponse = response;
-                semaphore.release();
-            }
-        }
+        return sendEthereumMessageAsync(request, transactionSucCallback).join();
+    }
 
-        Callback callback = new Callback();
+    public CompletableFuture<BcosResponse> sendEthereumMessageAsync(
+            BcosRequest request, TransactionSucCallback transactionSucCallback) {
+        BcosResponseFuture callback = new BcosResponseFuture();
         asyncSendEthereumMessage(request, callback, transactionSucCallback);
-        try {
-            callback.semaphore.acquire(1);
-        } catch (InterruptedException e) {
-            logger.error("system error:", e);
-            Thread.currentThread().interrupt();
-        }
-
-        return callback.ethereumResponse;
+        return callback.future;
     }
 
     public void asyncSendEthereumMessage(
             BcosRequest request,
             BcosResponseCallback fiscoResponseCallback,
             TransactionSucCallback transactionSucCallback) {
-        this.asyncSendEthereumMessage(request, fiscoResponseCallback);
+        // registered first, a request that is not sent completes it at once
         if (request.getTimeout() > 0) {
             final TransactionSucCallback callbackInner = transactionSucCallback;
             callbackInner.setTimeout(
@@ -478,15 +520,32 @@ public class Service {
                                     // 处理超时逻辑
                                     callbackInner.onTimeout();
                                     // timeout时清除map的数据,所以尽管后面有回包数据，也会找不到seq->callback的关系
-                                    seq2TransactionCallback.remove(request.getMessageID());
+                                    removeTransactionCallback(request.getMessageID());
                                 }
                             },
                             request.getTimeout(),
                             TimeUnit.MILLISECONDS));
-            this.seq2TransactionCallback.put(request.getMessageID(), callbackInner);
+            putTransactionCallback(request.getMessageID(), callbackInner);
         } else {
-            this.seq2TransactionCallback.put(request.getMessageID(), transactionSucCallback);
+            putTransactionCallback(request.getMessageID(), transactionSucCallback);
         }
+
+        this.asyncSendEthereumMessage(
+                request,
+                new BcosResponseCallback() {
+                    @Override
+                    public void onResponse(BcosResponse response) {
+                        fiscoResponseCallback.onResponse(response);
+                        if (response.getErrorCode() == -1
+                                || response.getErrorCode()
+                                        == ChannelMessageError.REQUEST_REJECTED.getError()) {
+                            TransactionReceipt receipt = new TransactionReceipt();
+                            receipt.setStatus(String.valueOf(response.getErrorCode()));
+                            receipt.setMessage(response.getErrorMessage());
+                            onReceiveTransactionMessage(request.getMessageID(), receipt);
+                        }
+                    }
+                });
     }
 
     public ChannelResponse sendChannelMessageForVerifyTopic(ChannelRequest request) {
@@ -496,42 +555,29 @@ public class Service {
     }
 
     public ChannelResponse sendChannelMessage2(ChannelRequest request) {
-        class Callback extends ChannelResponseCallback2 {
-            public transient ChannelResponse channelResponse;
-            public transient Semaphore semaphore = new Semaphore(1, true);
-
-            Callback() {
-                try {
-                    semaphore.acquire(1);
-
-                } catch (InterruptedException e) {
-                    logger.error("error:", e);
-                    Thread.currentThread().interrupt();
-                }
-            }
-
-            @Override
-            public void onResponseMessage(ChannelResponse response) {
-                channelResponse = response;
-
-                logger.debug("response: {}", response.getContent());
-
-                semaphore.release();
-            }
-        };
+        return sendChannelMessage2Async(request).join();
+    }
 
+    /**
+     * send an AMOP request without blocking, the future is completed by the response handler
+     *
+     * @param request channel request
+     * @return future of the response, completed normally also on error and timeout, see {@link
+     *     ChannelResponse#getErrorCode()}
+     */
+    public CompletableFuture<ChannelResponse> sendChannelMessage2Async(ChannelRequest request) {
+        CompletableFuture<ChannelResponse> future = new CompletableFuture<ChannelResponse>();
         request.setType((short) ChannelMessageType.AMOP_REQUEST.getType());
-        Callback callback = new Callback();
-
-        asyncSendChannelMessage2(request, callback);
-        try {
-            callback.semaphore.acquire(1);
-        } catch (InterruptedException e) {
-            logger.error("system error:", e);
-            Thread.currentThread().interrupt();
-        }
-
-        return callback.channelResponse;
+        asyncSendChannelMessage2(
+                request,
+                new ChannelResponseCallback2() {
+                    @Override
+                    public void onResponseMessage(ChannelResponse response) {
+                        logger.debug("response: {}", response.getContent());
+                        future.complete(response);
+                    }
+                });
+        return future;
     }
 
     public void asyncSendEthereumMessage(BcosRequest request, BcosResponseCallback callback) {
@@ -540,16 +586,11 @@ public class Service {
         bcosMessage.setSeq(request.getMessageID());
         bcosMessage.setResult(0);
         bcosMessage.setType((short) 0x12);
-        bcosMessage.setData(request.getContent().getBytes());
+        bcosMessage.setData(request.getContentByteArray());
         // select node
+        ChannelHandlerContext ctx;
         try {
-            ChannelConnections channelConnections =
-                    allChannelConnections
-                            .getAllChannelConnections()
-                            .stream()
-                            .filter(x -> x.getGroupId() == groupId)
-                            .findFirst()
-                            .get();
+            ChannelConnections channelConnections = getGroupChannelConnections();
 
             if (channelConnections == null) {
                 if (orgID != null) {
@@ -560,14 +601,43 @@ public class Service {
                     throw new TransactionException("not found agencyName");
                 }
             }
-            ChannelHandlerContext ctx =
-                    channelConnections.randomNetworkConnection(nodeToBlockNumberMap);
+            ctx = channelConnections.randomNetworkConnection(nodeToBlockNumberMap);
+            if (inFlightLimiter != null) {
+                CompletableFuture<ChannelHandlerContext> permit =
+                        inFlightLimiter.acquireAsync(
+                                ctx, channelConnections.getRoutingTable().getCandidates());
+                if (!permit.isDone()) {
+                    // sent by the thread releasing a permit, the caller goes on
+                    permit.thenAccept(
+                            acquired ->
+                                    sendEthereumMessage(request, bcosMessage, callback, acquired));
+                    return;
+                }
+                ctx = permit.join();
+            }
+        } catch (Exception e) {
+            onSendEthereumMessageFailed(request, callback, e);
+            return;
+        }
+        sendEthereumMessage(request, bcosMessage, callback, ctx);
+    }
 
-            ByteBuf out = ctx.alloc().buffer();
-            bcosMessage.writeHeader(out);
-            bcosMessage.writeExtra(out);
+    private void sendEthereumMessage(
+            BcosRequest request,
+            BcosMessage bcosMessage,
+            BcosResponseCallback callback,
+            ChannelHandlerContext ctx) {
+        try {
+            if (inFlightLimiter != null) {
+                if (ctx == null) {
+                    throw new RejectedExecutionException(
+                            "too many requests in flight: " + inFlightLimiter.getInFlight());
+                }
+                callback.setInFlightLimiter(inFlightLimiter);
+            }
 
-            seq2Callback.put(request.getMessageID(), callback);
+            callback.setNodeStats(ChannelHandlerContextHelper.getNodeStats(ctx));
+            putCallback(request.getMessageID(), callback);
 
             if (request.getTimeout() > 0) {
                 final BcosResponseCallback callbackInner = callback;
@@ -578,15 +648,18 @@ public class Service {
 
                                     @Override
                                     public void run(Timeout timeout) throws Exception {
-                                        // handle timer
-                                        _callback.onTimeout();
+                                        // handle timer, a late response will find no callback
+                                        if (removeCallback(request.getMessageID()) != null) {
+                                            _callback.recordTimeout();
+                                            _callback.onTimeout();
+                                        }
                                     }
                                 },
                                 request.getTimeout(),
                                 TimeUnit.MILLISECONDS));
             }
 
-            ctx.writeAndFlush(out);
+            ctx.writeAndFlush(bcosMessage);
             SocketChannel socketChannel = (SocketChannel) ctx.channel();
             InetSocketAddress socketAddress = socketChannel.remoteAddress();
             logger.debug(
@@ -596,21 +669,36 @@ public class Service {
                     bcosMessage.getSeq());
 
         } catch (Exception e) {
-            logger.error(" error message:{}, error: {} ", e.getMessage(), e);
+            onSendEthereumMessageFailed(request, callback, e);
+        }
+    }
 
-            BcosResponse response = new BcosResponse();
-            response.setErrorCode(-1);
-            response.setErrorMessage(
-                    e.getMessage()
-                            + " requset send failed! please check the log file content for reasons.");
-            response.setContent("");
-            response.setMessageID(request.getMessageID());
+    private void onSendEthereumMessageFailed(
+            BcosRequest request, BcosResponseCallback callback, Exception e) {
+        logger.error(" error message:{}, error: {} ", e.getMessage(), e);
 
-            if (callback.getTimeout() != null) {
-                callback.getTimeout().cancel();
-            }
-            callback.onResponse(response);
+        BcosResponse response = new BcosResponse();
+        if (e instanceof RejectedExecutionException) {
+            response.setErrorCode(ChannelMessageError.REQUEST_REJECTED.getError());
+        } else {
+            response.setErrorCode(-1);
         }
+        response.setErrorMessage(
+                e.getMessage()
+                        + " requset send failed! please check the log file content for reasons.");
+        response.setContent("");
+        response.setMessageID(request.getMessageID());
+
+        if (callback.getTimeout() != null) {
+            callback.getTimeout().cancel();
+        }
+        if (removeCallback(request.getMessageID()) != null) {
+            callback.recordCancel();
+        }
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        callback.onResponse(response);
     }
 
     public void asyncSendChannelMessage2(
@@ -678,7 +766,7 @@ public class Service {
                 callback.setRequest(channelMessage);
 
                 logger.info("put msgid:{} into callback map", request.getMessageID());
-                seq2Callback.put(request.getMessageID(), callback);
+                putCallback(request.getMessageID(), callback);
 
                 if (request.getTimeout() > 0) {
                     logger.info("timeoutms:{}", request.getTimeout());
@@ -763,11 +851,7 @@ public class Service {
                                     connectionInfo.getHost(), connectionInfo.getPort());
 
                     if (ctx != null && ChannelHandlerContextHelper.isChannelAvailable(ctx)) {
-                        ByteBuf out = ctx.alloc().buffer();
-                        channelMessage.writeHeader(out);
-                        channelMessage.writeExtra(out);
-
-                        ctx.writeAndFlush(out);
+                        ctx.writeAndFlush(channelMessage);
 
                         logger.debug(
                                 "send message to{}:{} success ",
@@ -807,13 +891,12 @@ public class Service {
             responseMessage.setType((short) ChannelMessageType.AMOP_RESPONSE.getType());
             responseMessage.setTopic(topic);
 
-            ByteBuf out = ctx.alloc().buffer();
-            responseMessage.writeHeader(out);
-            responseMessage.writeExtra(out);
-
-            ctx.writeAndFlush(out);
+            ctx.writeAndFlush(responseMessage);
 
-            logger.info("response seq:{} length:{}", response.getMessageID(), out.readableBytes());
+            logger.info(
+                    "response seq:{} length:{}",
+                    response.getMessageID(),
+                    responseMessage.getLength());
         } catch (Exception e) {
             logger.error("system error:{}", e);
         }
@@ -829,13 +912,9 @@ public class Service {
             msg.setType(msgtype);
             msg.setResult(0);
 
-            ByteBuf out = ctx.alloc().buffer();
-            msg.writeHeader(out);
-            msg.writeExtra(out);
-
-            ctx.writeAndFlush(out);
+            ctx.writeAndFlush(msg);
 
-            logger.debug("response seq:{} length:{}", request.getMessageID(), out.readableBytes());
+            logger.debug("response seq:{} length:{}", request.getMessageID(), msg.getLength());
         } catch (Exception e) {
             logger.error("system error:", e);
         }
@@ -961,8 +1040,7 @@ public class Service {
 
     public void onReceiveRegisterEventResponse(ChannelHandlerContext ctx, ChannelMessage2 message) {
 
-        ChannelResponseCallback2 callback =
-                (ChannelResponseCallback2) seq2Callback.get(message.getSeq());
+        ChannelResponseCallback2 callback = (ChannelResponseCallback2) removeCallback(message);
         String seq = message.getSeq();
         String content = new String(message.getData());
         if (callback == null) {
@@ -973,8 +1051,6 @@ public class Service {
             return;
         }
 
-        seq2Callback.remove(seq);
-
         ChannelResponse response = new ChannelResponse();
 
         response.setCtx(ctx);
@@ -1069,19 +1145,22 @@ public class Service {
     }
 
     public void onReceiveEthereumMessage(ChannelHandlerContext ctx, BcosMessage message) {
-        BcosResponseCallback callback = (BcosResponseCallback) seq2Callback.get(message.getSeq());
+        BcosResponseCallback callback = (BcosResponseCallback) removeCallback(message);
 
         if (callback != null) {
+            callback.recordResponse();
 
             if (callback.getTimeout() != null) {
                 callback.getTimeout().cancel();
             }
 
-            logger.trace(
-                    " receive ethereum response, seq: {}, result: {}, content: {}",
-                    message.getSeq(),
-                    message.getResult(),
-                    new String(message.getData()));
+            if (logger.isTraceEnabled()) {
+                logger.trace(
+                        " receive ethereum response, seq: {}, result: {}, content: {}",
+                        message.getSeq(),
+                        message.getResult(),
+                        new String(message.getData()));
+            }
 
             BcosResponse response = new BcosResponse();
             if (message.getResult() != 0) {
@@ -1090,11 +1169,9 @@ public class Service {
 
             response.setErrorCode(message.getResult());
             response.setMessageID(message.getSeq());
-            response.setContent(new String(message.getData()));
+            response.setContent(message.getData());
 
             callback.onResponse(response);
-
-            seq2Callback.remove(message.getSeq());
         } else {
             logger.debug("no callback push message");
         }
@@ -1102,15 +1179,14 @@ public class Service {
 
     public void onReceiveChannelMessage2(ChannelHandlerContext ctx, ChannelMessage2 message) {
 
-        ChannelResponseCallback2 callback =
-                (ChannelResponseCallback2) seq2Callback.get(message.getSeq());
+        ChannelResponseCallback2 callback = (ChannelResponseCallback2) getCallback(message);
 
         if (message.getType() == ChannelMessageType.AMOP_REQUEST.getType()
                 || message.getType() == ChannelMessageType.AMOP_MULBROADCAST.getType()) {
             logger.debug("channel PUSH");
             if (callback != null) {
                 logger.debug("seq already existed，clear:{}", message.getSeq());
-                seq2Callback.remove(message.getSeq());
+                removeCallback(message);
             }
             if (message.getTopic().length() > verifyChannelPrefix.length()
                     && verifyChannelPrefix.equals(
@@ -1177,11 +1253,8 @@ public class Service {
             response.setType((short) ChannelMessageType.REQUEST_TOPICCERT.getType());
             response.setData("".getBytes());
 
-            ByteBuf out = ctx.alloc().buffer();
-            response.writeHeader(out);
-            response.writeExtra(out);
-            ctx.writeAndFlush(out);
-            logger.info("response seq:{} length:{}", response.getSeq(), out.readableBytes());
+            ctx.writeAndFlush(response);
+            logger.info("response seq:{} length:{}", response.getSeq(), response.getLength());
         } catch (Exception e) {
             logger.error("response seq:{} send error", message.getSeq());
         }
@@ -1367,7 +1440,7 @@ public class Service {
             String hostAddress = socketChannel.remoteAddress().getAddress().getHostAddress();
             int port = socketChannel.remoteAddress().getPort();
 
-            nodeToBlockNumberMap.put(hostAddress + port, blkNumber);
+            updateNodeBlockNumber(hostAddress + port, blkNumber);
             // get max blockNumber to set blocklimit
             BigInteger maxBlockNumber = blkNumber;
             for (String key : nodeToBlockNumberMap.keySet()) {
@@ -1379,6 +1452,14 @@ public class Service {
             if (maxBlockNumber.compareTo(getNumber()) > 0) {
                 setNumber(maxBlockNumber);
 
+                for (BlockNotifyCallBack listener : blockNotifyListeners) {
+                    try {
+                        listener.onBlockNotify(getGroupId(), maxBlockNumber);
+                    } catch (Exception e) {
+                        logger.error(" block notify listener error, e: {}", e.getMessage());
+                    }
+                }
+
                 if (null != getBlockNotifyCallBack()) {
                     if (null == getThreadPool()) {
                         // Thread pool does not exist, the current thread executes the callback
@@ -1407,7 +1488,7 @@ public class Service {
     public void sendHeartbeatMessage(ChannelHandlerContext ctx) {
 
         Message message = new BcosMessage();
-        message.setSeq(UUID.randomUUID().toString().replaceAll("-", ""));
+        message.setSeq(seqGenerator.getPrefix(), seqGenerator.nextPacked());
         message.setResult(0);
         message.setType((short) ChannelMessageType.CLIENT_HEARTBEAT.getType());
 
@@ -1421,11 +1502,7 @@ public class Service {
             return;
         }
 
-        ByteBuf out = ctx.alloc().buffer();
-        message.writeHeader(out);
-        message.writeExtra(out);
-
-        ctx.writeAndFlush(out);
+        ctx.writeAndFlush(message);
     }
 
     public void onReceiveHeartbeat(ChannelHandlerContext ctx, Message msg) {
@@ -1461,11 +1538,7 @@ public class Service {
                 return;
             }
 
-            ByteBuf out = ctx.alloc().buffer();
-            response.writeHeader(out);
-            response.writeExtra(out);
-
-            ctx.writeAndFlush(out);
+            ctx.writeAndFlush(response);
         } else if ("1".equals(content)) {
             logger.trace("heartbeat response");
         } else {
@@ -1478,7 +1551,7 @@ public class Service {
         try {
             receipt =
                     ObjectMapperFactory.getObjectMapper()
-                            .readValue(message.getData(), TransactionReceipt.class);
+                            .readValue(message.getDataInputStream(), TransactionReceipt.class);
         } catch (Exception e) {
             receipt = new TransactionReceipt();
             receipt.setStatus(
@@ -1489,36 +1562,141 @@ public class Service {
             receipt.setMessage("Decode receipt error: " + e.getLocalizedMessage());
         }
 
-        onReceiveTransactionMessage(message.getSeq(), receipt);
+        TransactionSucCallback callback = removeTransactionCallback(message);
+        if (callback != null) {
+            onReceiveTransactionMessage(callback, receipt);
+        } else if (logger.isTraceEnabled()) {
+            logger.trace(" transaction call back null, seq: {}", message.getSeq());
+        }
     }
 
-    public void onReceiveTransactionMessage(String seq, TransactionReceipt receipt) {
-        TransactionSucCallback callback = (TransactionSucCallback) seq2TransactionCallback.get(seq);
+    private TransactionSucCallback removeTransactionCallback(Message message) {
+        if (message.isSeqPacked() && seqGenerator.owns(message.getSeqHigh())) {
+            return (TransactionSucCallback) pendingTransactionCallbacks.remove(message.getSeqLow());
+        }
+        return (TransactionSucCallback) seq2TransactionCallback.remove(message.getSeq());
+    }
 
-        if (callback != null) {
-            if (callback.getTimeout() != null) {
-                // stop timer，avoid response more once
-                callback.getTimeout().cancel();
+    /**
+     * A response dropped by a full dispatcher lane, see MessageDispatcher. The waiting request is
+     * completed with MESSAGE_DROPPED instead of waiting for its timeout.
+     */
+    public void onRejectedMessage(ChannelHandlerContext ctx, Message message) {
+        int error = ChannelMessageError.MESSAGE_DROPPED.getError();
+        if (message.getType() == ChannelMessageType.TRANSACTION_NOTIFY.getType()) {
+            TransactionSucCallback callback = removeTransactionCallback(message);
+            if (callback != null) {
+                TransactionReceipt receipt = new TransactionReceipt();
+                receipt.setStatus(String.valueOf(error));
+                receipt.setMessage("Receipt dropped, the dispatcher lane is full");
+                onReceiveTransactionMessage(callback, receipt);
             }
+        } else if (message.getType() == ChannelMessageType.CHANNEL_RPC_REQUEST.getType()
+                || message.getType() == ChannelMessageType.CLIENT_HANDSHAKE.getType()) {
+            BcosResponseCallback callback = (BcosResponseCallback) removeCallback(message);
+            if (callback != null) {
+                callback.recordResponse();
+                if (callback.getTimeout() != null) {
+                    callback.getTimeout().cancel();
+                }
 
-            try {
-                callback.onResponse(receipt);
-            } catch (Exception e) {
-                logger.error("Error process transactionMessage: ", e);
+                BcosResponse response = new BcosResponse();
+                response.setErrorCode(error);
+                response.setErrorMessage("Response dropped, the dispatcher lane is full");
+                response.setMessageID(message.getSeq());
+                response.setContent("");
+                callback.onResponse(response);
             }
+        }
+    }
 
-            seq2TransactionCallback.remove(seq);
+    public void onReceiveTransactionMessage(String seq, TransactionReceipt receipt) {
+        TransactionSucCallback callback = (TransactionSucCallback) removeTransactionCallback(seq);
+
+        if (callback != null) {
+            onReceiveTransactionMessage(callback, receipt);
         } else {
             logger.trace(" transaction call back null, seq: {}", seq);
         }
     }
 
+    private void onReceiveTransactionMessage(
+            TransactionSucCallback callback, TransactionReceipt receipt) {
+        if (callback.getTimeout() != null) {
+            // stop timer，avoid response more once
+            callback.getTimeout().cancel();
+        }
+
+        try {
+            callback.onResponse(receipt);
+        } catch (Exception e) {
+            logger.error("Error process transactionMessage: ", e);
+        }
+    }
+
     public String newSeq() {
-        String seq = UUID.randomUUID().toString().replaceAll("-", "");
+        String seq = seqGenerator.next();
         logger.debug("New Seq：{}", seq);
         return seq;
     }
 
+    /**
+     * register the response callback of a request, seqs produced by {@link #newSeq()} are kept in a
+     * primitive keyed table, other seqs in seq2Callback
+     */
+    public void putCallback(String seq, Object callback) {
+        long packed = seqGenerator.unpack(seq);
+        if (packed != 0) {
+            pendingCallbacks.put(packed, callback);
+        } else {
+            seq2Callback.put(seq, callback);
+        }
+    }
+
+    public Object getCallback(String seq) {
+        long packed = seqGenerator.unpack(seq);
+        return packed != 0 ? pendingCallbacks.get(packed) : seq2Callback.get(seq);
+    }
+
+    public Object removeCallback(String seq) {
+        long packed = seqGenerator.unpack(seq);
+        return packed != 0 ? pendingCallbacks.remove(packed) : seq2Callback.remove(seq);
+    }
+
+    private Object getCallback(Message message) {
+        if (message.isSeqPacked() && seqGenerator.owns(message.getSeqHigh())) {
+            return pendingCallbacks.get(message.getSeqLow());
+        }
+        return seq2Callback.get(message.getSeq());
+    }
+
+    private Object removeCallback(Message message) {
+        if (message.isSeqPacked() && seqGenerator.owns(message.getSeqHigh())) {
+            return pendingCallbacks.remove(message.getSeqLow());
+        }
+        return seq2Callback.remove(message.getSeq());
+    }
+
+    public void putTransactionCallback(String seq, Object callback) {
+        long packed = seqGenerator.unpack(seq);
+        if (packed != 0) {
+            pendingTransactionCallbacks.put(packed, callback);
+        } else {
+            seq2TransactionCallback.put(seq, callback);
+        }
+    }
+
+    public Object removeTransactionCallback(String seq) {
+        long packed = seqGenerator.unpack(seq);
+        return packed != 0
+                ? pendingTransactionCallbacks.remove(packed)
+                : seq2TransactionCallback.remove(seq);
+    }
+
+    public SeqGenerator getSeqGenerator() {
+        return seqGenerator;
+    }
+
     public Map<String, Object> getSeq2Callback() {
         return seq2Callback;
     }
@@ -1574,4 +1752,22 @@ public class Service {
     public void setSetJavaOpt(boolean setJavaOpt) {
         this.setJavaOpt = setJavaOpt;
     }
+
+    /** completes a future with the response, shared by the synchronous and future based sends */
+    private static class BcosResponseFuture extends BcosResponseCallback {
+        private final CompletableFuture<BcosResponse> future =
+                new CompletableFuture<BcosResponse>();
+
+        @Override
+        public void onResponse(BcosResponse response) {
+            if (response != null && response.getContentByteArray() != null) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("response: {}", response.getContent());
+                }
+            } else {
+                logger.error("response is null");
+            }
+            future.complete(response);
+        }
+    }
 }
@@ -9,10 +9,9 @@ public class BcosMessage extends Message {
     public BcosMessage() {}
 
     public BcosMessage(Message msg) {
-        length = msg.getLength();
-        type = msg.getType();
-        seq = msg.getSeq();
-        result = msg.getResult();
+        copyHeader(msg);
+        // the body is the whole frame payload, share it instead of copying by readExtra
+        payload = msg.getPayload();
     }
 
     @Override
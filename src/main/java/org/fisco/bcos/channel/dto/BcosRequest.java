@@ -1,5 +1,7 @@
 package org.fisco.bcos.channel.dto;
 
+import java.nio.charset.StandardCharsets;
+
 public class BcosRequest {
     private String keyID; // chain ID
     private String orgApp; // org identification
@@ -10,7 +12,7 @@ public class BcosRequest {
     private String messageID;
     private Integer timeout = 0; // ms
 
-    private String content;
+    private byte[] content;
 
     public String getKeyID() {
         return keyID;
@@ -69,10 +71,27 @@ public class BcosRequest {
     }
 
     public String getContent() {
-        return content;
+
+        if (this.content == null) {
+            return null;
+        }
+        String _content = new String(this.content, StandardCharsets.UTF_8);
+        return _content;
+    }
+
+    public byte[] getContentByteArray() {
+        return this.content;
     }
 
     public void setContent(String content) {
+        if (content == null) {
+            this.content = null;
+        } else {
+            this.content = content.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    public void setContent(byte[] content) {
         this.content = content;
     }
 }
@@ -1,11 +1,14 @@
 package org.fisco.bcos.channel.dto;
 
+import java.nio.charset.StandardCharsets;
+
 public class BcosResponse {
 
     private Integer errorCode;
     private String errorMessage;
     private String messageID;
     private String content;
+    private byte[] contentBytes; // body as received, decoded to content on demand
 
     public Integer getErrorCode() {
         return errorCode;
@@ -32,10 +35,26 @@ public class BcosResponse {
     }
 
     public String getContent() {
+        if (content == null && contentBytes != null) {
+            content = new String(contentBytes, StandardCharsets.UTF_8);
+        }
         return content;
     }
 
+    public byte[] getContentByteArray() {
+        if (contentBytes == null && content != null) {
+            contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        }
+        return contentBytes;
+    }
+
     public void setContent(String content) {
         this.content = content;
+        this.contentBytes = null;
+    }
+
+    public void setContent(byte[] content) {
+        this.contentBytes = content;
+        this.content = null;
     }
 }
@@ -13,10 +13,7 @@ public class ChannelMessage extends Message {
     public ChannelMessage() {}
 
     public ChannelMessage(Message msg) {
-        length = msg.getLength();
-        type = msg.getType();
-        seq = msg.getSeq();
-        result = msg.getResult();
+        copyHeader(msg);
     }
 
     @Override
@@ -47,6 +44,11 @@ public class ChannelMessage extends Message {
         super.writeHeader(out);
     }
 
+    @Override
+    public int encodedLength() {
+        return Message.HEADER_LENGTH + toNode.length() + fromNode.length() + data.length;
+    }
+
     @Override
     public void writeExtra(ByteBuf out) {
         out.writeBytes(toNode.getBytes());
@@ -13,10 +13,7 @@ public class ChannelMessage2 extends Message {
     public ChannelMessage2() {}
 
     public ChannelMessage2(Message msg) {
-        length = msg.getLength();
-        type = msg.getType();
-        seq = msg.getSeq();
-        result = msg.getResult();
+        copyHeader(msg);
     }
 
     @Override
@@ -41,6 +38,11 @@ public class ChannelMessage2 extends Message {
         super.writeHeader(out);
     }
 
+    @Override
+    public int encodedLength() {
+        return Message.HEADER_LENGTH + 1 + topic.length() + data.length;
+    }
+
     @Override
     public void writeExtra(ByteBuf out) {
         out.writeByte(1 + topic.length());
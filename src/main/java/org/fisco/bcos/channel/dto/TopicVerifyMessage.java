@@ -13,10 +13,7 @@ public class TopicVerifyMessage extends Message {
     public TopicVerifyMessage() {}
 
     public TopicVerifyMessage(Message msg) {
-        length = msg.getLength();
-        type = msg.getType();
-        seq = msg.getSeq();
-        result = msg.getResult();
+        copyHeader(msg);
     }
 
     @Override
@@ -3,6 +3,7 @@ package org.fisco.bcos.channel.handler;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -10,13 +11,13 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
+import io.netty.handler.ssl.OpenSsl;
 import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.SslHandler;
@@ -25,13 +26,14 @@ import io.netty.handler.timeout.IdleStateHandler;
 import io.netty.util.concurrent.Future;
 import java.io.InputStream;
 import java.math.BigInteger;
-import java.security.SecureRandom;
+import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
@@ -68,14 +70,38 @@ public class ChannelConnections {
     private long reconnectDelay = (long) 20000;
     private long connectTimeout = (long) 10000;
     private long sslHandShakeTimeout = (long) 10000;
+    // opt-in flush consolidation of outbound frames, see WriteCoalescingHandler
+    private boolean writeCoalescing = false;
+    private long writeCoalescingDelayMicros = 200;
+    private long writeCoalescingMaxBytes = 64 * 1024;
+    private final FlushMetrics flushMetrics = new FlushMetrics();
+    // transport profile, the defaults keep the nio transport and the socket defaults of netty
+    private boolean nativeTransport = false;
+    // netty turns TCP_NODELAY on by default, small requests and heartbeats are not delayed
+    private boolean tcpNoDelay = true;
+    private int sendBufferSize = 0;
+    private int receiveBufferSize = 0;
+    private int writeBufferLowWaterMark = 0;
+    private int writeBufferHighWaterMark = 0;
+    private boolean pooledAllocator = true;
+    private boolean openSsl = false;
+    // routing snapshot, see refreshRoutingTable
+    private volatile RoutingTable routingTable = RoutingTable.EMPTY;
+    private volatile Map<String, BigInteger> nodeToBlockNumberMap;
+    private NodeSelectionStrategy nodeSelectionStrategy = new RandomNodeSelectionStrategy();
 
     public Map<String, ChannelHandlerContext> networkConnections =
             new ConcurrentHashMap<String, ChannelHandlerContext>();
     private int groupId;
     private Bootstrap bootstrap = new Bootstrap();
+    private SslContext sslContext;
     ServerBootstrap serverBootstrap = new ServerBootstrap();
 
-    private ScheduledExecutorService scheduledExecutorService = new ScheduledThreadPoolExecutor(1);
+    private ScheduledExecutorService scheduledExecutorService;
+    // per message type executors, the threadPool is used when not set
+    private MessageDispatcher dispatcher;
+    // event loop, scheduler and SslContext shared with the other groups, see ChannelTransport
+    private ChannelTransport transport;
 
     private void initDefaultCertConfig() {
         if (getCaCert() == null) {
@@ -161,7 +187,26 @@ public class ChannelConnections {
 
         void onMessage(ChannelHandlerContext ctx, ByteBuf message);
 
+        void onMessage(ChannelHandlerContext ctx, Message message);
+
         void sendHeartbeat(ChannelHandlerContext ctx);
+
+        /** the message was dropped by a full lane of the MessageDispatcher */
+        void onRejected(ChannelHandlerContext ctx, Message message);
+
+        /** @return topics the group registers on its connections */
+        default Set<String> getTopics() {
+            return Collections.emptySet();
+        }
+
+        /**
+         * @param message received on a connection shared with other groups
+         * @param topic topic of a pushed message, null for the others
+         * @return whether the message is for this group
+         */
+        default boolean accepts(Message message, String topic) {
+            return false;
+        }
     }
 
     public Callback getCallback() {
@@ -214,63 +259,131 @@ public class ChannelConnections {
 
     public ChannelHandlerContext randomNetworkConnection(
             ConcurrentHashMap<String, BigInteger> nodeToBlockNumberMap) throws Exception {
-        List<ChannelHandlerContext> activeConnections = new ArrayList<ChannelHandlerContext>();
+        RoutingTable table = routingTable;
+        if (nodeToBlockNumberMap != this.nodeToBlockNumberMap) {
+            this.nodeToBlockNumberMap = nodeToBlockNumberMap;
+            table = refreshRoutingTable();
+        } else if (table.isEmpty()) {
+            // connections may have finished the protocol handshake since the last rebuild
+            table = refreshRoutingTable();
+        }
+
+        if (table.isEmpty()) {
+            logger.error(" no active connection is available, maybe network connection exception");
+            throw new Exception(" no active connection available network exception");
+        }
+
+        ChannelHandlerContext ctx = nodeSelectionStrategy.select(table);
+        if (!ctx.channel().isActive()) {
+            // the snapshot is behind a closed connection, rebuild it and select again
+            table = refreshRoutingTable();
+            if (table.isEmpty()) {
+                logger.error(
+                        " no active connection is available, maybe network connection exception");
+                throw new Exception(" no active connection available network exception");
+            }
+            ctx = nodeSelectionStrategy.select(table);
+        }
+        return ctx;
+    }
 
+    /**
+     * Rebuild the routing snapshot used by {@link #randomNetworkConnection(ConcurrentHashMap)},
+     * called when a connection comes up, gets its protocol version or goes down, and when the block
+     * number of a node changes.
+     *
+     * @return the new snapshot
+     */
+    public synchronized RoutingTable refreshRoutingTable() {
+        List<ChannelHandlerContext> activeConnections = new ArrayList<ChannelHandlerContext>();
         for (ChannelHandlerContext ctx : networkConnections.values()) {
             if (Objects.nonNull(ctx) && ChannelHandlerContextHelper.isChannelAvailable(ctx)) {
                 activeConnections.add(ctx);
             }
         }
 
-        if (activeConnections.isEmpty()) {
-            logger.error(" no active connection is available, maybe network connection exception");
-            throw new Exception(" no active connection available network exception");
-        }
         // select maxBlockNumber node
         List<ChannelHandlerContext> maxBlockNumberConnections =
                 new ArrayList<ChannelHandlerContext>();
-        BigInteger maxBlockNumber = new BigInteger("0");
-        if (nodeToBlockNumberMap != null) {
-            for (String key : nodeToBlockNumberMap.keySet()) {
-                BigInteger blockNumber = nodeToBlockNumberMap.get(key);
-                if (blockNumber.compareTo(maxBlockNumber) >= 0) {
-                    if (blockNumber.compareTo(maxBlockNumber) > 0) {
-                        maxBlockNumberConnections.clear();
-                    }
-
-                    Optional<ChannelHandlerContext> optionalCtx =
-                            activeConnections
-                                    .stream()
-                                    .filter(
-                                            x ->
-                                                    key.equals(
-                                                            ((SocketChannel) x.channel())
-                                                                            .remoteAddress()
-                                                                            .getAddress()
-                                                                            .getHostAddress()
-                                                                    + ((SocketChannel) x.channel())
-                                                                            .remoteAddress()
-                                                                            .getPort()))
-                                    .findFirst();
-                    if (optionalCtx.isPresent()) {
-                        ChannelHandlerContext channelHandlerContext = optionalCtx.get();
-                        maxBlockNumberConnections.add(channelHandlerContext);
-                        maxBlockNumber = blockNumber;
-                    }
+        BigInteger maxBlockNumber = BigInteger.ZERO;
+        Map<String, BigInteger> blockNumbers = nodeToBlockNumberMap;
+        if (blockNumbers != null) {
+            for (ChannelHandlerContext ctx : activeConnections) {
+                InetSocketAddress address = ((SocketChannel) ctx.channel()).remoteAddress();
+                BigInteger blockNumber =
+                        blockNumbers.get(address.getAddress().getHostAddress() + address.getPort());
+                if (blockNumber == null || blockNumber.compareTo(maxBlockNumber) < 0) {
+                    continue;
                 }
+                if (blockNumber.compareTo(maxBlockNumber) > 0) {
+                    maxBlockNumberConnections.clear();
+                    maxBlockNumber = blockNumber;
+                }
+                maxBlockNumberConnections.add(ctx);
             }
         }
-        Random random = new SecureRandom();
-        int selectNodeIndex = 0;
-        ChannelHandlerContext selectedNodeChannelHandlerContext = null;
-        if (!maxBlockNumberConnections.isEmpty()) {
-            selectNodeIndex = random.nextInt(maxBlockNumberConnections.size());
-            selectedNodeChannelHandlerContext = maxBlockNumberConnections.get(selectNodeIndex);
-        } else {
-            selectNodeIndex = random.nextInt(activeConnections.size());
-            selectedNodeChannelHandlerContext = activeConnections.get(selectNodeIndex);
+
+        RoutingTable table =
+                new RoutingTable(
+                        activeConnections.toArray(new ChannelHandlerContext[0]),
+                        maxBlockNumberConnections.toArray(new ChannelHandlerContext[0]),
+                        maxBlockNumber);
+        routingTable = table;
+        return table;
+    }
+
+    /** @return load statistics of the connected nodes, keyed by ip:port */
+    public Map<String, NodeStats> getNodeStats() {
+        Map<String, NodeStats> nodeStats = new HashMap<String, NodeStats>();
+        for (Map.Entry<String, ChannelHandlerContext> entry : networkConnections.entrySet()) {
+            nodeStats.put(
+                    entry.getKey(), ChannelHandlerContextHelper.getNodeStats(entry.getValue()));
+        }
+        return nodeStats;
+    }
+
+    public RoutingTable getRoutingTable() {
+        return routingTable;
+    }
+
+    public NodeSelectionStrategy getNodeSelectionStrategy() {
+        return nodeSelectionStrategy;
+    }
+
+    public void setNodeSelectionStrategy(NodeSelectionStrategy nodeSelectionStrategy) {
+        this.nodeSelectionStrategy = nodeSelectionStrategy;
+    }
+
+    /** a connection to a node completed the TLS handshake, the connection it replaces is closed */
+    void onConnect(ChannelHandlerContext ctx) {
+        String host = ((SocketChannel) ctx.channel()).remoteAddress().getAddress().getHostAddress();
+        Integer port = ((SocketChannel) ctx.channel()).remoteAddress().getPort();
+        logger.info(
+                " handshake success, host: {}, port: {}, groupId: {}, ctx: {}",
+                host,
+                port,
+                groupId,
+                System.identityHashCode(ctx));
+        ChannelHandlerContext oldCtx = setAndGetNetworkConnectionByHost(host, port, ctx);
+        callback.onConnect(ctx);
+
+        if (Objects.nonNull(oldCtx) && oldCtx != ctx) {
+            oldCtx.close();
+            oldCtx.disconnect();
+
+            logger.warn(
+                    " disconnect old connection, host: {}, port: {}, ctx: {}",
+                    host,
+                    port,
+                    System.identityHashCode(ctx));
         }
-        return selectedNodeChannelHandlerContext;
+    }
+
+    void onDisconnect(ChannelHandlerContext ctx) {
+        String host = ((SocketChannel) ctx.channel()).remoteAddress().getAddress().getHostAddress();
+        Integer port = ((SocketChannel) ctx.channel()).remoteAddress().getPort();
+        removeNetworkConnectionByHost(host, port, ctx);
+        callback.onDisconnect(ctx);
     }
 
     @Deprecated
@@ -305,13 +418,16 @@ public class ChannelConnections {
     public ChannelHandlerContext setAndGetNetworkConnectionByHost(
             String host, Integer port, ChannelHandlerContext ctx) {
         String endpoint = host + ":" + port;
-        return networkConnections.put(endpoint, ctx);
+        ChannelHandlerContext oldCtx = networkConnections.put(endpoint, ctx);
+        refreshRoutingTable();
+        return oldCtx;
     }
 
     public void removeNetworkConnectionByHost(
             String host, Integer port, ChannelHandlerContext ctx) {
         String endpoint = host + ":" + port;
         Boolean result = networkConnections.remove(endpoint, ctx);
+        refreshRoutingTable();
         if (logger.isDebugEnabled()) {
             logger.debug(
                     " result: {}, host: {}, port: {}, ctx: {}",
@@ -362,8 +478,8 @@ public class ChannelConnections {
                                     ch.pipeline()
                                             .addLast(
                                                     sslHandler,
-                                                    new LengthFieldBasedFrameDecoder(
-                                                            Integer.MAX_VALUE, 0, 4, -4, 0),
+                                                    new MessageDecoder(),
+                                                    new MessageEncoder(),
                                                     new IdleStateHandler(
                                                             idleTimeout,
                                                             idleTimeout,
@@ -460,56 +576,43 @@ public class ChannelConnections {
 
         logger.debug(" start connect. ");
         // init netty
-        EventLoopGroup workerGroup = new NioEventLoopGroup();
+        if (transport == null) {
+            transport = new ChannelTransport(0, nativeTransport);
+        }
 
-        bootstrap.group(workerGroup);
-        bootstrap.channel(NioSocketChannel.class);
+        bootstrap.group(transport.getWorkerGroup());
+        bootstrap.channel(transport.getChannelClass());
         bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
         // set connect timeout
         bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout);
+        bootstrap.option(ChannelOption.TCP_NODELAY, tcpNoDelay);
+        if (sendBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+        }
+        if (receiveBufferSize > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+        }
+        if (writeBufferHighWaterMark > 0) {
+            bootstrap.option(
+                    ChannelOption.WRITE_BUFFER_WATER_MARK,
+                    new WriteBufferWaterMark(writeBufferLowWaterMark, writeBufferHighWaterMark));
+        }
+        if (pooledAllocator) {
+            bootstrap.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+        }
 
-        final ChannelConnections selfService = this;
-        final ThreadPoolTaskExecutor selfThreadPool = threadPool;
-
-        SslContext sslCtx = initSslContextForConnect();
+        sslContext =
+                transport.getSslContext(
+                        getCaCert(), getSslCert(), getSslKey(), this::initSslContextForConnect);
         logger.debug(" connect sslcontext init success");
 
-        bootstrap.handler(
-                new ChannelInitializer<SocketChannel>() {
-                    @Override
-                    public void initChannel(SocketChannel ch) throws Exception {
-                        /*
-                         * Each connection is fetched from the socketChannel, using the new handler connection information
-                         */
-                        ChannelHandler handler = new ChannelHandler();
-                        handler.setConnections(selfService);
-                        handler.setThreadPool(selfThreadPool);
-
-                        SslHandler sslHandler = sslCtx.newHandler(ch.alloc());
-                        /** set ssl handshake timeout */
-                        sslHandler.setHandshakeTimeoutMillis(sslHandShakeTimeout);
-
-                        ch.pipeline()
-                                .addLast(
-                                        sslHandler,
-                                        new LengthFieldBasedFrameDecoder(
-                                                Integer.MAX_VALUE, 0, 4, -4, 0),
-                                        new IdleStateHandler(
-                                                idleTimeout,
-                                                idleTimeout,
-                                                idleTimeout,
-                                                TimeUnit.MILLISECONDS),
-                                        handler);
-                    }
-                });
-
         List<Tuple3<String, Integer, ChannelFuture>> tuple3List = new ArrayList<>();
         // try to connect to all nodes
         for (ConnectionInfo connectionInfo : connections) {
             String IP = connectionInfo.getHost();
             Integer port = connectionInfo.getPort();
 
-            ChannelFuture channelFuture = bootstrap.connect(IP, port);
+            ChannelFuture channelFuture = connect(IP, port);
             tuple3List.add(new Tuple3<>(IP, port, channelFuture));
         }
 
@@ -539,9 +642,12 @@ public class ChannelConnections {
                 logger.trace(" connect to {}:{} success", tuple3.getValue1(), tuple3.getValue2());
 
                 SslHandler sslhandler = connectFuture.channel().pipeline().get(SslHandler.class);
+                // a connection shared with another group may be closed already
                 Future<Channel> sshHandshakeFuture =
-                        sslhandler.handshakeFuture().awaitUninterruptibly();
-                if (sshHandshakeFuture.isSuccess()) {
+                        sslhandler == null
+                                ? null
+                                : sslhandler.handshakeFuture().awaitUninterruptibly();
+                if (sshHandshakeFuture != null && sshHandshakeFuture.isSuccess()) {
                     atLeastOneConnectSuccess = true;
                     logger.trace(
                             " ssl handshake success {}:{}", tuple3.getValue1(), tuple3.getValue2());
@@ -569,7 +675,72 @@ public class ChannelConnections {
         logger.debug(" start connect end. ");
     }
 
+    /**
+     * Joins the connection of another group to the node, or opens it, see {@link SharedConnection}.
+     * The options of the group opening a connection apply to it.
+     */
+    private ChannelFuture connect(String host, Integer port) {
+        SharedConnection connection =
+                transport.connect(host, port, sslContext, shared -> open(host, port, shared));
+        connection.join(this);
+        return connection.getConnectFuture();
+    }
+
+    /**
+     * The SslHandler is created with the peer host and port, so that a shared SslContext can resume
+     * the TLS session of an earlier connection to the same node.
+     */
+    private ChannelFuture open(String host, Integer port, SharedConnection shared) {
+        final ChannelConnections selfService = this;
+        final ThreadPoolTaskExecutor selfThreadPool = threadPool;
+
+        return bootstrap
+                .clone()
+                .handler(
+                        new ChannelInitializer<SocketChannel>() {
+                            @Override
+                            public void initChannel(SocketChannel ch) throws Exception {
+                                /*
+                                 * Each connection is fetched from the socketChannel, using the new handler connection information
+                                 */
+                                ChannelHandler handler = new ChannelHandler();
+                                handler.setConnections(selfService);
+                                handler.setThreadPool(selfThreadPool);
+                                handler.setDispatcher(dispatcher);
+                                handler.setSharedConnection(shared);
+                                shared.attach(ch);
+
+                                SslHandler sslHandler =
+                                        sslContext.newHandler(ch.alloc(), host, port);
+                                /** set ssl handshake timeout */
+                                sslHandler.setHandshakeTimeoutMillis(sslHandShakeTimeout);
+
+                                ch.pipeline().addLast(sslHandler);
+                                if (writeCoalescing) {
+                                    ch.pipeline()
+                                            .addLast(
+                                                    new WriteCoalescingHandler(
+                                                            writeCoalescingDelayMicros,
+                                                            writeCoalescingMaxBytes,
+                                                            flushMetrics));
+                                }
+                                ch.pipeline()
+                                        .addLast(
+                                                new MessageDecoder(),
+                                                new MessageEncoder(),
+                                                new IdleStateHandler(
+                                                        idleTimeout,
+                                                        idleTimeout,
+                                                        idleTimeout,
+                                                        TimeUnit.MILLISECONDS),
+                                                handler);
+                            }
+                        })
+                .connect(host, port);
+    }
+
     public void startPeriodTask() {
+        ScheduledExecutorService scheduledExecutorService = getScheduledExecutorService();
 
         /** periodically send heartbeat message to all connected node, default period : 2s */
         scheduledExecutorService.scheduleAtFixedRate(
@@ -580,6 +751,19 @@ public class ChannelConnections {
                 () -> reconnect(), 0, reconnectDelay, TimeUnit.MILLISECONDS);
     }
 
+    private SslProvider getSslProvider() {
+        if (!openSsl) {
+            return SslProvider.JDK;
+        }
+        if (OpenSsl.isAvailable()) {
+            return SslProvider.OPENSSL;
+        }
+        logger.warn(
+                " openssl not available, use jdk ssl, cause: {}",
+                OpenSsl.unavailabilityCause().getMessage());
+        return SslProvider.JDK;
+    }
+
     private SslContext initSslContextForConnect() throws SSLException {
         SslContext sslCtx;
         try {
@@ -594,7 +778,7 @@ public class ChannelConnections {
                             .keyManager(
                                     keystorecaResource.getInputStream(),
                                     keystorekeyResource.getInputStream())
-                            .sslProvider(SslProvider.JDK)
+                            .sslProvider(getSslProvider())
                             .build();
         } catch (Exception e) {
             logger.error(
@@ -640,6 +824,11 @@ public class ChannelConnections {
             if (Objects.nonNull(ctx)
                     && ctx.channel().isActive()
                     && ChannelHandlerContextHelper.isChannelAvailable(ctx)) {
+                // one heartbeat for a connection shared by several groups
+                SharedConnection shared = SharedConnection.of(ctx);
+                if (shared != null && !shared.isOwner(this)) {
+                    continue;
+                }
                 tuple2List.add(new Tuple2<>(peer, ctx));
             }
         }
@@ -671,8 +860,7 @@ public class ChannelConnections {
             logger.debug(
                     " try reconnect to {}:{}", connectionInfo.getHost(), connectionInfo.getPort());
 
-            bootstrap
-                    .connect(connectionInfo.getHost(), connectionInfo.getPort())
+            connect(connectionInfo.getHost(), connectionInfo.getPort())
                     .addListener(
                             (ChannelFutureListener)
                                     future -> {
@@ -696,6 +884,41 @@ public class ChannelConnections {
         callback.onMessage(ctx, message);
     }
 
+    public void onReceiveMessage(ChannelHandlerContext ctx, Message message) {
+        callback.onMessage(ctx, message);
+    }
+
+    private synchronized ScheduledExecutorService getScheduledExecutorService() {
+        if (scheduledExecutorService == null) {
+            scheduledExecutorService =
+                    transport == null
+                            ? new ScheduledThreadPoolExecutor(1)
+                            : transport.getScheduledExecutorService();
+        }
+        return scheduledExecutorService;
+    }
+
+    public MessageDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * dispatch inbound messages to executors by message type instead of the shared threadPool
+     *
+     * @param dispatcher lanes of the message types
+     */
+    public void setDispatcher(MessageDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    public ChannelTransport getTransport() {
+        return transport;
+    }
+
+    public void setTransport(ChannelTransport transport) {
+        this.transport = transport;
+    }
+
     public long getConnectTimeout() {
         return connectTimeout;
     }
@@ -711,4 +934,109 @@ public class ChannelConnections {
     public void setSslHandShakeTimeout(long sslHandShakeTimeout) {
         this.sslHandShakeTimeout = sslHandShakeTimeout;
     }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /**
+     * use the epoll transport of netty on Linux when this group does not share the transport of
+     * GroupChannelConnectionsConfig, nio is used when epoll is not available
+     */
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    /** @param tcpNoDelay false to turn Nagle's algorithm back on, true by default */
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    /** SO_SNDBUF in bytes, 0 keeps the OS default */
+    public void setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    /** SO_RCVBUF in bytes, 0 keeps the OS default */
+    public void setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    /** pending outbound bytes above which a channel is not writable, 0 keeps the netty default */
+    public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    }
+
+    public boolean isPooledAllocator() {
+        return pooledAllocator;
+    }
+
+    public void setPooledAllocator(boolean pooledAllocator) {
+        this.pooledAllocator = pooledAllocator;
+    }
+
+    public boolean isOpenSsl() {
+        return openSsl;
+    }
+
+    /**
+     * use the OpenSSL engine of netty-tcnative when it is on the classpath. BoringSSL does not
+     * support the secp256k1 curve, so this only works with nodes using other certificate curves.
+     */
+    public void setOpenSsl(boolean openSsl) {
+        this.openSsl = openSsl;
+    }
+
+    public boolean isWriteCoalescing() {
+        return writeCoalescing;
+    }
+
+    public void setWriteCoalescing(boolean writeCoalescing) {
+        this.writeCoalescing = writeCoalescing;
+    }
+
+    public long getWriteCoalescingDelayMicros() {
+        return writeCoalescingDelayMicros;
+    }
+
+    public void setWriteCoalescingDelayMicros(long writeCoalescingDelayMicros) {
+        this.writeCoalescingDelayMicros = writeCoalescingDelayMicros;
+    }
+
+    public long getWriteCoalescingMaxBytes() {
+        return writeCoalescingMaxBytes;
+    }
+
+    public void setWriteCoalescingMaxBytes(long writeCoalescingMaxBytes) {
+        this.writeCoalescingMaxBytes = writeCoalescingMaxBytes;
+    }
+
+    /** @return frames and bytes per flush of the connections, updated when writeCoalescing is on */
+    public FlushMetrics getFlushMetrics() {
+        return flushMetrics;
+    }
 }
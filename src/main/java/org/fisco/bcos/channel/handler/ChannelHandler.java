@@ -7,7 +7,6 @@ import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.ssl.SslCloseCompletionEvent;
 import io.netty.handler.ssl.SslHandshakeCompletionEvent;
 import io.netty.handler.timeout.IdleStateEvent;
-import java.util.Objects;
 import java.util.concurrent.RejectedExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,26 +41,11 @@ public class ChannelHandler extends SimpleChannelInboundHandler<ByteBuf> {
         } else if (evt instanceof SslHandshakeCompletionEvent) {
             SslHandshakeCompletionEvent e = (SslHandshakeCompletionEvent) evt;
             if (e.isSuccess()) {
-                logger.info(
-                        " handshake success, host: {}, port: {}, ctx: {}",
-                        host,
-                        port,
-                        System.identityHashCode(ctx));
-                ChannelHandlerContext oldCtx =
-                        connections.setAndGetNetworkConnectionByHost(host, port, ctx);
-                connections.getCallback().onConnect(ctx);
-
-                if (Objects.nonNull(oldCtx)) {
-                    oldCtx.close();
-                    oldCtx.disconnect();
-
-                    logger.warn(
-                            " disconnect old connection, host: {}, port: {}, ctx: {}",
-                            host,
-                            port,
-                            System.identityHashCode(ctx));
+                if (shared != null) {
+                    shared.onConnect(ctx);
+                } else {
+                    connections.onConnect(ctx);
                 }
-
             } else {
                 logger.error(
                         " handshake failed, host: {}, port: {}, message: {}, cause: {} ",
@@ -126,8 +110,11 @@ public class ChannelHandler extends SimpleChannelInboundHandler<ByteBuf> {
                             + " ,"
                             + String.valueOf(ctx.channel().isActive()));
 
-            connections.removeNetworkConnectionByHost(host, port, ctx);
-            connections.getCallback().onDisconnect(ctx);
+            if (shared != null) {
+                shared.onDisconnect(ctx);
+            } else {
+                connections.onDisconnect(ctx);
+            }
 
         } catch (Exception e) {
             logger.error("error ", e);
@@ -136,6 +123,10 @@ public class ChannelHandler extends SimpleChannelInboundHandler<ByteBuf> {
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (msg instanceof Message) {
+            channelRead(ctx, (Message) msg);
+            return;
+        }
 
         final ChannelHandlerContext ctxF = ctx;
         final ByteBuf in = (ByteBuf) msg;
@@ -157,6 +148,38 @@ public class ChannelHandler extends SimpleChannelInboundHandler<ByteBuf> {
         }
     }
 
+    private void channelRead(ChannelHandlerContext ctx, Message msg) {
+        // on a connection shared by several groups, handled by the group the message is for
+        ChannelConnections connections = shared == null ? this.connections : shared.route(msg);
+        MessageDispatcher dispatcher =
+                shared == null ? this.dispatcher : connections.getDispatcher();
+        ThreadPoolTaskExecutor threadPool =
+                shared == null ? this.threadPool : connections.getThreadPool();
+
+        if (dispatcher != null) {
+            dispatcher.dispatch(ctx, msg, connections);
+            return;
+        }
+
+        try {
+            if (threadPool == null) {
+                connections.onReceiveMessage(ctx, msg);
+            } else {
+                threadPool.execute(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                connections.onReceiveMessage(ctx, msg);
+                            }
+                        });
+            }
+
+        } catch (RejectedExecutionException e) {
+            logger.error("threadPool is full, reject to request", e);
+            msg.release();
+        }
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         // logger.error("network error ", cause);
@@ -201,6 +224,25 @@ public class ChannelHandler extends SimpleChannelInboundHandler<ByteBuf> {
         logger.debug("set threadPool:{}", threadPool == null);
     }
 
+    public MessageDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    public void setDispatcher(MessageDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    SharedConnection getSharedConnection() {
+        return shared;
+    }
+
+    /** @param shared connection of the channel, shared by the groups connected to the node */
+    void setSharedConnection(SharedConnection shared) {
+        this.shared = shared;
+    }
+
     private ChannelConnections connections;
     private ThreadPoolTaskExecutor threadPool;
+    private MessageDispatcher dispatcher;
+    private SharedConnection shared;
 }
@@ -2,6 +2,7 @@ package org.fisco.bcos.channel.handler;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.SocketChannel;
+import io.netty.util.Attribute;
 import io.netty.util.AttributeKey;
 import org.fisco.bcos.channel.protocol.ChannelProtocol;
 import org.fisco.bcos.channel.protocol.EnumChannelProtocolVersion;
@@ -66,6 +67,25 @@ public class ChannelHandlerContextHelper {
         return hostAddress + ":" + port;
     }
 
+    /** @return load statistics of the connection, created on first use */
+    public static NodeStats getNodeStats(ChannelHandlerContext ctx) {
+        Attribute<NodeStats> attribute =
+                ctx.channel()
+                        .attr(
+                                AttributeKey.<NodeStats>valueOf(
+                                        EnumSocketChannelAttributeKey.CHANNEL_NODE_STATS_KEY
+                                                .getKey()));
+        NodeStats nodeStats = attribute.get();
+        if (nodeStats == null) {
+            nodeStats = new NodeStats();
+            NodeStats oldNodeStats = attribute.setIfAbsent(nodeStats);
+            if (oldNodeStats != null) {
+                nodeStats = oldNodeStats;
+            }
+        }
+        return nodeStats;
+    }
+
     public static boolean isChannelAvailable(ChannelHandlerContext ctx) {
 
         // return ctx.channel().isActive();
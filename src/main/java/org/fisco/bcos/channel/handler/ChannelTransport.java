@@ -0,0 +1,151 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslContext;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.Function;
+import javax.net.ssl.SSLException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+/**
+ * Network resources shared by the ChannelConnections of all groups: one event loop group of the nio
+ * or epoll transport, one scheduler for heartbeat and reconnect, one SslContext per certificate
+ * configuration and one TLS connection per node endpoint. The groups connected to the same node
+ * with the same certificates use the same connection, see {@link SharedConnection}, so the threads,
+ * connections and handshakes stay the same as groups are added.
+ */
+public class ChannelTransport {
+    private static Logger logger = LoggerFactory.getLogger(ChannelTransport.class);
+
+    public interface SslContextFactory {
+        SslContext create() throws SSLException;
+    }
+
+    private final EventLoopGroup workerGroup;
+    private final Class<? extends SocketChannel> channelClass;
+    private final ScheduledExecutorService scheduledExecutorService =
+            new ScheduledThreadPoolExecutor(1);
+    private final Map<List<Resource>, SslContext> sslContexts =
+            new ConcurrentHashMap<List<Resource>, SslContext>();
+    // keyed by the endpoint and the SslContext, guarded by this
+    private final Map<List<Object>, SharedConnection> connections =
+            new HashMap<List<Object>, SharedConnection>();
+
+    /** @param workerThreads event loop threads, 0 for the netty default of 2 * cores */
+    public ChannelTransport(int workerThreads) {
+        this(workerThreads, false);
+    }
+
+    /**
+     * @param workerThreads event loop threads, 0 for the netty default of 2 * cores
+     * @param nativeTransport use the epoll transport when it is available, Linux only
+     */
+    public ChannelTransport(int workerThreads, boolean nativeTransport) {
+        if (nativeTransport && Epoll.isAvailable()) {
+            this.workerGroup = new EpollEventLoopGroup(workerThreads);
+            this.channelClass = EpollSocketChannel.class;
+        } else {
+            if (nativeTransport) {
+                logger.warn(
+                        " epoll transport not available, use nio, cause: {}",
+                        Epoll.unavailabilityCause().getMessage());
+            }
+            this.workerGroup = new NioEventLoopGroup(workerThreads);
+            this.channelClass = NioSocketChannel.class;
+        }
+        logger.debug(
+                " transport created, worker threads: {}, channel: {}",
+                workerThreads,
+                channelClass.getSimpleName());
+    }
+
+    public EventLoopGroup getWorkerGroup() {
+        return workerGroup;
+    }
+
+    public Class<? extends SocketChannel> getChannelClass() {
+        return channelClass;
+    }
+
+    public boolean isNativeTransport() {
+        return channelClass == EpollSocketChannel.class;
+    }
+
+    public ScheduledExecutorService getScheduledExecutorService() {
+        return scheduledExecutorService;
+    }
+
+    /**
+     * @return the SslContext of the certificates, created by the factory on first use
+     * @throws SSLException if the factory fails
+     */
+    public synchronized SslContext getSslContext(
+            Resource caCert, Resource sslCert, Resource sslKey, SslContextFactory factory)
+            throws SSLException {
+        List<Resource> key = Arrays.asList(caCert, sslCert, sslKey);
+        SslContext sslContext = sslContexts.get(key);
+        if (sslContext == null) {
+            sslContext = factory.create();
+            sslContexts.put(key, sslContext);
+        }
+        return sslContext;
+    }
+
+    /**
+     * @param host
+     * @param port
+     * @param sslContext
+     * @param opener opens a new connection handled by the SharedConnection
+     * @return the open or opening connection to the endpoint, a new one if there is none
+     */
+    synchronized SharedConnection connect(
+            String host,
+            Integer port,
+            SslContext sslContext,
+            Function<SharedConnection, ChannelFuture> opener) {
+        List<Object> key = Arrays.asList(host + ":" + port, sslContext);
+        SharedConnection connection = connections.get(key);
+        if (connection != null) {
+            return connection;
+        }
+        SharedConnection newConnection = new SharedConnection(host, port);
+        newConnection.setConnectFuture(opener.apply(newConnection));
+        connections.put(key, newConnection);
+        // a failed connect closes the channel too, the next reconnect opens a new one
+        newConnection
+                .getConnectFuture()
+                .channel()
+                .closeFuture()
+                .addListener(future -> removeConnection(key, newConnection));
+        return newConnection;
+    }
+
+    private synchronized void removeConnection(List<Object> key, SharedConnection connection) {
+        connections.remove(key, connection);
+    }
+
+    /** @return open or opening connections to the nodes */
+    public synchronized int getConnectionCount() {
+        return connections.size();
+    }
+
+    public void shutdown() {
+        scheduledExecutorService.shutdown();
+        workerGroup.shutdownGracefully();
+    }
+}
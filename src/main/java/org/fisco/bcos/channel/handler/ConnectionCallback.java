@@ -12,8 +12,8 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.net.InetSocketAddress;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import org.fisco.bcos.channel.client.BcosResponseCallback;
 import org.fisco.bcos.channel.client.Service;
@@ -21,6 +21,7 @@ import org.fisco.bcos.channel.dto.BcosMessage;
 import org.fisco.bcos.channel.dto.BcosResponse;
 import org.fisco.bcos.channel.dto.ChannelMessage2;
 import org.fisco.bcos.channel.dto.TopicVerifyMessage;
+import org.fisco.bcos.channel.event.filter.EventLogFilterPushResponse;
 import org.fisco.bcos.channel.protocol.ChannelHandshake;
 import org.fisco.bcos.channel.protocol.ChannelMessageError;
 import org.fisco.bcos.channel.protocol.ChannelMessageType;
@@ -28,6 +29,7 @@ import org.fisco.bcos.channel.protocol.ChannelPrococolExceiption;
 import org.fisco.bcos.channel.protocol.ChannelProtocol;
 import org.fisco.bcos.channel.protocol.EnumChannelProtocolVersion;
 import org.fisco.bcos.channel.protocol.EnumSocketChannelAttributeKey;
+import org.fisco.bcos.channel.protocol.NodeRequestSdkVerifyTopic;
 import org.fisco.bcos.fisco.EnumNodeVersion;
 import org.fisco.bcos.web3j.protocol.ObjectMapperFactory;
 import org.fisco.bcos.web3j.protocol.channel.ChannelEthereumService;
@@ -95,6 +97,12 @@ public class ConnectionCallback implements ChannelConnections.Callback {
             // BigInteger.ONE
             channelService.setNumber(BigInteger.ONE);
 
+            if (ChannelHandlerContextHelper.getProtocolVersion(ctx) != null) {
+                // negotiated by another group on the shared connection
+                onProtocolVersionSet(ctx);
+                return;
+            }
+
             // query connected node version for deciding if send channel protocol handshake packet
             queryNodeVersion(ctx);
         } catch (JsonProcessingException e) {
@@ -111,7 +119,7 @@ public class ConnectionCallback implements ChannelConnections.Callback {
         final String host = ChannelHandlerContextHelper.getPeerHost(ctx);
 
         ChannelHandshake channelHandshake = new ChannelHandshake();
-        String seq = UUID.randomUUID().toString().replaceAll("-", "");
+        String seq = channelService.newSeq();
 
         byte[] payload = ObjectMapperFactory.getObjectMapper().writeValueAsBytes(channelHandshake);
         String content = new String(payload);
@@ -125,78 +133,71 @@ public class ConnectionCallback implements ChannelConnections.Callback {
         bcosMessage.setResult(0);
         bcosMessage.setData(payload);
 
-        ByteBuf byteBuf = ctx.alloc().buffer();
-        bcosMessage.writeHeader(byteBuf);
-        bcosMessage.writeExtra(byteBuf);
-        ctx.writeAndFlush(byteBuf);
-
-        channelService
-                .getSeq2Callback()
-                .put(
-                        seq,
-                        new BcosResponseCallback() {
-
-                            @Override
-                            public void onResponse(BcosResponse response) {
-                                try {
-                                    if (response.getErrorCode() != 0) {
-
-                                        logger.error(
-                                                " channel protocol handshake request failed, code: {}, message: {}",
-                                                response.getErrorCode(),
-                                                response.getErrorMessage());
-
-                                        throw new ChannelPrococolExceiption(
-                                                " channel protocol handshake request failed, code: "
-                                                        + response.getErrorCode()
-                                                        + ", message: "
-                                                        + response.getErrorMessage());
-                                    }
+        ctx.writeAndFlush(bcosMessage);
+
+        channelService.putCallback(
+                seq,
+                new BcosResponseCallback() {
+
+                    @Override
+                    public void onResponse(BcosResponse response) {
+                        try {
+                            if (response.getErrorCode() != 0) {
+
+                                logger.error(
+                                        " channel protocol handshake request failed, code: {}, message: {}",
+                                        response.getErrorCode(),
+                                        response.getErrorMessage());
 
-                                    ChannelProtocol channelProtocol =
-                                            ObjectMapperFactory.getObjectMapper()
-                                                    .readValue(
-                                                            response.getContent(),
-                                                            ChannelProtocol.class);
-
-                                    EnumChannelProtocolVersion enumChannelProtocolVersion =
-                                            EnumChannelProtocolVersion.toEnum(
-                                                    channelProtocol.getProtocol());
-                                    channelProtocol.setEnumProtocol(enumChannelProtocolVersion);
-
-                                    logger.info(
-                                            " channel protocol handshake success, set socket channel protocol, host: {}, channel protocol: {}",
-                                            host,
-                                            channelProtocol);
-
-                                    ctx.channel()
-                                            .attr(
-                                                    AttributeKey.valueOf(
-                                                            EnumSocketChannelAttributeKey
-                                                                    .CHANNEL_PROTOCOL_KEY.getKey()))
-                                            .set(channelProtocol);
-
-                                    //
-                                    subBlockNotification(ctx);
-                                    queryBlockNumber(ctx);
-                                    // channelService.getEventLogFilterManager().sendFilter();
-
-                                } catch (Exception e) {
-                                    logger.error(
-                                            " channel protocol handshake failed, exception: {}",
-                                            e.getMessage());
-
-                                    ctx.writeAndFlush("").addListener(ChannelFutureListener.CLOSE);
-                                }
+                                throw new ChannelPrococolExceiption(
+                                        " channel protocol handshake request failed, code: "
+                                                + response.getErrorCode()
+                                                + ", message: "
+                                                + response.getErrorMessage());
                             }
-                        });
+
+                            ChannelProtocol channelProtocol =
+                                    ObjectMapperFactory.getObjectMapper()
+                                            .readValue(
+                                                    response.getContent(), ChannelProtocol.class);
+
+                            EnumChannelProtocolVersion enumChannelProtocolVersion =
+                                    EnumChannelProtocolVersion.toEnum(
+                                            channelProtocol.getProtocol());
+                            channelProtocol.setEnumProtocol(enumChannelProtocolVersion);
+
+                            logger.info(
+                                    " channel protocol handshake success, set socket channel protocol, host: {}, channel protocol: {}",
+                                    host,
+                                    channelProtocol);
+
+                            ctx.channel()
+                                    .attr(
+                                            AttributeKey.valueOf(
+                                                    EnumSocketChannelAttributeKey
+                                                            .CHANNEL_PROTOCOL_KEY.getKey()))
+                                    .set(channelProtocol);
+
+                            //
+                            onProtocolVersionSet(ctx);
+                            // channelService.getEventLogFilterManager().sendFilter();
+
+                        } catch (Exception e) {
+                            logger.error(
+                                    " channel protocol handshake failed, exception: {}",
+                                    e.getMessage());
+
+                            ctx.writeAndFlush("").addListener(ChannelFutureListener.CLOSE);
+                        }
+                    }
+                });
     }
 
     private void queryNodeVersion(ChannelHandlerContext ctx) throws JsonProcessingException {
 
         final String host = ChannelHandlerContextHelper.getPeerHost(ctx);
 
-        String seq = UUID.randomUUID().toString().replaceAll("-", "");
+        String seq = channelService.newSeq();
 
         Request<?, NodeVersion> request =
                 new Request<>("getClientVersion", Arrays.asList(), null, NodeVersion.class);
@@ -212,10 +213,7 @@ public class ConnectionCallback implements ChannelConnections.Callback {
         bcosMessage.setResult(0);
         bcosMessage.setData(payload);
 
-        ByteBuf byteBuf = ctx.alloc().buffer();
-        bcosMessage.writeHeader(byteBuf);
-        bcosMessage.writeExtra(byteBuf);
-        ctx.writeAndFlush(byteBuf);
+        ctx.writeAndFlush(bcosMessage);
 
         BcosResponseCallback callback =
                 new BcosResponseCallback() {
@@ -234,8 +232,7 @@ public class ConnectionCallback implements ChannelConnections.Callback {
                                 logger.info(
                                         " query node version timeout, content: {}",
                                         response.getContent());
-                                subBlockNotification(ctx);
-                                queryBlockNumber(ctx);
+                                onProtocolVersionSet(ctx);
                                 return;
                             } else if (response.getErrorCode() != 0) {
 
@@ -282,8 +279,7 @@ public class ConnectionCallback implements ChannelConnections.Callback {
                                         nodeVersion.getResult(),
                                         response.getContent());
 
-                                subBlockNotification(ctx);
-                                queryBlockNumber(ctx);
+                                onProtocolVersionSet(ctx);
                                 // channelService.getEventLogFilterManager().sendFilter();
                             }
 
@@ -307,13 +303,22 @@ public class ConnectionCallback implements ChannelConnections.Callback {
                                     @Override
                                     public void run(Timeout timeout) throws Exception {
                                         // handle timer
-                                        _callback.onTimeout();
+                                        if (channelService.removeCallback(seq) != null) {
+                                            _callback.onTimeout();
+                                        }
                                     }
                                 },
                                 queryNodeVersionTimeoutMS,
                                 TimeUnit.MILLISECONDS));
 
-        channelService.getSeq2Callback().put(seq, callback);
+        channelService.putCallback(seq, callback);
+    }
+
+    /** the connection can be routed to once its protocol version is set */
+    private void onProtocolVersionSet(ChannelHandlerContext ctx) throws JsonProcessingException {
+        channelService.refreshRoutingTable();
+        subBlockNotification(ctx);
+        queryBlockNumber(ctx);
     }
 
     private void subBlockNotification(ChannelHandlerContext ctx) throws JsonProcessingException {
@@ -321,19 +326,20 @@ public class ConnectionCallback implements ChannelConnections.Callback {
         Message message = new Message();
         message.setResult(0);
         message.setType((short) ChannelMessageType.AMOP_CLIENT_TOPICS.getType());
-        message.setSeq(UUID.randomUUID().toString().replaceAll("-", ""));
+        message.setSeq(channelService.newSeq());
 
         topics.add("_block_notify_" + channelService.getGroupId());
 
-        message.setData(ObjectMapperFactory.getObjectMapper().writeValueAsBytes(topics.toArray()));
+        // a registration replaces the topics of the connection, so all the groups sharing it
+        // register their topics together
+        SharedConnection shared = SharedConnection.of(ctx);
+        Set<String> registered = shared == null ? topics : shared.getTopics();
+        message.setData(
+                ObjectMapperFactory.getObjectMapper().writeValueAsBytes(registered.toArray()));
 
         String content = new String(message.getData());
 
-        ByteBuf out = ctx.alloc().buffer();
-        message.writeHeader(out);
-        message.writeExtra(out);
-
-        ctx.writeAndFlush(out);
+        ctx.writeAndFlush(message);
 
         logger.info(
                 " send sub block notification request, seq: {}, content: {}",
@@ -361,51 +367,42 @@ public class ConnectionCallback implements ChannelConnections.Callback {
                         BlockNumber.class);
 
         bcosMessage.setData(ObjectMapperFactory.getObjectMapper().writeValueAsBytes(request));
-        ByteBuf byteBuf = ctx.alloc().buffer();
-        bcosMessage.writeHeader(byteBuf);
-        bcosMessage.writeExtra(byteBuf);
-        ctx.writeAndFlush(byteBuf);
+        ctx.writeAndFlush(bcosMessage);
 
         String content = new String(bcosMessage.getData());
         logger.info(" query block number host: {}, seq: {}, content: {}", host, seq, content);
 
-        channelService
-                .getSeq2Callback()
-                .put(
-                        seq,
-                        new BcosResponseCallback() {
-                            @Override
-                            public void onResponse(BcosResponse response) {
-                                try {
-                                    BlockNumber blockNumber =
-                                            ObjectMapperFactory.getObjectMapper()
-                                                    .readValue(
-                                                            response.getContent(),
-                                                            BlockNumber.class);
-
-                                    SocketChannel socketChannel = (SocketChannel) ctx.channel();
-                                    InetSocketAddress socketAddress = socketChannel.remoteAddress();
-                                    channelService
-                                            .getNodeToBlockNumberMap()
-                                            .put(
-                                                    socketAddress.getAddress().getHostAddress()
-                                                            + socketAddress.getPort(),
-                                                    blockNumber.getBlockNumber());
-
-                                    logger.info(
-                                            " query blocknumer, host:{}, blockNumber: {} ",
-                                            host,
-                                            blockNumber.getBlockNumber());
-                                } catch (Exception e) {
-                                    logger.error(
-                                            " query blocknumer failed, host: {}, message: {} ",
-                                            host,
-                                            e.getMessage());
-
-                                    throw new MessageDecodingException(response.getContent());
-                                }
-                            }
-                        });
+        channelService.putCallback(
+                seq,
+                new BcosResponseCallback() {
+                    @Override
+                    public void onResponse(BcosResponse response) {
+                        try {
+                            BlockNumber blockNumber =
+                                    ObjectMapperFactory.getObjectMapper()
+                                            .readValue(response.getContent(), BlockNumber.class);
+
+                            SocketChannel socketChannel = (SocketChannel) ctx.channel();
+                            InetSocketAddress socketAddress = socketChannel.remoteAddress();
+                            channelService.updateNodeBlockNumber(
+                                    socketAddress.getAddress().getHostAddress()
+                                            + socketAddress.getPort(),
+                                    blockNumber.getBlockNumber());
+
+                            logger.info(
+                                    " query blocknumer, host:{}, blockNumber: {} ",
+                                    host,
+                                    blockNumber.getBlockNumber());
+                        } catch (Exception e) {
+                            logger.error(
+                                    " query blocknumer failed, host: {}, message: {} ",
+                                    host,
+                                    e.getMessage());
+
+                            throw new MessageDecodingException(response.getContent());
+                        }
+                    }
+                });
     }
 
     @Override
@@ -417,16 +414,27 @@ public class ConnectionCallback implements ChannelConnections.Callback {
 
     @Override
     public void onMessage(ChannelHandlerContext ctx, ByteBuf message) {
+        Message msg = new Message();
         try {
-            Message msg = new Message();
             msg.readHeader(message);
+        } catch (Exception e) {
+            message.release();
+            throw e;
+        }
+        msg.readPayload(message);
+        onMessage(ctx, msg);
+    }
 
+    @Override
+    public void onMessage(ChannelHandlerContext ctx, Message msg) {
+        try {
             logger.trace(
                     "onMessage, seq:{}, type: {}, result: {}",
                     msg.getSeq(),
                     msg.getType(),
                     msg.getResult());
 
+            ByteBuf message = msg.getPayload();
             if (msg.getType() == ChannelMessageType.AMOP_REQUEST.getType()
                     || msg.getType() == ChannelMessageType.AMOP_RESPONSE.getType()
                     || msg.getType() == ChannelMessageType.AMOP_MULBROADCAST.getType()) {
@@ -434,33 +442,25 @@ public class ConnectionCallback implements ChannelConnections.Callback {
                 channelMessage.readExtra(message);
                 channelService.onReceiveChannelMessage2(ctx, channelMessage);
             } else if (msg.getType() == ChannelMessageType.CHANNEL_RPC_REQUEST.getType()) {
-                BcosMessage fiscoMessage = new BcosMessage(msg);
-                fiscoMessage.readExtra(message);
-                channelService.onReceiveEthereumMessage(ctx, fiscoMessage);
+                // the body is read from the frame in place, see Message#getPayload
+                channelService.onReceiveEthereumMessage(ctx, new BcosMessage(msg));
             } else if (msg.getType() == ChannelMessageType.CLIENT_HEARTBEAT.getType()) {
-                msg.readExtra(message);
                 channelService.onReceiveHeartbeat(ctx, msg);
             } else if (msg.getType() == ChannelMessageType.CLIENT_HANDSHAKE.getType()) {
-                BcosMessage fiscoMessage = new BcosMessage(msg);
-                fiscoMessage.readExtra(message);
-                channelService.onReceiveEthereumMessage(ctx, fiscoMessage);
+                channelService.onReceiveEthereumMessage(ctx, new BcosMessage(msg));
             } else if (msg.getType() == ChannelMessageType.CLIENT_REGISTER_EVENT_LOG.getType()) {
                 ChannelMessage2 channelMessage = new ChannelMessage2(msg);
                 channelMessage.readExtra(message);
                 channelService.onReceiveRegisterEventResponse(ctx, channelMessage);
             } else if (msg.getType() == ChannelMessageType.TRANSACTION_NOTIFY.getType()) {
-                BcosMessage fiscoMessage = new BcosMessage(msg);
-                fiscoMessage.readExtra(message);
-                channelService.onReceiveTransactionMessage(ctx, fiscoMessage);
+                channelService.onReceiveTransactionMessage(ctx, new BcosMessage(msg));
             } else if (msg.getType() == ChannelMessageType.BLOCK_NOTIFY.getType()) {
                 // new block notify
                 ChannelMessage2 channelMessage = new ChannelMessage2(msg);
                 channelMessage.readExtra(message);
                 channelService.onReceiveBlockNotify(ctx, channelMessage);
             } else if (msg.getType() == ChannelMessageType.EVENT_LOG_PUSH.getType()) {
-                BcosMessage bcosMessage = new BcosMessage(msg);
-                bcosMessage.readExtra(message);
-                channelService.onReceiveEventLogPush(ctx, bcosMessage);
+                channelService.onReceiveEventLogPush(ctx, new BcosMessage(msg));
             } else if (msg.getType() == ChannelMessageType.REQUEST_TOPICCERT.getType()) {
                 logger.info("get generate rand value request data");
                 TopicVerifyMessage channelMessage = new TopicVerifyMessage(msg);
@@ -474,12 +474,56 @@ public class ConnectionCallback implements ChannelConnections.Callback {
                 logger.error("unknown message type:{}", msg.getType());
             }
         } finally {
-            message.release();
+            msg.release();
         }
     }
 
+    @Override
+    public Set<String> getTopics() {
+        Set<String> groupTopics = new LinkedHashSet<String>(topics);
+        groupTopics.add("_block_notify_" + channelService.getGroupId());
+        return groupTopics;
+    }
+
+    /** responses and event log pushes carry a seq or filter id made by the seq generator */
+    @Override
+    public boolean accepts(Message msg, String topic) {
+        if (topic != null) {
+            return topics.contains(topic)
+                    || topic.equals("_block_notify_" + channelService.getGroupId());
+        }
+        if (msg.isSeqPacked() && channelService.getSeqGenerator().owns(msg.getSeqHigh())) {
+            return true;
+        }
+        try {
+            if (msg.getType() == ChannelMessageType.EVENT_LOG_PUSH.getType()) {
+                EventLogFilterPushResponse resp =
+                        ObjectMapperFactory.getObjectMapper()
+                                .readValue(
+                                        msg.getDataInputStream(), EventLogFilterPushResponse.class);
+                return resp != null
+                        && channelService.getSeqGenerator().unpack(resp.getFilterID()) != 0;
+            }
+            if (msg.getType() == ChannelMessageType.REQUEST_TOPICCERT.getType()) {
+                NodeRequestSdkVerifyTopic request =
+                        ObjectMapperFactory.getObjectMapper()
+                                .readValue(
+                                        msg.getDataInputStream(), NodeRequestSdkVerifyTopic.class);
+                return request != null && topics.contains(request.getTopic());
+            }
+        } catch (IOException e) {
+            logger.debug(" route message failed, type: {}, e: {}", msg.getType(), e.getMessage());
+        }
+        return false;
+    }
+
     @Override
     public void sendHeartbeat(ChannelHandlerContext ctx) {
         channelService.sendHeartbeatMessage(ctx);
     }
+
+    @Override
+    public void onRejected(ChannelHandlerContext ctx, Message message) {
+        channelService.onRejectedMessage(ctx, message);
+    }
 }
@@ -0,0 +1,316 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executor for one class of inbound messages, see {@link MessageDispatcher}. The executor is
+ * bounded, a full queue is handled by the {@link OverflowPolicy} of the lane. Messages are always
+ * handed over without blocking, the event loop is shared by all the connections. A lane with inline
+ * set runs its messages on the netty event loop.
+ */
+public class DispatcherLane {
+    private static Logger logger = LoggerFactory.getLogger(DispatcherLane.class);
+
+    public enum OverflowPolicy {
+        /**
+         * keep the message and stop reading from its connection until the queue drains, the event
+         * loop is never blocked
+         */
+        BLOCK,
+        /** drop the message */
+        SHED,
+        /** drop the message and complete the waiting request with an error, if there is one */
+        ERROR
+    }
+
+    private final String name;
+    private int threads = 1;
+    private int queueSize = 10000;
+    private int priority = Thread.NORM_PRIORITY;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SHED;
+    private boolean inline = false;
+
+    private volatile ThreadPoolExecutor executor;
+    private final LongAdder dispatched = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // BLOCK: messages read before their connections stopped reading, in arrival order
+    private final Queue<Dispatch> overflow = new ConcurrentLinkedQueue<Dispatch>();
+    private final Set<Channel> paused = ConcurrentHashMap.newKeySet();
+    private final LongAdder pauses = new LongAdder();
+
+    public DispatcherLane(String name) {
+        this.name = name;
+    }
+
+    public DispatcherLane(String name, int threads, int queueSize, OverflowPolicy overflowPolicy) {
+        this.name = name;
+        this.threads = threads;
+        this.queueSize = queueSize;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void execute(ChannelHandlerContext ctx, Message msg, ChannelConnections connections) {
+        dispatched.increment();
+        if (inline) {
+            connections.onReceiveMessage(ctx, msg);
+            return;
+        }
+
+        Dispatch dispatch = new Dispatch(ctx, msg, connections);
+        ThreadPoolExecutor executor = getExecutor();
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            // behind the overflowed messages, to keep the order
+            if (!overflow.isEmpty() || !offer(executor, dispatch)) {
+                overflow.add(dispatch);
+                pause(ctx.channel());
+                // the lane may have drained before the message was added
+                drainOverflow();
+            }
+            return;
+        }
+
+        try {
+            executor.execute(dispatch);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.error(
+                    " {} lane is full, drop message, seq: {}, type: {}",
+                    name,
+                    msg.getSeq(),
+                    msg.getType());
+            try {
+                if (overflowPolicy == OverflowPolicy.ERROR) {
+                    connections.getCallback().onRejected(ctx, msg);
+                }
+            } finally {
+                msg.release();
+            }
+        }
+    }
+
+    private static boolean offer(ThreadPoolExecutor executor, Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void pause(Channel channel) {
+        if (channel != null && paused.add(channel)) {
+            pauses.increment();
+            logger.warn(" {} lane is full, stop reading from {}", name, channel.remoteAddress());
+            channel.config().setAutoRead(false);
+        }
+    }
+
+    /** moves the overflowed messages to the queue, and resumes reading once it is half empty */
+    private synchronized void drainOverflow() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null || executor.isShutdown()) {
+            return;
+        }
+        Dispatch dispatch;
+        while ((dispatch = overflow.peek()) != null && offer(executor, dispatch)) {
+            overflow.poll();
+        }
+        if (overflow.isEmpty()
+                && !paused.isEmpty()
+                && executor.getQueue().size() <= queueSize / 2) {
+            Iterator<Channel> iterator = paused.iterator();
+            while (iterator.hasNext()) {
+                Channel channel = iterator.next();
+                iterator.remove();
+                logger.info(
+                        " {} lane drained, resume reading from {}", name, channel.remoteAddress());
+                channel.config().setAutoRead(true);
+            }
+        }
+    }
+
+    private class Dispatch implements Runnable {
+        private final ChannelHandlerContext ctx;
+        private final Message msg;
+        private final ChannelConnections connections;
+
+        Dispatch(ChannelHandlerContext ctx, Message msg, ChannelConnections connections) {
+            this.ctx = ctx;
+            this.msg = msg;
+            this.connections = connections;
+        }
+
+        @Override
+        public void run() {
+            try {
+                connections.onReceiveMessage(ctx, msg);
+            } finally {
+                if (!overflow.isEmpty() || !paused.isEmpty()) {
+                    drainOverflow();
+                }
+            }
+        }
+    }
+
+    /** @return whether the calling thread handles the messages of a lane, and must not block */
+    public static boolean isLaneThread() {
+        return Thread.currentThread() instanceof LaneThread;
+    }
+
+    private static class LaneThread extends Thread {
+        LaneThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+
+    private ThreadPoolExecutor getExecutor() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = this.executor;
+                if (executor == null) {
+                    executor = createExecutor();
+                    this.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private ThreadPoolExecutor createExecutor() {
+        AtomicInteger index = new AtomicInteger(0);
+        ThreadFactory threadFactory =
+                runnable -> {
+                    Thread thread =
+                            new LaneThread(
+                                    runnable, "channel-" + name + "-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(priority);
+                    return thread;
+                };
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        threads,
+                        threads,
+                        0,
+                        TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<Runnable>(queueSize),
+                        threadFactory);
+        executor.prestartAllCoreThreads();
+        return executor;
+    }
+
+    public void shutdown() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor != null) {
+            executor.shutdown();
+        }
+        // the overflowed messages are never handled
+        Dispatch dispatch;
+        while ((dispatch = overflow.poll()) != null) {
+            rejected.increment();
+            dispatch.msg.release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    /** priority of the lane threads, from Thread.MIN_PRIORITY to Thread.MAX_PRIORITY */
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public boolean isInline() {
+        return inline;
+    }
+
+    /**
+     * run the messages on the netty event loop, only for handlers that neither block nor take long
+     */
+    public void setInline(boolean inline) {
+        this.inline = inline;
+    }
+
+    /** @return messages waiting in the queue of the lane */
+    public int getPending() {
+        ThreadPoolExecutor executor = this.executor;
+        return executor == null ? 0 : executor.getQueue().size();
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /** @return messages kept by BLOCK while their connections stopped reading */
+    public int getOverflowCount() {
+        return overflow.size();
+    }
+
+    /** @return times a connection stopped reading because the lane was full */
+    public long getPauseCount() {
+        return pauses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "DispatcherLane [name="
+                + name
+                + ", pending="
+                + getPending()
+                + ", dispatched="
+                + getDispatchedCount()
+                + ", rejected="
+                + getRejectedCount()
+                + "]";
+    }
+}
@@ -0,0 +1,58 @@
+package org.fisco.bcos.channel.handler;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters of the flushes issued by {@link WriteCoalescingHandler}, shared by all connections. */
+public class FlushMetrics {
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    void record(int frameCount, long byteCount) {
+        flushes.increment();
+        frames.add(frameCount);
+        bytes.add(byteCount);
+    }
+
+    public long getFlushCount() {
+        return flushes.sum();
+    }
+
+    public long getFrameCount() {
+        return frames.sum();
+    }
+
+    public long getByteCount() {
+        return bytes.sum();
+    }
+
+    /** @return average number of frames written by one flush */
+    public double getFramesPerFlush() {
+        long count = flushes.sum();
+        return count == 0 ? 0 : (double) frames.sum() / count;
+    }
+
+    /** @return average number of bytes written by one flush */
+    public double getBytesPerFlush() {
+        long count = flushes.sum();
+        return count == 0 ? 0 : (double) bytes.sum() / count;
+    }
+
+    public void reset() {
+        flushes.reset();
+        frames.reset();
+        bytes.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "FlushMetrics [flushes="
+                + getFlushCount()
+                + ", framesPerFlush="
+                + getFramesPerFlush()
+                + ", bytesPerFlush="
+                + getBytesPerFlush()
+                + "]";
+    }
+}
@@ -10,6 +10,13 @@ public class GroupChannelConnectionsConfig {
     private Resource sslCert;
     private Resource sslKey;
 
+    // share one event loop, scheduler, SslContext and connection per node between the groups, see
+    // ChannelTransport
+    private boolean sharedTransport = true;
+    private int workerThreads = 0;
+    private boolean nativeTransport = false;
+    private ChannelTransport transport;
+
     public List<ChannelConnections> getAllChannelConnections() {
         return allChannelConnections;
     }
@@ -41,4 +48,37 @@ public class GroupChannelConnectionsConfig {
     public void setSslKey(Resource sslKey) {
         this.sslKey = sslKey;
     }
+
+    public boolean isSharedTransport() {
+        return sharedTransport;
+    }
+
+    public void setSharedTransport(boolean sharedTransport) {
+        this.sharedTransport = sharedTransport;
+    }
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    /** use the epoll transport of netty on Linux, nio is used when it is not available */
+    public void setNativeTransport(boolean nativeTransport) {
+        this.nativeTransport = nativeTransport;
+    }
+
+    /** @return transport shared by the groups, created on first use */
+    public synchronized ChannelTransport getTransport() {
+        if (transport == null) {
+            transport = new ChannelTransport(workerThreads, nativeTransport);
+        }
+        return transport;
+    }
 }
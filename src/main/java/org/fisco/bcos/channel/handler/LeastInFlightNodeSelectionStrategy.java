@@ -0,0 +1,26 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Node at the highest block with the fewest requests waiting for a response. */
+public class LeastInFlightNodeSelectionStrategy implements NodeSelectionStrategy {
+
+    @Override
+    public ChannelHandlerContext select(RoutingTable routingTable) {
+        ChannelHandlerContext[] candidates = routingTable.getCandidates();
+        // start at a random node so that ties are spread over the nodes
+        int start = ThreadLocalRandom.current().nextInt(candidates.length);
+        ChannelHandlerContext selected = null;
+        int minInFlight = Integer.MAX_VALUE;
+        for (int i = 0; i < candidates.length; ++i) {
+            ChannelHandlerContext ctx = candidates[(start + i) % candidates.length];
+            int inFlight = ChannelHandlerContextHelper.getNodeStats(ctx).getInFlight();
+            if (inFlight < minInFlight) {
+                minInFlight = inFlight;
+                selected = ctx;
+            }
+        }
+        return selected;
+    }
+}
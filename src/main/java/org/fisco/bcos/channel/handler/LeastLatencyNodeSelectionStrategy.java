@@ -0,0 +1,44 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Node at the highest block with the lowest expected completion time, the requests waiting on the
+ * node plus the new one times the average response latency of the node.
+ */
+public class LeastLatencyNodeSelectionStrategy implements NodeSelectionStrategy {
+
+    // latency assumed for nodes without responses yet, or faster than this
+    private long minLatencyMicros = 100;
+
+    @Override
+    public ChannelHandlerContext select(RoutingTable routingTable) {
+        ChannelHandlerContext[] candidates = routingTable.getCandidates();
+        double minLatencyNanos = TimeUnit.MICROSECONDS.toNanos(minLatencyMicros);
+        // start at a random node so that ties are spread over the nodes
+        int start = ThreadLocalRandom.current().nextInt(candidates.length);
+        ChannelHandlerContext selected = null;
+        double minCompletion = Double.MAX_VALUE;
+        for (int i = 0; i < candidates.length; ++i) {
+            ChannelHandlerContext ctx = candidates[(start + i) % candidates.length];
+            double completion =
+                    ChannelHandlerContextHelper.getNodeStats(ctx)
+                            .getExpectedCompletionNanos(minLatencyNanos);
+            if (completion < minCompletion) {
+                minCompletion = completion;
+                selected = ctx;
+            }
+        }
+        return selected;
+    }
+
+    public long getMinLatencyMicros() {
+        return minLatencyMicros;
+    }
+
+    public void setMinLatencyMicros(long minLatencyMicros) {
+        this.minLatencyMicros = minLatencyMicros;
+    }
+}
@@ -1,8 +1,13 @@
 package org.fisco.bcos.channel.handler;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufUtil;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
+import org.fisco.bcos.channel.client.SeqGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,19 +18,93 @@ public class Message implements Serializable {
 
     public static final int HEADER_LENGTH = 4 + 2 + 32 + 4;
 
+    private static final byte[] HEX_BYTES = "0123456789abcdef".getBytes();
+
     public void readHeader(ByteBuf in) {
 
         length = in.readInt();
         type = in.readShort();
-        byte[] dst = new byte[32];
-        in.readBytes(dst);
-        try {
-            seq = new String(dst, "utf-8");
-        } catch (UnsupportedEncodingException e) {
+        // seq in lowercase hex form is kept packed, the String is only built on demand
+        if (readPackedSeq(in, in.readerIndex())) {
+            seq = null;
+            in.skipBytes(SeqGenerator.SEQ_LENGTH);
+        } else {
+            byte[] dst = new byte[SeqGenerator.SEQ_LENGTH];
+            in.readBytes(dst);
+            try {
+                seq = new String(dst, "utf-8");
+            } catch (UnsupportedEncodingException e) {
+            }
         }
         result = in.readInt();
     }
 
+    private boolean readPackedSeq(ByteBuf in, int index) {
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < SeqGenerator.SEQ_LENGTH; ++i) {
+            int digit = SeqGenerator.hexDigit(in.getByte(index + i));
+            if (digit < 0) {
+                seqPacked = false;
+                return false;
+            }
+            if (i < SeqGenerator.SEQ_LENGTH / 2) {
+                high = (high << 4) | digit;
+            } else {
+                low = (low << 4) | digit;
+            }
+        }
+
+        seqHigh = high;
+        seqLow = low;
+        seqPacked = true;
+        return true;
+    }
+
+    protected void copyHeader(Message msg) {
+        length = msg.length;
+        type = msg.type;
+        seq = msg.seq;
+        seqHigh = msg.seqHigh;
+        seqLow = msg.seqLow;
+        seqPacked = msg.seqPacked;
+        result = msg.result;
+    }
+
+    /**
+     * keep the body of a received frame without copying it, the message takes over the reference of
+     * the frame and must be released by {@link #release()}
+     *
+     * @param frame frame positioned after the header
+     */
+    public void readPayload(ByteBuf frame) {
+        payload = frame;
+    }
+
+    /** @return body of a received frame, null if the message was not read by MessageDecoder */
+    public ByteBuf getPayload() {
+        return payload;
+    }
+
+    /** @return stream over the body, read from the frame in place when it is still held */
+    public InputStream getDataInputStream() {
+        if (data == null && payload != null) {
+            return new ByteBufInputStream(payload.duplicate());
+        }
+        return new ByteArrayInputStream(data);
+    }
+
+    public void release() {
+        if (payload != null) {
+            payload.release();
+        }
+    }
+
+    /** @return encoded length of the message, used to size the buffer written by MessageEncoder */
+    public int encodedLength() {
+        return HEADER_LENGTH + (data == null ? 0 : data.length);
+    }
+
     public void readExtra(ByteBuf in) {
         data = new byte[length - HEADER_LENGTH];
         in.readBytes(data, 0, length - HEADER_LENGTH);
@@ -39,10 +118,23 @@ public class Message implements Serializable {
 
         out.writeInt(length);
         out.writeShort(type);
-        out.writeBytes(seq.getBytes(), 0, 32);
+        if (seq == null && seqPacked) {
+            writePackedSeq(out);
+        } else {
+            out.writeBytes(seq.getBytes(), 0, SeqGenerator.SEQ_LENGTH);
+        }
         out.writeInt(result);
     }
 
+    private void writePackedSeq(ByteBuf out) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            out.writeByte(HEX_BYTES[(int) (seqHigh >>> shift) & 0xf]);
+        }
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            out.writeByte(HEX_BYTES[(int) (seqLow >>> shift) & 0xf]);
+        }
+    }
+
     public void writeExtra(ByteBuf out) {
         out.writeBytes(data);
     }
@@ -64,11 +156,36 @@ public class Message implements Serializable {
     }
 
     public String getSeq() {
+        if (seq == null && seqPacked) {
+            seq = SeqGenerator.toSeq(seqHigh, seqLow);
+        }
         return seq;
     }
 
     public void setSeq(String seq) {
         this.seq = seq;
+        this.seqPacked = false;
+    }
+
+    /** set seq from its packed form, see {@link SeqGenerator} */
+    public void setSeq(long seqHigh, long seqLow) {
+        this.seq = null;
+        this.seqHigh = seqHigh;
+        this.seqLow = seqLow;
+        this.seqPacked = true;
+    }
+
+    /** @return true if the seq is in lowercase hex form and available as two packed longs */
+    public boolean isSeqPacked() {
+        return seqPacked;
+    }
+
+    public long getSeqHigh() {
+        return seqHigh;
+    }
+
+    public long getSeqLow() {
+        return seqLow;
     }
 
     public Integer getResult() {
@@ -80,6 +197,9 @@ public class Message implements Serializable {
     }
 
     public byte[] getData() {
+        if (data == null && payload != null) {
+            data = ByteBufUtil.getBytes(payload);
+        }
         return data;
     }
 
@@ -91,6 +211,10 @@ public class Message implements Serializable {
     protected Integer length = 0;
     protected Short type = 0;
     protected String seq = "";
+    protected long seqHigh;
+    protected long seqLow;
+    protected boolean seqPacked = false;
     protected Integer result = 0;
     protected byte[] data;
+    protected transient ByteBuf payload;
 }
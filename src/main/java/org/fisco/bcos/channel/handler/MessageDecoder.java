@@ -0,0 +1,36 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+
+/**
+ * Splits the inbound stream into channel protocol frames and decodes the header in place.
+ *
+ * <p>The frame is a retained slice of the cumulation buffer, the body is not copied, it is handed
+ * over as {@link Message#getPayload()} and released together with the message.
+ */
+public class MessageDecoder extends LengthFieldBasedFrameDecoder {
+
+    public MessageDecoder() {
+        super(Integer.MAX_VALUE, 0, 4, -4, 0);
+    }
+
+    @Override
+    protected Object decode(ChannelHandlerContext ctx, ByteBuf in) throws Exception {
+        ByteBuf frame = (ByteBuf) super.decode(ctx, in);
+        if (frame == null) {
+            return null;
+        }
+
+        Message message = new Message();
+        try {
+            message.readHeader(frame);
+        } catch (Exception e) {
+            frame.release();
+            throw e;
+        }
+        message.readPayload(frame);
+        return message;
+    }
+}
@@ -0,0 +1,107 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+import java.util.Arrays;
+import java.util.List;
+import org.fisco.bcos.channel.protocol.ChannelMessageType;
+
+/**
+ * Hands inbound messages to a lane chosen by their type, so that a flood of one kind of message,
+ * event log pushes for example, cannot delay RPC responses queued behind it.
+ *
+ * <ul>
+ *   <li>rpc: rpc responses and the handshake
+ *   <li>amop: amop requests, responses and topic verification
+ *   <li>notify: transaction receipts and block notifies
+ *   <li>eventLog: event log pushes and filter registration responses
+ *   <li>heartbeat: heartbeat responses, inline on the event loop by default
+ * </ul>
+ */
+public class MessageDispatcher {
+
+    private DispatcherLane rpcLane =
+            new DispatcherLane("rpc", 4, 10000, DispatcherLane.OverflowPolicy.ERROR);
+    private DispatcherLane amopLane =
+            new DispatcherLane("amop", 2, 10000, DispatcherLane.OverflowPolicy.SHED);
+    private DispatcherLane notifyLane =
+            new DispatcherLane("notify", 2, 10000, DispatcherLane.OverflowPolicy.ERROR);
+    private DispatcherLane eventLogLane =
+            new DispatcherLane("eventLog", 1, 10000, DispatcherLane.OverflowPolicy.SHED);
+    private DispatcherLane heartbeatLane = new DispatcherLane("heartbeat");
+
+    public MessageDispatcher() {
+        heartbeatLane.setInline(true);
+    }
+
+    public void dispatch(ChannelHandlerContext ctx, Message msg, ChannelConnections connections) {
+        getLane(msg.getType()).execute(ctx, msg, connections);
+    }
+
+    public DispatcherLane getLane(int type) {
+        if (type == ChannelMessageType.CHANNEL_RPC_REQUEST.getType()
+                || type == ChannelMessageType.CLIENT_HANDSHAKE.getType()) {
+            return rpcLane;
+        } else if (type == ChannelMessageType.CLIENT_HEARTBEAT.getType()) {
+            return heartbeatLane;
+        } else if (type == ChannelMessageType.TRANSACTION_NOTIFY.getType()
+                || type == ChannelMessageType.BLOCK_NOTIFY.getType()) {
+            return notifyLane;
+        } else if (type == ChannelMessageType.EVENT_LOG_PUSH.getType()
+                || type == ChannelMessageType.CLIENT_REGISTER_EVENT_LOG.getType()) {
+            return eventLogLane;
+        } else {
+            // amop messages, and unknown types which are only logged
+            return amopLane;
+        }
+    }
+
+    public List<DispatcherLane> getLanes() {
+        return Arrays.asList(rpcLane, amopLane, notifyLane, eventLogLane, heartbeatLane);
+    }
+
+    public void shutdown() {
+        for (DispatcherLane lane : getLanes()) {
+            lane.shutdown();
+        }
+    }
+
+    public DispatcherLane getRpcLane() {
+        return rpcLane;
+    }
+
+    public void setRpcLane(DispatcherLane rpcLane) {
+        this.rpcLane = rpcLane;
+    }
+
+    public DispatcherLane getAmopLane() {
+        return amopLane;
+    }
+
+    public void setAmopLane(DispatcherLane amopLane) {
+        this.amopLane = amopLane;
+    }
+
+    public DispatcherLane getNotifyLane() {
+        return notifyLane;
+    }
+
+    public void setNotifyLane(DispatcherLane notifyLane) {
+        this.notifyLane = notifyLane;
+    }
+
+    public DispatcherLane getEventLogLane() {
+        return eventLogLane;
+    }
+
+    public void setEventLogLane(DispatcherLane eventLogLane) {
+        this.eventLogLane = eventLogLane;
+    }
+
+    public DispatcherLane getHeartbeatLane() {
+        return heartbeatLane;
+    }
+
+    public void setHeartbeatLane(DispatcherLane heartbeatLane) {
+        this.heartbeatLane = heartbeatLane;
+    }
+}
@@ -0,0 +1,25 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/** Writes a {@link Message} into a buffer sized to its encoded length. */
+public class MessageEncoder extends MessageToByteEncoder<Message> {
+
+    @Override
+    protected ByteBuf allocateBuffer(ChannelHandlerContext ctx, Message msg, boolean preferDirect)
+            throws Exception {
+        if (preferDirect) {
+            return ctx.alloc().ioBuffer(msg.encodedLength());
+        } else {
+            return ctx.alloc().heapBuffer(msg.encodedLength());
+        }
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Message msg, ByteBuf out) throws Exception {
+        msg.writeHeader(out);
+        msg.writeExtra(out);
+    }
+}
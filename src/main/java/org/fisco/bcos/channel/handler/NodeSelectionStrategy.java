@@ -0,0 +1,13 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/** Picks the connection a request is sent on, see {@link ChannelConnections}. */
+public interface NodeSelectionStrategy {
+
+    /**
+     * @param routingTable current routing snapshot, never empty
+     * @return selected connection
+     */
+    ChannelHandlerContext select(RoutingTable routingTable);
+}
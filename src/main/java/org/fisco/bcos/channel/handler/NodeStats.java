@@ -0,0 +1,100 @@
+package org.fisco.bcos.channel.handler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load of one node connection: the requests waiting for a response and an exponentially weighted
+ * moving average of the response latency. Updated by Service when a request is registered and when
+ * its callback is removed, read by the load aware {@link NodeSelectionStrategy} implementations.
+ */
+public class NodeStats {
+
+    /** weight of the latest sample in the latency average */
+    public static final double EWMA_WEIGHT = 0.2;
+
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicLong latencyNanos = new AtomicLong(Double.doubleToLongBits(0));
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /** @return send time of the request, to be passed to {@link #onResponse(long)} */
+    public long onRequest() {
+        inFlight.incrementAndGet();
+        requests.increment();
+        return System.nanoTime();
+    }
+
+    public void onResponse(long sendTime) {
+        inFlight.decrementAndGet();
+        updateLatency(System.nanoTime() - sendTime);
+    }
+
+    /** a timed out request counts with its elapsed time, so a stalled node is avoided */
+    public void onTimeout(long sendTime) {
+        timeouts.increment();
+        onResponse(sendTime);
+    }
+
+    /** the request failed before it was sent, no latency sample is taken */
+    public void onCancel() {
+        inFlight.decrementAndGet();
+    }
+
+    private void updateLatency(long sample) {
+        while (true) {
+            long bits = latencyNanos.get();
+            double current = Double.longBitsToDouble(bits);
+            double next =
+                    current == 0 ? sample : current + EWMA_WEIGHT * ((double) sample - current);
+            if (latencyNanos.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /** @return average response latency in nanoseconds, 0 before the first response */
+    public double getLatencyNanos() {
+        return Double.longBitsToDouble(latencyNanos.get());
+    }
+
+    /** @return average response latency in milliseconds, 0 before the first response */
+    public double getLatencyMillis() {
+        return getLatencyNanos() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @param minLatencyNanos latency assumed when it is lower or not known yet
+     * @return expected time until a new request on this node completes
+     */
+    public double getExpectedCompletionNanos(double minLatencyNanos) {
+        return (inFlight.get() + 1) * Math.max(getLatencyNanos(), minLatencyNanos);
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "NodeStats [inFlight="
+                + getInFlight()
+                + ", latencyMillis="
+                + getLatencyMillis()
+                + ", requests="
+                + getRequestCount()
+                + ", timeouts="
+                + getTimeoutCount()
+                + "]";
+    }
+}
@@ -0,0 +1,14 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Random node among the nodes at the highest block, the default strategy. */
+public class RandomNodeSelectionStrategy implements NodeSelectionStrategy {
+
+    @Override
+    public ChannelHandlerContext select(RoutingTable routingTable) {
+        ChannelHandlerContext[] candidates = routingTable.getCandidates();
+        return candidates[ThreadLocalRandom.current().nextInt(candidates.length)];
+    }
+}
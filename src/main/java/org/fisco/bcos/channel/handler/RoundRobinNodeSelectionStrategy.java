@@ -0,0 +1,16 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Nodes at the highest block in turn. */
+public class RoundRobinNodeSelectionStrategy implements NodeSelectionStrategy {
+
+    private final AtomicInteger index = new AtomicInteger(0);
+
+    @Override
+    public ChannelHandlerContext select(RoutingTable routingTable) {
+        ChannelHandlerContext[] candidates = routingTable.getCandidates();
+        return candidates[(index.getAndIncrement() & Integer.MAX_VALUE) % candidates.length];
+    }
+}
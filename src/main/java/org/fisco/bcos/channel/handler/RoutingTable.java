@@ -0,0 +1,55 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.channel.ChannelHandlerContext;
+import java.math.BigInteger;
+
+/**
+ * Immutable snapshot of the connections a request can be routed to, rebuilt by {@link
+ * ChannelConnections#refreshRoutingTable()} when a connection becomes available or goes down, or
+ * when the block number of a node changes.
+ */
+public class RoutingTable {
+
+    public static final RoutingTable EMPTY =
+            new RoutingTable(
+                    new ChannelHandlerContext[0], new ChannelHandlerContext[0], BigInteger.ZERO);
+
+    private final ChannelHandlerContext[] connections;
+    private final ChannelHandlerContext[] maxBlockNumberConnections;
+    private final BigInteger maxBlockNumber;
+
+    public RoutingTable(
+            ChannelHandlerContext[] connections,
+            ChannelHandlerContext[] maxBlockNumberConnections,
+            BigInteger maxBlockNumber) {
+        this.connections = connections;
+        this.maxBlockNumberConnections = maxBlockNumberConnections;
+        this.maxBlockNumber = maxBlockNumber;
+    }
+
+    /** @return all available connections, must not be modified */
+    public ChannelHandlerContext[] getConnections() {
+        return connections;
+    }
+
+    /** @return available connections of the nodes at the highest block, must not be modified */
+    public ChannelHandlerContext[] getMaxBlockNumberConnections() {
+        return maxBlockNumberConnections;
+    }
+
+    /**
+     * @return connections of the nodes at the highest block, or all available connections when no
+     *     block number is known yet
+     */
+    public ChannelHandlerContext[] getCandidates() {
+        return maxBlockNumberConnections.length > 0 ? maxBlockNumberConnections : connections;
+    }
+
+    public BigInteger getMaxBlockNumber() {
+        return maxBlockNumber;
+    }
+
+    public boolean isEmpty() {
+        return connections.length == 0;
+    }
+}
@@ -0,0 +1,151 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.fisco.bcos.channel.protocol.ChannelMessageType;
+import org.fisco.bcos.channel.protocol.EnumSocketChannelAttributeKey;
+
+/**
+ * One TLS connection to a node endpoint, used by the ChannelConnections of every group connected to
+ * the node, see {@link ChannelTransport#connect}. Each group joining the connection is told when
+ * the handshake completes, and registers the topics of all the groups on it. Inbound messages are
+ * handed to the group they are for, see {@link ChannelConnections.Callback#accepts}: pushes by
+ * their topic, responses by the seq of the request, and event log pushes by their filter id. The
+ * first group to join sends the heartbeats and gets the messages of no group.
+ */
+class SharedConnection {
+
+    private static final AttributeKey<SharedConnection> SHARED_CONNECTION_KEY =
+            AttributeKey.valueOf(
+                    EnumSocketChannelAttributeKey.CHANNEL_SHARED_CONNECTION_KEY.getKey());
+
+    private final String host;
+    private final Integer port;
+    private final List<ChannelConnections> members = new CopyOnWriteArrayList<ChannelConnections>();
+
+    private volatile ChannelFuture connectFuture;
+    // set once the TLS handshake completes, guarded by this for join
+    private ChannelHandlerContext ctx;
+
+    SharedConnection(String host, Integer port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /** @return connection shared by the groups the channel of ctx belongs to, null if not shared */
+    static SharedConnection of(ChannelHandlerContext ctx) {
+        return ctx.channel().attr(SHARED_CONNECTION_KEY).get();
+    }
+
+    /** marks the channel of the connection, before any of its events */
+    void attach(Channel channel) {
+        channel.attr(SHARED_CONNECTION_KEY).set(this);
+    }
+
+    void setConnectFuture(ChannelFuture connectFuture) {
+        this.connectFuture = connectFuture;
+    }
+
+    ChannelFuture getConnectFuture() {
+        return connectFuture;
+    }
+
+    /** adds a group to the connection, it is connected at once if the handshake is done */
+    void join(ChannelConnections connections) {
+        ChannelHandlerContext ctx;
+        synchronized (this) {
+            if (members.contains(connections)) {
+                return;
+            }
+            members.add(connections);
+            ctx = this.ctx;
+        }
+        if (ctx != null) {
+            connections.onConnect(ctx);
+        }
+    }
+
+    void onConnect(ChannelHandlerContext ctx) {
+        List<ChannelConnections> joined;
+        synchronized (this) {
+            this.ctx = ctx;
+            joined = new ArrayList<ChannelConnections>(members);
+        }
+        for (ChannelConnections connections : joined) {
+            connections.onConnect(ctx);
+        }
+    }
+
+    void onDisconnect(ChannelHandlerContext ctx) {
+        for (ChannelConnections connections : members) {
+            connections.onDisconnect(ctx);
+        }
+    }
+
+    /** @return whether the group sends the heartbeats of the connection */
+    boolean isOwner(ChannelConnections connections) {
+        return !members.isEmpty() && members.get(0) == connections;
+    }
+
+    List<ChannelConnections> getMembers() {
+        return members;
+    }
+
+    /** @return topics of all the groups, registered together as a registration replaces the last */
+    Set<String> getTopics() {
+        Set<String> topics = new LinkedHashSet<String>();
+        for (ChannelConnections connections : members) {
+            topics.addAll(connections.getCallback().getTopics());
+        }
+        return topics;
+    }
+
+    /** @return group the inbound message is for */
+    ChannelConnections route(Message message) {
+        ChannelConnections owner = members.get(0);
+        if (members.size() == 1) {
+            return owner;
+        }
+        String topic = topicOf(message);
+        for (ChannelConnections connections : members) {
+            if (connections.getCallback().accepts(message, topic)) {
+                return connections;
+            }
+        }
+        return owner;
+    }
+
+    /** @return topic of a message pushed to a topic, read without consuming the payload */
+    static String topicOf(Message message) {
+        ByteBuf payload = message.getPayload();
+        int type = message.getType();
+        if (payload == null
+                || message.getResult() != 0
+                || (type != ChannelMessageType.AMOP_REQUEST.getType()
+                        && type != ChannelMessageType.AMOP_MULBROADCAST.getType()
+                        && type != ChannelMessageType.BLOCK_NOTIFY.getType())
+                || !payload.isReadable()) {
+            return null;
+        }
+        int index = payload.readerIndex();
+        int topicLength = payload.getUnsignedByte(index) - 1;
+        if (topicLength < 0 || payload.readableBytes() < topicLength + 1) {
+            return null;
+        }
+        return payload.toString(index + 1, topicLength, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "SharedConnection [" + host + ":" + port + ", groups=" + members.size() + "]";
+    }
+}
@@ -0,0 +1,119 @@
+package org.fisco.bcos.channel.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds back flushes of encoded frames for a short window, so that the frames written by many
+ * concurrent requests go out to the SslHandler and the socket in one flush.
+ *
+ * <p>A flush is issued when the delay expires, when the pending bytes reach the byte budget, when
+ * the channel becomes unwritable or before it is closed. All state is only touched from the event
+ * loop of the channel.
+ */
+public class WriteCoalescingHandler extends ChannelDuplexHandler {
+
+    private final long delayNanos;
+    private final long maxPendingBytes;
+    private final FlushMetrics metrics;
+
+    private ChannelHandlerContext ctx;
+    private int pendingFrames;
+    private long pendingBytes;
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final Runnable flushTask =
+            new Runnable() {
+                @Override
+                public void run() {
+                    scheduledFlush = null;
+                    flushNow(ctx);
+                }
+            };
+
+    /**
+     * @param delayMicros longest time a written frame waits for its flush
+     * @param maxPendingBytes pending bytes which trigger a flush at once
+     * @param metrics counters updated on every flush
+     */
+    public WriteCoalescingHandler(long delayMicros, long maxPendingBytes, FlushMetrics metrics) {
+        this.delayNanos = TimeUnit.MICROSECONDS.toNanos(delayMicros);
+        this.maxPendingBytes = maxPendingBytes;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        flushNow(ctx);
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (msg instanceof ByteBuf) {
+            ++pendingFrames;
+            pendingBytes += ((ByteBuf) msg).readableBytes();
+        }
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        if (pendingFrames == 0 || pendingBytes >= maxPendingBytes) {
+            flushNow(ctx);
+        } else if (scheduledFlush == null) {
+            scheduledFlush = ctx.executor().schedule(flushTask, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (!ctx.channel().isWritable()) {
+            flushNow(ctx);
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        flushNow(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) {
+        flushNow(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        cancelScheduledFlush();
+        ctx.fireChannelInactive();
+    }
+
+    private void flushNow(ChannelHandlerContext ctx) {
+        cancelScheduledFlush();
+        if (pendingFrames > 0) {
+            metrics.record(pendingFrames, pendingBytes);
+            pendingFrames = 0;
+            pendingBytes = 0;
+        }
+        ctx.flush();
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+}
@@ -4,7 +4,9 @@ public enum ChannelMessageError {
     NODES_UNREACHABLE(99), // nodes unreachable
     MESSAGE_SEND_EXCEPTION(100), // send failed after N times retry
     MESSAGE_TIMEOUT(102), // timeout
-    MESSAGE_DECODE_ERROR(105); // decode error
+    MESSAGE_DECODE_ERROR(105), // decode error
+    MESSAGE_DROPPED(106), // dropped by the sdk, the dispatcher lane is full
+    REQUEST_REJECTED(107); // not sent by the sdk, too many requests in flight
 
     private int error;
 
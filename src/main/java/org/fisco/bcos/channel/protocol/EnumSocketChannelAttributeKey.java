@@ -2,7 +2,9 @@ package org.fisco.bcos.channel.protocol;
 
 public enum EnumSocketChannelAttributeKey {
     CHANNEL_PROTOCOL_KEY("CHANNEL_PROTOCOL_KEY"),
-    CHANNEL_CONNECTED_KEY("CHANNEL_CONNECTED_KEY");
+    CHANNEL_CONNECTED_KEY("CHANNEL_CONNECTED_KEY"),
+    CHANNEL_NODE_STATS_KEY("CHANNEL_NODE_STATS_KEY"),
+    CHANNEL_SHARED_CONNECTION_KEY("CHANNEL_SHARED_CONNECTION_KEY");
 
     private EnumSocketChannelAttributeKey(String key) {
         this.key = key;
@@ -0,0 +1,501 @@
+package org.fisco.bcos.web3j.abi;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.ParameterizedType;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.fisco.bcos.web3j.abi.datatypes.Address;
+import org.fisco.bcos.web3j.abi.datatypes.Array;
+import org.fisco.bcos.web3j.abi.datatypes.Bool;
+import org.fisco.bcos.web3j.abi.datatypes.Bytes;
+import org.fisco.bcos.web3j.abi.datatypes.BytesType;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicArray;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicBytes;
+import org.fisco.bcos.web3j.abi.datatypes.Fixed;
+import org.fisco.bcos.web3j.abi.datatypes.Int;
+import org.fisco.bcos.web3j.abi.datatypes.NumericType;
+import org.fisco.bcos.web3j.abi.datatypes.StaticArray;
+import org.fisco.bcos.web3j.abi.datatypes.Type;
+import org.fisco.bcos.web3j.abi.datatypes.Utf8String;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Bytes32;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Uint160;
+import org.fisco.bcos.web3j.utils.Numeric;
+import org.fisco.bcos.web3j.utils.Strings;
+
+/**
+ * Binary ABI decoder, the counterpart of {@link AbiEncoder}. A list of type references is compiled
+ * once into a tree of decoder nodes, with the class names parsed, the generic arguments resolved
+ * and the constructors linked to factories, and the compiled decoder is cached by the types of the
+ * list. Values are decoded from a byte array by offset instead of from hex substrings.
+ *
+ * <p>The results are the same as {@link TypeDecoder} and {@link FunctionReturnDecoder} give, which
+ * use this class.
+ */
+public class AbiDecoder {
+
+    private static final int WORD = Type.MAX_BYTE_LENGTH;
+
+    private static final ConcurrentHashMap<List<java.lang.reflect.Type>, AbiDecoder> decoders =
+            new ConcurrentHashMap<List<java.lang.reflect.Type>, AbiDecoder>();
+    private static final ConcurrentHashMap<java.lang.reflect.Type, Node> nodes =
+            new ConcurrentHashMap<java.lang.reflect.Type, Node>();
+
+    private final Node[] parameters;
+
+    private AbiDecoder(Node[] parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * @param parameters types of the values, e.g. the outputs of a function
+     * @return the decoder for the types, compiled at the first use
+     */
+    public static AbiDecoder of(List<? extends TypeReference<?>> parameters) {
+        List<java.lang.reflect.Type> types =
+                new ArrayList<java.lang.reflect.Type>(parameters.size());
+        for (TypeReference<?> parameter : parameters) {
+            types.add(parameter.getType());
+        }
+
+        AbiDecoder decoder = decoders.get(types);
+        if (decoder == null) {
+            Node[] compiled = new Node[types.size()];
+            for (int i = 0; i < compiled.length; ++i) {
+                compiled[i] = node(types.get(i));
+            }
+            decoder = new AbiDecoder(compiled);
+            decoders.putIfAbsent(types, decoder);
+        }
+        return decoder;
+    }
+
+    /**
+     * @param rawInput ABI encoded values in hex, with optional 0x prefix
+     * @return the values, an empty list if the input is empty
+     */
+    public List<Type> decode(String rawInput) {
+        String input = Numeric.cleanHexPrefix(rawInput);
+        if (Strings.isEmpty(input)) {
+            return Collections.emptyList();
+        }
+        return decode(Numeric.hexStringToByteArray(input));
+    }
+
+    /**
+     * @param input ABI encoded values
+     * @return the values
+     */
+    public List<Type> decode(byte[] input) {
+        List<Type> results = new ArrayList<Type>(parameters.length);
+        int offset = 0;
+        for (Node node : parameters) {
+            int dataOffset = node.dynamic ? readInt(input, offset) : offset;
+            results.add(node.decode(input, dataOffset));
+            offset += node.headWords * WORD;
+        }
+        return results;
+    }
+
+    /** see {@link FunctionReturnDecoder#decodeIndexedValue(String, TypeReference)} */
+    static Type decodeIndexedValue(byte[] input, java.lang.reflect.Type type) {
+        Class<?> cls = classOf(type);
+        if (!Bytes.class.isAssignableFrom(cls)
+                && (Array.class.isAssignableFrom(cls)
+                        || BytesType.class.isAssignableFrom(cls)
+                        || Utf8String.class.isAssignableFrom(cls))) {
+            // indexed dynamic values are topics of their hash
+            type = Bytes32.class;
+        }
+        return node(type).decode(input, 0);
+    }
+
+    /** decode a single value at the offset */
+    static Type decode(byte[] input, int offset, java.lang.reflect.Type type) {
+        return node(type).decode(input, offset);
+    }
+
+    /** compiled node of the type, shared by all decoders */
+    static Node node(java.lang.reflect.Type type) {
+        Node node = nodes.get(type);
+        if (node == null) {
+            // not computeIfAbsent, compiling an array compiles its element type first
+            node = compile(type);
+            Node previous = nodes.putIfAbsent(type, node);
+            if (previous != null) {
+                node = previous;
+            }
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Node compile(java.lang.reflect.Type type) {
+        Class<?> cls = classOf(type);
+        try {
+            boolean dynamic = Utils.dynamicType(type);
+            int headWords = Utils.getOffset(type);
+
+            if (NumericType.class.isAssignableFrom(cls)) {
+                return new NumericNode((Class<? extends NumericType>) cls, dynamic, headWords);
+            } else if (Address.class.isAssignableFrom(cls)) {
+                return new AddressNode(dynamic, headWords);
+            } else if (Bool.class.isAssignableFrom(cls)) {
+                return new BoolNode(dynamic, headWords);
+            } else if (Bytes.class.isAssignableFrom(cls)) {
+                return new BytesNode(cls, dynamic, headWords);
+            } else if (DynamicBytes.class.isAssignableFrom(cls)) {
+                return new DynamicBytesNode(false, dynamic, headWords);
+            } else if (Utf8String.class.isAssignableFrom(cls)) {
+                return new DynamicBytesNode(true, dynamic, headWords);
+            } else if (Array.class.isAssignableFrom(cls) && !(type instanceof ParameterizedType)) {
+                throw new UnsupportedOperationException(
+                        "Array types must be wrapped in a TypeReference");
+            } else if (DynamicArray.class.isAssignableFrom(cls)) {
+                java.lang.reflect.Type elementType = elementType(type);
+                return new DynamicArrayNode(
+                        node(elementType),
+                        Utils.getSimpleTypeName(classOf(elementType)),
+                        dynamic,
+                        headWords);
+            } else if (StaticArray.class.isAssignableFrom(cls)) {
+                int length =
+                        Integer.parseInt(
+                                cls.getSimpleName()
+                                        .substring(StaticArray.class.getSimpleName().length()));
+                Function<List<Type>, Type> factory;
+                try {
+                    factory = factory(cls, List.class);
+                } catch (ReflectiveOperationException e) {
+                    factory = null;
+                }
+                return new StaticArrayNode(
+                        node(elementType(type)), length, factory, dynamic, headWords);
+            } else {
+                throw new UnsupportedOperationException("Type cannot be encoded: " + cls);
+            }
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedOperationException("Invalid class reference provided", e);
+        }
+    }
+
+    private static Class<?> classOf(java.lang.reflect.Type type) {
+        try {
+            return Utils.getClassType(type);
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedOperationException("Invalid class reference provided", e);
+        }
+    }
+
+    private static java.lang.reflect.Type elementType(java.lang.reflect.Type type) {
+        return ((ParameterizedType) type).getActualTypeArguments()[0];
+    }
+
+    /** the low 32 bits of the word at the offset, as decoding a uint and taking intValue */
+    static int readInt(byte[] input, int offset) {
+        checkBounds(input, offset, WORD);
+        int i = offset + WORD - 4;
+        return (input[i] & 0xff) << 24
+                | (input[i + 1] & 0xff) << 16
+                | (input[i + 2] & 0xff) << 8
+                | (input[i + 3] & 0xff);
+    }
+
+    private static void checkBounds(byte[] input, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > input.length) {
+            throw new IndexOutOfBoundsException(
+                    "offset " + offset + " length " + length + " input length " + input.length);
+        }
+    }
+
+    /**
+     * @param cls type with a public constructor taking one parameter
+     * @param parameterType type of the parameter
+     * @return function calling the constructor, linked once so that no value is created through
+     *     reflection
+     * @throws ReflectiveOperationException if there is no such constructor
+     */
+    @SuppressWarnings("unchecked")
+    static <P, T> Function<P, T> factory(Class<?> cls, Class<? super P> parameterType)
+            throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle constructor =
+                lookup.findConstructor(cls, MethodType.methodType(void.class, parameterType));
+        // the lambda class is defined next to this one, so it must see the type
+        if (isVisible(cls)) {
+            try {
+                return (Function<P, T>)
+                        LambdaMetafactory.metafactory(
+                                        lookup,
+                                        "apply",
+                                        MethodType.methodType(Function.class),
+                                        MethodType.methodType(Object.class, Object.class),
+                                        constructor,
+                                        constructor.type())
+                                .getTarget()
+                                .invoke();
+            } catch (Throwable e) {
+                // call the constructor through its handle below
+            }
+        }
+        return parameter -> {
+            try {
+                return (T) constructor.invoke(parameter);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw newInstanceFailed(cls, e);
+            }
+        };
+    }
+
+    private static boolean isVisible(Class<?> cls) {
+        try {
+            return Class.forName(cls.getName(), false, AbiDecoder.class.getClassLoader()) == cls;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static UnsupportedOperationException newInstanceFailed(Class<?> cls, Throwable e) {
+        return new UnsupportedOperationException(
+                "Unable to create instance of " + cls.getName(), e);
+    }
+
+    abstract static class Node {
+        // whether the value is stored in the tail, with its offset in the head
+        final boolean dynamic;
+        // words taken in the head
+        final int headWords;
+
+        Node(boolean dynamic, int headWords) {
+            this.dynamic = dynamic;
+            this.headWords = headWords;
+        }
+
+        abstract Type decode(byte[] input, int offset);
+
+        /** whether an array stores the offset of this element instead of the element */
+        boolean indirectInArray() {
+            return false;
+        }
+    }
+
+    private static class NumericNode extends Node {
+        private final Class<? extends NumericType> cls;
+        private final Function<BigInteger, NumericType> factory;
+        private final int length;
+        private final boolean signed;
+
+        NumericNode(Class<? extends NumericType> cls, boolean dynamic, int headWords) {
+            super(dynamic, headWords);
+            this.cls = cls;
+            this.length = TypeDecoder.getTypeLengthInBytes(cls);
+            this.signed = Int.class.isAssignableFrom(cls) || Fixed.class.isAssignableFrom(cls);
+            try {
+                this.factory = factory(cls, BigInteger.class);
+            } catch (ReflectiveOperationException e) {
+                throw newInstanceFailed(cls, e);
+            }
+        }
+
+        @Override
+        Type decode(byte[] input, int offset) {
+            return newInstance(decodeValue(input, offset));
+        }
+
+        BigInteger decodeValue(byte[] input, int offset) {
+            checkBounds(input, offset, WORD);
+            byte[] value = new byte[length + 1];
+            if (signed) {
+                value[0] = input[offset]; // take MSB as sign bit
+            }
+            System.arraycopy(input, offset + WORD - length, value, 1, length);
+            return new BigInteger(value);
+        }
+
+        NumericType newInstance(BigInteger value) {
+            try {
+                return factory.apply(value);
+            } catch (RuntimeException e) {
+                throw newInstanceFailed(cls, e);
+            }
+        }
+    }
+
+    private static class AddressNode extends Node {
+        private final NumericNode uint160;
+
+        AddressNode(boolean dynamic, int headWords) {
+            super(dynamic, headWords);
+            uint160 = new NumericNode(Uint160.class, false, 1);
+        }
+
+        @Override
+        Type decode(byte[] input, int offset) {
+            return new Address((Uint160) uint160.decode(input, offset));
+        }
+    }
+
+    private static class BoolNode extends Node {
+        BoolNode(boolean dynamic, int headWords) {
+            super(dynamic, headWords);
+        }
+
+        @Override
+        Type decode(byte[] input, int offset) {
+            checkBounds(input, offset, WORD);
+            // true only for a word of exactly 1
+            boolean value = input[offset + WORD - 1] == 1;
+            for (int i = offset; value && i < offset + WORD - 1; ++i) {
+                value = input[i] == 0;
+            }
+            return new Bool(value);
+        }
+    }
+
+    private static class BytesNode extends Node {
+        private final Class<?> cls;
+        private final Function<byte[], Type> factory;
+        private final int length;
+
+        BytesNode(Class<?> cls, boolean dynamic, int headWords) {
+            super(dynamic, headWords);
+            this.cls = cls;
+            String[] splitName = cls.getSimpleName().split(Bytes.class.getSimpleName());
+            this.length = Integer.parseInt(splitName[1]);
+            try {
+                this.factory = factory(cls, byte[].class);
+            } catch (ReflectiveOperationException e) {
+                throw newInstanceFailed(cls, e);
+            }
+        }
+
+        @Override
+        Type decode(byte[] input, int offset) {
+            checkBounds(input, offset, length);
+            try {
+                return factory.apply(Arrays.copyOfRange(input, offset, offset + length));
+            } catch (RuntimeException e) {
+                throw newInstanceFailed(cls, e);
+            }
+        }
+    }
+
+    private static class DynamicBytesNode extends Node {
+        private final boolean utf8;
+
+        DynamicBytesNode(boolean utf8, boolean dynamic, int headWords) {
+            super(dynamic, headWords);
+            this.utf8 = utf8;
+        }
+
+        @Override
+        Type decode(byte[] input, int offset) {
+            int length = readInt(input, offset);
+            int valueOffset = offset + WORD;
+            checkBounds(input, valueOffset, length);
+            if (utf8) {
+                return new Utf8String(
+                        new String(input, valueOffset, length, StandardCharsets.UTF_8));
+            }
+            return new DynamicBytes(Arrays.copyOfRange(input, valueOffset, valueOffset + length));
+        }
+
+        @Override
+        boolean indirectInArray() {
+            return true;
+        }
+    }
+
+    private abstract static class ArrayNode extends Node {
+        final Node element;
+
+        ArrayNode(Node element, boolean dynamic, int headWords) {
+            super(dynamic, headWords);
+            this.element = element;
+        }
+
+        List<Type> decodeElements(byte[] input, int offset, int length) {
+            List<Type> elements = new ArrayList<Type>(length);
+            int stride = WORD * element.headWords;
+            for (int i = 0; i < length; ++i) {
+                int elementOffset = offset + i * stride;
+                if (element.indirectInArray()) {
+                    elementOffset = offset + readInt(input, elementOffset);
+                }
+                elements.add(element.decode(input, elementOffset));
+            }
+            return elements;
+        }
+    }
+
+    private static class DynamicArrayNode extends ArrayNode {
+        private final String elementTypeName;
+
+        DynamicArrayNode(Node element, String elementTypeName, boolean dynamic, int headWords) {
+            super(element, dynamic, headWords);
+            this.elementTypeName = elementTypeName;
+        }
+
+        @Override
+        Type decode(byte[] input, int offset) {
+            int length = readInt(input, offset);
+            List<Type> elements = decodeElements(input, offset + WORD, length);
+            if (elements.isEmpty()) {
+                return DynamicArray.empty(elementTypeName);
+            }
+            return new DynamicArray<Type>(elements);
+        }
+
+        @Override
+        boolean indirectInArray() {
+            return true;
+        }
+    }
+
+    private static class StaticArrayNode extends ArrayNode {
+        private final int length;
+        // null if the type has no constructor taking the elements
+        private final Function<List<Type>, Type> factory;
+
+        StaticArrayNode(
+                Node element,
+                int length,
+                Function<List<Type>, Type> factory,
+                boolean dynamic,
+                int headWords) {
+            super(element, dynamic, headWords);
+            this.length = length;
+            this.factory = factory;
+        }
+
+        @Override
+        Type decode(byte[] input, int offset) {
+            return decode(input, offset, length);
+        }
+
+        Type decode(byte[] input, int offset, int length) {
+            List<Type> elements = decodeElements(input, offset, length);
+            if (elements.isEmpty()) {
+                throw new UnsupportedOperationException("Zero length fixed array is invalid type");
+            }
+            if (factory != null) {
+                try {
+                    return factory.apply(elements);
+                } catch (RuntimeException e) {
+                    // fall through to the generic array as before
+                }
+            }
+            return new StaticArray<Type>(elements);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.fisco.bcos.web3j.abi;
+
+import static org.fisco.bcos.web3j.abi.datatypes.Type.MAX_BYTE_LENGTH;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.fisco.bcos.web3j.abi.datatypes.Address;
+import org.fisco.bcos.web3j.abi.datatypes.Array;
+import org.fisco.bcos.web3j.abi.datatypes.Bool;
+import org.fisco.bcos.web3j.abi.datatypes.Bytes;
+import org.fisco.bcos.web3j.abi.datatypes.BytesType;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicArray;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicBytes;
+import org.fisco.bcos.web3j.abi.datatypes.Function;
+import org.fisco.bcos.web3j.abi.datatypes.NumericType;
+import org.fisco.bcos.web3j.abi.datatypes.StaticArray;
+import org.fisco.bcos.web3j.abi.datatypes.Type;
+import org.fisco.bcos.web3j.abi.datatypes.Ufixed;
+import org.fisco.bcos.web3j.abi.datatypes.Uint;
+import org.fisco.bcos.web3j.abi.datatypes.Utf8String;
+import org.fisco.bcos.web3j.utils.Numeric;
+
+/**
+ * Binary ABI encoder, the counterpart of {@link TypeEncoder} and {@link FunctionEncoder} that
+ * writes the head and tail sections straight into a growable buffer instead of concatenating hex
+ * strings. The offsets of dynamic values are written as placeholders in the head and filled in when
+ * the tail is written.
+ *
+ * <p>An instance is not thread safe, it can be reused after {@link #reset()}.
+ */
+public class AbiEncoder {
+
+    private static final byte[] ZEROS = new byte[MAX_BYTE_LENGTH];
+
+    private ByteBuffer buffer;
+
+    public AbiEncoder() {
+        this(256);
+    }
+
+    public AbiEncoder(int initialCapacity) {
+        buffer = ByteBuffer.allocate(Math.max(initialCapacity, MAX_BYTE_LENGTH));
+    }
+
+    /** encoded function call, the method id followed by the parameters */
+    public static byte[] encode(Function function) {
+        List<Type> parameters = function.getInputParameters();
+        byte[] methodId =
+                Numeric.hexStringToByteArray(
+                        FunctionEncoder.buildMethodId(
+                                FunctionEncoder.buildMethodSignature(
+                                        function.getName(), parameters)));
+        return new AbiEncoder().write(methodId).encodeParameters(parameters).toByteArray();
+    }
+
+    /** encoded constructor parameters, appended to the contract binary on deployment */
+    public static byte[] encodeConstructor(List<Type> parameters) {
+        return new AbiEncoder().encodeParameters(parameters).toByteArray();
+    }
+
+    /**
+     * Append parameters as the arguments of a function call, static values and the offsets of
+     * dynamic values first, then the dynamic values.
+     */
+    public AbiEncoder encodeParameters(List<Type> parameters) {
+        int headStart = buffer.position();
+        int dynamicDataOffset = Utils.getLength(parameters) * MAX_BYTE_LENGTH;
+        int[] offsetPositions = new int[parameters.size()];
+
+        for (int i = 0; i < parameters.size(); ++i) {
+            Type parameter = parameters.get(i);
+            if (parameter.dynamicType()) {
+                offsetPositions[i] = reserveWord();
+            } else {
+                offsetPositions[i] = -1;
+                encode(parameter);
+            }
+        }
+
+        int tailStart = buffer.position();
+        for (int i = 0; i < parameters.size(); ++i) {
+            if (offsetPositions[i] >= 0) {
+                putOffset(offsetPositions[i], dynamicDataOffset + buffer.position() - tailStart);
+                encode(parameters.get(i));
+            }
+        }
+        return this;
+    }
+
+    /** Append one value, as {@link TypeEncoder#encode(Type)} does in hex. */
+    @SuppressWarnings("unchecked")
+    public AbiEncoder encode(Type parameter) {
+        if (parameter instanceof NumericType) {
+            encodeNumeric((NumericType) parameter);
+        } else if (parameter instanceof Address) {
+            encodeNumeric(((Address) parameter).toUint160());
+        } else if (parameter instanceof Bool) {
+            encodeBool((Bool) parameter);
+        } else if (parameter instanceof Bytes) {
+            encodeBytes((Bytes) parameter);
+        } else if (parameter instanceof DynamicBytes) {
+            encodeDynamicBytes(((DynamicBytes) parameter).getValue());
+        } else if (parameter instanceof Utf8String) {
+            encodeDynamicBytes(
+                    ((Utf8String) parameter).getValue().getBytes(StandardCharsets.UTF_8));
+        } else if (parameter instanceof StaticArray) {
+            encodeArrayValues((StaticArray) parameter);
+        } else if (parameter instanceof DynamicArray) {
+            encodeDynamicArray((DynamicArray) parameter);
+        } else {
+            throw new UnsupportedOperationException(
+                    "Type cannot be encoded: " + parameter.getClass());
+        }
+        return this;
+    }
+
+    AbiEncoder encodeNumeric(NumericType numericType) {
+        BigInteger value = numericType.getValue();
+        ensureCapacity(MAX_BYTE_LENGTH);
+        if (value.bitLength() < Long.SIZE) {
+            // sign extended two's complement without the intermediate array
+            long longValue = value.longValue();
+            long padding = longValue < 0 ? -1L : 0L;
+            buffer.putLong(padding).putLong(padding).putLong(padding).putLong(longValue);
+            return this;
+        }
+
+        byte[] rawValue = value.toByteArray();
+        if ((numericType instanceof Ufixed || numericType instanceof Uint)
+                && value.bitLength() == Type.MAX_BIT_LENGTH) {
+            // As BigInteger is signed, a 256 bit value has a sign byte in its MSB, which we
+            // should ignore for this unsigned integer type.
+            buffer.put(rawValue, 1, MAX_BYTE_LENGTH);
+            return this;
+        }
+        byte paddingValue = value.signum() == -1 ? (byte) 0xff : 0;
+        for (int i = rawValue.length; i < MAX_BYTE_LENGTH; ++i) {
+            buffer.put(paddingValue);
+        }
+        buffer.put(rawValue);
+        return this;
+    }
+
+    AbiEncoder encodeBool(Bool value) {
+        ensureCapacity(MAX_BYTE_LENGTH);
+        buffer.put(ZEROS, 0, MAX_BYTE_LENGTH - 1).put((byte) (value.getValue() ? 1 : 0));
+        return this;
+    }
+
+    AbiEncoder encodeBytes(BytesType bytesType) {
+        writePadded(bytesType.getValue());
+        return this;
+    }
+
+    private void encodeDynamicBytes(byte[] value) {
+        putLength(value.length);
+        writePadded(value);
+    }
+
+    private void writePadded(byte[] value) {
+        write(value);
+        int mod = value.length % MAX_BYTE_LENGTH;
+        if (mod != 0) {
+            buffer.put(ZEROS, 0, MAX_BYTE_LENGTH - mod);
+        }
+    }
+
+    <T extends Type> AbiEncoder encodeArrayValues(Array<T> array) {
+        List<T> values = array.getValue();
+        int[] offsetPositions = new int[values.size()];
+        Arrays.fill(offsetPositions, -1);
+
+        // offsets of dynamic elements first, then the elements
+        for (int i = 0; i < values.size(); ++i) {
+            if (values.get(i).dynamicType()) {
+                offsetPositions[i] = reserveWord();
+            }
+        }
+
+        int offset = values.size() * MAX_BYTE_LENGTH;
+        int valuesStart = buffer.position();
+        for (int i = 0; i < values.size(); ++i) {
+            if (offsetPositions[i] >= 0) {
+                putOffset(offsetPositions[i], offset + buffer.position() - valuesStart);
+            }
+            encode(values.get(i));
+        }
+        return this;
+    }
+
+    private <T extends Type> void encodeDynamicArray(DynamicArray<T> array) {
+        putLength(array.getValue().size());
+        encodeArrayValues(array);
+    }
+
+    private void putLength(int length) {
+        ensureCapacity(MAX_BYTE_LENGTH);
+        buffer.putLong(0L).putLong(0L).putLong(0L).putLong(length);
+    }
+
+    private int reserveWord() {
+        ensureCapacity(MAX_BYTE_LENGTH);
+        int position = buffer.position();
+        buffer.put(ZEROS);
+        return position;
+    }
+
+    private void putOffset(int position, int offset) {
+        buffer.putLong(position + MAX_BYTE_LENGTH - Long.BYTES, offset);
+    }
+
+    /** Append raw bytes, e.g. a method id or contract binary. */
+    public AbiEncoder write(byte[] bytes) {
+        ensureCapacity(bytes.length + MAX_BYTE_LENGTH);
+        buffer.put(bytes);
+        return this;
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() < length) {
+            int capacity = Math.max(buffer.capacity() << 1, buffer.position() + length);
+            ByteBuffer grown = ByteBuffer.allocate(capacity);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+    }
+
+    /** @return number of bytes encoded */
+    public int size() {
+        return buffer.position();
+    }
+
+    /** @return a copy of the encoded bytes */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /** @return the encoded bytes in hex without the 0x prefix */
+    public String toHexString() {
+        return Numeric.toHexStringNoPrefix(toByteArray());
+    }
+
+    /** @return read only view of the encoded bytes, valid until the next write or reset */
+    public ByteBuffer asReadOnlyBuffer() {
+        ByteBuffer view = buffer.asReadOnlyBuffer();
+        view.flip();
+        return view;
+    }
+
+    public void reset() {
+        buffer.clear();
+    }
+}
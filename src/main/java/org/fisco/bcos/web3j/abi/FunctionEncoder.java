@@ -1,17 +1,17 @@
 package org.fisco.bcos.web3j.abi;
 
-import java.math.BigInteger;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.fisco.bcos.web3j.abi.datatypes.Function;
 import org.fisco.bcos.web3j.abi.datatypes.Type;
-import org.fisco.bcos.web3j.abi.datatypes.Uint;
 import org.fisco.bcos.web3j.crypto.Hash;
 import org.fisco.bcos.web3j.utils.Numeric;
 
 /**
  * Ethereum Contract Application Binary Interface (ABI) encoding for functions. Further details are
  * available <a href="https://github.com/ethereum/wiki/wiki/Ethereum-Contract-ABI">here</a>.
+ *
+ * <p>Hex wrapper of {@link AbiEncoder}, which encodes without intermediate strings.
  */
 public class FunctionEncoder {
 
@@ -34,24 +34,7 @@ public class FunctionEncoder {
     }
 
     public static String encodeParameters(List<Type> parameters, StringBuilder result) {
-        int dynamicDataOffset = Utils.getLength(parameters) * Type.MAX_BYTE_LENGTH;
-        StringBuilder dynamicData = new StringBuilder();
-
-        for (Type parameter : parameters) {
-            String encodedValue = TypeEncoder.encode(parameter);
-
-            if (parameter.dynamicType()) {
-                String encodedDataOffset =
-                        TypeEncoder.encodeNumeric(new Uint(BigInteger.valueOf(dynamicDataOffset)));
-                result.append(encodedDataOffset);
-                dynamicData.append(encodedValue);
-                dynamicDataOffset += (encodedValue.length() >> 1);
-            } else {
-                result.append(encodedValue);
-            }
-        }
-        result.append(dynamicData);
-
+        result.append(new AbiEncoder().encodeParameters(parameters).toHexString());
         return result.toString();
     }
 
@@ -1,16 +1,8 @@
 package org.fisco.bcos.web3j.abi;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import org.fisco.bcos.web3j.abi.datatypes.Array;
-import org.fisco.bcos.web3j.abi.datatypes.Bytes;
-import org.fisco.bcos.web3j.abi.datatypes.BytesType;
-import org.fisco.bcos.web3j.abi.datatypes.DynamicArray;
-import org.fisco.bcos.web3j.abi.datatypes.StaticArray;
 import org.fisco.bcos.web3j.abi.datatypes.Type;
-import org.fisco.bcos.web3j.abi.datatypes.Utf8String;
-import org.fisco.bcos.web3j.abi.datatypes.generated.Bytes32;
 import org.fisco.bcos.web3j.utils.Numeric;
 import org.fisco.bcos.web3j.utils.Strings;
 
@@ -33,10 +25,24 @@ public class FunctionReturnDecoder {
         if (Strings.isEmpty(input)) {
             return Collections.emptyList();
         } else {
-            return build(input, outputParameters);
+            return AbiDecoder.of(outputParameters).decode(Numeric.hexStringToByteArray(input));
         }
     }
 
+    /**
+     * Decode ABI encoded return values from smart contract function call.
+     *
+     * @param input ABI encoded input in binary
+     * @param outputParameters list of return types as {@link TypeReference}
+     * @return {@link List} of values returned by function
+     */
+    public static List<Type> decode(byte[] input, List<TypeReference<Type>> outputParameters) {
+        if (input.length == 0) {
+            return Collections.emptyList();
+        }
+        return AbiDecoder.of(outputParameters).decode(input);
+    }
+
     /**
      * Decodes an indexed parameter associated with an event. Indexed parameters are individually
      * encoded, unlike non-indexed parameters which are encoded as per ABI-encoded function
@@ -59,75 +65,10 @@ public class FunctionReturnDecoder {
      * @param <T> type of TypeReference
      * @return the decode value
      */
-    @SuppressWarnings("unchecked")
     public static <T extends Type> Type decodeIndexedValue(
             String rawInput, TypeReference<T> typeReference) {
         String input = Numeric.cleanHexPrefix(rawInput);
-
-        try {
-            Class<T> type = typeReference.getClassType();
-
-            if (Bytes.class.isAssignableFrom(type)) {
-                return TypeDecoder.decodeBytes(input, (Class<Bytes>) Class.forName(type.getName()));
-            } else if (Array.class.isAssignableFrom(type)
-                    || BytesType.class.isAssignableFrom(type)
-                    || Utf8String.class.isAssignableFrom(type)) {
-                return TypeDecoder.decodeBytes(input, Bytes32.class);
-            } else {
-                return TypeDecoder.decode(input, 0, type);
-            }
-        } catch (ClassNotFoundException e) {
-            throw new UnsupportedOperationException("Invalid class reference provided", e);
-        }
-    }
-
-    private static List<Type> build(String input, List<TypeReference<Type>> outputParameters) {
-        List<Type> results = new ArrayList<>(outputParameters.size());
-
-        int offset = 0;
-        for (TypeReference<?> typeReference : outputParameters) {
-            try {
-                @SuppressWarnings("unchecked")
-                Class<Type> cls = (Class<Type>) typeReference.getClassType();
-
-                int hexStringDataOffset = getDataOffset(input, offset, typeReference.getType());
-
-                Type result;
-                if (DynamicArray.class.isAssignableFrom(cls)) {
-                    result =
-                            TypeDecoder.decodeDynamicArray(
-                                    input, hexStringDataOffset, typeReference.getType());
-                } else if (StaticArray.class.isAssignableFrom(cls)) {
-                    int length =
-                            Integer.parseInt(
-                                    cls.getSimpleName()
-                                            .substring(StaticArray.class.getSimpleName().length()));
-                    result =
-                            TypeDecoder.decodeStaticArray(
-                                    input, hexStringDataOffset, typeReference.getType(), length);
-                } else {
-                    result = TypeDecoder.decode(input, hexStringDataOffset, cls);
-                }
-
-                results.add(result);
-
-                offset +=
-                        Utils.getOffset(typeReference.getType())
-                                * TypeDecoder.MAX_BYTE_LENGTH_FOR_HEX_STRING;
-
-            } catch (ClassNotFoundException e) {
-                throw new UnsupportedOperationException("Invalid class reference provided", e);
-            }
-        }
-        return results;
-    }
-
-    private static <T extends Type> int getDataOffset(
-            String input, int offset, java.lang.reflect.Type type) throws ClassNotFoundException {
-        if (Utils.dynamicType(type)) {
-            return TypeDecoder.decodeUintAsInt(input, offset) << 1;
-        } else {
-            return offset;
-        }
+        return AbiDecoder.decodeIndexedValue(
+                Numeric.hexStringToByteArray(input), typeReference.getType());
     }
 }
@@ -1,6 +1,5 @@
 package org.fisco.bcos.web3j.abi;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
@@ -30,6 +29,8 @@ import org.fisco.bcos.web3j.utils.Numeric;
  * Ethereum Contract Application Binary Interface (ABI) decoding for types. Decoding is not
  * documented, but is the reverse of the encoding details located <a
  * href="https://github.com/ethereum/wiki/wiki/Ethereum-Contract-ABI">here</a>.
+ *
+ * <p>Decoders of hex input, {@link AbiDecoder} decodes binary input with cached decoder plans.
  */
 public class TypeDecoder {
 
@@ -61,32 +62,9 @@ public class TypeDecoder {
         return new Address(decodeNumeric(input, Uint160.class));
     }
 
+    @SuppressWarnings("unchecked")
     static <T extends NumericType> T decodeNumeric(String input, Class<T> type) {
-        try {
-            byte[] inputByteArray = Numeric.hexStringToByteArray(input);
-            int typeLengthAsBytes = getTypeLengthInBytes(type);
-
-            byte[] resultByteArray = new byte[typeLengthAsBytes + 1];
-
-            if (Int.class.isAssignableFrom(type) || Fixed.class.isAssignableFrom(type)) {
-                resultByteArray[0] = inputByteArray[0]; // take MSB as sign bit
-            }
-
-            int valueOffset = Type.MAX_BYTE_LENGTH - typeLengthAsBytes;
-            System.arraycopy(inputByteArray, valueOffset, resultByteArray, 1, typeLengthAsBytes);
-
-            BigInteger numericValue = new BigInteger(resultByteArray);
-            return type.getConstructor(BigInteger.class).newInstance(numericValue);
-
-        } catch (NoSuchMethodException
-                | SecurityException
-                | InstantiationException
-                | IllegalAccessException
-                | IllegalArgumentException
-                | InvocationTargetException e) {
-            throw new UnsupportedOperationException(
-                    "Unable to create instance of " + type.getName(), e);
-        }
+        return (T) AbiDecoder.decode(Numeric.hexStringToByteArray(input), 0, type);
     }
 
     static <T extends NumericType> int getTypeLengthInBytes(Class<T> type) {
@@ -128,25 +106,14 @@ public class TypeDecoder {
         return decodeBytes(input, 0, type);
     }
 
+    @SuppressWarnings("unchecked")
     static <T extends Bytes> T decodeBytes(String input, int offset, Class<T> type) {
-        try {
-            String simpleName = type.getSimpleName();
-            String[] splitName = simpleName.split(Bytes.class.getSimpleName());
-            int length = Integer.parseInt(splitName[1]);
-            int hexStringLength = length << 1;
-
-            byte[] bytes =
-                    Numeric.hexStringToByteArray(input.substring(offset, offset + hexStringLength));
-            return type.getConstructor(byte[].class).newInstance(bytes);
-        } catch (NoSuchMethodException
-                | SecurityException
-                | InstantiationException
-                | IllegalAccessException
-                | IllegalArgumentException
-                | InvocationTargetException e) {
-            throw new UnsupportedOperationException(
-                    "Unable to create instance of " + type.getName(), e);
-        }
+        // a bytesN value is padded to one word, only that word is converted, an unpadded value
+        // needs only its N bytes
+        String word =
+                input.substring(
+                        offset, Math.min(input.length(), offset + MAX_BYTE_LENGTH_FOR_HEX_STRING));
+        return (T) AbiDecoder.decode(Numeric.hexStringToByteArray(word), 0, type);
     }
 
     static DynamicBytes decodeDynamicBytes(String input, int offset) {
@@ -0,0 +1,140 @@
+package org.fisco.bcos.web3j.crypto;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Verifies a batch of signatures on a ForkJoinPool, the result of each item is reported separately.
+ * Each verification uses the one pass u1 * G + u2 * Q (ECDSA) or s * G + t * P (SM2) of the {@link
+ * SignInterface} it is given.
+ */
+public class BatchVerifier {
+
+    /** items verified by one task, below this the batch is not split further */
+    public static final int DEFAULT_BATCH_THRESHOLD = 8;
+
+    private final SignInterface signInterface;
+    private final ForkJoinPool pool;
+    private int batchThreshold = DEFAULT_BATCH_THRESHOLD;
+
+    /** verify with the sign algorithm selected by {@link EncryptType} on the common pool */
+    public BatchVerifier() {
+        this(Sign.getSignInterface(), ForkJoinPool.commonPool());
+    }
+
+    public BatchVerifier(SignInterface signInterface, ForkJoinPool pool) {
+        this.signInterface = signInterface;
+        this.pool = pool;
+    }
+
+    /** A signed message and the public key expected to have signed it. */
+    public static class Item {
+        private final byte[] message;
+        private final Sign.SignatureData signatureData;
+        private final BigInteger publicKey;
+
+        public Item(byte[] message, Sign.SignatureData signatureData, BigInteger publicKey) {
+            this.message = message;
+            this.signatureData = signatureData;
+            this.publicKey = publicKey;
+        }
+
+        public byte[] getMessage() {
+            return message;
+        }
+
+        public Sign.SignatureData getSignatureData() {
+            return signatureData;
+        }
+
+        public BigInteger getPublicKey() {
+            return publicKey;
+        }
+    }
+
+    /**
+     * @param items messages to verify
+     * @return result of each item, in the order of the items
+     */
+    public boolean[] verify(List<Item> items) {
+        boolean[] results = new boolean[items.size()];
+        if (items.size() <= batchThreshold) {
+            verifyRange(items, results, 0, items.size());
+        } else {
+            pool.invoke(new VerifyTask(items, results, 0, items.size()));
+        }
+        return results;
+    }
+
+    /** @return whether all the items are valid */
+    public boolean verifyAll(List<Item> items) {
+        for (boolean result : verify(items)) {
+            if (!result) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void verifyRange(List<Item> items, boolean[] results, int from, int to) {
+        for (int i = from; i < to; ++i) {
+            Item item = items.get(i);
+            try {
+                results[i] =
+                        signInterface.verifyMessage(
+                                item.getMessage(), item.getSignatureData(), item.getPublicKey());
+            } catch (UnsupportedOperationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // a malformed item fails on its own, the rest of the batch is still verified
+                results[i] = false;
+            }
+        }
+    }
+
+    private class VerifyTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Item> items;
+        private final boolean[] results;
+        private final int from;
+        private final int to;
+
+        VerifyTask(List<Item> items, boolean[] results, int from, int to) {
+            this.items = items;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchThreshold) {
+                verifyRange(items, results, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new VerifyTask(items, results, from, middle),
+                    new VerifyTask(items, results, middle, to));
+        }
+    }
+
+    public SignInterface getSignInterface() {
+        return signInterface;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    public int getBatchThreshold() {
+        return batchThreshold;
+    }
+
+    public void setBatchThreshold(int batchThreshold) {
+        this.batchThreshold = batchThreshold;
+    }
+}
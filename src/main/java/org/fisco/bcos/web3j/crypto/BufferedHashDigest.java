@@ -0,0 +1,60 @@
+package org.fisco.bcos.web3j.crypto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/** HashDigest of a HashInterface without one, the input is collected and hashed at once. */
+class BufferedHashDigest implements HashDigest {
+
+    private final HashInterface hashInterface;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private int digestSize = -1;
+
+    BufferedHashDigest(HashInterface hashInterface) {
+        this.hashInterface = hashInterface;
+    }
+
+    @Override
+    public void update(byte in) {
+        buffer.write(in);
+    }
+
+    @Override
+    public void update(byte[] in, int inOff, int len) {
+        buffer.write(in, inOff, len);
+    }
+
+    @Override
+    public void update(ByteBuffer in) {
+        if (in.hasArray()) {
+            buffer.write(in.array(), in.arrayOffset() + in.position(), in.remaining());
+            in.position(in.limit());
+        } else {
+            while (in.hasRemaining()) {
+                buffer.write(in.get());
+            }
+        }
+    }
+
+    @Override
+    public int doFinal(byte[] out, int outOff) {
+        byte[] hash = hashInterface.hash(buffer.toByteArray());
+        System.arraycopy(hash, 0, out, outOff, hash.length);
+        digestSize = hash.length;
+        reset();
+        return hash.length;
+    }
+
+    @Override
+    public int getDigestSize() {
+        if (digestSize < 0) {
+            digestSize = hashInterface.hash(new byte[0]).length;
+        }
+        return digestSize;
+    }
+
+    @Override
+    public void reset() {
+        buffer.reset();
+    }
+}
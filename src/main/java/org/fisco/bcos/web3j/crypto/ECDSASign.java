@@ -4,52 +4,121 @@ import static org.fisco.bcos.web3j.crypto.Sign.CURVE;
 
 import java.math.BigInteger;
 import org.bouncycastle.crypto.digests.SHA256Digest;
-import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
-import org.bouncycastle.crypto.signers.ECDSASigner;
 import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
 import org.fisco.bcos.web3j.utils.Numeric;
 
 /** Created by websterchen on 2018/4/25. */
 public class ECDSASign implements SignInterface {
+
+    // comb multiplier, the precomputed table of G is built once and kept on the curve point
+    private static final ECMultiplier BASE_POINT_MULTIPLIER = new FixedPointCombMultiplier();
+
+    // RFC 6979 nonce generator, holds an HMac so it is kept per thread
+    private static final ThreadLocal<HMacDSAKCalculator> K_CALCULATOR =
+            ThreadLocal.withInitial(() -> new HMacDSAKCalculator(new SHA256Digest()));
+
     @Override
     public Sign.SignatureData signMessage(byte[] message, ECKeyPair keyPair) {
-        BigInteger privateKey = keyPair.getPrivateKey();
-        BigInteger publicKey = keyPair.getPublicKey();
-
         byte[] messageHash = Hash.sha3(message);
+        return signHash(messageHash, keyPair.getPrivateKey());
+    }
+
+    /**
+     * Sign a hash, the recovery id is taken from the nonce point R instead of trying to recover the
+     * public key with each candidate id.
+     *
+     * @param messageHash hash of the message
+     * @param privateKey private key
+     * @return signature with v = 27 + recovery id
+     */
+    public static Sign.SignatureData signHash(byte[] messageHash, BigInteger privateKey) {
+        BigInteger n = CURVE.getN();
+        BigInteger e = new BigInteger(1, messageHash);
+        HMacDSAKCalculator kCalculator = K_CALCULATOR.get();
+        kCalculator.init(n, privateKey, messageHash);
 
-        ECDSASignature sig = sign(messageHash, privateKey);
-        // Now we have to work backwards to figure out the recId needed to recover the signature.
-        int recId = -1;
-        for (int i = 0; i < 4; i++) {
-            BigInteger k = Sign.recoverFromSignature(i, sig, messageHash);
-            if (k != null && k.equals(publicKey)) {
-                recId = i;
-                break;
+        while (true) {
+            BigInteger k = kCalculator.nextK();
+            ECPoint p = BASE_POINT_MULTIPLIER.multiply(CURVE.getG(), k).normalize();
+            BigInteger x = p.getAffineXCoord().toBigInteger();
+            BigInteger r = x.mod(n);
+            if (r.signum() == 0) {
+                continue;
             }
-        }
-        if (recId == -1) {
-            throw new RuntimeException(
-                    "Could not construct a recoverable key. This should never happen.");
-        }
 
-        int headerByte = recId + 27;
+            BigInteger s = k.modInverse(n).multiply(e.add(privateKey.multiply(r))).mod(n);
+            if (s.signum() == 0) {
+                continue;
+            }
 
-        // 1 header + 32 bytes for R + 32 bytes for S
-        byte v = (byte) headerByte;
-        byte[] r = Numeric.toBytesPadded(sig.r, 32);
-        byte[] s = Numeric.toBytesPadded(sig.s, 32);
+            // bit 0 is the parity of R.y, bit 1 is set when R.x was reduced modulo n
+            int recId = (p.getAffineYCoord().testBitZero() ? 1 : 0) | (x.equals(r) ? 0 : 2);
+            if (s.compareTo(Sign.HALF_CURVE_ORDER) > 0) {
+                // (r, n - s) is the signature for -R, whose y has the other parity
+                s = n.subtract(s);
+                recId ^= 1;
+            }
 
-        return new Sign.SignatureData(v, r, s);
+            // 1 header + 32 bytes for R + 32 bytes for S
+            byte v = (byte) (recId + 27);
+            return new Sign.SignatureData(
+                    v, Numeric.toBytesPadded(r, 32), Numeric.toBytesPadded(s, 32));
+        }
     }
 
-    public static ECDSASignature sign(byte[] transactionHash, BigInteger privateKey) {
-        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+    @Override
+    public boolean verifyMessage(
+            byte[] message, Sign.SignatureData signatureData, BigInteger publicKey) {
+        return verifyHash(Hash.sha3(message), signatureData, publicKey);
+    }
+
+    /**
+     * Verify a signature against a known public key, u1 * G + u2 * Q is computed in one pass with
+     * Shamir's trick instead of recovering the key from the signature.
+     *
+     * @param messageHash hash of the message
+     * @param signatureData signature, v is not used
+     * @param publicKey 64 bytes public key
+     * @return false if the signature is malformed or not made by the key
+     */
+    public static boolean verifyHash(
+            byte[] messageHash, Sign.SignatureData signatureData, BigInteger publicKey) {
+        BigInteger n = CURVE.getN();
+        BigInteger r = new BigInteger(1, signatureData.getR());
+        BigInteger s = new BigInteger(1, signatureData.getS());
+        if (r.signum() == 0 || r.compareTo(n) >= 0 || s.signum() == 0 || s.compareTo(n) >= 0) {
+            return false;
+        }
 
-        ECPrivateKeyParameters privKey = new ECPrivateKeyParameters(privateKey, CURVE);
-        signer.init(true, privKey);
-        BigInteger[] components = signer.generateSignature(transactionHash);
+        ECPoint q;
+        try {
+            byte[] encoded = new byte[65];
+            encoded[0] = 0x04;
+            System.arraycopy(Numeric.toBytesPadded(publicKey, 64), 0, encoded, 1, 64);
+            q = CURVE.getCurve().decodePoint(encoded);
+        } catch (RuntimeException e) {
+            // not a point of the curve, or longer than 64 bytes
+            return false;
+        }
 
-        return new ECDSASignature(components[0], components[1]).toCanonicalised();
+        BigInteger e = new BigInteger(1, messageHash);
+        BigInteger w = s.modInverse(n);
+        BigInteger u1 = e.multiply(w).mod(n);
+        BigInteger u2 = r.multiply(w).mod(n);
+        ECPoint p = ECAlgorithms.sumOfTwoMultiplies(CURVE.getG(), u1, q, u2).normalize();
+        if (p.isInfinity()) {
+            return false;
+        }
+        return p.getAffineXCoord().toBigInteger().mod(n).equals(r);
+    }
+
+    public static ECDSASignature sign(byte[] transactionHash, BigInteger privateKey) {
+        Sign.SignatureData signatureData = signHash(transactionHash, privateKey);
+        return new ECDSASignature(
+                new BigInteger(1, signatureData.getR()), new BigInteger(1, signatureData.getS()));
     }
 }
@@ -3,18 +3,17 @@ package org.fisco.bcos.web3j.crypto;
 import java.math.BigInteger;
 import java.security.KeyPair;
 import java.util.Arrays;
-import org.bouncycastle.crypto.digests.SHA256Digest;
-import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
-import org.bouncycastle.crypto.signers.ECDSASigner;
-import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPrivateKey;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPublicKey;
+import org.fisco.bcos.web3j.crypto.gm.sm2.crypto.asymmetric.SM2Signer;
 import org.fisco.bcos.web3j.utils.Numeric;
 
 /** Elliptic Curve SECP-256k1 generated key pair. */
 public class ECKeyPair {
     private final BigInteger privateKey;
     private final BigInteger publicKey;
+    // created on the first SM2 signature, see getSM2Signer
+    private volatile SM2Signer sm2Signer;
 
     public ECKeyPair(BigInteger privateKey, BigInteger publicKey) {
         this.privateKey = privateKey;
@@ -36,13 +35,22 @@ public class ECKeyPair {
      * @return An {@link ECDSASignature} of the hash
      */
     public ECDSASignature sign(byte[] transactionHash) {
-        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
-
-        ECPrivateKeyParameters privKey = new ECPrivateKeyParameters(privateKey, Sign.CURVE);
-        signer.init(true, privKey);
-        BigInteger[] components = signer.generateSignature(transactionHash);
+        return ECDSASign.sign(transactionHash, privateKey);
+    }
 
-        return new ECDSASignature(components[0], components[1]).toCanonicalised();
+    /**
+     * SM2 signer of the private key, created once so that the public point and Z are not derived
+     * again for each signature.
+     *
+     * @return the signer used by {@link org.fisco.bcos.web3j.crypto.gm.sm2.SM2Sign}
+     */
+    public SM2Signer getSM2Signer() {
+        SM2Signer signer = sm2Signer;
+        if (signer == null) {
+            signer = new SM2Signer(privateKey);
+            sm2Signer = signer;
+        }
+        return signer;
     }
 
     public static ECKeyPair create(KeyPair keyPair) {
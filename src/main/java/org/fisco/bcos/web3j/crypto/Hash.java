@@ -55,6 +55,16 @@ public class Hash {
         return hashInterface.hash(input, 0, input.length);
     }
 
+    /**
+     * Digest of the current hash function for input given in pieces, e.g. parts of a message that
+     * would otherwise be concatenated first.
+     *
+     * @return a new digest, to be used by one thread at a time
+     */
+    public static HashDigest newDigest() {
+        return hashInterface.newDigest();
+    }
+
     /**
      * Keccak-256 hash function that operates on a UTF-8 encoded String.
      *
@@ -0,0 +1,41 @@
+package org.fisco.bcos.web3j.crypto;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Hash computed over input given in pieces, so that callers need not concatenate the pieces or
+ * convert them to hex first. Obtained from {@link Hash#newDigest()}. Instances are not thread safe
+ * and are reset by {@link #doFinal(byte[], int)}, so they can be kept and reused.
+ */
+public interface HashDigest {
+
+    void update(byte in);
+
+    void update(byte[] in, int inOff, int len);
+
+    /**
+     * Absorb the remaining bytes of the buffer, advancing its position to its limit. A netty
+     * ByteBuf can be passed as {@code buf.nioBuffer()}.
+     */
+    void update(ByteBuffer in);
+
+    /**
+     * Write the hash of the input given since the last reset and reset the digest.
+     *
+     * @param out array to write to
+     * @param outOff offset of the hash in out
+     * @return number of bytes written, {@link #getDigestSize()}
+     */
+    int doFinal(byte[] out, int outOff);
+
+    /** @return the hash of the input given since the last reset, the digest is reset */
+    default byte[] doFinal() {
+        byte[] out = new byte[getDigestSize()];
+        doFinal(out, 0);
+        return out;
+    }
+
+    int getDigestSize();
+
+    void reset();
+}
@@ -6,4 +6,9 @@ public interface HashInterface {
     byte[] hash(byte[] input, int offset, int length);
 
     byte[] hash(byte[] input);
+
+    /** @return a digest for input given in pieces, by default it collects the input */
+    default HashDigest newDigest() {
+        return new BufferedHashDigest(this);
+    }
 }
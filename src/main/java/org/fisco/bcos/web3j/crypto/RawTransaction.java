@@ -20,6 +20,8 @@ public class RawTransaction implements Serializable {
     private String to;
     private BigInteger value;
     private String data;
+    // set instead of data by the byte[] factories, data is then derived on demand
+    private byte[] dataBytes;
     private BigInteger version = TransactionConstant.version;
 
     protected RawTransaction(
@@ -44,6 +46,18 @@ public class RawTransaction implements Serializable {
         }
     }
 
+    protected RawTransaction(
+            BigInteger randomid,
+            BigInteger gasPrice,
+            BigInteger gasLimit,
+            BigInteger blockLimit,
+            String to,
+            BigInteger value,
+            byte[] data) {
+        this(randomid, gasPrice, gasLimit, blockLimit, to, value, (String) null);
+        this.dataBytes = data;
+    }
+
     public static RawTransaction createContractTransaction(
             BigInteger randomid,
             BigInteger gasPrice,
@@ -89,6 +103,23 @@ public class RawTransaction implements Serializable {
         return new RawTransaction(randomid, gasPrice, gasLimit, blockLimit, to, value, data);
     }
 
+    /**
+     * Transaction with binary data, e.g. from {@link
+     * org.fisco.bcos.web3j.abi.AbiEncoder#encode(org.fisco.bcos.web3j.abi.datatypes.Function)},
+     * which is RLP encoded without a round trip through hex.
+     */
+    public static RawTransaction createTransaction(
+            BigInteger randomid,
+            BigInteger gasPrice,
+            BigInteger gasLimit,
+            BigInteger blockLimit,
+            String to,
+            BigInteger value,
+            byte[] data) {
+
+        return new RawTransaction(randomid, gasPrice, gasLimit, blockLimit, to, value, data);
+    }
+
     public BigInteger getRandomid() {
         return randomid;
     }
@@ -114,9 +145,20 @@ public class RawTransaction implements Serializable {
     }
 
     public String getData() {
+        if (data == null && dataBytes != null) {
+            data = Numeric.toHexStringNoPrefix(dataBytes);
+        }
         return data;
     }
 
+    /** @return data in binary, must not be modified */
+    public byte[] getDataBytes() {
+        if (dataBytes != null) {
+            return dataBytes;
+        }
+        return Numeric.hexStringToByteArray(data);
+    }
+
     public BigInteger getVersion() {
         return version;
     }
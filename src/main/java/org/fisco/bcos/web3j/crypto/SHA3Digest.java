@@ -1,10 +1,16 @@
 package org.fisco.bcos.web3j.crypto;
 
-import org.bouncycastle.jcajce.provider.digest.Keccak;
+import java.nio.ByteBuffer;
+import org.bouncycastle.crypto.digests.KeccakDigest;
 import org.fisco.bcos.web3j.utils.Numeric;
 
 /** Created by websterchen on 2018/3/21. */
 public class SHA3Digest implements HashInterface {
+
+    // Keccak-256 engine of the hash methods, reset after each hash
+    private static final ThreadLocal<KeccakDigest> keccak =
+            ThreadLocal.withInitial(() -> new KeccakDigest(256));
+
     public SHA3Digest() {}
 
     @Override
@@ -16,13 +22,67 @@ public class SHA3Digest implements HashInterface {
 
     @Override
     public byte[] hash(byte[] input, int offset, int length) {
-        Keccak.DigestKeccak kecc = new Keccak.Digest256();
+        KeccakDigest kecc = keccak.get();
+        // a previous hash may have been left incomplete by an exception
+        kecc.reset();
         kecc.update(input, offset, length);
-        return kecc.digest();
+        byte[] out = new byte[32];
+        kecc.doFinal(out, 0);
+        return out;
     }
 
     @Override
     public byte[] hash(byte[] input) {
         return hash(input, 0, input.length);
     }
+
+    @Override
+    public HashDigest newDigest() {
+        return new Keccak256();
+    }
+
+    /** Streaming Keccak-256. */
+    public static class Keccak256 implements HashDigest {
+        private final KeccakDigest kecc = new KeccakDigest(256);
+
+        @Override
+        public void update(byte in) {
+            kecc.update(in);
+        }
+
+        @Override
+        public void update(byte[] in, int inOff, int len) {
+            kecc.update(in, inOff, len);
+        }
+
+        @Override
+        public void update(ByteBuffer in) {
+            if (in.hasArray()) {
+                kecc.update(in.array(), in.arrayOffset() + in.position(), in.remaining());
+                in.position(in.limit());
+            } else {
+                byte[] chunk = new byte[Math.min(in.remaining(), 256)];
+                while (in.hasRemaining()) {
+                    int len = Math.min(in.remaining(), chunk.length);
+                    in.get(chunk, 0, len);
+                    kecc.update(chunk, 0, len);
+                }
+            }
+        }
+
+        @Override
+        public int doFinal(byte[] out, int outOff) {
+            return kecc.doFinal(out, outOff);
+        }
+
+        @Override
+        public int getDigestSize() {
+            return kecc.getDigestSize();
+        }
+
+        @Override
+        public void reset() {
+            kecc.reset();
+        }
+    }
 }
@@ -50,11 +50,10 @@ public class Sign {
     static byte[] getEthereumMessageHash(byte[] message) {
         byte[] prefix = getEthereumMessagePrefix(message.length);
 
-        byte[] result = new byte[prefix.length + message.length];
-        System.arraycopy(prefix, 0, result, 0, prefix.length);
-        System.arraycopy(message, 0, result, prefix.length, message.length);
-
-        return Hash.sha3(result);
+        HashDigest digest = Hash.newDigest();
+        digest.update(prefix, 0, prefix.length);
+        digest.update(message, 0, message.length);
+        return digest.doFinal();
     }
 
     //    public static SignatureData signPrefixedMessage(byte[] message, ECKeyPair keyPair) {
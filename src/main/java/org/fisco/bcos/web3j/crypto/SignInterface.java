@@ -1,5 +1,21 @@
 package org.fisco.bcos.web3j.crypto;
+
+import java.math.BigInteger;
+
 /** Created by websterchen on 2018/3/22. */
 public interface SignInterface {
     Sign.SignatureData signMessage(byte[] message, ECKeyPair keyPair);
+
+    /**
+     * @param message the signed message, hashed the same way as in {@link #signMessage}
+     * @param signatureData signature of the message
+     * @param publicKey 64 bytes public key of the signer
+     * @return false if the signature is malformed or not made by the key
+     * @throws UnsupportedOperationException if the implementation only signs
+     */
+    default boolean verifyMessage(
+            byte[] message, Sign.SignatureData signatureData, BigInteger publicKey) {
+        throw new UnsupportedOperationException(
+                getClass().getName() + " does not verify signatures");
+    }
 }
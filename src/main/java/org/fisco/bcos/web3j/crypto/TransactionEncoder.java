@@ -75,9 +75,8 @@ public class TransactionEncoder {
 
         result.add(RlpString.create(rawTransaction.getValue()));
 
-        // value field will already be hex encoded, so we need to convert into binary first
-        byte[] data = Numeric.hexStringToByteArray(rawTransaction.getData());
-        result.add(RlpString.create(data));
+        // hex data is converted into binary, binary data is used as is
+        result.add(RlpString.create(rawTransaction.getDataBytes()));
 
         if (signatureData != null) {
             if (EncryptType.encryptType == 1) {
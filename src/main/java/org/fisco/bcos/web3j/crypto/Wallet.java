@@ -176,12 +176,10 @@ public class Wallet {
     }
 
     private static byte[] generateMac(byte[] derivedKey, byte[] cipherText) {
-        byte[] result = new byte[16 + cipherText.length];
-
-        System.arraycopy(derivedKey, 16, result, 0, 16);
-        System.arraycopy(cipherText, 0, result, 16, cipherText.length);
-
-        return Hash.sha3(result);
+        HashDigest digest = Hash.newDigest();
+        digest.update(derivedKey, 16, 16);
+        digest.update(cipherText, 0, cipherText.length);
+        return digest.doFinal();
     }
 
     public static ECKeyPair decrypt(String password, WalletFile walletFile) throws CipherException {
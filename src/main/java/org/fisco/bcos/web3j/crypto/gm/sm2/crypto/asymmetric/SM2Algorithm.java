@@ -8,6 +8,7 @@ import org.bouncycastle.asn1.ASN1Integer;
 import org.bouncycastle.asn1.ASN1Primitive;
 import org.bouncycastle.asn1.ASN1Sequence;
 import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.math.ec.ECAlgorithms;
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
 import org.fisco.bcos.web3j.crypto.gm.sm2.crypto.digests.SM3Digest;
@@ -323,10 +324,10 @@ public class SM2Algorithm {
     ////////////////////////////////////////////////////////////////////////////////////////////
     ////////////////////////////////////////////////////////////////////////////////////////////
 
-    private static byte[] USER_ID = KeyUtils.hex2byte("31323334353637383132333435363738");
+    static byte[] USER_ID = KeyUtils.hex2byte("31323334353637383132333435363738");
     private static int mFieldSizeInBytes;
     private static ECCurve curve256;
-    private static ECPoint g256;
+    static ECPoint g256;
 
     // 初始化曲线G
     static {
@@ -345,49 +346,7 @@ public class SM2Algorithm {
      * @author fisco-bcos
      */
     private static BigInteger[] Sign(byte[] md, BigInteger privateKeyS) {
-        SM3Digest sm3 = new SM3Digest();
-        byte[] z = sm2GetZ(USER_ID, g256.multiply(privateKeyS));
-        sm3.update(z, 0, z.length);
-        byte[] p = md;
-        sm3.update(p, 0, p.length);
-        byte[] hashData = new byte[32];
-        sm3.doFinal(hashData, 0);
-        return SignSm3(hashData, privateKeyS);
-    }
-
-    /**
-     * SM2私钥签名
-     *
-     * @param hash 32字节hash
-     * @param privateKeyS
-     * @return
-     * @date 2015年12月3日
-     * @author fisco-bcos
-     */
-    private static BigInteger[] SignSm3(byte[] hash, BigInteger privateKeyS) {
-        byte[] hashData = ByteUtils.copyBytes(hash);
-        BigInteger e = new BigInteger(1, hashData);
-        BigInteger k = null;
-        ECPoint kp = null;
-        BigInteger r = null;
-        BigInteger s = null;
-        BigInteger userD = privateKeyS;
-        do {
-            do {
-                k = createRandom();
-                kp = g256.multiply(k);
-                ECPoint ecPoint = kp.normalize();
-                r = e.add(ecPoint.getAffineXCoord().toBigInteger());
-                r = r.mod(n);
-            } while (r.equals(BigInteger.ZERO) || r.add(k).equals(n));
-            BigInteger da_1 = userD.add(BigInteger.ONE).modInverse(n);
-            s = r.multiply(userD);
-            s = k.subtract(s);
-            s = s.multiply(da_1);
-            s = s.mod(n);
-        } while (s.equals(BigInteger.ZERO));
-        BigInteger[] retRS = {r, s};
-        return retRS;
+        return new SM2Signer(privateKeyS).sign(md);
     }
 
     /**
@@ -401,17 +360,30 @@ public class SM2Algorithm {
      * @author fisco-bcos
      */
     private static boolean verify(byte[] msg, byte[] signData, BigInteger biX, BigInteger biY) {
-        ECPoint userKey = curve256.createPoint(biX, biY);
         byte[] btRS = signData;
         byte[] btR = ByteUtils.subByteArray(btRS, 0, btRS.length / 2);
         byte[] btS = ByteUtils.subByteArray(btRS, btR.length, btRS.length - btR.length);
-        BigInteger r = new BigInteger(1, btR);
+        return verify(msg, new BigInteger(1, btR), new BigInteger(1, btS), biX, biY);
+    }
+
+    /**
+     * SM2公钥验签, s*G + t*P 用 Shamir's trick 一次计算
+     *
+     * @param msg 签名的数据
+     * @param r
+     * @param s
+     * @param biX 公钥X
+     * @param biY 公钥Y
+     * @return
+     */
+    public static boolean verify(
+            byte[] msg, BigInteger r, BigInteger s, BigInteger biX, BigInteger biY) {
         // 检验 r ′ ∈[1, n-1]是否成立，若不成立则验证不通过；
         if (!checkValidateK(r)) return false;
-        BigInteger s = new BigInteger(1, btS);
         // 检验 s ′ ∈[1, n-1]是否成立，若不成立则验证不通过；
         if (!checkValidateK(s)) return false;
 
+        ECPoint userKey = curve256.createPoint(biX, biY);
         SM3Digest sm3 = new SM3Digest();
         byte[] z = sm2GetZ(USER_ID, userKey);
         sm3.update(z, 0, z.length);
@@ -424,26 +396,14 @@ public class SM2Algorithm {
 
         BigInteger t = r.add(s).mod(n);
         if (t.equals(BigInteger.ZERO)) return false;
-        ECPoint x1y1 = g256.multiply(s);
-        x1y1 = x1y1.add(userKey.multiply(t));
-        BigInteger R = e.add(x1y1.normalize().getAffineXCoord().toBigInteger()).mod(n);
+        ECPoint x1y1 = ECAlgorithms.sumOfTwoMultiplies(g256, s, userKey, t).normalize();
+        if (x1y1.isInfinity()) return false;
+        BigInteger R = e.add(x1y1.getAffineXCoord().toBigInteger()).mod(n);
 
         return r.equals(R);
     }
 
-    /** * 用随机数发生器产生随机数k ∈[1,n-1] */
-    private static BigInteger createRandom() {
-        SecureRandom random = new SecureRandom();
-        byte[] r = new byte[32];
-        BigInteger k;
-        do {
-            random.nextBytes(r);
-            k = new BigInteger(1, r);
-        } while (!checkValidateK(k));
-        return k;
-    }
-
-    private static boolean checkValidateK(BigInteger k) { // k ∈[1,n-1]
+    static boolean checkValidateK(BigInteger k) { // k ∈[1,n-1]
         if (k.compareTo(new BigInteger("0")) > 0 && k.compareTo(n) < 0) {
             return true;
         }
@@ -459,7 +419,7 @@ public class SM2Algorithm {
      * @date 2015年12月4日
      * @author fisco-bcos
      */
-    private static byte[] sm2GetZ(byte[] userId, ECPoint publicKey) {
+    static byte[] sm2GetZ(byte[] userId, ECPoint publicKey) {
         SM3Digest sm3 = new SM3Digest();
         int BitsLength = userId.length << 3;
         sm3.update((byte) (BitsLength >> 8 & 0xFF));
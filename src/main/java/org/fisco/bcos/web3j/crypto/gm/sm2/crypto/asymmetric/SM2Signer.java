@@ -0,0 +1,96 @@
+package org.fisco.bcos.web3j.crypto.gm.sm2.crypto.asymmetric;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.fisco.bcos.web3j.crypto.gm.sm2.crypto.digests.SM3Digest;
+
+/**
+ * SM2签名, 绑定一个私钥
+ *
+ * <p>公钥点, Z值的摘要状态和 (1+d)^-1 mod n 在构造时计算一次, 每次签名只做一次 [k]G 点乘, 直接返回 r, s, 不经过DER编码.
+ */
+public class SM2Signer {
+
+    // comb multiplier, the precomputed table of G is built once and kept on the curve point
+    private static final ECMultiplier BASE_POINT_MULTIPLIER = new FixedPointCombMultiplier();
+
+    private static final ThreadLocal<SecureRandom> RANDOM =
+            ThreadLocal.withInitial(SecureRandom::new);
+
+    private final BigInteger privateKey;
+    private final ECPoint publicPoint;
+    // digest with Z already absorbed, copied for each signature
+    private final SM3Digest zDigest;
+    // (1 + d)^-1 mod n
+    private final BigInteger da1;
+
+    public SM2Signer(BigInteger privateKey) {
+        this.privateKey = privateKey;
+        this.publicPoint =
+                BASE_POINT_MULTIPLIER.multiply(SM2Algorithm.g256, privateKey).normalize();
+        byte[] z = SM2Algorithm.sm2GetZ(SM2Algorithm.USER_ID, publicPoint);
+        this.zDigest = new SM3Digest();
+        zDigest.update(z, 0, z.length);
+        this.da1 = privateKey.add(BigInteger.ONE).modInverse(SM2Algorithm.n);
+    }
+
+    public BigInteger getPrivateKey() {
+        return privateKey;
+    }
+
+    public ECPoint getPublicPoint() {
+        return publicPoint;
+    }
+
+    /**
+     * SM2私钥签名
+     *
+     * @param md 待签名数据
+     * @return r, s
+     */
+    public BigInteger[] sign(byte[] md) {
+        SM3Digest sm3 = new SM3Digest(zDigest);
+        sm3.update(md, 0, md.length);
+        byte[] hashData = new byte[32];
+        sm3.doFinal(hashData, 0);
+        return signHash(hashData);
+    }
+
+    /**
+     * SM2私钥签名
+     *
+     * @param hash 32字节hash, 即 SM3(Z || M)
+     * @return r, s
+     */
+    public BigInteger[] signHash(byte[] hash) {
+        BigInteger n = SM2Algorithm.n;
+        BigInteger e = new BigInteger(1, hash);
+        SecureRandom random = RANDOM.get();
+        BigInteger k;
+        BigInteger r;
+        BigInteger s;
+        do {
+            do {
+                k = createRandom(random);
+                ECPoint kp = BASE_POINT_MULTIPLIER.multiply(SM2Algorithm.g256, k).normalize();
+                r = e.add(kp.getAffineXCoord().toBigInteger()).mod(n);
+            } while (r.signum() == 0 || r.add(k).equals(n));
+            s = k.subtract(r.multiply(privateKey)).multiply(da1).mod(n);
+        } while (s.signum() == 0);
+        return new BigInteger[] {r, s};
+    }
+
+    /** * 用随机数发生器产生随机数k ∈[1,n-1] */
+    private static BigInteger createRandom(SecureRandom random) {
+        byte[] r = new byte[32];
+        BigInteger k;
+        do {
+            random.nextBytes(r);
+            k = new BigInteger(1, r);
+        } while (!SM2Algorithm.checkValidateK(k));
+        return k;
+    }
+}
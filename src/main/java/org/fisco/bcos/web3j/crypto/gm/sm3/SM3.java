@@ -1,5 +1,7 @@
 package org.fisco.bcos.web3j.crypto.gm.sm3;
 
+import org.fisco.bcos.web3j.crypto.gm.sm2.util.Pack;
+
 public class SM3 {
     /*public static final byte[] iv = { 0x2C, (byte) 0x91, (byte) 0xB4, 0x01,
     (byte) 0xFC, 0x64, (byte) 0xB2, (byte) 0xCE, 0x7C, 0x4E,
@@ -55,197 +57,111 @@ public class SM3 {
         }
     }
 
-    public static byte[] CF(byte[] V, byte[] B) {
-        int[] v, b;
-        v = convert(V);
-        b = convert(B);
-        return convert(CF(v, b));
-    }
+    // Tj rotated left by j, as used in the compression rounds
+    private static final int[] T = new int[64];
 
-    private static int[] convert(byte[] arr) {
-        int[] out = new int[arr.length / 4];
-        byte[] tmp = new byte[4];
-        for (int i = 0; i < arr.length; i += 4) {
-            System.arraycopy(arr, i, tmp, 0, 4);
-            out[i / 4] = bigEndianByteToInt(tmp);
+    static {
+        for (int j = 0; j < 64; j++) {
+            T[j] = Integer.rotateLeft(Tj[j], j);
         }
-        return out;
     }
 
-    private static byte[] convert(int[] arr) {
-        byte[] out = new byte[arr.length * 4];
-        byte[] tmp = null;
-        for (int i = 0; i < arr.length; i++) {
-            tmp = bigEndianIntToByte(arr[i]);
-            System.arraycopy(tmp, 0, out, i * 4, 4);
+    public static byte[] CF(byte[] V, byte[] B) {
+        int[] v = new int[8];
+        int[] w = new int[68];
+        for (int i = 0; i < 8; i++) {
+            v[i] = Pack.bigEndianToInt(V, i * 4);
+        }
+        for (int i = 0; i < 16; i++) {
+            w[i] = Pack.bigEndianToInt(B, i * 4);
+        }
+        compress(v, w);
+        byte[] out = new byte[32];
+        for (int i = 0; i < 8; i++) {
+            Pack.intToBigEndian(v[i], out, i * 4);
         }
         return out;
     }
 
     public static int[] CF(int[] V, int[] B) {
-        int a, b, c, d, e, f, g, h;
-        int ss1, ss2, tt1, tt2;
-        a = V[0];
-        b = V[1];
-        c = V[2];
-        d = V[3];
-        e = V[4];
-        f = V[5];
-        g = V[6];
-        h = V[7];
-
-        /*System.out.println("IV: ");
-        System.out.print(Integer.toHexString(a)+" ");
-        System.out.print(Integer.toHexString(b)+" ");
-        System.out.print(Integer.toHexString(c)+" ");
-        System.out.print(Integer.toHexString(d)+" ");
-        System.out.print(Integer.toHexString(e)+" ");
-        System.out.print(Integer.toHexString(f)+" ");
-        System.out.print(Integer.toHexString(g)+" ");
-        System.out.print(Integer.toHexString(h)+" ");
-        System.out.println("");
-        System.out.println("");
+        int[] out = V.clone();
+        int[] w = new int[68];
+        System.arraycopy(B, 0, w, 0, 16);
+        compress(out, w);
+        return out;
+    }
 
-        System.out.println("填充后的消息: ");
-        for(int i=0; i<B.length; i++)
-        {
-        	System.out.print(Integer.toHexString(B[i])+" ");
+    /**
+     * Compress one block into the state.
+     *
+     * @param V state, updated in place
+     * @param W message expansion buffer of 68 words, the block in the first 16
+     */
+    static void compress(int[] V, int[] W) {
+        for (int i = 16; i < 68; i++) {
+            W[i] =
+                    P1(W[i - 16] ^ W[i - 9] ^ Integer.rotateLeft(W[i - 3], 15))
+                            ^ Integer.rotateLeft(W[i - 13], 7)
+                            ^ W[i - 6];
         }
-        System.out.println("");
-        System.out.println("");*/
-
-        int[][] arr = expand(B);
-        int[] w = arr[0];
-        int[] w1 = arr[1];
-
-        /*System.out.println("扩展后的消息： ");
-        System.out.println("W0W1...W67");
-        print(w);
-        System.out.println("");
-        System.out.println("W'0W'1...W'67");
-        print(w1);
-        System.out.println("迭代压缩中间值: ");*/
 
-        for (int j = 0; j < 64; j++) {
-            ss1 = (bitCycleLeft(a, 12) + e + bitCycleLeft(Tj[j], j));
-            ss1 = bitCycleLeft(ss1, 7);
-            ss2 = ss1 ^ bitCycleLeft(a, 12);
-            tt1 = FFj(a, b, c, j) + d + ss2 + w1[j];
-            tt2 = GGj(e, f, g, j) + h + ss1 + w[j];
+        int a = V[0];
+        int b = V[1];
+        int c = V[2];
+        int d = V[3];
+        int e = V[4];
+        int f = V[5];
+        int g = V[6];
+        int h = V[7];
+
+        for (int j = 0; j < 16; j++) {
+            int a12 = Integer.rotateLeft(a, 12);
+            int ss1 = Integer.rotateLeft(a12 + e + T[j], 7);
+            int ss2 = ss1 ^ a12;
+            int tt1 = (a ^ b ^ c) + d + ss2 + (W[j] ^ W[j + 4]);
+            int tt2 = (e ^ f ^ g) + h + ss1 + W[j];
             d = c;
-            c = bitCycleLeft(b, 9);
+            c = Integer.rotateLeft(b, 9);
             b = a;
             a = tt1;
             h = g;
-            g = bitCycleLeft(f, 19);
+            g = Integer.rotateLeft(f, 19);
             f = e;
             e = P0(tt2);
-
-            /*System.out.print(j+" ");
-            System.out.print(Integer.toHexString(a)+" ");
-            System.out.print(Integer.toHexString(b)+" ");
-            System.out.print(Integer.toHexString(c)+" ");
-            System.out.print(Integer.toHexString(d)+" ");
-            System.out.print(Integer.toHexString(e)+" ");
-            System.out.print(Integer.toHexString(f)+" ");
-            System.out.print(Integer.toHexString(g)+" ");
-            System.out.print(Integer.toHexString(h)+" ");
-            System.out.println("");*/
-        }
-        //		System.out.println("");
-
-        int[] out = new int[8];
-        out[0] = a ^ V[0];
-        out[1] = b ^ V[1];
-        out[2] = c ^ V[2];
-        out[3] = d ^ V[3];
-        out[4] = e ^ V[4];
-        out[5] = f ^ V[5];
-        out[6] = g ^ V[6];
-        out[7] = h ^ V[7];
-
-        return out;
-    }
-
-    private static int[][] expand(int[] B) {
-        int W[] = new int[68];
-        int W1[] = new int[64];
-        for (int i = 0; i < B.length; i++) {
-            W[i] = B[i];
-        }
-
-        for (int i = 16; i < 68; i++) {
-            W[i] =
-                    P1(W[i - 16] ^ W[i - 9] ^ bitCycleLeft(W[i - 3], 15))
-                            ^ bitCycleLeft(W[i - 13], 7)
-                            ^ W[i - 6];
-        }
-
-        for (int i = 0; i < 64; i++) {
-            W1[i] = W[i] ^ W[i + 4];
-        }
-
-        int arr[][] = new int[][] {W, W1};
-        return arr;
-    }
-
-    private static byte[] bigEndianIntToByte(int num) {
-        return back(Util.intToBytes(num));
-    }
-
-    private static int bigEndianByteToInt(byte[] bytes) {
-        return Util.byteToInt(back(bytes));
-    }
-
-    private static int FFj(int X, int Y, int Z, int j) {
-        if (j >= 0 && j <= 15) {
-            return FF1j(X, Y, Z);
-        } else {
-            return FF2j(X, Y, Z);
         }
-    }
 
-    private static int GGj(int X, int Y, int Z, int j) {
-        if (j >= 0 && j <= 15) {
-            return GG1j(X, Y, Z);
-        } else {
-            return GG2j(X, Y, Z);
+        for (int j = 16; j < 64; j++) {
+            int a12 = Integer.rotateLeft(a, 12);
+            int ss1 = Integer.rotateLeft(a12 + e + T[j], 7);
+            int ss2 = ss1 ^ a12;
+            int tt1 = ((a & b) | (a & c) | (b & c)) + d + ss2 + (W[j] ^ W[j + 4]);
+            int tt2 = ((e & f) | (~e & g)) + h + ss1 + W[j];
+            d = c;
+            c = Integer.rotateLeft(b, 9);
+            b = a;
+            a = tt1;
+            h = g;
+            g = Integer.rotateLeft(f, 19);
+            f = e;
+            e = P0(tt2);
         }
-    }
 
-    // 逻辑位运算函数
-    private static int FF1j(int X, int Y, int Z) {
-        int tmp = X ^ Y ^ Z;
-        return tmp;
-    }
-
-    private static int FF2j(int X, int Y, int Z) {
-        int tmp = ((X & Y) | (X & Z) | (Y & Z));
-        return tmp;
-    }
-
-    private static int GG1j(int X, int Y, int Z) {
-        int tmp = X ^ Y ^ Z;
-        return tmp;
-    }
-
-    private static int GG2j(int X, int Y, int Z) {
-        int tmp = (X & Y) | (~X & Z);
-        return tmp;
+        V[0] ^= a;
+        V[1] ^= b;
+        V[2] ^= c;
+        V[3] ^= d;
+        V[4] ^= e;
+        V[5] ^= f;
+        V[6] ^= g;
+        V[7] ^= h;
     }
 
     private static int P0(int X) {
-        int y = rotateLeft(X, 9);
-        y = bitCycleLeft(X, 9);
-        int z = rotateLeft(X, 17);
-        z = bitCycleLeft(X, 17);
-        int t = X ^ y ^ z;
-        return t;
+        return X ^ Integer.rotateLeft(X, 9) ^ Integer.rotateLeft(X, 17);
     }
 
     private static int P1(int X) {
-        int t = X ^ bitCycleLeft(X, 15) ^ bitCycleLeft(X, 23);
-        return t;
+        return X ^ Integer.rotateLeft(X, 15) ^ Integer.rotateLeft(X, 23);
     }
 
     /**
@@ -294,42 +210,6 @@ public class SM3 {
         return (x << n) | (x >> (32 - n));
     }
 
-    private static int bitCycleLeft(int n, int bitLen) {
-        bitLen %= 32;
-        byte[] tmp = bigEndianIntToByte(n);
-        int byteLen = bitLen / 8;
-        int len = bitLen % 8;
-        if (byteLen > 0) {
-            tmp = byteCycleLeft(tmp, byteLen);
-        }
-
-        if (len > 0) {
-            tmp = bitSmall8CycleLeft(tmp, len);
-        }
-
-        return bigEndianByteToInt(tmp);
-    }
-
-    private static byte[] bitSmall8CycleLeft(byte[] in, int len) {
-        byte[] tmp = new byte[in.length];
-        int t1, t2, t3;
-        for (int i = 0; i < tmp.length; i++) {
-            t1 = (byte) ((in[i] & 0x000000ff) << len);
-            t2 = (byte) ((in[(i + 1) % tmp.length] & 0x000000ff) >> (8 - len));
-            t3 = (byte) (t1 | t2);
-            tmp[i] = (byte) t3;
-        }
-
-        return tmp;
-    }
-
-    private static byte[] byteCycleLeft(byte[] in, int byteLen) {
-        byte[] tmp = new byte[in.length];
-        System.arraycopy(in, byteLen, tmp, 0, in.length - byteLen);
-        System.arraycopy(in, 0, tmp, in.length - byteLen, byteLen);
-        return tmp;
-    }
-
     /*private static void print(int[] arr)
     {
     	for (int i = 0; i < arr.length; i++)
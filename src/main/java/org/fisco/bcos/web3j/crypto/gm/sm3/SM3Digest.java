@@ -1,13 +1,17 @@
 package org.fisco.bcos.web3j.crypto.gm.sm3;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.bouncycastle.util.encoders.Hex;
+import org.fisco.bcos.web3j.crypto.HashDigest;
 import org.fisco.bcos.web3j.crypto.HashInterface;
+import org.fisco.bcos.web3j.crypto.gm.sm2.util.Pack;
 import org.fisco.bcos.web3j.utils.Numeric;
 import org.fisco.bcos.web3j.utils.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class SM3Digest implements HashInterface {
+public class SM3Digest implements HashInterface, HashDigest {
     static Logger logger = LoggerFactory.getLogger(SM3Digest.class);
     /** SM3值的长度 */
     private static final int BYTE_LENGTH = 32;
@@ -15,83 +19,102 @@ public class SM3Digest implements HashInterface {
     /** SM3分组长度 */
     private static final int BLOCK_LENGTH = 64;
 
-    /** 缓冲区长度 */
-    private static final int BUFFER_LENGTH = BLOCK_LENGTH * 1;
-
     /** 缓冲区 */
-    private byte[] xBuf = new byte[BUFFER_LENGTH];
+    private final byte[] xBuf = new byte[BLOCK_LENGTH];
 
     /** 缓冲区偏移量 */
     private int xBufOff;
 
-    /** 初始向量 */
-    private byte[] V = SM3.iv.clone();
+    /** 中间状态 */
+    private final int[] V = new int[8];
+
+    /** 消息扩展缓冲区 */
+    private final int[] W = new int[68];
+
+    /** 已输入的字节数 */
+    private long byteCount;
 
-    private int cntBlock = 0;
+    // engine of the hash methods, reset after each digest
+    private static final ThreadLocal<SM3Digest> engine =
+            ThreadLocal.withInitial(() -> new SM3Digest());
 
     @Override
     public String hash(String hexInput) {
-        byte[] md = new byte[32];
-        //		 hexInput = cleanHexPrefix(hexInput);
-        //		byte[] msg = Hex.decode(hexInput);
         byte[] msg = Numeric.hexStringToByteArray(hexInput);
-        logger.debug("sm3 hash origData:{}", hexInput);
-        SM3Digest sm3 = new SM3Digest();
-        sm3.update(msg, 0, msg.length);
-        sm3.doFinal(md, 0);
-        logger.debug("sm3 hash data:{}", Hex.toHexString(md));
-        return Numeric.toHexString(md);
+        return Numeric.toHexString(hash(msg, 0, msg.length));
     }
 
     @Override
     public byte[] hash(byte[] input, int offset, int length) {
-        byte[] md = new byte[32];
-        logger.debug("sm3 hash origData:{}", input);
-        SM3Digest sm3 = new SM3Digest();
+        byte[] md = new byte[BYTE_LENGTH];
+        SM3Digest sm3 = engine.get();
+        // a previous digest may have been left incomplete by an exception
+        sm3.reset();
         sm3.update(input, offset, length);
         sm3.doFinal(md, 0);
-        String s = new String(Hex.encode(md));
-        logger.debug("sm3 hash data:{}", s);
+        if (logger.isDebugEnabled()) {
+            logger.debug("sm3 hash data:{}", Hex.toHexString(md));
+        }
         return md;
     }
 
     @Override
     public byte[] hash(byte[] input) {
-        byte[] md = new byte[32];
-        logger.debug("sm3 hash origData:{}", input);
-        SM3Digest sm3 = new SM3Digest();
-        sm3.update(input, 0, input.length);
-        sm3.doFinal(md, 0);
-        String s = new String(Hex.encode(md));
-        logger.debug("sm3 hash data:{}", s);
-        return md;
+        return hash(input, 0, input.length);
     }
 
-    public SM3Digest() {}
+    public SM3Digest() {
+        reset();
+    }
 
     public SM3Digest(SM3Digest t) {
         System.arraycopy(t.xBuf, 0, this.xBuf, 0, t.xBuf.length);
         this.xBufOff = t.xBufOff;
         System.arraycopy(t.V, 0, this.V, 0, t.V.length);
+        this.byteCount = t.byteCount;
+    }
+
+    @Override
+    public HashDigest newDigest() {
+        return new SM3Digest();
+    }
+
+    /** @return a copy of the current state, e.g. after a common prefix has been absorbed */
+    public SM3Digest copy() {
+        return new SM3Digest(this);
     }
 
     /**
-     * SM3结果输出
+     * SM3结果输出，之后摘要被重置
      *
      * @param out 保存SM3结构的缓冲区
      * @param outOff 缓冲区偏移量
      * @return
      */
     public int doFinal(byte[] out, int outOff) {
-        byte[] tmp = doFinal();
-        System.arraycopy(tmp, 0, out, 0, tmp.length);
+        long bitLength = byteCount << 3;
+
+        xBuf[xBufOff++] = (byte) 0x80;
+        if (xBufOff > BLOCK_LENGTH - 8) {
+            Arrays.fill(xBuf, xBufOff, BLOCK_LENGTH, (byte) 0);
+            processBlock(xBuf, 0);
+            xBufOff = 0;
+        }
+        Arrays.fill(xBuf, xBufOff, BLOCK_LENGTH - 8, (byte) 0);
+        Pack.longToBigEndian(bitLength, xBuf, BLOCK_LENGTH - 8);
+        processBlock(xBuf, 0);
+
+        Pack.intToBigEndian(V, out, outOff);
+        reset();
         return BYTE_LENGTH;
     }
 
     public void reset() {
         xBufOff = 0;
-        cntBlock = 0;
-        V = SM3.iv.clone();
+        byteCount = 0;
+        for (int i = 0; i < 8; i++) {
+            V[i] = Pack.bigEndianToInt(SM3.iv, i * 4);
+        }
     }
 
     /**
@@ -102,56 +125,57 @@ public class SM3Digest implements HashInterface {
      * @param len 明文长度
      */
     public void update(byte[] in, int inOff, int len) {
-        int partLen = BUFFER_LENGTH - xBufOff;
-        int inputLen = len;
-        int dPos = inOff;
-        if (partLen < inputLen) {
-            System.arraycopy(in, dPos, xBuf, xBufOff, partLen);
-            inputLen -= partLen;
-            dPos += partLen;
-            doUpdate();
-            while (inputLen > BUFFER_LENGTH) {
-                System.arraycopy(in, dPos, xBuf, 0, BUFFER_LENGTH);
-                inputLen -= BUFFER_LENGTH;
-                dPos += BUFFER_LENGTH;
-                doUpdate();
+        byteCount += len;
+        if (xBufOff > 0) {
+            int partLen = Math.min(BLOCK_LENGTH - xBufOff, len);
+            System.arraycopy(in, inOff, xBuf, xBufOff, partLen);
+            xBufOff += partLen;
+            inOff += partLen;
+            len -= partLen;
+            if (xBufOff < BLOCK_LENGTH) {
+                return;
             }
+            processBlock(xBuf, 0);
+            xBufOff = 0;
         }
 
-        System.arraycopy(in, dPos, xBuf, xBufOff, inputLen);
-        xBufOff += inputLen;
-    }
-
-    private void doUpdate() {
-        byte[] B = new byte[BLOCK_LENGTH];
-        for (int i = 0; i < BUFFER_LENGTH; i += BLOCK_LENGTH) {
-            System.arraycopy(xBuf, i, B, 0, B.length);
-            doHash(B);
+        // whole blocks are read from the input without copying
+        while (len >= BLOCK_LENGTH) {
+            processBlock(in, inOff);
+            inOff += BLOCK_LENGTH;
+            len -= BLOCK_LENGTH;
         }
-        xBufOff = 0;
-    }
 
-    private void doHash(byte[] B) {
-        byte[] tmp = SM3.CF(V, B);
-        System.arraycopy(tmp, 0, V, 0, V.length);
-        cntBlock++;
+        System.arraycopy(in, inOff, xBuf, 0, len);
+        xBufOff = len;
     }
 
-    private byte[] doFinal() {
-        byte[] B = new byte[BLOCK_LENGTH];
-        byte[] buffer = new byte[xBufOff];
-        System.arraycopy(xBuf, 0, buffer, 0, buffer.length);
-        byte[] tmp = SM3.padding(buffer, cntBlock);
-        for (int i = 0; i < tmp.length; i += BLOCK_LENGTH) {
-            System.arraycopy(tmp, i, B, 0, B.length);
-            doHash(B);
+    @Override
+    public void update(ByteBuffer in) {
+        if (in.hasArray()) {
+            update(in.array(), in.arrayOffset() + in.position(), in.remaining());
+            in.position(in.limit());
+        } else {
+            while (in.hasRemaining()) {
+                update(in.get());
+            }
         }
-        return V;
     }
 
     public void update(byte in) {
-        byte[] buffer = new byte[] {in};
-        update(buffer, 0, 1);
+        xBuf[xBufOff++] = in;
+        ++byteCount;
+        if (xBufOff == BLOCK_LENGTH) {
+            processBlock(xBuf, 0);
+            xBufOff = 0;
+        }
+    }
+
+    private void processBlock(byte[] block, int off) {
+        for (int i = 0; i < 16; i++) {
+            W[i] = Pack.bigEndianToInt(block, off + i * 4);
+        }
+        SM3.compress(V, W);
     }
 
     public int getDigestSize() {
@@ -4,6 +4,7 @@ import java.net.IDN;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import org.fisco.bcos.web3j.crypto.Hash;
+import org.fisco.bcos.web3j.crypto.HashDigest;
 import org.fisco.bcos.web3j.utils.Numeric;
 
 /** ENS name hash implementation. */
@@ -32,12 +33,12 @@ public class NameHash {
             }
 
             byte[] remainderHash = nameHash(tail);
-            byte[] result = Arrays.copyOf(remainderHash, 64);
-
             byte[] labelHash = Hash.sha3(labels[0].getBytes(StandardCharsets.UTF_8));
-            System.arraycopy(labelHash, 0, result, 32, labelHash.length);
 
-            return Hash.sha3(result);
+            HashDigest digest = Hash.newDigest();
+            digest.update(remainderHash, 0, remainderHash.length);
+            digest.update(labelHash, 0, labelHash.length);
+            return digest.doFinal();
         }
     }
 
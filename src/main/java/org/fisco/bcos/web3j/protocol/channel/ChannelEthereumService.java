@@ -1,6 +1,8 @@
 package org.fisco.bcos.web3j.protocol.channel;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.fisco.bcos.channel.client.BcosResponseCallback;
 import org.fisco.bcos.channel.client.Service;
 import org.fisco.bcos.channel.dto.BcosRequest;
@@ -33,6 +35,55 @@ public class ChannelEthereumService extends org.fisco.bcos.web3j.protocol.Servic
 
     @Override
     public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
+        BcosRequest bcosRequest = createBcosRequest(request);
+
+        BcosResponse response;
+        if (!request.isNeedTransCallback()) {
+            response = channelService.sendEthereumMessage(bcosRequest);
+        } else {
+            response =
+                    channelService.sendEthereumMessage(
+                            bcosRequest, request.getTransactionSucCallback());
+        }
+        return decodeResponse(request, bcosRequest, response, responseType);
+    }
+
+    /**
+     * Send the request without blocking a thread: the callback is registered with the channel
+     * service and the future is completed by the response handler. Stages chained without an
+     * executor run on the thread delivering the response, use the *Async variants for heavy work.
+     */
+    @Override
+    public <T extends Response> CompletableFuture<T> sendAsync(
+            Request request, Class<T> responseType) {
+        BcosRequest bcosRequest;
+        try {
+            bcosRequest = createBcosRequest(request);
+        } catch (IOException e) {
+            CompletableFuture<T> future = new CompletableFuture<T>();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        CompletableFuture<BcosResponse> future;
+        if (!request.isNeedTransCallback()) {
+            future = channelService.sendEthereumMessageAsync(bcosRequest);
+        } else {
+            future =
+                    channelService.sendEthereumMessageAsync(
+                            bcosRequest, request.getTransactionSucCallback());
+        }
+        return future.thenApply(
+                response -> {
+                    try {
+                        return decodeResponse(request, bcosRequest, response, responseType);
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                });
+    }
+
+    private BcosRequest createBcosRequest(Request request) throws IOException {
         byte[] payload = objectMapper.writeValueAsBytes(request);
 
         BcosRequest bcosRequest = new BcosRequest();
@@ -42,39 +93,36 @@ public class ChannelEthereumService extends org.fisco.bcos.web3j.protocol.Servic
             bcosRequest.setKeyID(channelService.getAgencyName());
         }
         bcosRequest.setBankNO("");
-        bcosRequest.setContent(new String(payload));
+        bcosRequest.setContent(payload);
         bcosRequest.setMessageID(channelService.newSeq());
 
         if (timeout != 0) {
             bcosRequest.setTimeout(timeout);
         }
+        return bcosRequest;
+    }
 
-        BcosResponse response;
-        if (!request.isNeedTransCallback()) {
-            response = channelService.sendEthereumMessage(bcosRequest);
-        } else {
-            response =
-                    channelService.sendEthereumMessage(
-                            bcosRequest, request.getTransactionSucCallback());
-        }
+    private <T extends Response> T decodeResponse(
+            Request request, BcosRequest bcosRequest, BcosResponse response, Class<T> responseType)
+            throws IOException {
         logger.debug(
                 "bcos request, seq:{}, method:{}", bcosRequest.getMessageID(), request.getMethod());
-        logger.debug(
-                "bcos request:{} {}",
-                bcosRequest.getMessageID(),
-                objectMapper.writeValueAsString(request));
-        logger.trace(
-                "bcos request:{} {}",
-                bcosRequest.getMessageID(),
-                objectMapper.writeValueAsString(request));
-        logger.trace(
-                "bcos response:{} {} {}",
-                bcosRequest.getMessageID(),
-                response.getErrorCode(),
-                response.getContent());
+        if (logger.isDebugEnabled()) {
+            logger.debug(
+                    "bcos request:{} {}",
+                    bcosRequest.getMessageID(),
+                    objectMapper.writeValueAsString(request));
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace(
+                    "bcos response:{} {} {}",
+                    bcosRequest.getMessageID(),
+                    response.getErrorCode(),
+                    response.getContent());
+        }
         if (response.getErrorCode() == 0) {
             try {
-                T t = objectMapper.readValue(response.getContent(), responseType);
+                T t = objectMapper.readValue(response.getContentByteArray(), responseType);
                 if (t.getError() != null) {
                     throw new IOException(t.getError().getMessage());
                 }
@@ -111,7 +159,7 @@ public class ChannelEthereumService extends org.fisco.bcos.web3j.protocol.Servic
         BcosRequest fiscoRequest = new BcosRequest();
         fiscoRequest.setKeyID(channelService.getOrgID());
         fiscoRequest.setBankNO("");
-        fiscoRequest.setContent(new String(payload));
+        fiscoRequest.setContent(payload);
         fiscoRequest.setMessageID(channelService.newSeq());
 
         if (timeout != 0) {
@@ -125,10 +173,12 @@ public class ChannelEthereumService extends org.fisco.bcos.web3j.protocol.Servic
                         @Override
                         public void onResponse(BcosResponse response) {
                             try {
-                                logger.debug(
-                                        "fisco Request:{} {}",
-                                        fiscoRequest.getMessageID(),
-                                        objectMapper.writeValueAsString(request));
+                                if (logger.isDebugEnabled()) {
+                                    logger.debug(
+                                            "fisco Request:{} {}",
+                                            fiscoRequest.getMessageID(),
+                                            objectMapper.writeValueAsString(request));
+                                }
                                 logger.debug(
                                         "fisco Response:{} {} {}",
                                         fiscoRequest.getMessageID(),
@@ -150,10 +200,12 @@ public class ChannelEthereumService extends org.fisco.bcos.web3j.protocol.Servic
                         @Override
                         public void onResponse(BcosResponse response) {
                             try {
-                                logger.debug(
-                                        "fisco Request:{} {}",
-                                        fiscoRequest.getMessageID(),
-                                        objectMapper.writeValueAsString(request));
+                                if (logger.isDebugEnabled()) {
+                                    logger.debug(
+                                            "fisco Request:{} {}",
+                                            fiscoRequest.getMessageID(),
+                                            objectMapper.writeValueAsString(request));
+                                }
 
                                 logger.debug(
                                         "fisco Response:{} {} {}",
@@ -166,7 +218,8 @@ public class ChannelEthereumService extends org.fisco.bcos.web3j.protocol.Servic
                                     // SendTransaction
                                     SendTransaction sendTransaction =
                                             objectMapper.readValue(
-                                                    response.getContent(), SendTransaction.class);
+                                                    response.getContentByteArray(),
+                                                    SendTransaction.class);
 
                                     if (sendTransaction.getError() == null) {
                                         logger.debug(
@@ -225,7 +278,7 @@ public class ChannelEthereumService extends org.fisco.bcos.web3j.protocol.Servic
             bcosRequest.setKeyID(channelService.getAgencyName());
         }
         bcosRequest.setBankNO("");
-        bcosRequest.setContent(new String(payload));
+        bcosRequest.setContent(payload);
         bcosRequest.setMessageID(channelService.newSeq());
 
         if (timeout != 0) {
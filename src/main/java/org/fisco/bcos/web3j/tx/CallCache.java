@@ -0,0 +1,241 @@
+package org.fisco.bcos.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.fisco.bcos.channel.client.BlockNotifyCallBack;
+import org.fisco.bcos.channel.client.Service;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.core.DefaultBlockParameterName;
+import org.fisco.bcos.web3j.protocol.core.methods.request.Transaction;
+import org.fisco.bcos.web3j.protocol.core.methods.response.Call;
+
+/**
+ * Read through cache of constant contract calls. A call with the same from address, contract
+ * address and encoded data at the same block number is answered with the output of the previous
+ * one, and identical calls made while the first is waiting for the node share its answer. The block
+ * number is the one of the channel service, when a block notify advances it the older calls are
+ * dropped. At most maxSize calls are kept, the least recently used are evicted first. Calls
+ * answered with an error are not kept.
+ */
+public class CallCache implements BlockNotifyCallBack {
+
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private final Web3j web3j;
+    private final Service service;
+    private final int maxSize;
+
+    // guarded by itself
+    private final LinkedHashMap<Key, CachedCall> calls;
+
+    private long hits = 0;
+    private long coalesced = 0;
+    private long misses = 0;
+
+    public CallCache(Web3j web3j, Service service) {
+        this(web3j, service, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param web3j
+     * @param service channel service of the group of web3j, notifying the blocks
+     * @param maxSize calls kept
+     */
+    public CallCache(Web3j web3j, Service service, int maxSize) {
+        this.web3j = web3j;
+        this.service = service;
+        this.maxSize = maxSize;
+        this.calls =
+                new LinkedHashMap<Key, CachedCall>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Key, CachedCall> eldest) {
+                        return size() > CallCache.this.maxSize;
+                    }
+                };
+
+        service.addBlockNotifyListener(this);
+    }
+
+    /**
+     * @param from
+     * @param to contract address
+     * @param data encoded function call
+     * @return answer of the node to the call at the current block number
+     * @throws IOException
+     */
+    public Call call(String from, String to, String data) throws IOException {
+        long blockNumber = service.getNumber().longValue();
+        Key key = new Key(from, to, data);
+        CachedCall cachedCall;
+        boolean send = false;
+        synchronized (calls) {
+            cachedCall = calls.get(key);
+            if (cachedCall != null && cachedCall.blockNumber == blockNumber) {
+                if (cachedCall.future.isDone()) {
+                    ++hits;
+                } else {
+                    ++coalesced;
+                }
+            } else {
+                // the identical calls from now on wait for this one
+                cachedCall = new CachedCall(blockNumber);
+                calls.put(key, cachedCall);
+                ++misses;
+                send = true;
+            }
+        }
+
+        if (send) {
+            return request(key, cachedCall);
+        }
+        try {
+            return cachedCall.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void onBlockNotify(int groupID, BigInteger blockNumber) {
+        long number = service.getNumber().longValue();
+        synchronized (calls) {
+            Iterator<CachedCall> iterator = calls.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().blockNumber < number) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (calls) {
+            calls.clear();
+        }
+    }
+
+    /** Stops following the blocks, the cache must not be used after. */
+    public void close() {
+        service.removeBlockNotifyListener(this);
+        clear();
+    }
+
+    /** @return calls answered from the cache */
+    public long getHits() {
+        synchronized (calls) {
+            return hits;
+        }
+    }
+
+    /** @return calls that waited for an identical call sent to the node */
+    public long getCoalesced() {
+        synchronized (calls) {
+            return coalesced;
+        }
+    }
+
+    /** @return calls sent to the node */
+    public long getMisses() {
+        synchronized (calls) {
+            return misses;
+        }
+    }
+
+    public int getSize() {
+        synchronized (calls) {
+            return calls.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    private Call request(Key key, CachedCall cachedCall) throws IOException {
+        Call call;
+        try {
+            call =
+                    web3j.call(
+                                    Transaction.createEthCallTransaction(
+                                            key.from, key.to, key.data),
+                                    DefaultBlockParameterName.LATEST)
+                            .send();
+        } catch (IOException | RuntimeException e) {
+            remove(key, cachedCall);
+            cachedCall.future.completeExceptionally(e);
+            throw e;
+        }
+
+        if (call == null || call.hasError() || call.getValue() == null) {
+            remove(key, cachedCall);
+        }
+        cachedCall.future.complete(call);
+        return call;
+    }
+
+    private void remove(Key key, CachedCall cachedCall) {
+        synchronized (calls) {
+            calls.remove(key, cachedCall);
+        }
+    }
+
+    private static class CachedCall {
+        // block number when the call was sent
+        private final long blockNumber;
+        private final CompletableFuture<Call> future = new CompletableFuture<Call>();
+
+        CachedCall(long blockNumber) {
+            this.blockNumber = blockNumber;
+        }
+    }
+
+    private static class Key {
+        private final String from;
+        private final String to;
+        private final String data;
+        private final int hash;
+
+        Key(String from, String to, String data) {
+            this.from = from;
+            this.to = to;
+            this.data = data;
+            this.hash = Objects.hash(from, to, data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Objects.equals(from, key.from)
+                    && Objects.equals(to, key.to)
+                    && Objects.equals(data, key.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
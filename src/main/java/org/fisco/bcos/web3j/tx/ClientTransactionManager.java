@@ -2,8 +2,6 @@ package org.fisco.bcos.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.security.SecureRandom;
-import java.util.Random;
 import org.fisco.bcos.web3j.crypto.Credentials;
 import org.fisco.bcos.web3j.crypto.Hash;
 import org.fisco.bcos.web3j.crypto.RawTransaction;
@@ -56,8 +54,7 @@ public class ClientTransactionManager extends TransactionManager {
             String extraData)
             throws IOException {
 
-        Random r = new SecureRandom();
-        BigInteger randomid = new BigInteger(250, r);
+        BigInteger randomid = getNonceSource().nextNonce();
         BigInteger blockLimit = getBlockLimit();
         logger.info("sendTransaction randomid: {} blockLimit:{}", randomid, blockLimit);
         RawTransaction rawTransaction =
@@ -8,7 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.Semaphore;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import org.fisco.bcos.channel.client.TransactionSucCallback;
 import org.fisco.bcos.channel.event.filter.EventLogPushWithDecodeCallback;
@@ -43,6 +43,7 @@ import org.fisco.bcos.web3j.tx.exceptions.ContractCallException;
 import org.fisco.bcos.web3j.tx.gas.ContractGasProvider;
 import org.fisco.bcos.web3j.tx.gas.StaticGasProvider;
 import org.fisco.bcos.web3j.tx.txdecode.TransactionDecoder;
+import org.fisco.bcos.web3j.tx.txdecode.TransactionDecoderFactory;
 import org.fisco.bcos.web3j.utils.Numeric;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +65,7 @@ public abstract class Contract extends ManagedTransaction {
     protected ContractGasProvider gasProvider;
     protected TransactionReceipt transactionReceipt;
     protected DefaultBlockParameter defaultBlockParameter = DefaultBlockParameterName.LATEST;
+    protected CallCache callCache;
 
     protected Contract(
             String contractBinary,
@@ -288,6 +290,19 @@ public abstract class Contract extends ManagedTransaction {
         this.defaultBlockParameter = defaultBlockParameter;
     }
 
+    public CallCache getCallCache() {
+        return callCache;
+    }
+
+    /**
+     * Answers the constant function calls from the cache while the block number is unchanged.
+     *
+     * @param callCache cache of the calls, may be shared by contracts, null for none
+     */
+    public void setCallCache(CallCache callCache) {
+        this.callCache = callCache;
+    }
+
     /**
      * Execute constant function call - i.e. a call that does not change state of the contract
      *
@@ -296,14 +311,21 @@ public abstract class Contract extends ManagedTransaction {
      */
     private List<Type> executeCall(Function function) throws IOException {
         String encodedFunction = FunctionEncoder.encode(function);
-        Call ethCall =
-                web3j.call(
-                                Transaction.createEthCallTransaction(
-                                        transactionManager.getFromAddress(),
-                                        contractAddress,
-                                        encodedFunction),
-                                defaultBlockParameter)
-                        .send();
+        Call ethCall;
+        if (callCache != null) {
+            ethCall =
+                    callCache.call(
+                            transactionManager.getFromAddress(), contractAddress, encodedFunction);
+        } else {
+            ethCall =
+                    web3j.call(
+                                    Transaction.createEthCallTransaction(
+                                            transactionManager.getFromAddress(),
+                                            contractAddress,
+                                            encodedFunction),
+                                    defaultBlockParameter)
+                            .send();
+        }
 
         String value = ethCall.getValue().getOutput();
         return FunctionReturnDecoder.decode(value, function.getOutputParameters());
@@ -346,23 +368,15 @@ public abstract class Contract extends ManagedTransaction {
         return executeCall(function);
     }
 
-    class Callback extends TransactionSucCallback {
-        Callback() {
-            try {
-                semaphore.acquire(1);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }
+    /** completes a future with the receipt pushed by the node */
+    static class Callback extends TransactionSucCallback {
+        final CompletableFuture<TransactionReceipt> future =
+                new CompletableFuture<TransactionReceipt>();
 
         @Override
         public void onResponse(TransactionReceipt receipt) {
-            this.receipt = receipt;
-            semaphore.release();
+            future.complete(receipt);
         }
-
-        public TransactionReceipt receipt;
-        public Semaphore semaphore = new Semaphore(1, true);
     };
 
     protected TransactionReceipt executeTransaction(Function function)
@@ -371,13 +385,26 @@ public abstract class Contract extends ManagedTransaction {
         Callback callback = new Callback();
 
         asyncExecuteTransaction(FunctionEncoder.encode(function), function.getName(), callback);
+
+        return callback.future.join();
+    }
+
+    /**
+     * Send the transaction without blocking, the future is completed when the receipt is pushed by
+     * the node.
+     *
+     * @param function contract function
+     * @return future of the transaction receipt, completed exceptionally if the transaction could
+     *     not be sent
+     */
+    protected CompletableFuture<TransactionReceipt> executeTransactionAsync(Function function) {
+        Callback callback = new Callback();
         try {
-            callback.semaphore.acquire(1);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            asyncExecuteTransaction(FunctionEncoder.encode(function), function.getName(), callback);
+        } catch (IOException | TransactionException e) {
+            callback.future.completeExceptionally(e);
         }
-
-        return callback.receipt;
+        return callback.future;
     }
 
     /**
@@ -396,13 +423,8 @@ public abstract class Contract extends ManagedTransaction {
         Callback callback = new Callback();
 
         asyncExecuteTransaction(data, funcName, callback);
-        try {
-            callback.semaphore.acquire(1);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
 
-        TransactionReceipt receipt = callback.receipt;
+        TransactionReceipt receipt = callback.future.join();
         if (!receipt.isStatusOK()) {
             String status = receipt.getStatus();
             BigInteger gasUsed = receipt.getGasUsed();
@@ -826,7 +848,7 @@ public abstract class Contract extends ManagedTransaction {
 
         filter.setTopics(topics);
 
-        TransactionDecoder decoder = new TransactionDecoder(abi, bin);
+        TransactionDecoder decoder = TransactionDecoderFactory.buildTransactionDecoder(abi, bin);
         this.registerEventLogPushFilter(decoder, filter, callback);
     }
 
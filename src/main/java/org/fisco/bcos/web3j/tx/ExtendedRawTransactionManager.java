@@ -2,12 +2,9 @@ package org.fisco.bcos.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.security.SecureRandom;
-import java.util.Random;
 import org.fisco.bcos.channel.client.TransactionSucCallback;
 import org.fisco.bcos.web3j.crypto.*;
 import org.fisco.bcos.web3j.protocol.Web3j;
-import org.fisco.bcos.web3j.protocol.core.Request;
 import org.fisco.bcos.web3j.protocol.core.methods.response.SendTransaction;
 import org.fisco.bcos.web3j.tx.exceptions.TxHashMismatchException;
 import org.fisco.bcos.web3j.utils.Numeric;
@@ -97,8 +94,7 @@ public class ExtendedRawTransactionManager extends TransactionManager {
             BigInteger value,
             String extraData)
             throws IOException {
-        Random r = new SecureRandom();
-        BigInteger randomid = new BigInteger(250, r);
+        BigInteger randomid = getNonceSource().nextNonce();
         BigInteger blockLimit = getBlockLimit();
         ExtendedRawTransaction rawTransaction =
                 ExtendedRawTransaction.createTransaction(
@@ -162,16 +158,23 @@ public class ExtendedRawTransactionManager extends TransactionManager {
         return sendTransaction;
     }
 
+    /**
+     * Sends a signed transaction without waiting for its receipt. With a transaction journal, the
+     * block limit of the transaction is decoded from it to record it.
+     */
     @Override
     public SendTransaction sendTransaction(
             String signedTransaction, TransactionSucCallback callback)
             throws IOException, TxHashMismatchException {
-        Request<?, SendTransaction> request = web3j.sendRawTransaction(signedTransaction);
-        request.setNeedTransCallback(true);
-        request.setTransactionSucCallback(callback);
-
-        request.sendOnly();
-
+        BigInteger blockLimit = null;
+        if (getTransactionJournal() != null) {
+            blockLimit = ExtendedTransactionDecoder.decode(signedTransaction).getBlockLimit();
+        }
+        sendOnly(
+                web3j.sendRawTransaction(signedTransaction),
+                signedTransaction,
+                blockLimit,
+                callback);
         return null;
 
         /*
@@ -2,15 +2,12 @@ package org.fisco.bcos.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.security.SecureRandom;
-import java.util.Random;
 import org.fisco.bcos.channel.client.TransactionSucCallback;
 import org.fisco.bcos.web3j.crypto.Credentials;
 import org.fisco.bcos.web3j.crypto.Hash;
 import org.fisco.bcos.web3j.crypto.RawTransaction;
 import org.fisco.bcos.web3j.crypto.TransactionEncoder;
 import org.fisco.bcos.web3j.protocol.Web3j;
-import org.fisco.bcos.web3j.protocol.core.Request;
 import org.fisco.bcos.web3j.protocol.core.methods.response.SendTransaction;
 import org.fisco.bcos.web3j.tx.exceptions.TxHashMismatchException;
 import org.fisco.bcos.web3j.utils.Numeric;
@@ -79,8 +76,7 @@ public class RawTransactionManager extends TransactionManager {
             String extraData)
             throws IOException {
 
-        Random r = new SecureRandom();
-        BigInteger randomid = new BigInteger(250, r);
+        BigInteger randomid = getNonceSource().nextNonce();
         BigInteger blockLimit = getBlockLimit();
         RawTransaction rawTransaction =
                 RawTransaction.createTransaction(
@@ -99,8 +95,7 @@ public class RawTransactionManager extends TransactionManager {
             String extraData,
             TransactionSucCallback callback)
             throws IOException {
-        Random r = new SecureRandom();
-        BigInteger randomid = new BigInteger(250, r);
+        BigInteger randomid = getNonceSource().nextNonce();
         BigInteger blockLimit = getBlockLimit();
         RawTransaction rawTransaction =
                 RawTransaction.createTransaction(
@@ -143,10 +138,11 @@ public class RawTransactionManager extends TransactionManager {
         }
 
         String hexValue = Numeric.toHexString(signedMessage);
-        Request<?, SendTransaction> request = web3j.sendRawTransaction(hexValue);
-        request.setNeedTransCallback(true);
-        request.setTransactionSucCallback(callback);
-        request.sendOnly();
+        sendOnly(
+                web3j.sendRawTransaction(hexValue),
+                hexValue,
+                rawTransaction.getBlockLimit(),
+                callback);
 
         return null;
     }
@@ -6,14 +6,19 @@ import org.fisco.bcos.channel.client.TransactionSucCallback;
 import org.fisco.bcos.web3j.crypto.Credentials;
 import org.fisco.bcos.web3j.crypto.ExtendedRawTransaction;
 import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.core.Request;
 import org.fisco.bcos.web3j.protocol.core.methods.response.NodeVersion;
 import org.fisco.bcos.web3j.protocol.core.methods.response.SendTransaction;
 import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.fisco.bcos.web3j.protocol.exceptions.TransactionException;
 import org.fisco.bcos.web3j.tx.exceptions.TxHashMismatchException;
+import org.fisco.bcos.web3j.tx.journal.TransactionJournal;
+import org.fisco.bcos.web3j.tx.nonce.NonceSource;
+import org.fisco.bcos.web3j.tx.nonce.RandomNonceSource;
 import org.fisco.bcos.web3j.tx.response.PollingTransactionReceiptProcessor;
 import org.fisco.bcos.web3j.tx.response.TransactionReceiptProcessor;
 import org.fisco.bcos.web3j.utils.AttemptsConf;
+import org.fisco.bcos.web3j.utils.Numeric;
 
 /**
  * Transaction manager abstraction for executing transactions with Ethereum client via various
@@ -31,6 +36,10 @@ public abstract class TransactionManager {
 
     private NodeVersion.Version nodeVersion;
 
+    private NonceSource nonceSource = RandomNonceSource.getDefault();
+
+    private TransactionJournal transactionJournal;
+
     public NodeVersion.Version getNodeVersion() {
         return nodeVersion;
     }
@@ -119,6 +128,57 @@ public abstract class TransactionManager {
         return null;
     }
 
+    public NonceSource getNonceSource() {
+        return nonceSource;
+    }
+
+    /** @param nonceSource source of the random ids of the transactions sent by this manager */
+    public void setNonceSource(NonceSource nonceSource) {
+        this.nonceSource = nonceSource;
+    }
+
+    public TransactionJournal getTransactionJournal() {
+        return transactionJournal;
+    }
+
+    /**
+     * @param transactionJournal journal recording the transactions sent with a callback until their
+     *     receipt, null for none
+     */
+    public void setTransactionJournal(TransactionJournal transactionJournal) {
+        this.transactionJournal = transactionJournal;
+    }
+
+    /**
+     * Sends a signed transaction without waiting for its receipt. With a transaction journal, the
+     * transaction is appended to it before it is sent and done when its receipt is received.
+     */
+    protected void sendOnly(
+            Request<?, SendTransaction> request,
+            String signedTransaction,
+            BigInteger blockLimit,
+            TransactionSucCallback callback)
+            throws IOException {
+        TransactionJournal journal = transactionJournal;
+        long seq = -1;
+        if (journal != null) {
+            seq = journal.append(Numeric.hexStringToByteArray(signedTransaction), blockLimit);
+            callback = journal.track(seq, callback);
+        }
+
+        request.setNeedTransCallback(true);
+        request.setTransactionSucCallback(callback);
+        try {
+            request.sendOnly();
+        } catch (IOException | RuntimeException e) {
+            // the caller knows it is not sent
+            if (journal != null) {
+                journal.done(seq);
+            }
+            throw e;
+        }
+    }
+
     public String getFromAddress() {
         return credentials.getAddress();
     }
@@ -0,0 +1,477 @@
+package org.fisco.bcos.web3j.tx;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.fisco.bcos.channel.client.TransactionSucCallback;
+import org.fisco.bcos.web3j.abi.AbiEncoder;
+import org.fisco.bcos.web3j.abi.datatypes.Function;
+import org.fisco.bcos.web3j.crypto.Credentials;
+import org.fisco.bcos.web3j.crypto.RawTransaction;
+import org.fisco.bcos.web3j.crypto.TransactionEncoder;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.core.Request;
+import org.fisco.bcos.web3j.protocol.core.methods.response.SendTransaction;
+import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.fisco.bcos.web3j.tx.gas.ContractGasProvider;
+import org.fisco.bcos.web3j.tx.gas.DefaultGasProvider;
+import org.fisco.bcos.web3j.tx.nonce.NonceSource;
+import org.fisco.bcos.web3j.tx.nonce.RandomNonceSource;
+import org.fisco.bcos.web3j.utils.Numeric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends contract function calls as transactions signed with one account, in stages run by their own
+ * threads instead of the threads of the callers:
+ *
+ * <ul>
+ *   <li>build: ABI encodes the call into a {@link RawTransaction}
+ *   <li>sign: RLP encodes and signs the transaction, on several threads
+ *   <li>submit: sends the signed transactions in batches, see {@link
+ *       org.fisco.bcos.channel.handler.ChannelConnections#setWriteCoalescing(boolean)} to write a
+ *       batch to a connection with one flush
+ *   <li>receipt: the transactions waiting for their receipt, which the channel service correlates
+ *       by the {@link TransactionSucCallback} of each transaction
+ * </ul>
+ *
+ * <p>The stages are linked by bounded queues, a full queue blocks the stage, or the caller of
+ * {@link #submit(Function, String)}, that adds to it. Receipts are only delivered by a {@link
+ * Web3j} over a {@link org.fisco.bcos.web3j.protocol.channel.ChannelEthereumService}.
+ */
+public class TransactionPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionPipeline.class);
+
+    public static final int DEFAULT_QUEUE_DEPTH = 1000;
+    public static final int DEFAULT_SUBMIT_BATCH_SIZE = 64;
+
+    private final Web3j web3j;
+    private final Credentials credentials;
+    private final int signThreads;
+
+    private byte chainId = ChainId.NONE;
+    private ContractGasProvider gasProvider = new DefaultGasProvider();
+    private NonceSource nonceSource = RandomNonceSource.getDefault();
+    private int submitBatchSize = DEFAULT_SUBMIT_BATCH_SIZE;
+
+    private final Stage buildStage;
+    private final Stage signStage;
+    private final Stage submitStage;
+    private final Stage receiptStage;
+
+    private final List<Thread> workers = new ArrayList<Thread>();
+    private volatile boolean running = false;
+
+    public TransactionPipeline(Web3j web3j, Credentials credentials) {
+        this(web3j, credentials, DEFAULT_QUEUE_DEPTH, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param web3j
+     * @param credentials account signing the transactions
+     * @param queueDepth capacity of the queue in front of each stage
+     * @param signThreads threads of the sign stage
+     */
+    public TransactionPipeline(
+            Web3j web3j, Credentials credentials, int queueDepth, int signThreads) {
+        if (queueDepth <= 0 || signThreads <= 0) {
+            throw new IllegalArgumentException(
+                    "queueDepth and signThreads must be positive: "
+                            + queueDepth
+                            + ", "
+                            + signThreads);
+        }
+        this.web3j = web3j;
+        this.credentials = credentials;
+        this.signThreads = signThreads;
+
+        buildStage = new Stage("build", new ArrayBlockingQueue<Task>(queueDepth));
+        signStage = new Stage("sign", new ArrayBlockingQueue<Task>(queueDepth));
+        submitStage = new Stage("submit", new ArrayBlockingQueue<Task>(queueDepth));
+        receiptStage = new Stage("receipt", null);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        long now = System.nanoTime();
+        for (Stage stage : getStages()) {
+            stage.startNanos = now;
+        }
+
+        startWorker("build", () -> runStage(buildStage, signStage, this::build));
+        for (int i = 0; i < signThreads; ++i) {
+            startWorker("sign-" + i, () -> runStage(signStage, submitStage, this::sign));
+        }
+        startWorker("submit", this::runSubmitStage);
+        logger.info(" transaction pipeline started, sign threads: {}", signThreads);
+    }
+
+    /**
+     * Stops the stages. The transactions not submitted yet fail with an {@link
+     * IllegalStateException}, the submitted ones still complete with their receipt.
+     */
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+
+        for (Stage stage : new Stage[] {buildStage, signStage, submitStage}) {
+            List<Task> tasks = new ArrayList<Task>();
+            stage.queue.drainTo(tasks);
+            for (Task task : tasks) {
+                task.future.completeExceptionally(stoppedException());
+            }
+        }
+        logger.info(" transaction pipeline stopped");
+    }
+
+    /**
+     * Queues the call, waiting for room in the queue of the build stage if it is full.
+     *
+     * @param function function of the contract to call
+     * @param contractAddress
+     * @return receipt of the transaction, completed exceptionally if the transaction fails before
+     *     it is sent
+     */
+    public CompletableFuture<TransactionReceipt> submit(Function function, String contractAddress) {
+        CompletableFuture<TransactionReceipt> future = new CompletableFuture<TransactionReceipt>();
+        if (!running) {
+            future.completeExceptionally(stoppedException());
+            return future;
+        }
+
+        Task task = new Task(function, contractAddress, future);
+        try {
+            buildStage.enqueue(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(e);
+            return future;
+        }
+        // stop may have drained the queue before the task was added
+        if (!running && buildStage.queue.remove(task)) {
+            future.completeExceptionally(stoppedException());
+        }
+        return future;
+    }
+
+    private void build(Task task) {
+        String functionName = task.function.getName();
+        task.rawTransaction =
+                RawTransaction.createTransaction(
+                        nonceSource.nextNonce(),
+                        gasProvider.getGasPrice(functionName),
+                        gasProvider.getGasLimit(functionName),
+                        web3j.getBlockNumberCache(),
+                        task.contractAddress,
+                        BigInteger.ZERO,
+                        AbiEncoder.encode(task.function));
+    }
+
+    private void sign(Task task) {
+        byte[] signedMessage;
+        if (chainId > ChainId.NONE) {
+            signedMessage =
+                    TransactionEncoder.signMessage(task.rawTransaction, chainId, credentials);
+        } else {
+            signedMessage = TransactionEncoder.signMessage(task.rawTransaction, credentials);
+        }
+        task.signedTransaction = Numeric.toHexString(signedMessage);
+    }
+
+    private void send(Task task) throws Exception {
+        Request<?, SendTransaction> request = web3j.sendRawTransaction(task.signedTransaction);
+        request.setNeedTransCallback(true);
+        request.setTransactionSucCallback(
+                new TransactionSucCallback() {
+                    @Override
+                    public void onResponse(TransactionReceipt response) {
+                        if (task.future.complete(response)) {
+                            receiptStage.dequeued(task);
+                            receiptStage.processed.increment();
+                        }
+                    }
+                });
+
+        receiptStage.enqueued(task);
+        try {
+            request.sendOnly();
+        } catch (Exception e) {
+            if (!task.future.isDone()) {
+                receiptStage.waiting.decrementAndGet();
+            }
+            throw e;
+        }
+    }
+
+    private void runStage(Stage stage, Stage next, StageWork work) {
+        while (running) {
+            Task task;
+            try {
+                task = stage.queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            stage.dequeued(task);
+
+            if (!process(stage, task, work)) {
+                continue;
+            }
+            try {
+                next.enqueue(task);
+            } catch (InterruptedException e) {
+                task.future.completeExceptionally(stoppedException());
+                break;
+            }
+        }
+    }
+
+    private void runSubmitStage() {
+        List<Task> batch = new ArrayList<Task>(submitBatchSize);
+        while (running) {
+            try {
+                batch.add(submitStage.queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            submitStage.queue.drainTo(batch, submitBatchSize - 1);
+
+            for (Task task : batch) {
+                submitStage.dequeued(task);
+                process(submitStage, task, this::send);
+            }
+            submitStage.batches.increment();
+            batch.clear();
+        }
+    }
+
+    private boolean process(Stage stage, Task task, StageWork work) {
+        try {
+            work.process(task);
+            stage.processed.increment();
+            return true;
+        } catch (Exception e) {
+            stage.failed.increment();
+            logger.error(" transaction pipeline {} failed, e: {}", stage.name, e.getMessage());
+            task.future.completeExceptionally(e);
+            return false;
+        }
+    }
+
+    private void startWorker(String name, Runnable runnable) {
+        Thread worker = new Thread(runnable, "tx-pipeline-" + name);
+        worker.setDaemon(true);
+        workers.add(worker);
+        worker.start();
+    }
+
+    private static IllegalStateException stoppedException() {
+        return new IllegalStateException("The transaction pipeline is stopped.");
+    }
+
+    private interface StageWork {
+        void process(Task task) throws Exception;
+    }
+
+    private static class Task {
+        private final Function function;
+        private final String contractAddress;
+        private final CompletableFuture<TransactionReceipt> future;
+
+        private RawTransaction rawTransaction;
+        private String signedTransaction;
+        // time the task was added to the queue of its current stage
+        private long enqueuedNanos;
+
+        Task(
+                Function function,
+                String contractAddress,
+                CompletableFuture<TransactionReceipt> future) {
+            this.function = function;
+            this.contractAddress = contractAddress;
+            this.future = future;
+        }
+    }
+
+    /**
+     * Counters of one stage. The queue latency is the time a transaction waits in the queue of the
+     * stage, for the receipt stage the time from sending the transaction to its receipt.
+     */
+    public static class Stage {
+        private final String name;
+        private final BlockingQueue<Task> queue;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final LongAdder processed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder batches = new LongAdder();
+        private final LongAdder dequeued = new LongAdder();
+        private final LongAdder queueNanos = new LongAdder();
+        private final LongAccumulator maxQueueNanos = new LongAccumulator(Math::max, 0);
+        private volatile long startNanos = System.nanoTime();
+
+        Stage(String name, BlockingQueue<Task> queue) {
+            this.name = name;
+            this.queue = queue;
+        }
+
+        private void enqueue(Task task) throws InterruptedException {
+            task.enqueuedNanos = System.nanoTime();
+            queue.put(task);
+        }
+
+        private void enqueued(Task task) {
+            task.enqueuedNanos = System.nanoTime();
+            waiting.incrementAndGet();
+        }
+
+        private void dequeued(Task task) {
+            long nanos = System.nanoTime() - task.enqueuedNanos;
+            if (queue == null) {
+                waiting.decrementAndGet();
+            }
+            dequeued.increment();
+            queueNanos.add(nanos);
+            maxQueueNanos.accumulate(nanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** @return transactions in the queue, or waiting for their receipt */
+        public int getQueueSize() {
+            return queue == null ? waiting.get() : queue.size();
+        }
+
+        public long getProcessed() {
+            return processed.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        /** @return batches sent by the submit stage */
+        public long getBatches() {
+            return batches.sum();
+        }
+
+        /** @return transactions processed per second since the pipeline started */
+        public double getThroughput() {
+            long nanos = System.nanoTime() - startNanos;
+            return nanos <= 0 ? 0 : processed.sum() * 1e9 / nanos;
+        }
+
+        public long getAverageQueueLatencyMicros() {
+            long count = dequeued.sum();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(queueNanos.sum() / count);
+        }
+
+        public long getMaxQueueLatencyMicros() {
+            return TimeUnit.NANOSECONDS.toMicros(maxQueueNanos.get());
+        }
+
+        @Override
+        public String toString() {
+            return "Stage [name="
+                    + name
+                    + ", queueSize="
+                    + getQueueSize()
+                    + ", processed="
+                    + getProcessed()
+                    + ", failed="
+                    + getFailed()
+                    + ", throughput="
+                    + (long) getThroughput()
+                    + ", averageQueueLatencyMicros="
+                    + getAverageQueueLatencyMicros()
+                    + ", maxQueueLatencyMicros="
+                    + getMaxQueueLatencyMicros()
+                    + "]";
+        }
+    }
+
+    /** @return the build, sign, submit and receipt stages */
+    public Stage[] getStages() {
+        return new Stage[] {buildStage, signStage, submitStage, receiptStage};
+    }
+
+    public Stage getBuildStage() {
+        return buildStage;
+    }
+
+    public Stage getSignStage() {
+        return signStage;
+    }
+
+    public Stage getSubmitStage() {
+        return submitStage;
+    }
+
+    public Stage getReceiptStage() {
+        return receiptStage;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getSignThreads() {
+        return signThreads;
+    }
+
+    public byte getChainId() {
+        return chainId;
+    }
+
+    public void setChainId(byte chainId) {
+        this.chainId = chainId;
+    }
+
+    public ContractGasProvider getGasProvider() {
+        return gasProvider;
+    }
+
+    public void setGasProvider(ContractGasProvider gasProvider) {
+        this.gasProvider = gasProvider;
+    }
+
+    public NonceSource getNonceSource() {
+        return nonceSource;
+    }
+
+    public void setNonceSource(NonceSource nonceSource) {
+        this.nonceSource = nonceSource;
+    }
+
+    public int getSubmitBatchSize() {
+        return submitBatchSize;
+    }
+
+    public void setSubmitBatchSize(int submitBatchSize) {
+        this.submitBatchSize = submitBatchSize;
+    }
+}
@@ -0,0 +1,527 @@
+package org.fisco.bcos.web3j.tx.journal;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import org.fisco.bcos.channel.client.TransactionSucCallback;
+import org.fisco.bcos.web3j.crypto.Hash;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.core.Request;
+import org.fisco.bcos.web3j.protocol.core.methods.response.SendTransaction;
+import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.fisco.bcos.web3j.utils.Numeric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append only journal of the signed transactions that are sent and have no receipt yet, so that a
+ * restarted process finds the transactions it had in flight. Records are written to memory mapped
+ * segment files of segmentSize bytes, a new segment is started when the current one is full, and
+ * the oldest segments are deleted once all their transactions are done.
+ *
+ * <p>With force, {@link #append} returns once the record is on disk. Threads appending at the same
+ * time share one force of the segment (group commit). Without force the records survive a crash of
+ * the process, but not of the machine. Done records are never forced, a transaction whose done
+ * record is lost is only looked up again by {@link #recover}.
+ */
+public class TransactionJournal implements Closeable {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionJournal.class);
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final byte SUBMIT = 1;
+    private static final byte DONE = 2;
+
+    // body length before the body, crc32 of the body after it
+    private static final int LENGTH_SIZE = 4;
+    private static final int CRC_SIZE = 4;
+    // type, seq
+    private static final int DONE_SIZE = 1 + 8;
+    // type, seq, blockLimit, signed transaction
+    private static final int SUBMIT_HEADER_SIZE = 1 + 8 + 8;
+
+    private final File directory;
+    private final int segmentSize;
+    private final boolean force;
+
+    // segments with the oldest first, the last one is written
+    private final Deque<Segment> segments = new ArrayDeque<Segment>();
+    // segment of each transaction not done
+    private final Map<Long, Segment> live = new HashMap<Long, Segment>();
+    private final List<Entry> unfinished;
+
+    private long nextSeq = 0;
+    private long nextSegmentIndex = 0;
+    private long written = 0;
+    private boolean closed = false;
+
+    private final Object syncLock = new Object();
+    // guarded by syncLock
+    private long synced = 0;
+    private long syncs = 0;
+
+    public TransactionJournal(String directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, true);
+    }
+
+    /**
+     * Opens the journal, reading the transactions not done in the segments left by a previous
+     * process.
+     *
+     * @param directory directory of the segment files, created if missing
+     * @param segmentSize bytes of a segment file
+     * @param force whether {@link #append} waits for the record to be on disk
+     * @throws IOException
+     */
+    public TransactionJournal(String directory, int segmentSize, boolean force) throws IOException {
+        this.directory = new File(directory);
+        this.segmentSize = segmentSize;
+        this.force = force;
+
+        if (!this.directory.isDirectory() && !this.directory.mkdirs()) {
+            throw new IOException("Cannot create journal directory: " + directory);
+        }
+        this.unfinished = load();
+        rotate(0);
+        deleteDone();
+
+        logger.info(
+                " open transaction journal, directory: {}, unfinished: {}",
+                directory,
+                unfinished.size());
+    }
+
+    /**
+     * Records a signed transaction before it is sent.
+     *
+     * @param signedTransaction
+     * @param blockLimit block limit of the transaction
+     * @return seq of the transaction in the journal, to mark it done
+     * @throws IOException
+     */
+    public long append(byte[] signedTransaction, BigInteger blockLimit) throws IOException {
+        long seq;
+        long record;
+        synchronized (this) {
+            checkOpen();
+            seq = nextSeq++;
+            Segment segment = reserve(SUBMIT_HEADER_SIZE + signedTransaction.length);
+            ByteBuffer buffer = segment.buffer;
+            int start = buffer.position();
+            buffer.putInt(SUBMIT_HEADER_SIZE + signedTransaction.length);
+            buffer.put(SUBMIT);
+            buffer.putLong(seq);
+            buffer.putLong(blockLimit.longValue());
+            buffer.put(signedTransaction);
+            putCrc(buffer, start);
+
+            ++segment.live;
+            live.put(seq, segment);
+            record = ++written;
+        }
+        if (force) {
+            sync(record);
+        }
+        return seq;
+    }
+
+    /**
+     * Marks a transaction done, once its receipt is received or it won't be sent.
+     *
+     * @param seq
+     * @throws IOException
+     */
+    public synchronized void done(long seq) throws IOException {
+        checkOpen();
+        Segment submitted = live.remove(seq);
+        if (submitted == null) {
+            return;
+        }
+        Segment segment = reserve(DONE_SIZE);
+        ByteBuffer buffer = segment.buffer;
+        int start = buffer.position();
+        buffer.putInt(DONE_SIZE);
+        buffer.put(DONE);
+        buffer.putLong(seq);
+        putCrc(buffer, start);
+        ++written;
+
+        --submitted.live;
+        deleteDone();
+    }
+
+    /**
+     * @param seq
+     * @param callback
+     * @return callback marking the transaction done when its receipt is received, before calling
+     *     the given callback. A transaction whose receipt times out is left to {@link #recover}.
+     */
+    public TransactionSucCallback track(long seq, TransactionSucCallback callback) {
+        return new TransactionSucCallback() {
+            @Override
+            public void onResponse(TransactionReceipt response) {
+                try {
+                    done(seq);
+                } catch (IOException e) {
+                    logger.error(
+                            " mark transaction done failed, seq: {}, e: {}", seq, e.getMessage());
+                }
+                callback.onResponse(response);
+            }
+
+            @Override
+            public void onTimeout() {
+                callback.onTimeout();
+            }
+        };
+    }
+
+    /**
+     * Finishes the transactions not done by the previous process. A transaction found in a block is
+     * done and its receipt given to the callback, one whose block limit is not reached is sent
+     * again, the others can never be in a block and are done and returned.
+     *
+     * @param web3j
+     * @param callback receives the receipts of the recovered transactions
+     * @return transactions past their block limit without receipt
+     * @throws IOException
+     */
+    public List<Entry> recover(Web3j web3j, TransactionSucCallback callback) throws IOException {
+        BigInteger blockNumber = web3j.getBlockNumber().send().getBlockNumber();
+        List<Entry> expired = new ArrayList<Entry>();
+        for (Entry entry : unfinished) {
+            synchronized (this) {
+                if (!live.containsKey(entry.getSeq())) {
+                    continue;
+                }
+            }
+
+            Optional<TransactionReceipt> receipt =
+                    web3j.getTransactionReceipt(entry.getTransactionHash())
+                            .send()
+                            .getTransactionReceipt();
+            if (receipt.isPresent()) {
+                done(entry.getSeq());
+                callback.onResponse(receipt.get());
+            } else if (entry.getBlockLimit().compareTo(blockNumber) > 0) {
+                logger.info(
+                        " resend transaction, seq: {}, hash: {}",
+                        entry.getSeq(),
+                        entry.getTransactionHash());
+                Request<?, SendTransaction> request =
+                        web3j.sendRawTransaction(entry.getSignedTransaction());
+                request.setNeedTransCallback(true);
+                request.setTransactionSucCallback(track(entry.getSeq(), callback));
+                request.sendOnly();
+            } else {
+                logger.warn(
+                        " transaction past its block limit, seq: {}, hash: {}, blockLimit: {}",
+                        entry.getSeq(),
+                        entry.getTransactionHash(),
+                        entry.getBlockLimit());
+                done(entry.getSeq());
+                expired.add(entry);
+            }
+        }
+        return expired;
+    }
+
+    /** @return transactions not done by the previous process, in the order they were appended */
+    public List<Entry> getUnfinished() {
+        return unfinished;
+    }
+
+    /** @return transactions appended and not done */
+    public synchronized int getLiveCount() {
+        return live.size();
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /** @return forces of the segments by {@link #append}, one for all the appends waiting */
+    public long getSyncs() {
+        synchronized (syncLock) {
+            return syncs;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments.peekLast().buffer.force();
+        // a segment being synced is unmapped once forced
+        for (Segment segment : segments) {
+            release(segment, false);
+        }
+        segments.clear();
+    }
+
+    private void sync(long record) {
+        synchronized (syncLock) {
+            // forced with the records of another append
+            if (synced >= record) {
+                return;
+            }
+            long target;
+            Segment segment;
+            synchronized (this) {
+                // forced by close
+                if (closed) {
+                    return;
+                }
+                target = written;
+                segment = segments.peekLast();
+                // not unmapped while forced outside of the lock
+                ++segment.users;
+            }
+            try {
+                segment.buffer.force();
+            } finally {
+                synchronized (this) {
+                    if (--segment.users == 0 && segment.released) {
+                        unmap(segment);
+                    }
+                }
+            }
+            synced = target;
+            ++syncs;
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("The transaction journal is closed.");
+        }
+    }
+
+    private Segment reserve(int bodySize) throws IOException {
+        int recordSize = LENGTH_SIZE + bodySize + CRC_SIZE;
+        if (segments.peekLast().buffer.remaining() < recordSize) {
+            rotate(recordSize);
+        }
+        return segments.peekLast();
+    }
+
+    private void rotate(int recordSize) throws IOException {
+        Segment current = segments.peekLast();
+        if (current != null && force) {
+            // the appends waiting for a sync only force the new segment
+            current.buffer.force();
+        }
+        File file =
+                new File(
+                        directory,
+                        String.format(
+                                "%s%020d%s", SEGMENT_PREFIX, nextSegmentIndex, SEGMENT_SUFFIX));
+        ++nextSegmentIndex;
+        segments.addLast(new Segment(file, Math.max(segmentSize, recordSize)));
+    }
+
+    private void deleteDone() {
+        // only the oldest segments are deleted, the done records in a segment may be those of the
+        // transactions of any older one
+        while (segments.size() > 1 && segments.peekFirst().live == 0) {
+            release(segments.removeFirst(), true);
+        }
+    }
+
+    /** unmaps the segment once no sync uses it, then deletes its file */
+    private void release(Segment segment, boolean delete) {
+        segment.released = true;
+        segment.delete = delete;
+        if (segment.users == 0) {
+            unmap(segment);
+        }
+    }
+
+    private void unmap(Segment segment) {
+        unmap(segment.buffer);
+        if (segment.delete && !segment.file.delete()) {
+            logger.warn(" delete journal segment failed, file: {}", segment.file);
+        }
+    }
+
+    /**
+     * Unmaps the buffer at once rather than when it is garbage collected, which keeps the file
+     * mapped long after it is deleted. The buffer must not be used after.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            try {
+                // java 9 and later
+                Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (NoSuchMethodException e) {
+                // java 8
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+            logger.warn(" unmap journal segment failed, e: {}", e.getMessage());
+        }
+    }
+
+    private List<Entry> load() throws IOException {
+        File[] files =
+                directory.listFiles(
+                        (dir, name) ->
+                                name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            throw new IOException("Cannot list journal directory: " + directory);
+        }
+        Arrays.sort(files);
+
+        Map<Long, Entry> entries = new LinkedHashMap<Long, Entry>();
+        for (File file : files) {
+            String name = file.getName();
+            long index =
+                    Long.parseLong(
+                            name.substring(
+                                    SEGMENT_PREFIX.length(),
+                                    name.length() - SEGMENT_SUFFIX.length()));
+            nextSegmentIndex = Math.max(nextSegmentIndex, index + 1);
+
+            Segment segment = new Segment(file, (int) file.length());
+            segments.addLast(segment);
+            ByteBuffer buffer = segment.buffer;
+            while (buffer.remaining() >= LENGTH_SIZE) {
+                int start = buffer.position();
+                int bodySize = buffer.getInt();
+                if (bodySize < DONE_SIZE || bodySize + CRC_SIZE > buffer.remaining()) {
+                    break;
+                }
+                ByteBuffer body = buffer.slice();
+                body.limit(bodySize);
+                buffer.position(start + LENGTH_SIZE + bodySize);
+                if (buffer.getInt() != crc(body.duplicate())) {
+                    // torn by a crash while it was written
+                    logger.warn(" journal record corrupted, file: {}, position: {}", file, start);
+                    break;
+                }
+
+                byte type = body.get();
+                long seq = body.getLong();
+                nextSeq = Math.max(nextSeq, seq + 1);
+                if (type == SUBMIT) {
+                    BigInteger blockLimit = BigInteger.valueOf(body.getLong());
+                    byte[] signedTransaction = new byte[body.remaining()];
+                    body.get(signedTransaction);
+                    entries.put(seq, new Entry(seq, blockLimit, signedTransaction));
+                    ++segment.live;
+                    live.put(seq, segment);
+                } else if (type == DONE) {
+                    Segment submitted = live.remove(seq);
+                    if (submitted != null) {
+                        --submitted.live;
+                        entries.remove(seq);
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<Entry>(entries.values()));
+    }
+
+    private static void putCrc(ByteBuffer buffer, int start) {
+        ByteBuffer body = buffer.duplicate();
+        body.position(start + LENGTH_SIZE);
+        body.limit(buffer.position());
+        buffer.putInt(crc(body));
+    }
+
+    private static int crc(ByteBuffer body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static class Segment {
+        private final File file;
+        private final MappedByteBuffer buffer;
+        // transactions appended to this segment and not done
+        private int live = 0;
+        // syncs forcing the buffer outside of the journal lock
+        private int users = 0;
+        // removed from the journal, unmapped once it has no users
+        private boolean released = false;
+        private boolean delete = false;
+
+        Segment(File file, int size) throws IOException {
+            this.file = file;
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                randomAccessFile.setLength(size);
+                // the mapping stays valid after the file is closed
+                this.buffer =
+                        randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+    }
+
+    /** Transaction appended to the journal and not done. */
+    public static class Entry {
+        private final long seq;
+        private final BigInteger blockLimit;
+        private final byte[] signedTransaction;
+
+        Entry(long seq, BigInteger blockLimit, byte[] signedTransaction) {
+            this.seq = seq;
+            this.blockLimit = blockLimit;
+            this.signedTransaction = signedTransaction;
+        }
+
+        public long getSeq() {
+            return seq;
+        }
+
+        public BigInteger getBlockLimit() {
+            return blockLimit;
+        }
+
+        /** @return hex of the signed transaction */
+        public String getSignedTransaction() {
+            return Numeric.toHexString(signedTransaction);
+        }
+
+        public String getTransactionHash() {
+            return Numeric.toHexString(Hash.sha3(signedTransaction));
+        }
+
+        @Override
+        public String toString() {
+            return "Entry [seq=" + seq + ", blockLimit=" + blockLimit + "]";
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.fisco.bcos.web3j.tx.nonce;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deterministic ids, a fixed prefix followed by a 64 bit counter, so that a replay of the same
+ * transactions produces the same transactions. Not for production use, ids of different senders
+ * with the same prefix collide.
+ */
+public class CounterNonceSource implements NonceSource {
+
+    private static final int COUNTER_BITS = 64;
+
+    private final BigInteger prefix;
+    private final AtomicLong counter;
+
+    public CounterNonceSource(BigInteger prefix) {
+        this(prefix, 0);
+    }
+
+    /**
+     * @param prefix high bits of the ids, at most {@link #NONCE_BITS} - 64 bits
+     * @param start first value of the counter
+     */
+    public CounterNonceSource(BigInteger prefix, long start) {
+        if (prefix.signum() < 0 || prefix.bitLength() > NONCE_BITS - COUNTER_BITS) {
+            throw new IllegalArgumentException(
+                    "prefix must be a non negative number of at most "
+                            + (NONCE_BITS - COUNTER_BITS)
+                            + " bits");
+        }
+        this.prefix = prefix.shiftLeft(COUNTER_BITS);
+        this.counter = new AtomicLong(start);
+    }
+
+    @Override
+    public BigInteger nextNonce() {
+        long value = counter.getAndIncrement();
+        // the counter is unsigned, it wraps after 2^64 ids
+        BigInteger low = BigInteger.valueOf(value & Long.MAX_VALUE);
+        if (value < 0) {
+            low = low.setBit(COUNTER_BITS - 1);
+        }
+        return prefix.or(low);
+    }
+
+    /** @return value of the counter of the next id */
+    public long getCounter() {
+        return counter.get();
+    }
+}
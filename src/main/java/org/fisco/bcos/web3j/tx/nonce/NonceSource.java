@@ -0,0 +1,16 @@
+package org.fisco.bcos.web3j.tx.nonce;
+
+import java.math.BigInteger;
+
+/**
+ * Source of the random id of transactions, the nonce the node uses to reject a transaction sent
+ * twice. Implementations are called concurrently.
+ */
+public interface NonceSource {
+
+    /** bits of a random id */
+    int NONCE_BITS = 250;
+
+    /** @return a non negative id of at most {@link #NONCE_BITS} bits */
+    BigInteger nextNonce();
+}
@@ -0,0 +1,110 @@
+package org.fisco.bcos.web3j.tx.nonce;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Random ids of {@link #NONCE_BITS} bits. Ids are taken from a lock free pool that a background
+ * thread refills when it falls below half of its size, so that senders don't wait for the random
+ * generator. When the pool is empty, or has size 0, the id is generated by the calling thread. Each
+ * thread generates with its own SecureRandom, seeded once, instead of creating one per transaction.
+ */
+public class RandomNonceSource implements NonceSource {
+
+    public static final int DEFAULT_POOL_SIZE = 1024;
+
+    private static final ThreadLocal<SecureRandom> secureRandom =
+            ThreadLocal.withInitial(SecureRandom::new);
+
+    private static volatile RandomNonceSource defaultSource;
+
+    private final int poolSize;
+    private final Queue<BigInteger> pool = new ConcurrentLinkedQueue<BigInteger>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicBoolean refillStarted = new AtomicBoolean();
+    private volatile Thread refillThread;
+
+    public RandomNonceSource() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    /** @param poolSize ids generated ahead, 0 to generate each id when it is requested */
+    public RandomNonceSource(int poolSize) {
+        if (poolSize < 0) {
+            throw new IllegalArgumentException("poolSize must not be negative: " + poolSize);
+        }
+        this.poolSize = poolSize;
+    }
+
+    /** @return source shared by the transaction managers that are not given one */
+    public static RandomNonceSource getDefault() {
+        RandomNonceSource source = defaultSource;
+        if (source == null) {
+            synchronized (RandomNonceSource.class) {
+                source = defaultSource;
+                if (source == null) {
+                    source = new RandomNonceSource();
+                    defaultSource = source;
+                }
+            }
+        }
+        return source;
+    }
+
+    @Override
+    public BigInteger nextNonce() {
+        if (poolSize == 0) {
+            return generate();
+        }
+
+        BigInteger nonce = pool.poll();
+        int remaining = nonce == null ? 0 : pooled.decrementAndGet();
+        if (remaining < poolSize / 2) {
+            wakeRefill();
+        }
+        return nonce == null ? generate() : nonce;
+    }
+
+    /** @return ids currently in the pool */
+    public int getPooled() {
+        return pooled.get();
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    private static BigInteger generate() {
+        return new BigInteger(NONCE_BITS, secureRandom.get());
+    }
+
+    private void wakeRefill() {
+        if (refillStarted.compareAndSet(false, true)) {
+            Thread thread = new Thread(this::refill, "nonce-refill");
+            thread.setDaemon(true);
+            refillThread = thread;
+            thread.start();
+            return;
+        }
+        Thread thread = refillThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void refill() {
+        while (!Thread.currentThread().isInterrupted()) {
+            while (pooled.get() < poolSize) {
+                pool.offer(generate());
+                pooled.incrementAndGet();
+            }
+            // woken by a sender once the pool is below half of its size
+            LockSupport.park(this);
+        }
+    }
+}
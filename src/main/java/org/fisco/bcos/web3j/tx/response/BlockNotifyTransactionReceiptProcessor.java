@@ -0,0 +1,294 @@
+package org.fisco.bcos.web3j.tx.response;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.fisco.bcos.channel.client.BlockNotifyCallBack;
+import org.fisco.bcos.channel.client.Service;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.core.methods.response.BcosTransactionReceipt;
+import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.fisco.bcos.web3j.protocol.exceptions.TransactionException;
+import org.fisco.bcos.web3j.utils.BlockLimit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Transaction receipt processor that asks for the receipts of all the pending transactions when the
+ * node notifies a new block, instead of a sleeping thread polling each transaction. The requests of
+ * a round are sent without waiting for each other, at most batchSize at a time, and complete the
+ * futures of the transactions as the receipts arrive. A round also runs when a transaction is
+ * added, for the receipts already in a block, and every pollIntervalMillis, in case block notifies
+ * are missed.
+ *
+ * <p>It works for any transaction hash, the transactions don't need to be sent with a {@link
+ * org.fisco.bcos.channel.client.TransactionSucCallback}. One scheduler thread runs the rounds and
+ * sends the batches, the receipts are handled on the threads completing the requests.
+ */
+public class BlockNotifyTransactionReceiptProcessor extends TransactionReceiptProcessor
+        implements BlockNotifyCallBack {
+    private static final Logger logger =
+            LoggerFactory.getLogger(BlockNotifyTransactionReceiptProcessor.class);
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    public static final long DEFAULT_POLL_INTERVAL_MILLIS = 10000;
+
+    private final Web3j web3j;
+    private final Service service;
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledFuture<?> poll;
+
+    private final Map<String, PendingReceipt> pendingReceipts =
+            new ConcurrentHashMap<String, PendingReceipt>();
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    // blocks after which a transaction without receipt is past its block limit
+    private int maxBlocks = BlockLimit.blockLimit;
+
+    // accessed by the scheduler thread only
+    private boolean roundRunning = false;
+    private boolean roundRequested = false;
+
+    public BlockNotifyTransactionReceiptProcessor(Web3j web3j, Service service) {
+        this(web3j, service, DEFAULT_POLL_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param web3j
+     * @param service channel service of the group of web3j, notifying the blocks
+     * @param pollIntervalMillis interval of the rounds run without a block notify
+     */
+    public BlockNotifyTransactionReceiptProcessor(
+            Web3j web3j, Service service, long pollIntervalMillis) {
+        super(web3j);
+        this.web3j = web3j;
+        this.service = service;
+
+        ScheduledThreadPoolExecutor scheduler =
+                new ScheduledThreadPoolExecutor(
+                        1,
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "receipt-processor");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        this.scheduler = scheduler;
+        this.poll =
+                scheduler.scheduleWithFixedDelay(
+                        this::requestRound,
+                        pollIntervalMillis,
+                        pollIntervalMillis,
+                        TimeUnit.MILLISECONDS);
+
+        service.addBlockNotifyListener(this);
+    }
+
+    /**
+     * @param transactionHash
+     * @return receipt of the transaction, completed exceptionally with a {@link
+     *     TransactionException} if there is none after maxBlocks blocks
+     */
+    public CompletableFuture<TransactionReceipt> getTransactionReceiptAsync(
+            String transactionHash) {
+        PendingReceipt pendingReceipt =
+                new PendingReceipt(transactionHash, service.getNumber().longValue());
+        PendingReceipt existing = pendingReceipts.putIfAbsent(transactionHash, pendingReceipt);
+        if (existing != null) {
+            return existing.future;
+        }
+        if (!execute(this::requestRound)) {
+            fail(pendingReceipt, "The transaction receipt processor is closed.");
+        }
+        return pendingReceipt.future;
+    }
+
+    @Override
+    public TransactionReceipt waitForTransactionReceipt(String transactionHash)
+            throws IOException, TransactionException {
+        try {
+            return getTransactionReceiptAsync(transactionHash).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TransactionException) {
+                throw (TransactionException) e.getCause();
+            }
+            throw new TransactionException(e.getCause());
+        }
+    }
+
+    @Override
+    public void onBlockNotify(int groupID, BigInteger blockNumber) {
+        if (!pendingReceipts.isEmpty()) {
+            execute(this::requestRound);
+        }
+    }
+
+    /** Stops the rounds, the pending transactions fail with a {@link TransactionException}. */
+    public void close() {
+        service.removeBlockNotifyListener(this);
+        poll.cancel(false);
+        scheduler.shutdown();
+        for (PendingReceipt pendingReceipt : pendingReceipts.values()) {
+            fail(pendingReceipt, "The transaction receipt processor is closed.");
+        }
+    }
+
+    /** @return transactions waiting for their receipt */
+    public int getPendingCount() {
+        return pendingReceipts.size();
+    }
+
+    private void requestRound() {
+        // a block notified during a round starts another round once it ends
+        if (roundRunning) {
+            roundRequested = true;
+            return;
+        }
+        roundRequested = false;
+        if (pendingReceipts.isEmpty()) {
+            return;
+        }
+        roundRunning = true;
+
+        CompletableFuture<Void> round;
+        try {
+            round = startRound();
+        } catch (RuntimeException e) {
+            logger.error(" transaction receipt round failed, e: {}", e.getMessage());
+            round = CompletableFuture.completedFuture(null);
+        }
+        round.whenComplete((result, e) -> execute(this::endRound));
+    }
+
+    /** @return false if the processor is closed */
+    private boolean execute(Runnable task) {
+        try {
+            scheduler.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private void endRound() {
+        roundRunning = false;
+        if (roundRequested) {
+            requestRound();
+        }
+    }
+
+    private CompletableFuture<Void> startRound() {
+        long blockNumber = service.getNumber().longValue();
+        List<PendingReceipt> round = new ArrayList<PendingReceipt>(pendingReceipts.size());
+        for (PendingReceipt pendingReceipt : pendingReceipts.values()) {
+            if (blockNumber - pendingReceipt.blockNumber > maxBlocks) {
+                fail(
+                        pendingReceipt,
+                        "No transaction receipt for txHash: "
+                                + pendingReceipt.transactionHash
+                                + " received after "
+                                + maxBlocks
+                                + " blocks");
+            } else {
+                round.add(pendingReceipt);
+            }
+        }
+
+        CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+        for (int from = 0; from < round.size(); from += batchSize) {
+            List<PendingReceipt> batch =
+                    round.subList(from, Math.min(round.size(), from + batchSize));
+            // the next batch is sent by the scheduler, not by the thread completing this one
+            future = future.thenComposeAsync(result -> requestBatch(batch), scheduler);
+        }
+        return future;
+    }
+
+    private CompletableFuture<Void> requestBatch(List<PendingReceipt> batch) {
+        CompletableFuture<?>[] requests = new CompletableFuture<?>[batch.size()];
+        for (int i = 0; i < batch.size(); ++i) {
+            PendingReceipt pendingReceipt = batch.get(i);
+            requests[i] =
+                    web3j.getTransactionReceipt(pendingReceipt.transactionHash)
+                            .sendAsync()
+                            .handle(
+                                    (response, e) -> {
+                                        onResponse(pendingReceipt, response, e);
+                                        return null;
+                                    });
+        }
+        return CompletableFuture.allOf(requests);
+    }
+
+    private void onResponse(
+            PendingReceipt pendingReceipt, BcosTransactionReceipt response, Throwable e) {
+        // failed requests are retried in the next round
+        if (e != null) {
+            logger.debug(
+                    " get transaction receipt failed, hash: {}, e: {}",
+                    pendingReceipt.transactionHash,
+                    e.getMessage());
+            return;
+        }
+        if (response.hasError()) {
+            logger.debug(
+                    " get transaction receipt failed, hash: {}, error: {}",
+                    pendingReceipt.transactionHash,
+                    response.getError().getMessage());
+            return;
+        }
+        if (response.getTransactionReceipt().isPresent()
+                && pendingReceipts.remove(pendingReceipt.transactionHash, pendingReceipt)) {
+            pendingReceipt.future.complete(response.getTransactionReceipt().get());
+        }
+    }
+
+    private void fail(PendingReceipt pendingReceipt, String message) {
+        if (pendingReceipts.remove(pendingReceipt.transactionHash, pendingReceipt)) {
+            pendingReceipt.future.completeExceptionally(
+                    new TransactionException(message, pendingReceipt.transactionHash));
+        }
+    }
+
+    private static class PendingReceipt {
+        private final String transactionHash;
+        // highest block number when the transaction was added
+        private final long blockNumber;
+        private final CompletableFuture<TransactionReceipt> future =
+                new CompletableFuture<TransactionReceipt>();
+
+        PendingReceipt(String transactionHash, long blockNumber) {
+            this.transactionHash = transactionHash;
+            this.blockNumber = blockNumber;
+        }
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBlocks() {
+        return maxBlocks;
+    }
+
+    public void setMaxBlocks(int maxBlocks) {
+        this.maxBlocks = maxBlocks;
+    }
+}
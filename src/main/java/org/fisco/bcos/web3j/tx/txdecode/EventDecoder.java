@@ -0,0 +1,113 @@
+package org.fisco.bcos.web3j.tx.txdecode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.fisco.bcos.web3j.abi.AbiDecoder;
+import org.fisco.bcos.web3j.abi.EventEncoder;
+import org.fisco.bcos.web3j.abi.FunctionReturnDecoder;
+import org.fisco.bcos.web3j.abi.TypeReference;
+import org.fisco.bcos.web3j.abi.datatypes.Type;
+import org.fisco.bcos.web3j.protocol.core.methods.response.AbiDefinition;
+import org.fisco.bcos.web3j.protocol.core.methods.response.AbiDefinition.NamedType;
+import org.fisco.bcos.web3j.protocol.core.methods.response.Log;
+import org.fisco.bcos.web3j.utils.Numeric;
+import org.fisco.bcos.web3j.utils.Strings;
+
+/**
+ * Decoder of the logs of one event of a contract abi, with the parameter types, names and the
+ * topic0 signature resolved once.
+ */
+class EventDecoder {
+
+    private final AbiDefinition abiDefinition;
+    private final String methodSign;
+    private final String signature;
+
+    private final List<NamedType> indexedInputs = new ArrayList<NamedType>();
+    private final List<NamedType> nonIndexedInputs = new ArrayList<NamedType>();
+    private final List<TypeReference<?>> indexedTypes = new ArrayList<TypeReference<?>>();
+    private final AbiDecoder nonIndexedDecoder;
+
+    // an event whose types can't be decoded fails when one of its logs is decoded
+    private final BaseException unsupported;
+
+    EventDecoder(AbiDefinition abiDefinition, String methodSign) {
+        this.abiDefinition = abiDefinition;
+        this.methodSign = methodSign;
+        this.signature = EventEncoder.buildEventSignature(methodSign);
+
+        List<TypeReference<?>> nonIndexedTypes = new ArrayList<TypeReference<?>>();
+        BaseException unsupported = null;
+        try {
+            List<NamedType> inputs = abiDefinition.getInputs();
+            List<TypeReference<?>> types = ContractAbiUtil.paramFormat(inputs);
+            for (int i = 0; i < inputs.size(); i++) {
+                if (inputs.get(i).isIndexed()) {
+                    indexedInputs.add(inputs.get(i));
+                    indexedTypes.add(types.get(i));
+                } else {
+                    nonIndexedInputs.add(inputs.get(i));
+                    nonIndexedTypes.add(types.get(i));
+                }
+            }
+        } catch (BaseException e) {
+            unsupported = e;
+        }
+        this.unsupported = unsupported;
+        this.nonIndexedDecoder = unsupported == null ? AbiDecoder.of(nonIndexedTypes) : null;
+    }
+
+    AbiDefinition getAbiDefinition() {
+        return abiDefinition;
+    }
+
+    String getMethodSign() {
+        return methodSign;
+    }
+
+    String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @param log log whose topic0 is the signature of the event
+     * @return the indexed parameters followed by the non indexed ones
+     * @throws BaseException
+     */
+    List<EventResultEntity> decode(Log log) throws BaseException {
+        if (unsupported != null) {
+            throw unsupported;
+        }
+
+        List<Type> nonIndexedValues;
+        String data = Numeric.cleanHexPrefix(log.getData());
+        if (Strings.isEmpty(data)) {
+            nonIndexedValues = Collections.emptyList();
+        } else {
+            nonIndexedValues = nonIndexedDecoder.decode(Numeric.hexStringToByteArray(data));
+        }
+
+        List<String> topics = log.getTopics();
+        List<EventResultEntity> resultEntityList =
+                new ArrayList<EventResultEntity>(indexedInputs.size() + nonIndexedInputs.size());
+        for (int i = 0; i < indexedInputs.size(); i++) {
+            resultEntityList.add(
+                    new EventResultEntity(
+                            indexedInputs.get(i).getName(),
+                            indexedInputs.get(i).getType(),
+                            true,
+                            FunctionReturnDecoder.decodeIndexedValue(
+                                    topics.get(i + 1), indexedTypes.get(i))));
+        }
+        for (int i = 0; i < nonIndexedInputs.size(); i++) {
+            resultEntityList.add(
+                    new EventResultEntity(
+                            nonIndexedInputs.get(i).getName(),
+                            nonIndexedInputs.get(i).getType(),
+                            false,
+                            nonIndexedValues.get(i)));
+        }
+        return resultEntityList;
+    }
+}
@@ -4,9 +4,19 @@ import java.util.List;
 import org.fisco.bcos.web3j.protocol.core.methods.response.Log;
 
 public class LogResult {
+    private String eventName;
     private List<EventResultEntity> logParams;
     private Log log;
 
+    /** @return signature of the event, such as Transfer(address,uint256) */
+    public String getEventName() {
+        return eventName;
+    }
+
+    public void setEventName(String eventName) {
+        this.eventName = eventName;
+    }
+
     public List<EventResultEntity> getLogParams() {
         return logParams;
     }
@@ -25,6 +35,12 @@ public class LogResult {
 
     @Override
     public String toString() {
-        return "LogResult [logParams=" + logParams + ", log=" + log + "]";
+        return "LogResult [eventName="
+                + eventName
+                + ", logParams="
+                + logParams
+                + ", log="
+                + log
+                + "]";
     }
 }
@@ -1,17 +1,21 @@
 package org.fisco.bcos.web3j.tx.txdecode;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.CollectionType;
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import io.reactivex.schedulers.Schedulers;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
-import org.fisco.bcos.web3j.abi.EventEncoder;
-import org.fisco.bcos.web3j.abi.EventValues;
 import org.fisco.bcos.web3j.abi.FunctionEncoder;
 import org.fisco.bcos.web3j.abi.FunctionReturnDecoder;
 import org.fisco.bcos.web3j.abi.TypeReference;
@@ -33,6 +37,8 @@ public class TransactionDecoder {
     private String abi = "";
     private String bin = "";
     private Map<String, AbiDefinition> methodIDMap;
+    // events by their signature, the topic0 of their logs
+    private Map<String, EventDecoder> eventDecoderMap;
 
     public TransactionDecoder(String abi) {
         this(abi, "");
@@ -48,6 +54,13 @@ public class TransactionDecoder {
             String methodID = FunctionEncoder.buildMethodId(methodSign);
             methodIDMap.put(methodID, abiDefinition);
         }
+
+        eventDecoderMap = new HashMap<String, EventDecoder>();
+        for (AbiDefinition abiDefinition : ContractAbiUtil.getEventAbiDefinitions(abi)) {
+            EventDecoder eventDecoder =
+                    new EventDecoder(abiDefinition, decodeMethodSign(abiDefinition));
+            eventDecoderMap.putIfAbsent(eventDecoder.getSignature(), eventDecoder);
+        }
     }
 
     private String addHexPrefixToString(String s) {
@@ -226,22 +239,18 @@ public class TransactionDecoder {
         Map<String, List<List<EventResultEntity>>> resultEntityMap = new LinkedHashMap<>();
 
         for (Log log : logList) {
-            Tuple2<AbiDefinition, List<EventResultEntity>> resultTuple2 =
-                    decodeEventReturnObject(log);
-            if (null == resultTuple2) {
+            EventDecoder eventDecoder = selectEventDecoder(log);
+            if (null == eventDecoder) {
                 continue;
             }
 
-            AbiDefinition abiDefinition = resultTuple2.getValue1();
-            String eventName = decodeMethodSign(abiDefinition);
-            if (resultEntityMap.containsKey(eventName)) {
-                resultEntityMap.get(eventName).add(resultTuple2.getValue2());
-            } else {
-                List<List<EventResultEntity>> eventEntityList =
-                        new ArrayList<List<EventResultEntity>>();
-                eventEntityList.add(resultTuple2.getValue2());
+            String eventName = eventDecoder.getMethodSign();
+            List<List<EventResultEntity>> eventEntityList = resultEntityMap.get(eventName);
+            if (eventEntityList == null) {
+                eventEntityList = new ArrayList<List<EventResultEntity>>();
                 resultEntityMap.put(eventName, eventEntityList);
             }
+            eventEntityList.add(eventDecoder.decode(log));
         }
 
         return resultEntityMap;
@@ -253,123 +262,175 @@ public class TransactionDecoder {
      * @throws BaseException
      */
     public LogResult decodeEventLogReturnObject(Log log) throws BaseException {
-        // decode log
-        List<AbiDefinition> abiDefinitions = ContractAbiUtil.getEventAbiDefinitions(abi);
+        EventDecoder eventDecoder = selectEventDecoder(log);
+        if (eventDecoder == null) {
+            return null;
+        }
 
-        LogResult result = new LogResult();
+        LogResult result = decodeLogResult(eventDecoder, log);
 
-        for (AbiDefinition abiDefinition : abiDefinitions) {
+        logger.debug(" event log result: {}", result);
 
-            // String eventName = decodeMethodSign(abiDefinition);
-            String eventSignature =
-                    EventEncoder.buildEventSignature(decodeMethodSign(abiDefinition));
+        return result;
+    }
 
-            List<String> topics = log.getTopics();
-            if ((null == topics) || topics.isEmpty() || !topics.get(0).equals(eventSignature)) {
-                continue;
-            }
+    /**
+     * Decodes the logs one at a time as they are requested, the logs of events not in the abi are
+     * skipped. A log that fails to decode ends the flowable with its {@link BaseException}.
+     *
+     * @param logs
+     * @return decoded events, in the order of the logs
+     */
+    public Flowable<LogResult> decodeEventFlowable(Iterable<Log> logs) {
+        return Flowable.fromIterable(logs)
+                .filter(log -> selectEventDecoder(log) != null)
+                .map(log -> decodeLogResult(selectEventDecoder(log), log));
+    }
 
-            EventValues eventValued = ContractAbiUtil.decodeEvent(log, abiDefinition);
-            if (null != eventValued) {
-                List<EventResultEntity> resultEntityList = new ArrayList<EventResultEntity>();
-                List<NamedType> inputs = abiDefinition.getInputs();
-                List<NamedType> indexedInputs =
-                        inputs.stream().filter(NamedType::isIndexed).collect(Collectors.toList());
-                List<NamedType> nonIndexedInputs =
-                        inputs.stream().filter(p -> !p.isIndexed()).collect(Collectors.toList());
-
-                for (int i = 0; i < indexedInputs.size(); i++) {
-                    EventResultEntity eventEntity =
-                            new EventResultEntity(
-                                    indexedInputs.get(i).getName(),
-                                    indexedInputs.get(i).getType(),
-                                    true,
-                                    eventValued.getIndexedValues().get(i));
-
-                    resultEntityList.add(eventEntity);
-                }
+    /**
+     * Decodes batches of the logs on the pool, at most one batch per worker of the pool at a time.
+     * The events are emitted in the order of the logs, such as by block number and log index, and
+     * at most that many batches are buffered ahead of the subscriber.
+     *
+     * @param logs
+     * @param pool
+     * @param batchSize logs decoded by one task
+     * @return decoded events, in the order of the logs
+     */
+    public Flowable<LogResult> decodeEventFlowable(
+            List<Log> logs, ForkJoinPool pool, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (logs.size() <= batchSize) {
+            return decodeEventFlowable(logs);
+        }
 
-                for (int i = 0; i < nonIndexedInputs.size(); i++) {
-                    EventResultEntity eventEntity =
-                            new EventResultEntity(
-                                    nonIndexedInputs.get(i).getName(),
-                                    nonIndexedInputs.get(i).getType(),
-                                    false,
-                                    eventValued.getNonIndexedValues().get(i));
+        Scheduler scheduler = Schedulers.from(pool);
+        int batchCount = (logs.size() + batchSize - 1) / batchSize;
+        return Flowable.range(0, batchCount)
+                .map(
+                        batch ->
+                                logs.subList(
+                                        batch * batchSize,
+                                        Math.min(logs.size(), (batch + 1) * batchSize)))
+                .concatMapEager(
+                        batch ->
+                                Flowable.fromCallable(() -> decodeBatch(batch))
+                                        .subscribeOn(scheduler),
+                        pool.getParallelism(),
+                        1)
+                .concatMapIterable(results -> results);
+    }
 
-                    resultEntityList.add(eventEntity);
-                }
+    /**
+     * Writes the decoded events to the stream as they are decoded, as a json array of {"event":
+     * signature, "blockNumber", "logIndex", "transactionHash": of the log when known, "logParams":
+     * [...]} in the order of the logs. The stream is flushed but not closed.
+     *
+     * @param logList
+     * @param out
+     * @throws BaseException
+     * @throws IOException
+     */
+    public void decodeEventReturnJson(Iterable<Log> logList, OutputStream out)
+            throws BaseException, IOException {
+        writeEventJson(decodeEventFlowable(logList), out);
+    }
 
-                // result.setEventName(eventName);
-                result.setLogParams(resultEntityList);
-                result.setLog(log);
+    /**
+     * Same as {@link #decodeEventReturnJson(Iterable, OutputStream)}, the logs are decoded on the
+     * pool as by {@link #decodeEventFlowable(List, ForkJoinPool, int)}.
+     *
+     * @param logList
+     * @param pool
+     * @param batchSize
+     * @param out
+     * @throws BaseException
+     * @throws IOException
+     */
+    public void decodeEventReturnJson(
+            List<Log> logList, ForkJoinPool pool, int batchSize, OutputStream out)
+            throws BaseException, IOException {
+        writeEventJson(decodeEventFlowable(logList, pool, batchSize), out);
+    }
 
-                logger.debug(" event log result: {}", result);
+    private void writeEventJson(Flowable<LogResult> events, OutputStream out)
+            throws BaseException, IOException {
+        JsonGenerator generator =
+                ObjectMapperFactory.getObjectMapper().getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.writeStartArray();
+        try {
+            for (LogResult result : events.blockingIterable()) {
+                generator.writeStartObject();
+                generator.writeStringField("event", result.getEventName());
+                Log log = result.getLog();
+                if (log.getBlockNumberRaw() != null) {
+                    generator.writeStringField("blockNumber", log.getBlockNumberRaw());
+                }
+                if (log.getLogIndexRaw() != null) {
+                    generator.writeStringField("logIndex", log.getLogIndexRaw());
+                }
+                if (log.getTransactionHash() != null) {
+                    generator.writeStringField("transactionHash", log.getTransactionHash());
+                }
+                generator.writeFieldName("logParams");
+                generator.writeObject(result.getLogParams());
+                generator.writeEndObject();
+            }
+        } catch (RuntimeException e) {
+            // blocking iteration wraps the checked errors of the flowable
+            if (e.getCause() instanceof BaseException) {
+                throw (BaseException) e.getCause();
+            }
+            throw e;
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
 
-                return result;
+    private List<LogResult> decodeBatch(List<Log> logs) throws BaseException {
+        List<LogResult> results = new ArrayList<LogResult>(logs.size());
+        for (Log log : logs) {
+            EventDecoder eventDecoder = selectEventDecoder(log);
+            if (eventDecoder != null) {
+                results.add(decodeLogResult(eventDecoder, log));
             }
         }
+        return results;
+    }
 
-        return null;
+    private LogResult decodeLogResult(EventDecoder eventDecoder, Log log) throws BaseException {
+        LogResult result = new LogResult();
+        result.setEventName(eventDecoder.getMethodSign());
+        result.setLogParams(eventDecoder.decode(log));
+        result.setLog(log);
+        return result;
     }
 
     public Tuple2<AbiDefinition, List<EventResultEntity>> decodeEventReturnObject(Log log)
             throws BaseException, IOException {
+        EventDecoder eventDecoder = selectEventDecoder(log);
+        if (eventDecoder == null) {
+            return null;
+        }
 
-        Tuple2<AbiDefinition, List<EventResultEntity>> result = null;
-
-        // decode log
-        List<AbiDefinition> abiDefinitions = ContractAbiUtil.getEventAbiDefinitions(abi);
-
-        for (AbiDefinition abiDefinition : abiDefinitions) {
-
-            String eventSignature =
-                    EventEncoder.buildEventSignature(decodeMethodSign(abiDefinition));
-
-            List<String> topics = log.getTopics();
-            if ((null == topics) || topics.isEmpty() || !topics.get(0).equals(eventSignature)) {
-                continue;
-            }
-
-            EventValues eventValued = ContractAbiUtil.decodeEvent(log, abiDefinition);
-            if (null != eventValued) {
-                List<EventResultEntity> resultEntityList = new ArrayList<EventResultEntity>();
-                List<NamedType> inputs = abiDefinition.getInputs();
-                List<NamedType> indexedInputs =
-                        inputs.stream().filter(NamedType::isIndexed).collect(Collectors.toList());
-                List<NamedType> nonIndexedInputs =
-                        inputs.stream().filter(p -> !p.isIndexed()).collect(Collectors.toList());
-
-                for (int i = 0; i < indexedInputs.size(); i++) {
-                    EventResultEntity eventEntity =
-                            new EventResultEntity(
-                                    indexedInputs.get(i).getName(),
-                                    indexedInputs.get(i).getType(),
-                                    true,
-                                    eventValued.getIndexedValues().get(i));
-
-                    resultEntityList.add(eventEntity);
-                }
-
-                for (int i = 0; i < nonIndexedInputs.size(); i++) {
-                    EventResultEntity eventEntity =
-                            new EventResultEntity(
-                                    nonIndexedInputs.get(i).getName(),
-                                    nonIndexedInputs.get(i).getType(),
-                                    false,
-                                    eventValued.getNonIndexedValues().get(i));
-
-                    resultEntityList.add(eventEntity);
-                }
+        return new Tuple2<AbiDefinition, List<EventResultEntity>>(
+                eventDecoder.getAbiDefinition(), eventDecoder.decode(log));
+    }
 
-                result =
-                        new Tuple2<AbiDefinition, List<EventResultEntity>>(
-                                abiDefinition, resultEntityList);
-                break;
-            }
+    /**
+     * @param log
+     * @return the decoder of the event whose signature is the topic0 of the log, null if the abi
+     *     has no such event
+     */
+    private EventDecoder selectEventDecoder(Log log) {
+        List<String> topics = log.getTopics();
+        if ((null == topics) || topics.isEmpty() || (null == topics.get(0))) {
+            return null;
         }
-
-        return result;
+        return eventDecoderMap.get(topics.get(0));
     }
 
     /**
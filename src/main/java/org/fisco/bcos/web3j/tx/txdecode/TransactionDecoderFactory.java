@@ -7,6 +7,9 @@ import static org.fisco.bcos.web3j.solidity.compiler.SolidityCompiler.Options.ME
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.fisco.bcos.web3j.crypto.Hash;
 import org.fisco.bcos.web3j.protocol.exceptions.TransactionException;
 import org.fisco.bcos.web3j.solidity.compiler.CompilationResult;
 import org.fisco.bcos.web3j.solidity.compiler.SolidityCompiler;
@@ -17,13 +20,31 @@ public class TransactionDecoderFactory {
     public static String SOL_POSTFIX = ".sol";
     public static String PREFIX_LIB = "Lib";
 
+    // decoders are immutable, so one is shared by every user of the same abi and bin
+    private static final ConcurrentMap<String, TransactionDecoder> decoderCache =
+            new ConcurrentHashMap<String, TransactionDecoder>();
+
     /**
      * @param abi
      * @param bin
-     * @return TransactionDecoder
+     * @return TransactionDecoder, cached by the hash of the abi and bin
      */
     public static TransactionDecoder buildTransactionDecoder(String abi, String bin) {
-        return new TransactionDecoder(abi, bin);
+        String key = Hash.sha3String(abi) + Hash.sha3String(bin);
+        TransactionDecoder decoder = decoderCache.get(key);
+        if (decoder == null) {
+            decoder = new TransactionDecoder(abi, bin);
+            TransactionDecoder cached = decoderCache.putIfAbsent(key, decoder);
+            if (cached != null) {
+                decoder = cached;
+            }
+        }
+        return decoder;
+    }
+
+    /** Drops the cached decoders. */
+    public static void clearCache() {
+        decoderCache.clear();
     }
 
     /**
@@ -77,6 +98,6 @@ public class TransactionDecoderFactory {
                 break;
             }
         }
-        return new TransactionDecoder(abi, bin);
+        return buildTransactionDecoder(abi, bin);
     }
 }
@@ -0,0 +1,167 @@
+package org.fisco.bcos.channel.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import java.util.concurrent.CompletableFuture;
+import org.fisco.bcos.channel.handler.ChannelHandlerContextHelper;
+import org.junit.Test;
+
+public class InFlightLimiterTest {
+
+    @Test
+    public void maxInFlightTest() throws InterruptedException {
+        ChannelHandlerContext[] nodes = newContexts(2);
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlight(2);
+
+        assertThat(limiter.acquire(nodes[0], nodes), is(nodes[0]));
+        assertThat(limiter.acquire(nodes[1], nodes), is(nodes[1]));
+        assertThat(limiter.isSaturated(), is(true));
+        assertThat(limiter.acquire(nodes[0], nodes), nullValue());
+        assertThat(limiter.getRejectedCount(), is(1L));
+
+        limiter.release();
+        assertThat(limiter.getInFlight(), is(1));
+        assertThat(limiter.acquire(nodes[0], nodes), is(nodes[0]));
+    }
+
+    @Test
+    public void perConnectionTest() throws InterruptedException {
+        ChannelHandlerContext[] nodes = newContexts(2);
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlightPerConnection(1);
+
+        // the selected node is busy, the request goes to another candidate
+        ChannelHandlerContextHelper.getNodeStats(nodes[0]).onRequest();
+        assertThat(limiter.acquire(nodes[0], nodes), is(nodes[1]));
+
+        ChannelHandlerContextHelper.getNodeStats(nodes[1]).onRequest();
+        assertThat(limiter.acquire(nodes[0], nodes), nullValue());
+        assertThat(limiter.getInFlight(), is(1));
+    }
+
+    @Test
+    public void writabilityTest() throws InterruptedException {
+        ChannelHandlerContext[] nodes = newContexts(2);
+        EmbeddedChannel channel = (EmbeddedChannel) nodes[0].channel();
+        channel.config().setWriteBufferWaterMark(new WriteBufferWaterMark(4, 8));
+        channel.write(Unpooled.wrappedBuffer(new byte[16]));
+        assertThat(channel.isWritable(), is(false));
+
+        InFlightLimiter limiter = new InFlightLimiter();
+        assertThat(limiter.acquire(nodes[0], nodes), is(nodes[1]));
+        assertThat(limiter.acquire(nodes[0], new ChannelHandlerContext[] {nodes[0]}), nullValue());
+
+        channel.flush();
+        assertThat(limiter.acquire(nodes[0], nodes), is(nodes[0]));
+    }
+
+    @Test
+    public void blockTest() throws Exception {
+        ChannelHandlerContext[] nodes = newContexts(1);
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlight(1);
+        limiter.setPolicy(InFlightLimiter.Policy.BLOCK);
+        limiter.setBlockTimeoutMillis(50);
+
+        assertThat(limiter.acquire(nodes[0], nodes), is(nodes[0]));
+        // times out while the permit is held
+        assertThat(limiter.acquire(nodes[0], nodes), nullValue());
+
+        limiter.setBlockTimeoutMillis(10000);
+        CompletableFuture<ChannelHandlerContext> future =
+                CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return limiter.acquire(nodes[0], nodes);
+                            } catch (InterruptedException e) {
+                                return null;
+                            }
+                        });
+        Thread.sleep(20);
+        assertThat(future.isDone(), is(false));
+        limiter.release();
+        assertThat(future.get(), is(nodes[0]));
+        assertThat(limiter.getRejectedCount(), is(1L));
+    }
+
+    @Test
+    public void deferTest() throws Exception {
+        ChannelHandlerContext[] nodes = newContexts(1);
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlight(1);
+        limiter.setPolicy(InFlightLimiter.Policy.DEFER);
+
+        assertThat(limiter.acquireAsync(nodes[0], nodes).get(), is(nodes[0]));
+        CompletableFuture<ChannelHandlerContext> first = limiter.acquireAsync(nodes[0], nodes);
+        CompletableFuture<ChannelHandlerContext> second = limiter.acquireAsync(nodes[0], nodes);
+        assertThat(first.isDone(), is(false));
+        assertThat(limiter.getDeferredCount(), is(2));
+
+        // the permit goes to the first deferred request
+        limiter.release();
+        assertThat(first.get(), is(nodes[0]));
+        assertThat(second.isDone(), is(false));
+
+        limiter.setBlockTimeoutMillis(20);
+        CompletableFuture<ChannelHandlerContext> expired = limiter.acquireAsync(nodes[0], nodes);
+        limiter.release();
+        assertThat(second.get(), is(nodes[0]));
+        assertThat(expired.get(), nullValue());
+        assertThat(limiter.getRejectedCount(), is(1L));
+        assertThat(limiter.getDeferralCount(), is(3L));
+        assertThat(limiter.getDeferredCount(), is(0));
+    }
+
+    @Test
+    public void eventLoopTest() throws Exception {
+        ChannelHandlerContext[] nodes = newContexts(1);
+        InFlightLimiter limiter = new InFlightLimiter();
+        limiter.setMaxInFlight(1);
+        limiter.setPolicy(InFlightLimiter.Policy.BLOCK);
+        limiter.setBlockTimeoutMillis(10000);
+        assertThat(limiter.acquire(nodes[0], nodes), is(nodes[0]));
+
+        // a netty thread is neither blocked nor rejected, its request is deferred
+        CompletableFuture<ChannelHandlerContext> blocked = new CompletableFuture<>();
+        CompletableFuture<CompletableFuture<ChannelHandlerContext>> deferred =
+                new CompletableFuture<>();
+        Thread thread =
+                new FastThreadLocalThread(
+                        () -> {
+                            try {
+                                blocked.complete(limiter.acquire(nodes[0], nodes));
+                                deferred.complete(limiter.acquireAsync(nodes[0], nodes));
+                            } catch (InterruptedException e) {
+                                blocked.completeExceptionally(e);
+                            }
+                        });
+        thread.start();
+        thread.join(1000);
+        assertThat(thread.isAlive(), is(false));
+        assertThat(blocked.get(), nullValue());
+        assertThat(deferred.get().isDone(), is(false));
+
+        limiter.release();
+        assertThat(deferred.get().get(), is(nodes[0]));
+    }
+
+    private ChannelHandlerContext[] newContexts(int count) {
+        ChannelHandlerContext[] contexts = new ChannelHandlerContext[count];
+        for (int i = 0; i < count; ++i) {
+            contexts[i] =
+                    new EmbeddedChannel(new ChannelInboundHandlerAdapter())
+                            .pipeline()
+                            .firstContext();
+        }
+        return contexts;
+    }
+}
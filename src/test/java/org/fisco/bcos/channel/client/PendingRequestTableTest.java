@@ -0,0 +1,118 @@
+package org.fisco.bcos.channel.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayList;
+import java.util.List;
+import org.fisco.bcos.channel.dto.BcosMessage;
+import org.fisco.bcos.channel.handler.Message;
+import org.junit.Test;
+
+public class PendingRequestTableTest {
+
+    @Test
+    public void putGetRemoveTest() {
+        PendingRequestTable<String> table = new PendingRequestTable<String>(64);
+        table.put(1, "a");
+        table.put(65, "b");
+
+        assertThat(table.get(1), is("a"));
+        assertThat(table.get(65), is("b"));
+        assertThat(table.get(2), nullValue());
+
+        assertThat(table.remove(1), is("a"));
+        assertThat(table.remove(1), nullValue());
+        assertThat(table.get(65), is("b"));
+
+        // slot released by a removed request is reused
+        table.put(129, "c");
+        assertThat(table.get(129), is("c"));
+        assertThat(table.values().size(), is(2));
+    }
+
+    @Test
+    public void overflowTest() {
+        PendingRequestTable<Long> table = new PendingRequestTable<Long>(32);
+        for (long i = 1; i <= 100; ++i) {
+            table.put(i, i);
+        }
+        for (long i = 1; i <= 100; ++i) {
+            assertThat(table.get(i), is(i));
+        }
+        for (long i = 1; i <= 100; ++i) {
+            assertThat(table.remove(i), is(i));
+        }
+        assertThat(table.values().isEmpty(), is(true));
+    }
+
+    @Test
+    public void concurrentTest() throws InterruptedException {
+        PendingRequestTable<Long> table = new PendingRequestTable<Long>(1024);
+        SeqGenerator generator = new SeqGenerator();
+        List<Thread> threads = new ArrayList<Thread>();
+        final int[] errors = new int[1];
+        for (int t = 0; t < 8; ++t) {
+            Thread thread =
+                    new Thread(
+                            () -> {
+                                for (int i = 0; i < 10000; ++i) {
+                                    long key = generator.nextPacked();
+                                    table.put(key, key);
+                                    Long value = table.remove(key);
+                                    if (value == null || value != key) {
+                                        synchronized (errors) {
+                                            errors[0]++;
+                                        }
+                                    }
+                                }
+                            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(errors[0], is(0));
+        assertThat(table.values().isEmpty(), is(true));
+    }
+
+    @Test
+    public void seqTest() {
+        SeqGenerator generator = new SeqGenerator(0x0123456789abcdefL);
+        String seq = generator.next();
+        assertThat(seq, is("0123456789abcdef0000000000000001"));
+        assertThat(generator.unpack(seq), is(1L));
+        assertThat(generator.unpack("0123456789abcdeF0000000000000001"), is(0L));
+        assertThat(new SeqGenerator().unpack(seq), is(0L));
+
+        BcosMessage message = new BcosMessage();
+        message.setSeq(generator.getPrefix(), generator.nextPacked());
+        message.setType((short) 0x12);
+        message.setResult(0);
+        message.setData("{}".getBytes());
+
+        ByteBuf buf = Unpooled.buffer();
+        message.writeHeader(buf);
+        message.writeExtra(buf);
+
+        Message header = new Message();
+        header.readHeader(buf);
+        assertThat(header.isSeqPacked(), is(true));
+        assertThat(generator.owns(header.getSeqHigh()), is(true));
+        assertThat(header.getSeqLow(), is(2L));
+        assertThat(header.getSeq(), is("0123456789abcdef0000000000000002"));
+
+        // foreign seqs are kept as they are on the wire
+        message.setSeq("0123456789ABCDEF0000000000000002");
+        buf.clear();
+        message.writeHeader(buf);
+        header.readHeader(buf);
+        assertThat(header.isSeqPacked(), is(false));
+        assertThat(header.getSeq(), is("0123456789ABCDEF0000000000000002"));
+    }
+}
@@ -0,0 +1,118 @@
+package org.fisco.bcos.channel.client;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.fisco.bcos.channel.dto.BcosMessage;
+import org.fisco.bcos.channel.dto.BcosRequest;
+import org.fisco.bcos.channel.dto.BcosResponse;
+import org.fisco.bcos.channel.handler.ChannelConnections;
+import org.fisco.bcos.channel.handler.GroupChannelConnectionsConfig;
+import org.fisco.bcos.channel.protocol.ChannelMessageError;
+import org.fisco.bcos.channel.protocol.ChannelMessageType;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.channel.ChannelEthereumService;
+import org.fisco.bcos.web3j.protocol.core.methods.response.BlockNumber;
+import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.junit.Test;
+
+public class SendEthereumMessageAsyncTest {
+
+    @Test
+    public void noConnectionTest() {
+        Service service = newService();
+
+        BcosRequest request = new BcosRequest();
+        request.setMessageID(service.newSeq());
+        request.setContent("{}");
+
+        // the future is completed by the send failure, no thread waits for it
+        CompletableFuture<BcosResponse> future = service.sendEthereumMessageAsync(request);
+        assertThat(future.isDone(), is(true));
+        assertThat(future.join().getErrorCode(), is(-1));
+
+        request.setMessageID(service.newSeq());
+        assertThat(service.sendEthereumMessage(request).getErrorCode(), is(-1));
+    }
+
+    @Test
+    public void transactionCallbackTest() {
+        Service service = newService();
+
+        BcosRequest request = new BcosRequest();
+        request.setMessageID(service.newSeq());
+        request.setContent("{}");
+        request.setTimeout(60000);
+
+        // a transaction that is not sent is answered at once instead of at its timeout
+        CompletableFuture<TransactionReceipt> receipt = new CompletableFuture<TransactionReceipt>();
+        service.sendEthereumMessageAsync(
+                request,
+                new TransactionSucCallback() {
+                    @Override
+                    public void onResponse(TransactionReceipt response) {
+                        receipt.complete(response);
+                    }
+                });
+        assertThat(receipt.isDone(), is(true));
+        assertThat(receipt.join().getStatus(), is("-1"));
+    }
+
+    @Test
+    public void sendAsyncTest() throws InterruptedException {
+        ChannelEthereumService channelEthereumService = new ChannelEthereumService();
+        channelEthereumService.setChannelService(newService());
+        Web3j web3j = Web3j.build(channelEthereumService, 1);
+
+        CompletableFuture<BlockNumber> future = web3j.getBlockNumber().sendAsync();
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof IOException, is(true));
+        }
+    }
+
+    @Test
+    public void rejectedMessageTest() {
+        Service service = newService();
+        String seq = "0123456789abcdef0123456789abcdef";
+        CompletableFuture<BcosResponse> future = new CompletableFuture<BcosResponse>();
+        service.putCallback(
+                seq,
+                new BcosResponseCallback() {
+                    @Override
+                    public void onResponse(BcosResponse response) {
+                        future.complete(response);
+                    }
+                });
+
+        BcosMessage message = new BcosMessage();
+        message.setSeq(seq);
+        message.setType((short) ChannelMessageType.CHANNEL_RPC_REQUEST.getType());
+        service.onRejectedMessage(null, message);
+
+        // the caller is answered at once instead of at its timeout
+        assertThat(future.isDone(), is(true));
+        assertThat(
+                future.join().getErrorCode(), is(ChannelMessageError.MESSAGE_DROPPED.getError()));
+        assertThat(service.getCallback(seq) == null, is(true));
+    }
+
+    private Service newService() {
+        ChannelConnections channelConnections = new ChannelConnections();
+        channelConnections.setGroupId(1);
+        GroupChannelConnectionsConfig config = new GroupChannelConnectionsConfig();
+        config.setAllChannelConnections(Arrays.asList(channelConnections));
+
+        Service service = new Service();
+        service.setGroupId(1);
+        service.setAllChannelConnections(config);
+        return service;
+    }
+}
@@ -0,0 +1,86 @@
+package org.fisco.bcos.channel.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.net.ssl.SSLException;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+public class ChannelTransportTest {
+
+    @Test
+    public void sharedByGroupsTest() {
+        GroupChannelConnectionsConfig config = new GroupChannelConnectionsConfig();
+        config.setWorkerThreads(1);
+        ChannelTransport transport = config.getTransport();
+        try {
+            assertThat(config.getTransport(), is(sameInstance(transport)));
+            assertThat(config.isSharedTransport(), is(true));
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    public void nativeTransportTest() {
+        ChannelTransport nio = new ChannelTransport(1, false);
+        ChannelTransport epoll = new ChannelTransport(1, true);
+        try {
+            assertThat(nio.getChannelClass() == NioSocketChannel.class, is(true));
+            assertThat(nio.getWorkerGroup() instanceof NioEventLoopGroup, is(true));
+
+            // falls back to nio where epoll is not available
+            assertThat(epoll.isNativeTransport(), is(Epoll.isAvailable()));
+            assertThat(
+                    epoll.getChannelClass() == EpollSocketChannel.class, is(Epoll.isAvailable()));
+        } finally {
+            nio.shutdown();
+            epoll.shutdown();
+        }
+    }
+
+    @Test
+    public void socketDefaultsTest() {
+        // the netty defaults, Nagle's algorithm stays off
+        assertThat(new ChannelConnections().isTcpNoDelay(), is(true));
+    }
+
+    @Test
+    public void sslContextTest() throws SSLException {
+        ChannelTransport transport = new ChannelTransport(1);
+        try {
+            Resource ca = new ByteArrayResource(new byte[] {1});
+            Resource cert = new ByteArrayResource(new byte[] {2});
+            Resource key = new ByteArrayResource(new byte[] {3});
+            Resource otherKey = new ByteArrayResource(new byte[] {4});
+
+            AtomicInteger created = new AtomicInteger(0);
+            ChannelTransport.SslContextFactory factory =
+                    () -> {
+                        created.incrementAndGet();
+                        return mock(SslContext.class);
+                    };
+
+            // groups with the same certificates share the context and its session cache
+            SslContext sslContext = transport.getSslContext(ca, cert, key, factory);
+            assertThat(transport.getSslContext(ca, cert, key, factory), is(sslContext));
+            assertThat(created.get(), is(1));
+
+            assertThat(transport.getSslContext(ca, cert, otherKey, factory), is(not(sslContext)));
+            assertThat(created.get(), is(2));
+        } finally {
+            transport.shutdown();
+        }
+    }
+}
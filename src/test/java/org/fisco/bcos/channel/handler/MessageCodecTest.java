@@ -0,0 +1,77 @@
+package org.fisco.bcos.channel.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.fisco.bcos.channel.client.SeqGenerator;
+import org.fisco.bcos.channel.dto.BcosMessage;
+import org.fisco.bcos.channel.dto.ChannelMessage2;
+import org.junit.Test;
+
+public class MessageCodecTest {
+
+    @Test
+    public void bcosMessageTest() {
+        SeqGenerator generator = new SeqGenerator();
+        BcosMessage message = new BcosMessage();
+        message.setSeq(generator.getPrefix(), generator.nextPacked());
+        message.setType((short) 0x12);
+        message.setResult(0);
+        message.setData("{\"jsonrpc\":\"2.0\"}".getBytes());
+
+        ByteBuf encoded = encode(message);
+        assertThat(encoded.readableBytes(), is(message.encodedLength()));
+
+        // the frame arrives in two parts
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+        decoder.writeInbound(encoded.readRetainedSlice(10));
+        assertThat(decoder.inboundMessages().isEmpty(), is(true));
+        decoder.writeInbound(encoded);
+
+        Message decoded = decoder.readInbound();
+        assertThat(decoded.isSeqPacked(), is(true));
+        assertThat(decoded.getSeq(), is(message.getSeq()));
+        assertThat(decoded.getType(), is((short) 0x12));
+
+        BcosMessage bcosMessage = new BcosMessage(decoded);
+        assertThat(new String(bcosMessage.getData()), is("{\"jsonrpc\":\"2.0\"}"));
+
+        decoded.release();
+        assertThat(decoded.getPayload().refCnt(), is(0));
+    }
+
+    @Test
+    public void channelMessage2Test() {
+        ChannelMessage2 message = new ChannelMessage2();
+        message.setSeq("0123456789ABCDEF0123456789ABCDEF");
+        message.setType((short) 0x30);
+        message.setResult(0);
+        message.setTopic("topic");
+        message.setData("hello".getBytes());
+
+        ByteBuf encoded = encode(message);
+        assertThat(encoded.readableBytes(), is(message.encodedLength()));
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+        decoder.writeInbound(encoded);
+
+        Message decoded = decoder.readInbound();
+        assertThat(decoded.isSeqPacked(), is(false));
+        assertThat(decoded.getSeq(), is("0123456789ABCDEF0123456789ABCDEF"));
+
+        ChannelMessage2 channelMessage = new ChannelMessage2(decoded);
+        channelMessage.readExtra(decoded.getPayload());
+        assertThat(channelMessage.getTopic(), is("topic"));
+        assertThat(new String(channelMessage.getData()), is("hello"));
+
+        decoded.release();
+    }
+
+    private ByteBuf encode(Message message) {
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder());
+        encoder.writeOutbound(message);
+        return encoder.readOutbound();
+    }
+}
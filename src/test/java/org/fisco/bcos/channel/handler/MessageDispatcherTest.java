@@ -0,0 +1,205 @@
+package org.fisco.bcos.channel.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.ChannelHandlerContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.fisco.bcos.channel.protocol.ChannelMessageType;
+import org.junit.Test;
+
+public class MessageDispatcherTest {
+
+    private final ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+
+    @Test
+    public void laneTest() {
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        assertThat(
+                dispatcher.getLane(ChannelMessageType.CHANNEL_RPC_REQUEST.getType()),
+                is(dispatcher.getRpcLane()));
+        assertThat(
+                dispatcher.getLane(ChannelMessageType.EVENT_LOG_PUSH.getType()),
+                is(dispatcher.getEventLogLane()));
+        assertThat(
+                dispatcher.getLane(ChannelMessageType.TRANSACTION_NOTIFY.getType()),
+                is(dispatcher.getNotifyLane()));
+        assertThat(
+                dispatcher.getLane(ChannelMessageType.AMOP_RESPONSE.getType()),
+                is(dispatcher.getAmopLane()));
+        assertThat(
+                dispatcher.getLane(ChannelMessageType.CLIENT_HEARTBEAT.getType()),
+                is(dispatcher.getHeartbeatLane()));
+    }
+
+    @Test
+    public void inlineTest() {
+        ChannelConnections.Callback callback = mock(ChannelConnections.Callback.class);
+        ChannelConnections connections = new ChannelConnections();
+        connections.setCallback(callback);
+
+        MessageDispatcher dispatcher = new MessageDispatcher();
+        Message msg = newMessage(ChannelMessageType.CLIENT_HEARTBEAT);
+        dispatcher.dispatch(ctx, msg, connections);
+        // handled on the calling thread
+        verify(callback).onMessage(ctx, msg);
+    }
+
+    @Test
+    public void overflowTest() throws InterruptedException {
+        Semaphore started = new Semaphore(0);
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch handled = new CountDownLatch(1);
+        ChannelConnections.Callback callback = mock(ChannelConnections.Callback.class);
+        doAnswer(
+                        invocation -> {
+                            started.release();
+                            blocked.await();
+                            handled.countDown();
+                            return null;
+                        })
+                .when(callback)
+                .onMessage(any(ChannelHandlerContext.class), any(Message.class));
+        ChannelConnections connections = new ChannelConnections();
+        connections.setCallback(callback);
+
+        DispatcherLane shed = new DispatcherLane("shed", 1, 1, DispatcherLane.OverflowPolicy.SHED);
+        DispatcherLane error =
+                new DispatcherLane("error", 1, 1, DispatcherLane.OverflowPolicy.ERROR);
+        try {
+            // one message runs, one is queued, the third one overflows
+            shed.execute(ctx, newMessage(ChannelMessageType.EVENT_LOG_PUSH), connections);
+            assertThat(started.tryAcquire(5, TimeUnit.SECONDS), is(true));
+            for (int i = 0; i < 2; ++i) {
+                shed.execute(ctx, newMessage(ChannelMessageType.EVENT_LOG_PUSH), connections);
+            }
+            assertThat(shed.getRejectedCount(), is(1L));
+            assertThat(shed.getDispatchedCount(), is(3L));
+            verify(callback, times(0)).onRejected(any(), any());
+
+            error.execute(ctx, newMessage(ChannelMessageType.CHANNEL_RPC_REQUEST), connections);
+            assertThat(started.tryAcquire(5, TimeUnit.SECONDS), is(true));
+            for (int i = 0; i < 2; ++i) {
+                error.execute(ctx, newMessage(ChannelMessageType.CHANNEL_RPC_REQUEST), connections);
+            }
+            assertThat(error.getRejectedCount(), is(1L));
+            verify(callback, times(1)).onRejected(any(), any());
+        } finally {
+            blocked.countDown();
+            assertThat(handled.await(5, TimeUnit.SECONDS), is(true));
+            shed.shutdown();
+            error.shutdown();
+        }
+    }
+
+    @Test
+    public void backpressureTest() throws InterruptedException {
+        Channel channel = mock(Channel.class);
+        ChannelConfig config = mock(ChannelConfig.class);
+        when(channel.config()).thenReturn(config);
+        ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+        when(ctx.channel()).thenReturn(channel);
+
+        Semaphore started = new Semaphore(0);
+        CountDownLatch blocked = new CountDownLatch(1);
+        List<Message> handled = Collections.synchronizedList(new ArrayList<Message>());
+        ChannelConnections.Callback callback = mock(ChannelConnections.Callback.class);
+        doAnswer(
+                        invocation -> {
+                            started.release();
+                            blocked.await();
+                            handled.add(invocation.getArgument(1));
+                            return null;
+                        })
+                .when(callback)
+                .onMessage(any(ChannelHandlerContext.class), any(Message.class));
+        ChannelConnections connections = new ChannelConnections();
+        connections.setCallback(callback);
+
+        DispatcherLane lane =
+                new DispatcherLane("block", 1, 2, DispatcherLane.OverflowPolicy.BLOCK);
+        List<Message> messages = new ArrayList<Message>();
+        try {
+            for (int i = 0; i < 6; ++i) {
+                messages.add(newMessage(ChannelMessageType.BLOCK_NOTIFY));
+            }
+            lane.execute(ctx, messages.get(0), connections);
+            assertThat(started.tryAcquire(5, TimeUnit.SECONDS), is(true));
+            // two are queued, the others are kept and the connection stops reading, the calling
+            // event loop is not blocked
+            for (int i = 1; i < messages.size(); ++i) {
+                lane.execute(ctx, messages.get(i), connections);
+            }
+            assertThat(lane.getOverflowCount(), is(3));
+            assertThat(lane.getPauseCount(), is(1L));
+            verify(config, times(1)).setAutoRead(false);
+            verify(config, times(0)).setAutoRead(true);
+        } finally {
+            blocked.countDown();
+        }
+
+        for (int i = 0; i < 500 && handled.size() < messages.size(); ++i) {
+            Thread.sleep(10);
+        }
+        // nothing is dropped, in the order read, and the connection reads again
+        assertThat(handled, is(messages));
+        assertThat(lane.getRejectedCount(), is(0L));
+        assertThat(lane.getOverflowCount(), is(0));
+        verify(config, times(1)).setAutoRead(true);
+        lane.shutdown();
+    }
+
+    @Test
+    public void shutdownTest() throws InterruptedException {
+        Channel channel = mock(Channel.class);
+        when(channel.config()).thenReturn(mock(ChannelConfig.class));
+        ChannelHandlerContext ctx = mock(ChannelHandlerContext.class);
+        when(ctx.channel()).thenReturn(channel);
+
+        CountDownLatch blocked = new CountDownLatch(1);
+        ChannelConnections.Callback callback = mock(ChannelConnections.Callback.class);
+        doAnswer(
+                        invocation -> {
+                            blocked.await();
+                            return null;
+                        })
+                .when(callback)
+                .onMessage(any(ChannelHandlerContext.class), any(Message.class));
+        ChannelConnections connections = new ChannelConnections();
+        connections.setCallback(callback);
+
+        DispatcherLane lane =
+                new DispatcherLane("block", 1, 1, DispatcherLane.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 4; ++i) {
+            lane.execute(ctx, newMessage(ChannelMessageType.BLOCK_NOTIFY), connections);
+        }
+        lane.shutdown();
+        blocked.countDown();
+        // the kept messages are released, not queued to the stopped executor
+        assertThat(lane.getOverflowCount(), is(0));
+        assertThat(lane.getRejectedCount() >= 2, is(true));
+    }
+
+    private Message newMessage(ChannelMessageType type) {
+        Message msg = new Message();
+        msg.setType((short) type.getType());
+        msg.setSeq("0123456789ABCDEF0123456789ABCDEF");
+        msg.setResult(0);
+        msg.readPayload(Unpooled.buffer(0));
+        return msg;
+    }
+}
@@ -0,0 +1,97 @@
+package org.fisco.bcos.channel.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class NodeSelectionStrategyTest {
+
+    private final ChannelHandlerContext node0 = mock(ChannelHandlerContext.class);
+    private final ChannelHandlerContext node1 = mock(ChannelHandlerContext.class);
+    private final ChannelHandlerContext node2 = mock(ChannelHandlerContext.class);
+
+    @Test
+    public void randomTest() {
+        RoutingTable table =
+                new RoutingTable(
+                        new ChannelHandlerContext[] {node0, node1, node2},
+                        new ChannelHandlerContext[] {node1, node2},
+                        BigInteger.TEN);
+
+        NodeSelectionStrategy strategy = new RandomNodeSelectionStrategy();
+        Set<ChannelHandlerContext> selected = new HashSet<ChannelHandlerContext>();
+        for (int i = 0; i < 1000; ++i) {
+            selected.add(strategy.select(table));
+        }
+        // only nodes at the highest block are selected
+        assertThat(selected.size(), is(2));
+        assertThat(selected.contains(node0), is(false));
+    }
+
+    @Test
+    public void roundRobinTest() {
+        RoutingTable table =
+                new RoutingTable(
+                        new ChannelHandlerContext[] {node0, node1, node2},
+                        new ChannelHandlerContext[0],
+                        BigInteger.ZERO);
+
+        // all nodes are candidates when no block number is known
+        NodeSelectionStrategy strategy = new RoundRobinNodeSelectionStrategy();
+        assertThat(strategy.select(table), is(node0));
+        assertThat(strategy.select(table), is(node1));
+        assertThat(strategy.select(table), is(node2));
+        assertThat(strategy.select(table), is(node0));
+    }
+
+    @Test
+    public void leastInFlightTest() {
+        ChannelHandlerContext[] nodes = newContexts(3);
+        RoutingTable table = new RoutingTable(nodes, nodes, BigInteger.ONE);
+
+        ChannelHandlerContextHelper.getNodeStats(nodes[0]).onRequest();
+        ChannelHandlerContextHelper.getNodeStats(nodes[2]).onRequest();
+
+        NodeSelectionStrategy strategy = new LeastInFlightNodeSelectionStrategy();
+        assertThat(strategy.select(table), is(nodes[1]));
+    }
+
+    @Test
+    public void leastLatencyTest() throws InterruptedException {
+        ChannelHandlerContext[] nodes = newContexts(2);
+        RoutingTable table = new RoutingTable(nodes, nodes, BigInteger.ONE);
+
+        NodeStats slow = ChannelHandlerContextHelper.getNodeStats(nodes[0]);
+        long sendTime = slow.onRequest();
+        Thread.sleep(20);
+        slow.onResponse(sendTime);
+        assertThat(slow.getInFlight(), is(0));
+        assertThat(slow.getLatencyMillis() >= 20, is(true));
+
+        // the fast node is preferred while its expected completion time is lower
+        NodeStats fast = ChannelHandlerContextHelper.getNodeStats(nodes[1]);
+        fast.onResponse(fast.onRequest());
+
+        NodeSelectionStrategy strategy = new LeastLatencyNodeSelectionStrategy();
+        assertThat(strategy.select(table), is(nodes[1]));
+    }
+
+    private ChannelHandlerContext[] newContexts(int count) {
+        ChannelHandlerContext[] contexts = new ChannelHandlerContext[count];
+        for (int i = 0; i < count; ++i) {
+            contexts[i] =
+                    new EmbeddedChannel(new ChannelInboundHandlerAdapter())
+                            .pipeline()
+                            .firstContext();
+        }
+        return contexts;
+    }
+}
@@ -0,0 +1,155 @@
+package org.fisco.bcos.channel.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fisco.bcos.channel.client.Service;
+import org.fisco.bcos.channel.dto.BcosMessage;
+import org.fisco.bcos.channel.dto.ChannelMessage2;
+import org.fisco.bcos.channel.protocol.ChannelMessageType;
+import org.junit.Test;
+
+public class SharedConnectionTest {
+
+    @Test
+    public void connectTest() {
+        ChannelTransport transport = new ChannelTransport(1);
+        try {
+            AtomicInteger opened = new AtomicInteger(0);
+            EmbeddedChannel channel = new EmbeddedChannel();
+            SharedConnection connection =
+                    transport.connect(
+                            "127.0.0.1",
+                            20200,
+                            null,
+                            shared -> {
+                                opened.incrementAndGet();
+                                return channel.newSucceededFuture();
+                            });
+
+            // the other groups join the connection to the node
+            assertThat(
+                    transport.connect("127.0.0.1", 20200, null, shared -> null),
+                    is(sameInstance(connection)));
+            assertThat(opened.get(), is(1));
+            assertThat(transport.getConnectionCount(), is(1));
+
+            // a closed connection is opened again by the next group
+            channel.close();
+            assertThat(transport.getConnectionCount(), is(0));
+            SharedConnection reopened =
+                    transport.connect(
+                            "127.0.0.1",
+                            20200,
+                            null,
+                            shared -> new EmbeddedChannel().newSucceededFuture());
+            assertThat(reopened, is(not(sameInstance(connection))));
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    public void routeTest() {
+        Service first = service(1, "first");
+        Service second = service(2, "second");
+        SharedConnection connection = new SharedConnection("127.0.0.1", 20200);
+        ChannelConnections firstConnections = join(connection, first);
+        ChannelConnections secondConnections = join(connection, second);
+        assertThat(connection.isOwner(firstConnections), is(true));
+        assertThat(connection.isOwner(secondConnections), is(false));
+
+        // one registration of the topics of both groups
+        assertThat(
+                connection.getTopics(),
+                is(
+                        new HashSet<String>(
+                                Arrays.asList(
+                                        "first", "_block_notify_1", "second", "_block_notify_2"))));
+
+        // responses go to the group that sent the request
+        assertThat(route(connection, response(second.newSeq())), is(secondConnections));
+        assertThat(route(connection, response(first.newSeq())), is(firstConnections));
+
+        // pushes go to the group of the topic
+        assertThat(
+                route(connection, push(ChannelMessageType.BLOCK_NOTIFY, "_block_notify_2")),
+                is(secondConnections));
+        assertThat(
+                route(connection, push(ChannelMessageType.AMOP_REQUEST, "second")),
+                is(secondConnections));
+        assertThat(
+                route(connection, push(ChannelMessageType.AMOP_REQUEST, "first")),
+                is(firstConnections));
+
+        // event log pushes go to the group of the filter
+        BcosMessage eventLog = new BcosMessage();
+        eventLog.setSeq(new Service().newSeq());
+        eventLog.setResult(0);
+        eventLog.setType((short) ChannelMessageType.EVENT_LOG_PUSH.getType());
+        eventLog.setData(
+                ("{\"filterID\":\"" + second.newSeq() + "\",\"result\":0,\"logs\":[]}").getBytes());
+        assertThat(route(connection, eventLog), is(secondConnections));
+
+        // the owner gets the messages of no group
+        assertThat(route(connection, response(new Service().newSeq())), is(firstConnections));
+    }
+
+    private static Service service(int groupId, String topic) {
+        Service service = new Service();
+        service.setGroupId(groupId);
+        service.setTopics(new HashSet<String>(Collections.singleton(topic)));
+        return service;
+    }
+
+    private static ChannelConnections join(SharedConnection connection, Service service) {
+        ConnectionCallback callback = new ConnectionCallback(service.getTopics());
+        callback.setChannelService(service);
+        ChannelConnections connections = new ChannelConnections();
+        connections.setGroupId(service.getGroupId());
+        connections.setCallback(callback);
+        connection.join(connections);
+        return connections;
+    }
+
+    private static Message response(String seq) {
+        BcosMessage message = new BcosMessage();
+        message.setSeq(seq);
+        message.setResult(0);
+        message.setType((short) ChannelMessageType.CHANNEL_RPC_REQUEST.getType());
+        message.setData("{}".getBytes());
+        return message;
+    }
+
+    private static Message push(ChannelMessageType type, String topic) {
+        ChannelMessage2 message = new ChannelMessage2();
+        message.setSeq(new Service().newSeq());
+        message.setResult(0);
+        message.setType((short) type.getType());
+        message.setTopic(topic);
+        message.setData("1,100".getBytes());
+        return message;
+    }
+
+    /** @return group of the message as received from the node */
+    private static ChannelConnections route(SharedConnection connection, Message message) {
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder());
+        encoder.writeOutbound(message);
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder());
+        decoder.writeInbound((ByteBuf) encoder.readOutbound());
+        Message decoded = decoder.readInbound();
+        try {
+            return connection.route(decoded);
+        } finally {
+            decoded.release();
+        }
+    }
+}
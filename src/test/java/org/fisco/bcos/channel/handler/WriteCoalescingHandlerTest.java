@@ -0,0 +1,55 @@
+package org.fisco.bcos.channel.handler;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Test;
+
+public class WriteCoalescingHandlerTest {
+
+    @Test
+    public void delayTest() throws InterruptedException {
+        FlushMetrics metrics = new FlushMetrics();
+        EmbeddedChannel channel =
+                new EmbeddedChannel(new WriteCoalescingHandler(100000, 1024, metrics));
+
+        for (int i = 0; i < 3; ++i) {
+            channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[100]));
+        }
+        assertThat(channel.outboundMessages().isEmpty(), is(true));
+
+        Thread.sleep(200);
+        channel.runPendingTasks();
+        assertThat(channel.outboundMessages().size(), is(3));
+        assertThat(metrics.getFlushCount(), is(1L));
+        assertThat(metrics.getFramesPerFlush(), is(3.0));
+        assertThat(metrics.getBytesPerFlush(), is(300.0));
+
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void maxBytesTest() {
+        FlushMetrics metrics = new FlushMetrics();
+        EmbeddedChannel channel =
+                new EmbeddedChannel(new WriteCoalescingHandler(1000000, 250, metrics));
+
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[100]));
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[100]));
+        assertThat(channel.outboundMessages().isEmpty(), is(true));
+
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[100]));
+        assertThat(channel.outboundMessages().size(), is(3));
+        assertThat(metrics.getFlushCount(), is(1L));
+
+        // pending frames are flushed before the channel is closed
+        channel.writeAndFlush(Unpooled.wrappedBuffer(new byte[100]));
+        channel.close();
+        assertThat(channel.outboundMessages().size(), is(4));
+        assertThat(metrics.getFlushCount(), is(2L));
+
+        channel.finishAndReleaseAll();
+    }
+}
@@ -0,0 +1,105 @@
+package org.fisco.bcos.channel.test.abi;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import org.fisco.bcos.web3j.abi.AbiDecoder;
+import org.fisco.bcos.web3j.abi.FunctionEncoder;
+import org.fisco.bcos.web3j.abi.FunctionReturnDecoder;
+import org.fisco.bcos.web3j.abi.TypeReference;
+import org.fisco.bcos.web3j.abi.Utils;
+import org.fisco.bcos.web3j.abi.datatypes.Address;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicArray;
+import org.fisco.bcos.web3j.abi.datatypes.Type;
+import org.fisco.bcos.web3j.abi.datatypes.Utf8String;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Uint256;
+import org.fisco.bcos.web3j.utils.Numeric;
+
+/**
+ * Return value decodes per second of FunctionReturnDecoder on hex output, as calls return it, and
+ * of a cached AbiDecoder on binary output, for uint, address, string and nested dynamic arrays.
+ */
+public class PerformanceAbiDecode {
+
+    private static void Usage() {
+        System.out.println(" Usage:");
+        System.out.println(
+                " \t java -cp conf/:lib/*:apps/* org.fisco.bcos.channel.test.abi.PerformanceAbiDecode [count].");
+        System.exit(0);
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 1) {
+            Usage();
+        }
+        int count = args.length == 0 ? 100000 : Integer.parseInt(args[0]);
+
+        run(
+                "uint256",
+                Arrays.<Type>asList(new Uint256(BigInteger.valueOf(123456789))),
+                count,
+                new TypeReference<Uint256>() {});
+        run(
+                "address",
+                Arrays.<Type>asList(new Address("0xbe5422d15f39373eb0a97ff8c10fbd0e40e29338")),
+                count,
+                new TypeReference<Address>() {});
+        run(
+                "string",
+                Arrays.<Type>asList(new Utf8String("a string returned by a contract call")),
+                count,
+                new TypeReference<Utf8String>() {});
+
+        Uint256[] row = new Uint256[10];
+        for (int i = 0; i < row.length; ++i) {
+            row[i] = new Uint256(i);
+        }
+        @SuppressWarnings("unchecked")
+        DynamicArray<Uint256>[] rows = new DynamicArray[10];
+        for (int i = 0; i < rows.length; ++i) {
+            rows[i] = new DynamicArray<Uint256>(row);
+        }
+        run(
+                "uint256[][] of 10x10",
+                Arrays.<Type>asList(new DynamicArray<DynamicArray<Uint256>>(rows)),
+                count / 10,
+                new TypeReference<DynamicArray<DynamicArray<Uint256>>>() {});
+    }
+
+    private static void run(
+            String name, List<Type> values, int count, TypeReference<?>... references) {
+        String hex = FunctionEncoder.encodeConstructor(values);
+        byte[] binary = Numeric.hexStringToByteArray(hex);
+
+        // warm up both paths before measuring
+        for (int round = 0; round < 2; ++round) {
+            long start = System.nanoTime();
+            for (int i = 0; i < count; ++i) {
+                // a new reference list per call, as the generated contract wrappers do
+                FunctionReturnDecoder.decode(hex, Utils.convert(Arrays.asList(references)));
+            }
+            long legacy = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            AbiDecoder decoder = AbiDecoder.of(Arrays.asList(references));
+            for (int i = 0; i < count; ++i) {
+                decoder.decode(binary);
+            }
+            long cached = System.nanoTime() - start;
+
+            if (round == 1) {
+                System.out.println(
+                        name
+                                + ": FunctionReturnDecoder "
+                                + rate(count, legacy)
+                                + " decodes/s, AbiDecoder "
+                                + rate(count, cached)
+                                + " decodes/s");
+            }
+        }
+    }
+
+    private static long rate(int count, long nanos) {
+        return count * 1000000000L / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,106 @@
+package org.fisco.bcos.channel.test.abi;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import org.fisco.bcos.web3j.abi.AbiEncoder;
+import org.fisco.bcos.web3j.abi.FunctionEncoder;
+import org.fisco.bcos.web3j.abi.datatypes.Address;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicArray;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicBytes;
+import org.fisco.bcos.web3j.abi.datatypes.Function;
+import org.fisco.bcos.web3j.abi.datatypes.Type;
+import org.fisco.bcos.web3j.abi.datatypes.Utf8String;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Uint256;
+import org.fisco.bcos.web3j.utils.Numeric;
+
+/**
+ * Calldata encodings per second of the binary AbiEncoder against the hex FunctionEncoder plus the
+ * hex to binary conversion done before RLP encoding.
+ */
+public class PerformanceAbiEncode {
+
+    private static void Usage() {
+        System.out.println(" Usage:");
+        System.out.println(
+                " \t java -cp conf/:lib/*:apps/* org.fisco.bcos.channel.test.abi.PerformanceAbiEncode [count].");
+        System.exit(0);
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 1) {
+            Usage();
+        }
+        int count = args.length == 0 ? 100000 : Integer.parseInt(args[0]);
+
+        // a token transfer, and a call with 64 KB of bytes and a 1000 element array
+        Function transfer =
+                new Function(
+                        "transfer",
+                        Arrays.<Type>asList(
+                                new Address("0xbe5422d15f39373eb0a97ff8c10fbd0e40e29338"),
+                                new Uint256(BigInteger.valueOf(1000)),
+                                new Utf8String("memo")),
+                        Collections.emptyList());
+        Uint256[] values = new Uint256[1000];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = new Uint256(i);
+        }
+        Function large =
+                new Function(
+                        "store",
+                        Arrays.<Type>asList(
+                                new DynamicBytes(new byte[64 * 1024]),
+                                new DynamicArray<Uint256>(values)),
+                        Collections.emptyList());
+
+        run("typical", transfer, count);
+        run("large", large, Math.max(1, count / 1000));
+    }
+
+    private static void run(String name, Function function, int count) {
+        // warm up both paths before measuring
+        for (int round = 0; round < 2; ++round) {
+            long hex = runHex(function, count);
+            long binary = runBinary(function, count);
+            if (round == 1) {
+                System.out.println(
+                        name
+                                + " calldata: hex "
+                                + rate(count, hex)
+                                + " encodes/s, binary "
+                                + rate(count, binary)
+                                + " encodes/s");
+            }
+        }
+    }
+
+    private static long runHex(Function function, int count) {
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < count; ++i) {
+            length += Numeric.hexStringToByteArray(FunctionEncoder.encode(function)).length;
+        }
+        return check(length, System.nanoTime() - start);
+    }
+
+    private static long runBinary(Function function, int count) {
+        long start = System.nanoTime();
+        int length = 0;
+        for (int i = 0; i < count; ++i) {
+            length += AbiEncoder.encode(function).length;
+        }
+        return check(length, System.nanoTime() - start);
+    }
+
+    private static long check(int length, long nanos) {
+        if (length == 0) {
+            throw new IllegalStateException("nothing encoded");
+        }
+        return nanos;
+    }
+
+    private static long rate(int count, long nanos) {
+        return count * 1000000000L / Math.max(1, nanos);
+    }
+}
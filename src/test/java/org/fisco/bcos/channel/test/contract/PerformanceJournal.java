@@ -0,0 +1,90 @@
+package org.fisco.bcos.channel.test.contract;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.util.concurrent.CountDownLatch;
+import org.fisco.bcos.web3j.tx.journal.TransactionJournal;
+
+/**
+ * Transactions per second appended to and done in the transaction journal from several sender
+ * threads, with the appends forced to disk and without.
+ */
+public class PerformanceJournal {
+
+    private static void Usage() {
+        System.out.println(" Usage:");
+        System.out.println(
+                " \t java -cp conf/:lib/*:apps/* org.fisco.bcos.channel.test.contract.PerformanceJournal [count] [threads].");
+        System.exit(0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 2) {
+            Usage();
+        }
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        // size of a signed transaction calling a contract
+        byte[] signedTransaction = new byte[400];
+
+        // warm up before measuring
+        for (int round = 0; round < 2; ++round) {
+            long forced = run(count, threads, signedTransaction, true);
+            long mapped = run(count, threads, signedTransaction, false);
+            if (round == 1) {
+                System.out.println(
+                        "forced "
+                                + rate(count, forced)
+                                + " tx/s, not forced "
+                                + rate(count, mapped)
+                                + " tx/s");
+            }
+        }
+    }
+
+    private static long run(int count, int threads, byte[] signedTransaction, boolean force)
+            throws Exception {
+        File directory = Files.createTempDirectory("journal").toFile();
+        TransactionJournal journal =
+                new TransactionJournal(directory.getPath(), 16 * 1024 * 1024, force);
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; ++t) {
+            new Thread(
+                            () -> {
+                                try {
+                                    for (int i = 0; i < count / threads; ++i) {
+                                        long seq =
+                                                journal.append(
+                                                        signedTransaction, BigInteger.valueOf(500));
+                                        journal.done(seq);
+                                    }
+                                } catch (Exception e) {
+                                    e.printStackTrace();
+                                }
+                                done.countDown();
+                            })
+                    .start();
+        }
+        done.await();
+        long nanos = System.nanoTime() - start;
+        System.out.println(
+                (force ? "forced" : "not forced")
+                        + ", syncs: "
+                        + journal.getSyncs()
+                        + ", segments: "
+                        + journal.getSegmentCount());
+        journal.close();
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+        return nanos;
+    }
+
+    private static long rate(int count, long nanos) {
+        return count * 1000000000L / Math.max(1, nanos);
+    }
+}
@@ -0,0 +1,76 @@
+package org.fisco.bcos.channel.test.contract;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+import org.fisco.bcos.web3j.tx.nonce.CounterNonceSource;
+import org.fisco.bcos.web3j.tx.nonce.RandomNonceSource;
+
+/**
+ * Random transaction ids per second of a new SecureRandom per id, as the transaction managers did,
+ * against the nonce sources, from several sender threads.
+ */
+public class PerformanceNonce {
+
+    private static void Usage() {
+        System.out.println(" Usage:");
+        System.out.println(
+                " \t java -cp conf/:lib/*:apps/* org.fisco.bcos.channel.test.contract.PerformanceNonce [count] [threads].");
+        System.exit(0);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length > 2) {
+            Usage();
+        }
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        RandomNonceSource pooled = new RandomNonceSource();
+        RandomNonceSource threadLocal = new RandomNonceSource(0);
+        CounterNonceSource counter = new CounterNonceSource(BigInteger.ONE);
+
+        // warm up all sources before measuring
+        for (int round = 0; round < 2; ++round) {
+            long perId = run(count, threads, () -> new BigInteger(250, new SecureRandom()));
+            long pool = run(count, threads, pooled::nextNonce);
+            long local = run(count, threads, threadLocal::nextNonce);
+            long deterministic = run(count, threads, counter::nextNonce);
+            if (round == 1) {
+                System.out.println(
+                        "SecureRandom per id "
+                                + rate(count, perId)
+                                + " ids/s, pooled "
+                                + rate(count, pool)
+                                + " ids/s, thread local "
+                                + rate(count, local)
+                                + " ids/s, counter "
+                                + rate(count, deterministic)
+                                + " ids/s");
+            }
+        }
+    }
+
+    private static long run(int count, int threads, Supplier<BigInteger> source)
+            throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; ++t) {
+            new Thread(
+                            () -> {
+                                for (int i = 0; i < count / threads; ++i) {
+                                    source.get();
+                                }
+                                done.countDown();
+                            })
+                    .start();
+        }
+        done.await();
+        return System.nanoTime() - start;
+    }
+
+    private static long rate(int count, long nanos) {
+        return count * 1000000000L / Math.max(1, nanos);
+    }
+}
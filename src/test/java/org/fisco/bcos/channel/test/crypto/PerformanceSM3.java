@@ -0,0 +1,69 @@
+package org.fisco.bcos.channel.test.crypto;
+
+import java.util.Random;
+import org.fisco.bcos.web3j.crypto.gm.sm3.SM3Digest;
+
+/** SM3 throughput of SM3Digest against the BouncyCastle engine for several input sizes. */
+public class PerformanceSM3 {
+
+    private static void Usage() {
+        System.out.println(" Usage:");
+        System.out.println(
+                " \t java -cp conf/:lib/*:apps/* org.fisco.bcos.channel.test.crypto.PerformanceSM3 [megabytes].");
+        System.exit(0);
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 1) {
+            Usage();
+        }
+        long total = (args.length == 0 ? 64L : Long.parseLong(args[0])) * 1024 * 1024;
+
+        for (int size : new int[] {32, 1024, 64 * 1024}) {
+            byte[] data = new byte[size];
+            new Random(size).nextBytes(data);
+            int count = (int) Math.max(1, total / size);
+
+            // warm up both engines before measuring
+            for (int round = 0; round < 2; ++round) {
+                long sdk = runSdk(data, count);
+                long bc = runBouncyCastle(data, count);
+                if (round == 1) {
+                    System.out.println(
+                            size
+                                    + " bytes: SM3Digest "
+                                    + rate(count, sdk)
+                                    + " hashes/s, BouncyCastle "
+                                    + rate(count, bc)
+                                    + " hashes/s");
+                }
+            }
+        }
+    }
+
+    private static long runSdk(byte[] data, int count) {
+        SM3Digest digest = new SM3Digest();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; ++i) {
+            digest.hash(data);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long runBouncyCastle(byte[] data, int count) {
+        byte[] md = new byte[32];
+        long start = System.nanoTime();
+        for (int i = 0; i < count; ++i) {
+            // a new engine per hash, as the sdk hash methods do
+            org.bouncycastle.crypto.digests.SM3Digest digest =
+                    new org.bouncycastle.crypto.digests.SM3Digest();
+            digest.update(data, 0, data.length);
+            digest.doFinal(md, 0);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long rate(int count, long nanos) {
+        return count * 1000000000L / Math.max(1, nanos);
+    }
+}
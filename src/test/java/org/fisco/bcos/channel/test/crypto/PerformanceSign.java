@@ -0,0 +1,95 @@
+package org.fisco.bcos.channel.test.crypto;
+
+import java.math.BigInteger;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.fisco.bcos.web3j.crypto.ECDSASign;
+import org.fisco.bcos.web3j.crypto.ECDSASignature;
+import org.fisco.bcos.web3j.crypto.ECKeyPair;
+import org.fisco.bcos.web3j.crypto.Hash;
+import org.fisco.bcos.web3j.crypto.Keys;
+import org.fisco.bcos.web3j.crypto.Sign;
+import org.fisco.bcos.web3j.utils.Numeric;
+
+/** Signatures per second of ECDSASign against the signer plus recovery id search it replaced. */
+public class PerformanceSign {
+
+    private static final X9ECParameters CURVE_PARAMS = CustomNamedCurves.getByName("secp256k1");
+    private static final ECDomainParameters CURVE =
+            new ECDomainParameters(
+                    CURVE_PARAMS.getCurve(),
+                    CURVE_PARAMS.getG(),
+                    CURVE_PARAMS.getN(),
+                    CURVE_PARAMS.getH());
+
+    private static void Usage() {
+        System.out.println(" Usage:");
+        System.out.println(
+                " \t java -cp conf/:lib/*:apps/* org.fisco.bcos.channel.test.crypto.PerformanceSign [count].");
+        System.exit(0);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 1) {
+            Usage();
+        }
+        int count = args.length == 0 ? 10000 : Integer.parseInt(args[0]);
+
+        ECKeyPair keyPair = Keys.createEcKeyPair();
+        byte[][] hashes = new byte[count][];
+        for (int i = 0; i < count; ++i) {
+            hashes[i] = Hash.sha3(("message " + i).getBytes());
+        }
+
+        // warm up both paths before measuring
+        for (int round = 0; round < 2; ++round) {
+            long recoverLoop = run(hashes, keyPair, false);
+            long direct = run(hashes, keyPair, true);
+            if (round == 1) {
+                System.out.println("recover loop: " + rate(count, recoverLoop) + " signs/s");
+                System.out.println("direct recovery id: " + rate(count, direct) + " signs/s");
+            }
+        }
+    }
+
+    private static long run(byte[][] hashes, ECKeyPair keyPair, boolean direct) {
+        long startTime = System.nanoTime();
+        for (byte[] hash : hashes) {
+            if (direct) {
+                ECDSASign.signHash(hash, keyPair.getPrivateKey());
+            } else {
+                signWithRecoverLoop(hash, keyPair);
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private static long rate(int count, long nanos) {
+        return count * 1000000000L / Math.max(nanos, 1);
+    }
+
+    private static Sign.SignatureData signWithRecoverLoop(byte[] hash, ECKeyPair keyPair) {
+        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        signer.init(true, new ECPrivateKeyParameters(keyPair.getPrivateKey(), CURVE));
+        BigInteger[] components = signer.generateSignature(hash);
+        ECDSASignature sig = new ECDSASignature(components[0], components[1]).toCanonicalised();
+
+        int recId = -1;
+        for (int i = 0; i < 4; i++) {
+            BigInteger k = Sign.recoverFromSignature(i, sig, hash);
+            if (k != null && k.equals(keyPair.getPublicKey())) {
+                recId = i;
+                break;
+            }
+        }
+        return new Sign.SignatureData(
+                (byte) (recId + 27),
+                Numeric.toBytesPadded(sig.r, 32),
+                Numeric.toBytesPadded(sig.s, 32));
+    }
+}
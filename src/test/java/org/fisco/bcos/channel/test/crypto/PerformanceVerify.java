@@ -0,0 +1,59 @@
+package org.fisco.bcos.channel.test.crypto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.fisco.bcos.web3j.crypto.BatchVerifier;
+import org.fisco.bcos.web3j.crypto.ECDSASign;
+import org.fisco.bcos.web3j.crypto.ECKeyPair;
+import org.fisco.bcos.web3j.crypto.Keys;
+import org.fisco.bcos.web3j.crypto.SignInterface;
+import org.fisco.bcos.web3j.crypto.gm.GenCredential;
+import org.fisco.bcos.web3j.crypto.gm.sm2.SM2Sign;
+
+/** Verifications per second of BatchVerifier with 1, 4 and 16 threads, for ECDSA and SM2. */
+public class PerformanceVerify {
+
+    private static final int[] THREADS = {1, 4, 16};
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length == 0 ? 4000 : Integer.parseInt(args[0]);
+
+        run("ECDSA", new ECDSASign(), Keys.createEcKeyPair(), count);
+        run("SM2", new SM2Sign(), GenCredential.createGuomiKeyPair(), count);
+    }
+
+    private static void run(
+            String name, SignInterface signInterface, ECKeyPair keyPair, int count) {
+        List<BatchVerifier.Item> items = new ArrayList<BatchVerifier.Item>();
+        for (int i = 0; i < count; ++i) {
+            byte[] message = ("message " + i).getBytes();
+            items.add(
+                    new BatchVerifier.Item(
+                            message,
+                            signInterface.signMessage(message, keyPair),
+                            keyPair.getPublicKey()));
+        }
+
+        for (int threads : THREADS) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            BatchVerifier verifier = new BatchVerifier(signInterface, pool);
+            // warm up before measuring
+            verifier.verify(items);
+
+            long startTime = System.nanoTime();
+            if (!verifier.verifyAll(items)) {
+                throw new IllegalStateException("verify failed");
+            }
+            long elapsed = System.nanoTime() - startTime;
+            System.out.println(
+                    name
+                            + " threads: "
+                            + threads
+                            + ", "
+                            + (count * 1000000000L / Math.max(elapsed, 1))
+                            + " verifies/s");
+            pool.shutdown();
+        }
+    }
+}
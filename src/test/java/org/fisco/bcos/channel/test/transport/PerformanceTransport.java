@@ -0,0 +1,146 @@
+package org.fisco.bcos.channel.test.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import org.fisco.bcos.channel.dto.BcosMessage;
+import org.fisco.bcos.channel.handler.ChannelTransport;
+import org.fisco.bcos.channel.handler.Message;
+import org.fisco.bcos.channel.handler.MessageDecoder;
+import org.fisco.bcos.channel.handler.MessageEncoder;
+
+/**
+ * Round trips per second of channel messages over loopback, nio against the epoll transport profile
+ * (TCP_NODELAY and pooled allocator). TLS is left out so the numbers show the transport only.
+ */
+public class PerformanceTransport {
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int size = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+
+        // warm up both transports before measuring
+        for (int round = 0; round < 2; ++round) {
+            for (boolean nativeTransport : new boolean[] {false, true}) {
+                long rate = run(nativeTransport, count, concurrency, size);
+                if (round == 1) {
+                    System.out.println(
+                            (nativeTransport ? "epoll" : "nio") + ": " + rate + " round trips/s");
+                }
+            }
+        }
+    }
+
+    private static long run(boolean nativeTransport, int count, int concurrency, int size)
+            throws Exception {
+        ChannelTransport transport = new ChannelTransport(2, nativeTransport);
+        if (nativeTransport && !transport.isNativeTransport()) {
+            System.out.println("epoll not available, nio used");
+        }
+        Class<? extends ServerSocketChannel> serverChannelClass =
+                transport.isNativeTransport()
+                        ? EpollServerSocketChannel.class
+                        : NioServerSocketChannel.class;
+        try {
+            Channel server =
+                    new ServerBootstrap()
+                            .group(transport.getWorkerGroup())
+                            .channel(serverChannelClass)
+                            .childOption(ChannelOption.TCP_NODELAY, true)
+                            .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                            .childHandler(
+                                    new ChannelInitializer<SocketChannel>() {
+                                        @Override
+                                        protected void initChannel(SocketChannel ch) {
+                                            ch.pipeline()
+                                                    .addLast(
+                                                            new MessageDecoder(),
+                                                            new MessageEncoder(),
+                                                            new EchoHandler());
+                                        }
+                                    })
+                            .bind("127.0.0.1", 0)
+                            .sync()
+                            .channel();
+
+            Semaphore window = new Semaphore(concurrency);
+            CountDownLatch done = new CountDownLatch(count);
+            Channel client =
+                    new Bootstrap()
+                            .group(transport.getWorkerGroup())
+                            .channel(transport.getChannelClass())
+                            .option(ChannelOption.TCP_NODELAY, true)
+                            .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+                            .handler(
+                                    new ChannelInitializer<SocketChannel>() {
+                                        @Override
+                                        protected void initChannel(SocketChannel ch) {
+                                            ch.pipeline()
+                                                    .addLast(
+                                                            new MessageDecoder(),
+                                                            new MessageEncoder(),
+                                                            new SimpleChannelInboundHandler<
+                                                                    Message>() {
+                                                                @Override
+                                                                protected void channelRead0(
+                                                                        ChannelHandlerContext ctx,
+                                                                        Message msg) {
+                                                                    msg.release();
+                                                                    window.release();
+                                                                    done.countDown();
+                                                                }
+                                                            });
+                                        }
+                                    })
+                            .connect((InetSocketAddress) server.localAddress())
+                            .sync()
+                            .channel();
+
+            byte[] data = new byte[size];
+            long startTime = System.nanoTime();
+            for (int i = 0; i < count; ++i) {
+                window.acquire();
+                BcosMessage message = new BcosMessage();
+                message.setSeq(0, i);
+                message.setType((short) 0x12);
+                message.setResult(0);
+                message.setData(data);
+                client.writeAndFlush(message);
+            }
+            done.await();
+            long elapsed = System.nanoTime() - startTime;
+
+            client.close().sync();
+            server.close().sync();
+            return count * 1000000000L / Math.max(elapsed, 1);
+        } finally {
+            transport.shutdown();
+        }
+    }
+
+    private static class EchoHandler extends SimpleChannelInboundHandler<Message> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, Message msg) {
+            BcosMessage response = new BcosMessage();
+            response.setSeq(msg.getSeqHigh(), msg.getSeqLow());
+            response.setType(msg.getType());
+            response.setResult(0);
+            response.setData(msg.getData());
+            msg.release();
+            ctx.writeAndFlush(response);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.fisco.bcos.web3j.abi;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.fisco.bcos.web3j.abi.datatypes.Address;
+import org.fisco.bcos.web3j.abi.datatypes.Bool;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicArray;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicBytes;
+import org.fisco.bcos.web3j.abi.datatypes.Type;
+import org.fisco.bcos.web3j.abi.datatypes.Utf8String;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Bytes32;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Int8;
+import org.fisco.bcos.web3j.abi.datatypes.generated.StaticArray2;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Uint256;
+import org.fisco.bcos.web3j.crypto.Hash;
+import org.junit.Test;
+
+public class AbiDecoderTest {
+
+    @SuppressWarnings("unchecked")
+    private static List<TypeReference<Type>> outputs() {
+        return Utils.convert(
+                Arrays.<TypeReference<?>>asList(
+                        new TypeReference<Uint256>() {},
+                        new TypeReference<Address>() {},
+                        new TypeReference<Utf8String>() {},
+                        new TypeReference<Int8>() {},
+                        new TypeReference<StaticArray2<Uint256>>() {},
+                        new TypeReference<DynamicArray<DynamicArray<Uint256>>>() {},
+                        new TypeReference<DynamicArray<Utf8String>>() {},
+                        new TypeReference<Bool>() {},
+                        new TypeReference<DynamicBytes>() {}));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Type> values() {
+        return Arrays.<Type>asList(
+                new Uint256(BigInteger.ONE.shiftLeft(255)),
+                new Address("0xbe5422d15f39373eb0a97ff8c10fbd0e40e29338"),
+                new Utf8String("hello, 世界"),
+                new Int8(BigInteger.valueOf(-3)),
+                new StaticArray2<Uint256>(new Uint256(1), new Uint256(2)),
+                new DynamicArray<DynamicArray<Uint256>>(
+                        new DynamicArray<Uint256>(new Uint256(3), new Uint256(4)),
+                        new DynamicArray<Uint256>(new Uint256(5))),
+                new DynamicArray<Utf8String>(new Utf8String("a"), new Utf8String("bc")),
+                new Bool(true),
+                new DynamicBytes(new byte[] {1, 2, 3}));
+    }
+
+    @Test
+    public void roundTripTest() {
+        byte[] encoded = AbiEncoder.encodeConstructor(values());
+
+        assertThat(AbiDecoder.of(outputs()).decode(encoded), equalTo(values()));
+        assertThat(
+                FunctionReturnDecoder.decode(
+                        FunctionEncoder.encodeConstructor(values()), outputs()),
+                equalTo(values()));
+    }
+
+    @Test
+    public void cacheTest() {
+        // new TypeReference instances of the same types share the compiled decoder
+        assertThat(AbiDecoder.of(outputs()), sameInstance(AbiDecoder.of(outputs())));
+        assertThat(AbiDecoder.of(Collections.emptyList()).decode("0x").isEmpty(), is(true));
+    }
+
+    @Test
+    public void factoryTest() throws ReflectiveOperationException {
+        Function<BigInteger, Uint256> uint256 = AbiDecoder.factory(Uint256.class, BigInteger.class);
+        assertThat(uint256.apply(BigInteger.TEN), equalTo(new Uint256(BigInteger.TEN)));
+        // linked once, not captured around a reflective call
+        assertThat(uint256.getClass().getDeclaredFields().length, is(0));
+
+        Function<byte[], Bytes32> bytes32 = AbiDecoder.factory(Bytes32.class, byte[].class);
+        assertThat(bytes32.apply(new byte[32]), equalTo(new Bytes32(new byte[32])));
+    }
+
+    @Test
+    public void emptyArrayTest() {
+        List<TypeReference<Type>> outputs =
+                Utils.convert(
+                        Arrays.<TypeReference<?>>asList(
+                                new TypeReference<DynamicArray<Uint256>>() {}));
+        // offset of the array, then its length
+        byte[] encoded = new byte[64];
+        encoded[31] = 0x20;
+        assertThat(
+                AbiDecoder.of(outputs).decode(encoded),
+                equalTo(Arrays.<Type>asList(DynamicArray.empty("uint256"))));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void truncatedTest() {
+        byte[] encoded = AbiEncoder.encodeConstructor(values());
+        AbiDecoder.of(outputs()).decode(Arrays.copyOf(encoded, encoded.length - 32));
+    }
+
+    @Test
+    public void indexedTest() {
+        byte[] hash = Hash.sha3("value".getBytes());
+        assertThat(
+                AbiDecoder.decodeIndexedValue(hash, new TypeReference<Utf8String>() {}.getType()),
+                equalTo(new Bytes32(hash)));
+        assertThat(
+                AbiDecoder.decodeIndexedValue(
+                        new AbiEncoder().encode(new Uint256(7)).toByteArray(), Uint256.class),
+                equalTo(new Uint256(7)));
+    }
+}
@@ -0,0 +1,92 @@
+package org.fisco.bcos.web3j.abi;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.fisco.bcos.web3j.abi.datatypes.Address;
+import org.fisco.bcos.web3j.abi.datatypes.Bool;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicArray;
+import org.fisco.bcos.web3j.abi.datatypes.DynamicBytes;
+import org.fisco.bcos.web3j.abi.datatypes.Function;
+import org.fisco.bcos.web3j.abi.datatypes.Type;
+import org.fisco.bcos.web3j.abi.datatypes.Utf8String;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Int256;
+import org.fisco.bcos.web3j.abi.datatypes.generated.StaticArray2;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Uint256;
+import org.fisco.bcos.web3j.utils.Numeric;
+import org.junit.Test;
+
+public class AbiEncoderTest {
+
+    @Test
+    public void numericTest() {
+        assertThat(
+                new AbiEncoder().encode(new Int256(BigInteger.valueOf(-2))).toHexString(),
+                is("fffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffe"));
+        assertThat(
+                new AbiEncoder().encode(new Int256(Long.MIN_VALUE)).toHexString(),
+                is("ffffffffffffffffffffffffffffffffffffffffffffffff8000000000000000"));
+        assertThat(
+                new AbiEncoder()
+                        .encode(new Int256(BigInteger.ONE.shiftLeft(64).negate()))
+                        .toHexString(),
+                is("ffffffffffffffffffffffffffffffffffffffffffffffff0000000000000000"));
+        BigInteger max = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+        assertThat(
+                new AbiEncoder().encode(new Uint256(max)).toHexString(),
+                is("ffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffffff"));
+        assertThat(
+                new AbiEncoder()
+                        .encode(new Address("0xbe5422d15f39373eb0a97ff8c10fbd0e40e29338"))
+                        .toHexString(),
+                is("000000000000000000000000be5422d15f39373eb0a97ff8c10fbd0e40e29338"));
+    }
+
+    @Test
+    public void functionTest() {
+        List<Type> parameters =
+                Arrays.<Type>asList(
+                        new Uint256(7),
+                        new Utf8String("hello"),
+                        new StaticArray2<Uint256>(new Uint256(1), new Uint256(2)),
+                        new DynamicArray<Utf8String>(new Utf8String("a"), new Utf8String("bc")),
+                        new Bool(true),
+                        new DynamicBytes(new byte[] {1, 2, 3}));
+        Function function = new Function("set", parameters, Collections.emptyList());
+
+        // the hex API is a wrapper of the binary encoder
+        assertThat(
+                Numeric.toHexString(AbiEncoder.encode(function)),
+                is(FunctionEncoder.encode(function)));
+        assertThat(
+                Numeric.toHexStringNoPrefix(AbiEncoder.encodeConstructor(parameters)),
+                is(FunctionEncoder.encodeConstructor(parameters)));
+        assertThat(
+                AbiEncoder.encodeConstructor(parameters).length,
+                is(new AbiEncoder().encodeParameters(parameters).size()));
+    }
+
+    @Test
+    public void growTest() {
+        byte[] large = new byte[10000];
+        Arrays.fill(large, (byte) 7);
+
+        // starts with the minimum capacity and grows for the large value
+        AbiEncoder encoder = new AbiEncoder(1);
+        encoder.encodeParameters(Arrays.<Type>asList(new DynamicBytes(large), new Uint256(5)));
+        byte[] encoded = encoder.toByteArray();
+        assertThat(encoded.length, is(32 * 3 + 10016));
+        assertThat(new BigInteger(1, Arrays.copyOfRange(encoded, 0, 32)).intValue(), is(64));
+        assertThat(new BigInteger(1, Arrays.copyOfRange(encoded, 64, 96)).intValue(), is(10000));
+        assertThat(encoded[96 + 9999], is((byte) 7));
+        assertThat(encoded[96 + 10000], is((byte) 0));
+        assertThat(encoder.asReadOnlyBuffer().remaining(), is(encoded.length));
+
+        encoder.reset();
+        assertThat(encoder.encode(new Bool(false)).size(), is(32));
+    }
+}
@@ -173,6 +173,9 @@ public class TypeDecoderTest {
                         "6461766500000000000000000000000000000000000000000000000000000000",
                         Bytes4.class),
                 is(dave));
+
+        // a value without its padding
+        assertThat(TypeDecoder.decodeBytes("000102030405", Bytes6.class), is(staticBytes));
     }
 
     @Test
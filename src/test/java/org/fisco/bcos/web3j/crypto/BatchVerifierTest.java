@@ -0,0 +1,69 @@
+package org.fisco.bcos.web3j.crypto;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.fisco.bcos.web3j.crypto.gm.GenCredential;
+import org.fisco.bcos.web3j.crypto.gm.sm2.SM2Sign;
+import org.junit.Test;
+
+public class BatchVerifierTest {
+
+    @Test
+    public void ecdsaTest() {
+        verifyTest(new ECDSASign(), SampleKeys.KEY_PAIR);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void signOnlyTest() {
+        // implementations written before verifyMessage still compile
+        SignInterface signOnly = (message, keyPair) -> null;
+        new BatchVerifier(signOnly, ForkJoinPool.commonPool())
+                .verify(
+                        Collections.singletonList(
+                                new BatchVerifier.Item(
+                                        new byte[] {1},
+                                        new Sign.SignatureData(
+                                                (byte) 27, new byte[] {1}, new byte[] {1}),
+                                        BigInteger.ONE)));
+    }
+
+    @Test
+    public void sm2Test() {
+        verifyTest(new SM2Sign(), GenCredential.createGuomiKeyPair());
+    }
+
+    private void verifyTest(SignInterface signInterface, ECKeyPair keyPair) {
+        List<BatchVerifier.Item> items = new ArrayList<BatchVerifier.Item>();
+        for (int i = 0; i < 40; ++i) {
+            byte[] message = ("message " + i).getBytes();
+            Sign.SignatureData signatureData = signInterface.signMessage(message, keyPair);
+            if (i % 10 == 3) {
+                // signed by the key, but for another message
+                message = ("other " + i).getBytes();
+            }
+            items.add(new BatchVerifier.Item(message, signatureData, keyPair.getPublicKey()));
+        }
+        // malformed signature
+        items.add(
+                new BatchVerifier.Item(
+                        new byte[] {1},
+                        new Sign.SignatureData((byte) 27, new byte[] {0}, new byte[] {1}),
+                        keyPair.getPublicKey()));
+
+        BatchVerifier verifier = new BatchVerifier(signInterface, new ForkJoinPool(4));
+        boolean[] results = verifier.verify(items);
+        assertThat(results.length, is(items.size()));
+        for (int i = 0; i < 40; ++i) {
+            assertThat(results[i], is(i % 10 != 3));
+        }
+        assertThat(results[40], is(false));
+        assertThat(verifier.verifyAll(items), is(false));
+        assertThat(verifier.verifyAll(items.subList(0, 3)), is(true));
+    }
+}
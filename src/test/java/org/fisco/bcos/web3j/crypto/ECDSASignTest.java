@@ -0,0 +1,42 @@
+package org.fisco.bcos.web3j.crypto;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.junit.Test;
+
+public class ECDSASignTest {
+
+    @Test
+    public void sameAsSignerTest() {
+        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        signer.init(true, new ECPrivateKeyParameters(SampleKeys.PRIVATE_KEY, Sign.CURVE));
+
+        for (int i = 0; i < 32; ++i) {
+            byte[] hash = Hash.sha3(("message " + i).getBytes());
+            BigInteger[] components = signer.generateSignature(hash);
+            ECDSASignature expected =
+                    new ECDSASignature(components[0], components[1]).toCanonicalised();
+
+            ECDSASignature signature = ECDSASign.sign(hash, SampleKeys.PRIVATE_KEY);
+            assertThat(signature.r, is(expected.r));
+            assertThat(signature.s, is(expected.s));
+        }
+    }
+
+    @Test
+    public void recoveryIdTest() throws SignatureException {
+        ECDSASign ecdsaSign = new ECDSASign();
+        for (int i = 0; i < 256; ++i) {
+            byte[] message = ("message " + i).getBytes();
+            Sign.SignatureData signatureData = ecdsaSign.signMessage(message, SampleKeys.KEY_PAIR);
+            assertThat(Sign.signedMessageToKey(message, signatureData), is(SampleKeys.PUBLIC_KEY));
+        }
+    }
+}
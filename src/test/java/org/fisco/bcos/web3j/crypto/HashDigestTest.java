@@ -0,0 +1,106 @@
+package org.fisco.bcos.web3j.crypto;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import org.fisco.bcos.channel.client.Merkle;
+import org.fisco.bcos.web3j.crypto.gm.sm3.SM3Digest;
+import org.fisco.bcos.web3j.protocol.core.methods.response.MerkleProofUnit;
+import org.fisco.bcos.web3j.utils.Numeric;
+import org.junit.Test;
+
+public class HashDigestTest {
+
+    private final byte[] data = new byte[1000];
+
+    {
+        new Random(1).nextBytes(data);
+    }
+
+    @Test
+    public void sha3Test() {
+        checkDigest(new SHA3Digest());
+        assertThat(
+                Numeric.toHexString(new SHA3Digest().hash(new byte[0])),
+                is("0xc5d2460186f7233c927e7db2dcc703c0e500b653ca82273b7bfad8045d85a470"));
+    }
+
+    @Test
+    public void sm3Test() {
+        checkDigest(new SM3Digest());
+    }
+
+    @Test
+    public void bufferedTest() {
+        // an implementation without its own digest gets one that collects the input
+        HashInterface sha3 = new SHA3Digest();
+        checkDigest(
+                new HashInterface() {
+                    @Override
+                    public String hash(String hexInput) {
+                        return sha3.hash(hexInput);
+                    }
+
+                    @Override
+                    public byte[] hash(byte[] input, int offset, int length) {
+                        return sha3.hash(input, offset, length);
+                    }
+
+                    @Override
+                    public byte[] hash(byte[] input) {
+                        return sha3.hash(input);
+                    }
+                });
+    }
+
+    @Test
+    public void merkleTest() {
+        String hash = Numeric.toHexString(Arrays.copyOf(data, 33));
+        MerkleProofUnit unit = new MerkleProofUnit();
+        unit.setLeft(Arrays.asList(Numeric.toHexStringNoPrefix(Arrays.copyOfRange(data, 40, 72))));
+        unit.setRight(
+                Arrays.asList(
+                        Numeric.toHexStringNoPrefix(Arrays.copyOfRange(data, 80, 112)),
+                        Numeric.toHexStringNoPrefix(Arrays.copyOfRange(data, 120, 152))));
+
+        // the proof step hashes left siblings, the node and right siblings concatenated
+        String expected =
+                Hash.sha3(
+                        "0x"
+                                + unit.getLeft().get(0)
+                                + hash.substring(2)
+                                + unit.getRight().get(0)
+                                + unit.getRight().get(1));
+        expected = Hash.sha3("0x" + unit.getLeft().get(0) + expected.substring(2));
+
+        MerkleProofUnit second = new MerkleProofUnit();
+        second.setLeft(unit.getLeft());
+        second.setRight(Arrays.asList());
+        assertThat(Merkle.calculateMerkleRoot(Arrays.asList(unit, second), hash), is(expected));
+    }
+
+    private void checkDigest(HashInterface hashInterface) {
+        byte[] expected = hashInterface.hash(data);
+        HashDigest digest = hashInterface.newDigest();
+        assertThat(digest.getDigestSize(), is(expected.length));
+
+        digest.update(data[0]);
+        digest.update(data, 1, 500);
+        digest.update(ByteBuffer.wrap(data, 501, 200));
+        ByteBuffer direct = ByteBuffer.allocateDirect(299);
+        direct.put(data, 701, 299).flip();
+        digest.update(direct);
+        assertThat(direct.hasRemaining(), is(false));
+
+        byte[] out = new byte[expected.length + 4];
+        assertThat(digest.doFinal(out, 4), is(expected.length));
+        assertThat(Arrays.copyOfRange(out, 4, out.length), is(expected));
+
+        // reset by doFinal and reusable
+        digest.update(data, 0, data.length);
+        assertThat(digest.doFinal(), is(expected));
+    }
+}
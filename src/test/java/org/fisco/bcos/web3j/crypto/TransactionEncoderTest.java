@@ -61,6 +61,31 @@ public class TransactionEncoderTest {
         //     assertThat(rlpStrings.get(3), equalTo(RlpString.create(new BigInteger("10"))));
     }
 
+    @Test
+    public void testBinaryData() {
+        byte[] data = Numeric.hexStringToByteArray("0x0a0b0c0d");
+        RawTransaction hex =
+                RawTransaction.createTransaction(
+                        BigInteger.ONE,
+                        gasPrice,
+                        gasLimit,
+                        BigInteger.TEN,
+                        "0xadd5355",
+                        BigInteger.ZERO,
+                        "0x0a0b0c0d");
+        RawTransaction binary =
+                RawTransaction.createTransaction(
+                        BigInteger.ONE,
+                        gasPrice,
+                        gasLimit,
+                        BigInteger.TEN,
+                        "0xadd5355",
+                        BigInteger.ZERO,
+                        data);
+        assertThat(binary.getData(), is(hex.getData()));
+        assertThat(TransactionEncoder.encode(binary), is(TransactionEncoder.encode(hex)));
+    }
+
     @Test
     public void testContractAsRlpValues() {
         List<RlpType> rlpStrings =
@@ -0,0 +1,74 @@
+package org.fisco.bcos.web3j.crypto.gm.sm2.crypto.asymmetric;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.math.ec.ECPoint;
+import org.fisco.bcos.web3j.crypto.ECKeyPair;
+import org.fisco.bcos.web3j.crypto.Sign;
+import org.fisco.bcos.web3j.crypto.gm.sm2.SM2Sign;
+import org.fisco.bcos.web3j.crypto.gm.sm2.util.encoders.Hex;
+import org.junit.Test;
+
+public class SM2SignerTest {
+
+    private static final BigInteger PRIVATE_KEY =
+            new BigInteger("a392604efc2fad9c0b3da43b5f698a2e3f270f170d859912be0d54742275c5f6", 16);
+
+    @Test
+    public void signVerifyTest() throws IOException {
+        SM2Signer signer = new SM2Signer(PRIVATE_KEY);
+        ECPoint publicPoint = signer.getPublicPoint();
+        assertThat(publicPoint, is(SM2Algorithm.g256.multiply(PRIVATE_KEY).normalize()));
+
+        String x = Hex.toHexString(SM2Algorithm.getEncoded(publicPoint.getXCoord().toBigInteger()));
+        String y = Hex.toHexString(SM2Algorithm.getEncoded(publicPoint.getYCoord().toBigInteger()));
+        for (int i = 0; i < 16; ++i) {
+            byte[] data = ("message " + i).getBytes();
+            BigInteger[] rs = signer.sign(data);
+            byte[] der =
+                    new DERSequence(
+                                    new ASN1Integer[] {
+                                        new ASN1Integer(rs[0]), new ASN1Integer(rs[1])
+                                    })
+                            .getEncoded(ASN1Encoding.DER);
+            assertThat(SM2Algorithm.verify(data, der, x, y), is(true));
+            assertThat(SM2Algorithm.verify(("other " + i).getBytes(), der, x, y), is(false));
+
+            // the DER path of SM2Algorithm signs with the same key
+            assertThat(
+                    SM2Algorithm.verify(data, SM2Algorithm.sign(data, PRIVATE_KEY), x, y),
+                    is(true));
+        }
+    }
+
+    @Test
+    public void keyPairTest() {
+        ECKeyPair[] keyPairs = {keyPair(PRIVATE_KEY), keyPair(PRIVATE_KEY.add(BigInteger.ONE))};
+        for (int i = 0; i < 4; ++i) {
+            // each key pair keeps its own signer, alternating accounts do not rebuild it
+            ECKeyPair keyPair = keyPairs[i % 2];
+            assertThat(keyPair.getSM2Signer(), sameInstance(keyPair.getSM2Signer()));
+
+            byte[] data = ("message " + i).getBytes();
+            Sign.SignatureData signatureData = SM2Sign.sign(data, keyPair);
+            assertThat(SM2Sign.verify(data, signatureData, keyPair.getPublicKey()), is(true));
+            assertThat(
+                    SM2Sign.verify(data, signatureData, keyPairs[(i + 1) % 2].getPublicKey()),
+                    is(false));
+        }
+    }
+
+    private static ECKeyPair keyPair(BigInteger privateKey) {
+        ECPoint publicPoint = new SM2Signer(privateKey).getPublicPoint();
+        byte[] encoded = publicPoint.getEncoded(false);
+        return new ECKeyPair(privateKey, new BigInteger(1, Arrays.copyOfRange(encoded, 1, 65)));
+    }
+}
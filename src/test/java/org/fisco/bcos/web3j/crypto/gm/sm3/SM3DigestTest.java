@@ -0,0 +1,98 @@
+package org.fisco.bcos.web3j.crypto.gm.sm3;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.Test;
+
+public class SM3DigestTest {
+
+    @Test
+    public void standardVectorTest() {
+        // GB/T 32905-2016 example 1 and example 2
+        assertThat(
+                Hex.toHexString(new SM3Digest().hash("abc".getBytes())),
+                is("66c7f0f462eeedd9d1f2d46bdc10e4e24167c4875cf2f7a2297da02b8f4ba8e0"));
+        byte[] abcd = new byte[64];
+        for (int i = 0; i < abcd.length; ++i) {
+            abcd[i] = (byte) "abcd".charAt(i % 4);
+        }
+        assertThat(
+                Hex.toHexString(new SM3Digest().hash(abcd)),
+                is("debe9ff92275b8a138604889c18e5a4d6fdb70e5387e5765293dcba39c0c5732"));
+    }
+
+    @Test
+    public void bouncyCastleTest() {
+        Random random = new Random(1);
+        SM3Digest sm3 = new SM3Digest();
+        for (int length = 0; length < 300; ++length) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            assertThat(Hex.toHexString(sm3.hash(data)), is(bouncyCastle(data)));
+        }
+    }
+
+    @Test
+    public void streamingTest() {
+        byte[] data = new byte[1000];
+        new Random(2).nextBytes(data);
+        String expected = bouncyCastle(data);
+
+        // the digest is reset by doFinal and reused with different update sizes
+        SM3Digest sm3 = new SM3Digest();
+        byte[] md = new byte[32];
+        for (int step : new int[] {1, 7, 63, 64, 65, 1000}) {
+            for (int off = 0; off < data.length; off += step) {
+                if (step == 1) {
+                    sm3.update(data[off]);
+                } else {
+                    sm3.update(data, off, Math.min(step, data.length - off));
+                }
+            }
+            sm3.doFinal(md, 0);
+            assertThat(Hex.toHexString(md), is(expected));
+        }
+    }
+
+    @Test
+    public void copyTest() {
+        byte[] data = new byte[200];
+        new Random(3).nextBytes(data);
+
+        SM3Digest prefix = new SM3Digest();
+        prefix.update(data, 0, 100);
+        SM3Digest copy = prefix.copy();
+        copy.update(data, 100, 100);
+        byte[] md = new byte[40];
+        copy.doFinal(md, 8);
+
+        byte[] expected = new byte[40];
+        System.arraycopy(Hex.decode(bouncyCastle(data)), 0, expected, 8, 32);
+        assertThat(md, is(expected));
+
+        // the prefix state is not changed by the copy
+        prefix.doFinal(md, 0);
+        assertThat(Hex.toHexString(md, 0, 32), is(bouncyCastle(Arrays.copyOf(data, 100))));
+    }
+
+    @Test
+    public void compressTest() {
+        byte[] block = SM3.padding("abc".getBytes(), 0);
+        assertThat(
+                Hex.toHexString(SM3.CF(SM3.iv, block)),
+                is("66c7f0f462eeedd9d1f2d46bdc10e4e24167c4875cf2f7a2297da02b8f4ba8e0"));
+    }
+
+    private static String bouncyCastle(byte[] data) {
+        org.bouncycastle.crypto.digests.SM3Digest digest =
+                new org.bouncycastle.crypto.digests.SM3Digest();
+        digest.update(data, 0, data.length);
+        byte[] md = new byte[32];
+        digest.doFinal(md, 0);
+        return Hex.toHexString(md);
+    }
+}
@@ -0,0 +1,144 @@
+package org.fisco.bcos.web3j.tx;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.fisco.bcos.channel.client.Service;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.core.Request;
+import org.fisco.bcos.web3j.protocol.core.methods.response.BcosTransactionReceipt;
+import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.fisco.bcos.web3j.protocol.exceptions.TransactionException;
+import org.fisco.bcos.web3j.tx.response.BlockNotifyTransactionReceiptProcessor;
+import org.junit.Test;
+
+public class BlockNotifyTransactionReceiptProcessorTest {
+
+    // receipts of the transactions in the blocks so far
+    private final Map<String, TransactionReceipt> chain =
+            new ConcurrentHashMap<String, TransactionReceipt>();
+
+    @SuppressWarnings("unchecked")
+    private Web3j web3j() {
+        Web3j web3j = mock(Web3j.class);
+        when(web3j.getTransactionReceipt(anyString()))
+                .thenAnswer(
+                        invocation -> {
+                            BcosTransactionReceipt response = new BcosTransactionReceipt();
+                            response.setResult(chain.get(invocation.<String>getArgument(0)));
+                            Request<String, BcosTransactionReceipt> request = mock(Request.class);
+                            when(request.sendAsync())
+                                    .thenReturn(CompletableFuture.completedFuture(response));
+                            return request;
+                        });
+        return web3j;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void blockNotifyTest() throws Exception {
+        Web3j web3j = web3j();
+        Service service = new Service();
+        service.setNumber(BigInteger.valueOf(100));
+        BlockNotifyTransactionReceiptProcessor processor =
+                new BlockNotifyTransactionReceiptProcessor(web3j, service, 60000);
+        processor.setBatchSize(16);
+        processor.setMaxBlocks(10);
+
+        CompletableFuture<TransactionReceipt>[] futures = new CompletableFuture[100];
+        for (int i = 0; i < futures.length; ++i) {
+            futures[i] = processor.getTransactionReceiptAsync(hash(i));
+        }
+        assertThat(processor.getPendingCount(), is(100));
+
+        // half of the transactions are in the next block
+        for (int i = 0; i < futures.length; i += 2) {
+            chain.put(hash(i), receipt(hash(i)));
+        }
+        service.setNumber(BigInteger.valueOf(101));
+        processor.onBlockNotify(1, BigInteger.valueOf(101));
+        for (int i = 0; i < futures.length; i += 2) {
+            assertThat(futures[i].get(10, TimeUnit.SECONDS).getTransactionHash(), is(hash(i)));
+        }
+        waitForPending(processor, 50);
+        assertThat(futures[1].isDone(), is(false));
+
+        // the rest is past its block limit
+        service.setNumber(BigInteger.valueOf(111));
+        processor.onBlockNotify(1, BigInteger.valueOf(111));
+        try {
+            futures[1].get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof TransactionException, is(true));
+        }
+        waitForPending(processor, 0);
+        processor.close();
+    }
+
+    @Test
+    public void minedTest() throws Exception {
+        Service service = new Service();
+        service.setNumber(BigInteger.valueOf(100));
+        BlockNotifyTransactionReceiptProcessor processor =
+                new BlockNotifyTransactionReceiptProcessor(web3j(), service, 60000);
+
+        // the receipt is asked for at once, without waiting for the next block
+        chain.put(hash(0), receipt(hash(0)));
+        assertThat(
+                processor
+                        .getTransactionReceiptAsync(hash(0))
+                        .get(10, TimeUnit.SECONDS)
+                        .getTransactionHash(),
+                is(hash(0)));
+        waitForPending(processor, 0);
+        processor.close();
+
+        // nothing is waited for after the processor is closed
+        assertThat(
+                processor.getTransactionReceiptAsync(hash(1)).isCompletedExceptionally(), is(true));
+    }
+
+    @Test
+    public void closeTest() throws Exception {
+        Service service = new Service();
+        BlockNotifyTransactionReceiptProcessor processor =
+                new BlockNotifyTransactionReceiptProcessor(mock(Web3j.class), service);
+        CompletableFuture<TransactionReceipt> future =
+                processor.getTransactionReceiptAsync(hash(0));
+        // the same transaction shares the future
+        assertThat(processor.getTransactionReceiptAsync(hash(0)) == future, is(true));
+
+        processor.close();
+        assertThat(future.isCompletedExceptionally(), is(true));
+    }
+
+    private static void waitForPending(BlockNotifyTransactionReceiptProcessor processor, int count)
+            throws InterruptedException {
+        for (int i = 0; i < 1000 && processor.getPendingCount() != count; ++i) {
+            Thread.sleep(10);
+        }
+        assertThat(processor.getPendingCount(), is(count));
+    }
+
+    private static String hash(int i) {
+        return "0x" + Integer.toHexString(i);
+    }
+
+    private static TransactionReceipt receipt(String transactionHash) {
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setTransactionHash(transactionHash);
+        receipt.setStatus("0x0");
+        return receipt;
+    }
+}
@@ -0,0 +1,154 @@
+package org.fisco.bcos.web3j.tx;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.fisco.bcos.channel.client.Service;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.core.DefaultBlockParameter;
+import org.fisco.bcos.web3j.protocol.core.Request;
+import org.fisco.bcos.web3j.protocol.core.Response;
+import org.fisco.bcos.web3j.protocol.core.methods.request.Transaction;
+import org.fisco.bcos.web3j.protocol.core.methods.response.Call;
+import org.junit.Test;
+
+public class CallCacheTest {
+
+    private static final String FROM = "0x1";
+    private static final String TO = "0x692a70d2e424a56d2c6c27aa97d1a86395877b3a";
+
+    // calls answered by the node, the output is the number of the call
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile CountDownLatch answer = new CountDownLatch(0);
+    private volatile boolean error = false;
+
+    @SuppressWarnings("unchecked")
+    private Web3j web3j() {
+        Web3j web3j = mock(Web3j.class);
+        when(web3j.call(any(Transaction.class), any(DefaultBlockParameter.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, Call> request = mock(Request.class);
+                            when(request.send())
+                                    .thenAnswer(
+                                            send -> {
+                                                answer.await();
+                                                Call call = new Call();
+                                                if (error) {
+                                                    call.setError(
+                                                            new Response.Error(1, "call failed"));
+                                                    return call;
+                                                }
+                                                Call.CallOutput output = new Call.CallOutput();
+                                                output.setStatus("0x0");
+                                                output.setOutput("0x" + requests.incrementAndGet());
+                                                call.setResult(output);
+                                                return call;
+                                            });
+                            return request;
+                        });
+        return web3j;
+    }
+
+    @Test
+    public void blockTest() throws Exception {
+        Service service = new Service();
+        service.setNumber(BigInteger.valueOf(100));
+        CallCache cache = new CallCache(web3j(), service);
+
+        assertThat(cache.call(FROM, TO, "0xaa").getValue().getOutput(), is("0x1"));
+        assertThat(cache.call(FROM, TO, "0xaa").getValue().getOutput(), is("0x1"));
+        // other data or from address is another call
+        assertThat(cache.call(FROM, TO, "0xbb").getValue().getOutput(), is("0x2"));
+        assertThat(cache.call("0x2", TO, "0xaa").getValue().getOutput(), is("0x3"));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(cache.getMisses(), is(3L));
+
+        // a new block drops the calls of the previous ones
+        service.setNumber(BigInteger.valueOf(101));
+        cache.onBlockNotify(1, BigInteger.valueOf(101));
+        assertThat(cache.getSize(), is(0));
+        assertThat(cache.call(FROM, TO, "0xaa").getValue().getOutput(), is("0x4"));
+        assertThat(cache.call(FROM, TO, "0xaa").getValue().getOutput(), is("0x4"));
+
+        // the block number is checked without a notify
+        service.setNumber(BigInteger.valueOf(102));
+        assertThat(cache.call(FROM, TO, "0xaa").getValue().getOutput(), is("0x5"));
+        cache.close();
+    }
+
+    @Test
+    public void evictTest() throws Exception {
+        Service service = new Service();
+        service.setNumber(BigInteger.valueOf(100));
+        CallCache cache = new CallCache(web3j(), service, 2);
+
+        cache.call(FROM, TO, "0xaa");
+        cache.call(FROM, TO, "0xbb");
+        cache.call(FROM, TO, "0xaa");
+        // 0xbb is the least recently used
+        cache.call(FROM, TO, "0xcc");
+        assertThat(cache.getSize(), is(2));
+        assertThat(cache.call(FROM, TO, "0xaa").getValue().getOutput(), is("0x1"));
+        assertThat(cache.call(FROM, TO, "0xbb").getValue().getOutput(), is("0x4"));
+
+        // errors are not kept
+        error = true;
+        assertThat(cache.call(FROM, TO, "0xdd").hasError(), is(true));
+        error = false;
+        assertThat(cache.call(FROM, TO, "0xdd").getValue().getOutput(), is("0x5"));
+        cache.close();
+    }
+
+    @Test
+    public void coalesceTest() throws Exception {
+        Service service = new Service();
+        service.setNumber(BigInteger.valueOf(100));
+        CallCache cache = new CallCache(web3j(), service);
+        answer = new CountDownLatch(1);
+
+        List<String> outputs = new ArrayList<String>();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 4; ++i) {
+            Thread thread =
+                    new Thread(
+                            () -> {
+                                try {
+                                    String output =
+                                            cache.call(FROM, TO, "0xaa").getValue().getOutput();
+                                    synchronized (outputs) {
+                                        outputs.add(output);
+                                    }
+                                } catch (Exception e) {
+                                    throw new RuntimeException(e);
+                                }
+                            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (int i = 0; i < 1000 && cache.getCoalesced() + cache.getMisses() < 4; ++i) {
+            Thread.sleep(10);
+        }
+        answer.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(requests.get(), is(1));
+        assertThat(cache.getMisses(), is(1L));
+        assertThat(cache.getCoalesced(), is(3L));
+        assertThat(outputs.size(), is(4));
+        for (String output : outputs) {
+            assertThat(output, is("0x1"));
+        }
+        cache.close();
+    }
+}
@@ -0,0 +1,150 @@
+package org.fisco.bcos.web3j.tx;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.fisco.bcos.web3j.abi.FunctionEncoder;
+import org.fisco.bcos.web3j.abi.TypeReference;
+import org.fisco.bcos.web3j.abi.datatypes.Function;
+import org.fisco.bcos.web3j.abi.datatypes.Type;
+import org.fisco.bcos.web3j.abi.datatypes.generated.Uint256;
+import org.fisco.bcos.web3j.crypto.Credentials;
+import org.fisco.bcos.web3j.crypto.Hash;
+import org.fisco.bcos.web3j.crypto.SignedRawTransaction;
+import org.fisco.bcos.web3j.crypto.TransactionDecoder;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.Web3jService;
+import org.fisco.bcos.web3j.protocol.core.Request;
+import org.fisco.bcos.web3j.protocol.core.methods.response.SendTransaction;
+import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.fisco.bcos.web3j.utils.Numeric;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class TransactionPipelineTest {
+
+    private static final String CONTRACT_ADDRESS = "0x692a70d2e424a56d2c6c27aa97d1a86395877b3a";
+
+    private final Credentials credentials =
+            Credentials.create("a392604efc2fad9c0b3da43b5f698a2e3f270f170d859912be0d54742275c5f6");
+
+    @Test
+    public void receiptTest() throws Exception {
+        // node answering every transaction at once with a receipt of its hash
+        Web3jService service = mock(Web3jService.class);
+        doAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            TransactionReceipt receipt = new TransactionReceipt();
+                            receipt.setTransactionHash(
+                                    Hash.sha3((String) request.getParams().get(0)));
+                            receipt.setStatus("0x0");
+                            request.getTransactionSucCallback().onResponse(receipt);
+                            return null;
+                        })
+                .when(service)
+                .sendOnly(any(Request.class));
+
+        Web3j web3j = mock(Web3j.class);
+        when(web3j.getBlockNumberCache()).thenReturn(BigInteger.valueOf(500));
+        when(web3j.sendRawTransaction(anyString()))
+                .thenAnswer(
+                        invocation ->
+                                new Request<>(
+                                        "sendRawTransaction",
+                                        Arrays.asList(invocation.<String>getArgument(0)),
+                                        service,
+                                        SendTransaction.class));
+
+        TransactionPipeline pipeline = new TransactionPipeline(web3j, credentials, 8, 2);
+        pipeline.setSubmitBatchSize(4);
+        pipeline.start();
+
+        List<Function> functions = new ArrayList<Function>();
+        List<CompletableFuture<TransactionReceipt>> futures =
+                new ArrayList<CompletableFuture<TransactionReceipt>>();
+        for (int i = 0; i < 100; ++i) {
+            Function function =
+                    new Function(
+                            "set",
+                            Arrays.<Type>asList(new Uint256(i)),
+                            Collections.<TypeReference<?>>emptyList());
+            functions.add(function);
+            futures.add(pipeline.submit(function, CONTRACT_ADDRESS));
+        }
+
+        for (int i = 0; i < futures.size(); ++i) {
+            TransactionReceipt receipt = futures.get(i).get();
+            assertThat(receipt.getStatus(), is("0x0"));
+        }
+        pipeline.stop();
+
+        for (TransactionPipeline.Stage stage : pipeline.getStages()) {
+            assertThat(stage.getName(), stage.getProcessed(), is(100L));
+            assertThat(stage.getName(), stage.getFailed(), is(0L));
+            assertThat(stage.getName(), stage.getQueueSize(), is(0));
+        }
+        assertThat(pipeline.getSubmitStage().getBatches() >= 25, is(true));
+
+        // the transactions carry the encoded calls and are signed by the account
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(web3j, times(100)).sendRawTransaction(captor.capture());
+        List<String> data = new ArrayList<String>();
+        for (Function function : functions) {
+            data.add(Numeric.cleanHexPrefix(FunctionEncoder.encode(function)));
+        }
+        for (String signed : captor.getAllValues()) {
+            SignedRawTransaction transaction =
+                    (SignedRawTransaction) TransactionDecoder.decode(signed);
+            assertThat(transaction.getFrom(), is(credentials.getAddress()));
+            assertThat(transaction.getTo(), is(CONTRACT_ADDRESS));
+            assertThat(data.remove(Numeric.cleanHexPrefix(transaction.getData())), is(true));
+        }
+        assertThat(data.isEmpty(), is(true));
+    }
+
+    @Test
+    public void failureTest() throws Exception {
+        Web3j web3j = mock(Web3j.class);
+        when(web3j.getBlockNumberCache()).thenThrow(new IllegalStateException("no block number"));
+
+        TransactionPipeline pipeline = new TransactionPipeline(web3j, credentials, 8, 1);
+        Function function =
+                new Function(
+                        "set",
+                        Arrays.<Type>asList(new Uint256(1)),
+                        Collections.<TypeReference<?>>emptyList());
+
+        // not started
+        CompletableFuture<TransactionReceipt> future = pipeline.submit(function, CONTRACT_ADDRESS);
+        assertThat(future.isCompletedExceptionally(), is(true));
+
+        pipeline.start();
+        future = pipeline.submit(function, CONTRACT_ADDRESS);
+        try {
+            future.get();
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(), is("no block number"));
+        }
+        assertThat(pipeline.getBuildStage().getFailed(), is(1L));
+        assertThat(pipeline.getSignStage().getProcessed(), is(0L));
+        pipeline.stop();
+        assertThat(pipeline.isRunning(), is(false));
+    }
+}
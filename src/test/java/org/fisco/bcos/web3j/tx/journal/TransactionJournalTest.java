@@ -0,0 +1,310 @@
+package org.fisco.bcos.web3j.tx.journal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import org.fisco.bcos.channel.client.TransactionSucCallback;
+import org.fisco.bcos.web3j.crypto.Credentials;
+import org.fisco.bcos.web3j.crypto.ExtendedRawTransaction;
+import org.fisco.bcos.web3j.protocol.Web3j;
+import org.fisco.bcos.web3j.protocol.core.Request;
+import org.fisco.bcos.web3j.protocol.core.methods.response.BcosTransactionReceipt;
+import org.fisco.bcos.web3j.protocol.core.methods.response.BlockNumber;
+import org.fisco.bcos.web3j.protocol.core.methods.response.SendTransaction;
+import org.fisco.bcos.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.fisco.bcos.web3j.tx.ExtendedRawTransactionManager;
+import org.fisco.bcos.web3j.utils.Numeric;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+
+public class TransactionJournalTest {
+
+    @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reopenTest() throws Exception {
+        String directory = folder.getRoot().getPath();
+        TransactionJournal journal = new TransactionJournal(directory, 4096, true);
+        long first = journal.append(transaction(1, 100), BigInteger.valueOf(500));
+        long second = journal.append(transaction(2, 100), BigInteger.valueOf(501));
+        long third = journal.append(transaction(3, 100), BigInteger.valueOf(502));
+        journal.done(second);
+        assertThat(journal.getLiveCount(), is(2));
+        journal.close();
+
+        journal = new TransactionJournal(directory, 4096, true);
+        List<TransactionJournal.Entry> unfinished = journal.getUnfinished();
+        assertThat(unfinished.size(), is(2));
+        assertThat(unfinished.get(0).getSeq(), is(first));
+        assertThat(unfinished.get(0).getBlockLimit(), is(BigInteger.valueOf(500)));
+        assertThat(
+                unfinished.get(0).getSignedTransaction(),
+                is(Numeric.toHexString(transaction(1, 100))));
+        assertThat(unfinished.get(1).getSeq(), is(third));
+        assertThat(journal.getLiveCount(), is(2));
+        assertThat(journal.append(transaction(4, 100), BigInteger.ONE) > third, is(true));
+
+        // done in the new segment
+        journal.done(first);
+        journal.done(third);
+        journal.close();
+        journal = new TransactionJournal(directory, 4096, true);
+        assertThat(journal.getUnfinished().size(), is(1));
+        journal.close();
+    }
+
+    @Test
+    public void rotateTest() throws Exception {
+        TransactionJournal journal =
+                new TransactionJournal(folder.getRoot().getPath(), 1024, false);
+        List<Long> seqs = new ArrayList<Long>();
+        for (int i = 0; i < 100; ++i) {
+            seqs.add(journal.append(transaction(i, 100), BigInteger.valueOf(500)));
+        }
+        assertThat(journal.getSegmentCount() > 10, is(true));
+
+        // a transaction larger than a segment gets a segment of its own
+        seqs.add(journal.append(transaction(0, 2000), BigInteger.valueOf(500)));
+
+        for (long seq : seqs) {
+            journal.done(seq);
+        }
+        assertThat(journal.getLiveCount(), is(0));
+        assertThat(journal.getSegmentCount(), is(1));
+        assertThat(folder.getRoot().list().length, is(1));
+        journal.close();
+    }
+
+    @Test
+    public void tornRecordTest() throws Exception {
+        String directory = folder.getRoot().getPath();
+        TransactionJournal journal = new TransactionJournal(directory, 4096, true);
+        journal.append(transaction(1, 100), BigInteger.valueOf(500));
+        journal.append(transaction(2, 100), BigInteger.valueOf(500));
+        journal.close();
+
+        // a byte of the second record is lost
+        File segment = folder.getRoot().listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(200);
+            file.write(file.read() ^ 0xff);
+        }
+
+        journal = new TransactionJournal(directory, 4096, true);
+        assertThat(journal.getUnfinished().size(), is(1));
+        journal.close();
+    }
+
+    @Test
+    public void groupCommitTest() throws Exception {
+        String directory = folder.getRoot().getPath();
+        TransactionJournal journal = new TransactionJournal(directory, 64 * 1024, true);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; ++t) {
+            threads.add(
+                    new Thread(
+                            () -> {
+                                try {
+                                    for (int i = 0; i < 100; ++i) {
+                                        journal.append(transaction(i, 100), BigInteger.ONE);
+                                    }
+                                } catch (Exception e) {
+                                    throw new RuntimeException(e);
+                                }
+                            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(journal.getLiveCount(), is(400));
+        assertThat(journal.getSyncs() <= 400, is(true));
+        journal.close();
+
+        assertThat(
+                new TransactionJournal(directory, 64 * 1024, true).getUnfinished().size(), is(400));
+    }
+
+    @Test
+    public void unmapTest() throws Exception {
+        String directory = folder.getRoot().getPath();
+        TransactionJournal shared = new TransactionJournal(directory, 1024, true);
+        // the segments are deleted and unmapped while the other threads force theirs
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; ++t) {
+            threads.add(
+                    new Thread(
+                            () -> {
+                                try {
+                                    for (int i = 0; i < 200; ++i) {
+                                        shared.done(
+                                                shared.append(transaction(i, 100), BigInteger.ONE));
+                                    }
+                                } catch (Exception e) {
+                                    throw new RuntimeException(e);
+                                }
+                            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(shared.getSegmentCount(), is(1));
+        assertThat(folder.getRoot().list().length, is(1));
+        long seq = shared.append(transaction(1, 100), BigInteger.ONE);
+        shared.close();
+        shared.close();
+        assertThat(shared.getSegmentCount(), is(0));
+
+        // the unmapped segments are still on disk
+        TransactionJournal journal = new TransactionJournal(directory, 1024, true);
+        assertThat(journal.getUnfinished().size(), is(1));
+        assertThat(journal.getUnfinished().get(0).getSeq(), is(seq));
+        journal.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void recoverTest() throws Exception {
+        String directory = folder.getRoot().getPath();
+        TransactionJournal journal = new TransactionJournal(directory, 4096, true);
+        byte[] mined = transaction(1, 100);
+        byte[] pending = transaction(2, 100);
+        byte[] expired = transaction(3, 100);
+        journal.append(mined, BigInteger.valueOf(200));
+        journal.append(pending, BigInteger.valueOf(200));
+        journal.append(expired, BigInteger.valueOf(50));
+        journal.close();
+
+        journal = new TransactionJournal(directory, 4096, true);
+        List<TransactionJournal.Entry> unfinished = journal.getUnfinished();
+        Web3j web3j = mock(Web3j.class);
+
+        BlockNumber blockNumber = new BlockNumber();
+        blockNumber.setResult("0x64");
+        Request<?, BlockNumber> blockNumberRequest = mock(Request.class);
+        when(blockNumberRequest.send()).thenReturn(blockNumber);
+        when(web3j.getBlockNumber()).thenAnswer(invocation -> blockNumberRequest);
+
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setTransactionHash(unfinished.get(0).getTransactionHash());
+        for (int i = 0; i < unfinished.size(); ++i) {
+            BcosTransactionReceipt response = new BcosTransactionReceipt();
+            response.setResult(i == 0 ? receipt : null);
+            Request<?, BcosTransactionReceipt> request = mock(Request.class);
+            when(request.send()).thenReturn(response);
+            when(web3j.getTransactionReceipt(unfinished.get(i).getTransactionHash()))
+                    .thenAnswer(invocation -> request);
+        }
+        Request<?, SendTransaction> sendRequest = mock(Request.class);
+        when(web3j.sendRawTransaction(Numeric.toHexString(pending)))
+                .thenAnswer(invocation -> sendRequest);
+
+        List<TransactionReceipt> receipts = new ArrayList<TransactionReceipt>();
+        TransactionSucCallback callback =
+                new TransactionSucCallback() {
+                    @Override
+                    public void onResponse(TransactionReceipt response) {
+                        receipts.add(response);
+                    }
+                };
+        List<TransactionJournal.Entry> lost = journal.recover(web3j, callback);
+        assertThat(lost.size(), is(1));
+        assertThat(lost.get(0).getSignedTransaction(), is(Numeric.toHexString(expired)));
+        assertThat(receipts.size(), is(1));
+        assertThat(journal.getLiveCount(), is(1));
+
+        // the resent transaction is done with its receipt
+        ArgumentCaptor<TransactionSucCallback> captor =
+                ArgumentCaptor.forClass(TransactionSucCallback.class);
+        verify(sendRequest).setTransactionSucCallback(captor.capture());
+        verify(sendRequest).sendOnly();
+        captor.getValue().onResponse(new TransactionReceipt());
+        assertThat(receipts.size(), is(2));
+        assertThat(journal.getLiveCount(), is(0));
+        journal.close();
+    }
+
+    @Test
+    public void signedTransactionTest() throws Exception {
+        TransactionJournal journal =
+                new TransactionJournal(folder.getRoot().getPath(), 4096, false);
+        Web3j web3j = mock(Web3j.class);
+        Request<?, SendTransaction> sendRequest = mock(Request.class);
+        when(web3j.sendRawTransaction(any(String.class))).thenAnswer(invocation -> sendRequest);
+        ExtendedRawTransactionManager transactionManager =
+                new ExtendedRawTransactionManager(
+                        web3j,
+                        Credentials.create(
+                                "b83261efa42895c38c6c2364ca878f43e77f3cddbc922bf57d0d48070f79feb6"),
+                        BigInteger.ONE,
+                        BigInteger.ONE);
+        transactionManager.setTransactionJournal(journal);
+        ExtendedRawTransaction rawTransaction =
+                ExtendedRawTransaction.createTransaction(
+                        BigInteger.ONE,
+                        BigInteger.ONE,
+                        BigInteger.ONE,
+                        BigInteger.valueOf(600),
+                        "0x0",
+                        BigInteger.ZERO,
+                        "0x",
+                        BigInteger.ONE,
+                        BigInteger.ONE,
+                        "");
+        String signedTransaction = transactionManager.sign(rawTransaction);
+
+        // a transaction signed by the caller is journaled with its block limit
+        transactionManager.sendTransaction(signedTransaction, mock(TransactionSucCallback.class));
+        verify(sendRequest).sendOnly();
+        assertThat(journal.getLiveCount(), is(1));
+        journal.close();
+
+        journal = new TransactionJournal(folder.getRoot().getPath(), 4096, false);
+        List<TransactionJournal.Entry> unfinished = journal.getUnfinished();
+        assertThat(unfinished.size(), is(1));
+        assertThat(unfinished.get(0).getSignedTransaction(), is(signedTransaction));
+        assertThat(unfinished.get(0).getBlockLimit(), is(BigInteger.valueOf(600)));
+        journal.close();
+    }
+
+    @Test
+    public void trackTimeoutTest() throws Exception {
+        TransactionJournal journal =
+                new TransactionJournal(folder.getRoot().getPath(), 4096, false);
+        long seq = journal.append(transaction(1, 100), BigInteger.ONE);
+        TransactionSucCallback callback = mock(TransactionSucCallback.class);
+        // still in flight after a timeout
+        journal.track(seq, callback).onTimeout();
+        verify(callback).onTimeout();
+        assertThat(journal.getLiveCount(), is(1));
+
+        journal.track(seq, callback).onResponse(new TransactionReceipt());
+        verify(callback).onResponse(any(TransactionReceipt.class));
+        assertThat(journal.getLiveCount(), is(0));
+        journal.close();
+    }
+
+    private static byte[] transaction(int id, int size) {
+        byte[] transaction = new byte[size];
+        for (int i = 0; i < size; ++i) {
+            transaction[i] = (byte) (id + i);
+        }
+        return transaction;
+    }
+}
@@ -0,0 +1,65 @@
+package org.fisco.bcos.web3j.tx.nonce;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+public class NonceSourceTest {
+
+    @Test
+    public void randomTest() throws InterruptedException {
+        RandomNonceSource source = new RandomNonceSource(16);
+        Set<BigInteger> nonces = new HashSet<BigInteger>();
+        for (int i = 0; i < 1000; ++i) {
+            BigInteger nonce = source.nextNonce();
+            assertThat(nonce.signum() >= 0, is(true));
+            assertThat(nonce.bitLength() <= NonceSource.NONCE_BITS, is(true));
+            nonces.add(nonce);
+        }
+        assertThat(nonces.size(), is(1000));
+
+        // the pool is refilled in the background once below half of its size
+        for (int i = 0; i < 100 && source.getPooled() < 8; ++i) {
+            Thread.sleep(10);
+        }
+        assertThat(source.getPooled() >= 8, is(true));
+    }
+
+    @Test
+    public void noPoolTest() {
+        RandomNonceSource source = new RandomNonceSource(0);
+        assertThat(source.nextNonce().equals(source.nextNonce()), is(false));
+        assertThat(source.getPooled(), is(0));
+    }
+
+    @Test
+    public void counterTest() {
+        CounterNonceSource source = new CounterNonceSource(BigInteger.valueOf(0xabc), 5);
+        assertThat(
+                source.nextNonce(),
+                is(BigInteger.valueOf(0xabc).shiftLeft(64).add(BigInteger.valueOf(5))));
+        assertThat(
+                source.nextNonce(),
+                is(BigInteger.valueOf(0xabc).shiftLeft(64).add(BigInteger.valueOf(6))));
+        assertThat(source.getCounter(), is(7L));
+
+        // the same prefix and start replay the same ids
+        CounterNonceSource replay = new CounterNonceSource(BigInteger.valueOf(0xabc), 5);
+        assertThat(
+                replay.nextNonce(),
+                is(BigInteger.valueOf(0xabc).shiftLeft(64).add(BigInteger.valueOf(5))));
+
+        // the counter is unsigned
+        CounterNonceSource wrapped = new CounterNonceSource(BigInteger.ZERO, -1);
+        assertThat(wrapped.nextNonce(), is(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void prefixTest() {
+        new CounterNonceSource(BigInteger.ONE.shiftLeft(NonceSource.NONCE_BITS - 64));
+    }
+}
@@ -4,12 +4,15 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import org.fisco.bcos.web3j.abi.EventEncoder;
 import org.fisco.bcos.web3j.abi.FunctionEncoder;
@@ -27,6 +30,7 @@ import org.fisco.bcos.web3j.abi.datatypes.generated.Int256;
 import org.fisco.bcos.web3j.abi.datatypes.generated.StaticArray2;
 import org.fisco.bcos.web3j.abi.datatypes.generated.StaticArray4;
 import org.fisco.bcos.web3j.abi.datatypes.generated.Uint256;
+import org.fisco.bcos.web3j.protocol.ObjectMapperFactory;
 import org.fisco.bcos.web3j.protocol.core.methods.response.AbiDefinition;
 import org.fisco.bcos.web3j.protocol.core.methods.response.AbiDefinition.NamedType;
 import org.fisco.bcos.web3j.protocol.core.methods.response.Log;
@@ -1454,4 +1458,125 @@ public class TransactionDecoderTest {
                 is(
                         "{\"TestEventDArrayParams(uint256[],int256[],bool[],address[],bytes32[],string[],bytes[])\":[[{\"name\":\"_u\",\"type\":\"uint256[]\",\"data\":[11111,22222,33333]},{\"name\":\"_i\",\"type\":\"int256[]\",\"data\":[-1111111,-3333333,-2222222]},{\"name\":\"_b\",\"type\":\"bool[]\",\"data\":[false,true,false]},{\"name\":\"_addr\",\"type\":\"address[]\",\"data\":[\"0x692a70d2e424a56d2c6c27aa97d1a86395877b3a\",\"0x692a70d2e424a56d2c6c27aa97d1a86395877b3a\"]},{\"name\":\"_bs32\",\"type\":\"bytes32[]\",\"data\":[\"abcdefghiabcdefghiabcdefghiabhji\",\"abcdefghiabcdefghiabcdefghiabhji\"]},{\"name\":\"_s\",\"type\":\"string[]\",\"data\":[\"\",\"章鱼小丸子ljjkl;adjsfkljlkjl\",\"章鱼小丸子ljjkl;adjsfkljlkjl\"]},{\"name\":\"_bs\",\"type\":\"bytes[]\",\"data\":[\"\",\"sadfljkjkljkl\",\"章鱼小丸子ljjkl;adjsfkljlkjl\"]}],[{\"name\":\"_u\",\"type\":\"uint256[]\",\"data\":[0,0,0]},{\"name\":\"_i\",\"type\":\"int256[]\",\"data\":[0,0,0]},{\"name\":\"_b\",\"type\":\"bool[]\",\"data\":[false,true,false]},{\"name\":\"_addr\",\"type\":\"address[]\",\"data\":[\"0x0000000000000000000000000000000000000000\",\"0x0000000000000000000000000000000000000000\"]},{\"name\":\"_bs32\",\"type\":\"bytes32[]\",\"data\":[\"\",\"\"]},{\"name\":\"_s\",\"type\":\"string[]\",\"data\":[\"\",\"\",\"\"]},{\"name\":\"_bs\",\"type\":\"bytes[]\",\"data\":[\"\",\"\",\"\"]}],[{\"name\":\"_u\",\"type\":\"uint256[]\",\"data\":[0,0,0,11111,22222,33333]},{\"name\":\"_i\",\"type\":\"int256[]\",\"data\":[0,0,0,-1111111,-3333333,-2222222]},{\"name\":\"_b\",\"type\":\"bool[]\",\"data\":[false,true,false,false]},{\"name\":\"_addr\",\"type\":\"address[]\",\"data\":[\"0x0000000000000000000000000000000000000000\",\"0x0000000000000000000000000000000000000000\",\"0x692a70d2e424a56d2c6c27aa97d1a86395877b3a\",\"0x692a70d2e424a56d2c6c27aa97d1a86395877b3a\"]},{\"name\":\"_bs32\",\"type\":\"bytes32[]\",\"data\":[\"abcdefghiabcdefghiabcdefghiabhji\",\"abcdefghiabcdefghiabcdefghiabhji\",\"\",\"\"]},{\"name\":\"_s\",\"type\":\"string[]\",\"data\":[\"\",\"章鱼小丸子ljjkl;adjsfkljlkjl\",\"章鱼小丸子ljjkl;adjsfkljlkjl\",\"\",\"\",\"\"]},{\"name\":\"_bs\",\"type\":\"bytes[]\",\"data\":[\"\",\"sadfljkjkljkl\",\"章鱼小丸子ljjkl;adjsfkljlkjl\",\"\",\"\",\"\"]}]]}"));
     }
+
+    @Test
+    public void testEventIndex() throws BaseException, IOException {
+        /*
+           event Transfer(address indexed _from, uint256 _value);
+           event Note(string _s);
+        */
+        String abi =
+                "[{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"_from\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"_value\",\"type\":\"uint256\"}],\"name\":\"Transfer\",\"type\":\"event\"},{\"anonymous\":false,\"inputs\":[{\"indexed\":false,\"name\":\"_s\",\"type\":\"string\"}],\"name\":\"Note\",\"type\":\"event\"}]";
+
+        TransactionDecoder decode = TransactionDecoderFactory.buildTransactionDecoder(abi, "");
+        // decoders are shared by the users of the same abi
+        assertThat(TransactionDecoderFactory.buildTransactionDecoder(abi, "") == decode, is(true));
+
+        Address from = new Address("0x692a70d2e424a56d2c6c27aa97d1a86395877b3a");
+        Log transfer = new Log();
+        transfer.setTopics(
+                Arrays.asList(
+                        EventEncoder.buildEventSignature("Transfer(address,uint256)"),
+                        FunctionEncoder.encodeConstructor(Arrays.<Type>asList(from))));
+        transfer.setData(FunctionEncoder.encodeConstructor(Arrays.<Type>asList(new Uint256(100))));
+
+        LogResult logResult = decode.decodeEventLogReturnObject(transfer);
+        assertThat(logResult.getLog(), is(transfer));
+        assertThat(logResult.getLogParams().get(0).getName(), is("_from"));
+        assertThat(logResult.getLogParams().get(0).isIndexed(), is(true));
+        assertThat(
+                transEntitytoType0(logResult.getLogParams()),
+                is(Arrays.<Type>asList(from, new Uint256(100))));
+
+        Log note = new Log();
+        note.setTopics(Arrays.asList(EventEncoder.buildEventSignature("Note(string)")));
+        note.setData(
+                FunctionEncoder.encodeConstructor(Arrays.<Type>asList(new Utf8String("hello"))));
+
+        Tuple2<AbiDefinition, List<EventResultEntity>> tupleResult =
+                decode.decodeEventReturnObject(note);
+        assertThat(tupleResult.getValue1().getName(), is("Note"));
+        assertThat(
+                transEntitytoType0(tupleResult.getValue2()),
+                is(Arrays.<Type>asList(new Utf8String("hello"))));
+
+        // logs of other events are skipped
+        Log other = new Log();
+        other.setTopics(Arrays.asList(EventEncoder.buildEventSignature("Other()")));
+        other.setData("0x");
+        assertThat(decode.decodeEventLogReturnObject(other) == null, is(true));
+
+        Map<String, List<List<EventResultEntity>>> mapResult =
+                decode.decodeEventReturnObject(Arrays.asList(transfer, other, note, transfer));
+        assertThat(mapResult.size(), is(2));
+        assertThat(mapResult.get("Transfer(address,uint256)").size(), is(2));
+        assertThat(mapResult.get("Note(string)").size(), is(1));
+    }
+
+    @Test
+    public void testEventStream() throws BaseException, IOException {
+        String abi =
+                "[{\"anonymous\":false,\"inputs\":[{\"indexed\":true,\"name\":\"_from\",\"type\":\"address\"},{\"indexed\":false,\"name\":\"_value\",\"type\":\"uint256\"}],\"name\":\"Transfer\",\"type\":\"event\"}]";
+        TransactionDecoder decode = TransactionDecoderFactory.buildTransactionDecoder(abi, "");
+
+        String from =
+                FunctionEncoder.encodeConstructor(
+                        Arrays.<Type>asList(
+                                new Address("0x692a70d2e424a56d2c6c27aa97d1a86395877b3a")));
+        List<Log> logs = new ArrayList<Log>();
+        for (int i = 0; i < 1000; ++i) {
+            Log log = new Log();
+            log.setBlockNumber("0x" + Integer.toHexString(i / 10));
+            log.setLogIndex("0x" + Integer.toHexString(i % 10));
+            if (i % 7 == 0) {
+                // logs of other events are skipped
+                log.setTopics(Arrays.asList(EventEncoder.buildEventSignature("Other()")));
+                log.setData("0x");
+            } else {
+                log.setTopics(
+                        Arrays.asList(
+                                EventEncoder.buildEventSignature("Transfer(address,uint256)"),
+                                from));
+                log.setData(FunctionEncoder.encodeConstructor(Arrays.<Type>asList(new Uint256(i))));
+            }
+            logs.add(log);
+        }
+
+        List<LogResult> serial = decode.decodeEventFlowable(logs).toList().blockingGet();
+        assertThat(serial.size(), is(1000 - 143));
+        assertThat(serial.get(0).getEventName(), is("Transfer(address,uint256)"));
+        assertThat(serial.get(0).getLogParams().get(1).getTypeObject(), is((Type) new Uint256(1)));
+
+        // parallel decoding keeps the order of the logs
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<LogResult> parallel =
+                    decode.decodeEventFlowable(logs, pool, 16).toList().blockingGet();
+            assertThat(parallel.size(), is(serial.size()));
+            for (int i = 0; i < serial.size(); ++i) {
+                assertThat(parallel.get(i).getLog(), is(serial.get(i).getLog()));
+                assertThat(
+                        transEntitytoType0(parallel.get(i).getLogParams()),
+                        is(transEntitytoType0(serial.get(i).getLogParams())));
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            decode.decodeEventReturnJson(logs, pool, 16, out);
+            JsonNode json = ObjectMapperFactory.getObjectMapper().readTree(out.toByteArray());
+            assertThat(json.size(), is(serial.size()));
+            assertThat(json.get(0).get("event").asText(), is("Transfer(address,uint256)"));
+            assertThat(json.get(0).get("blockNumber").asText(), is("0x0"));
+            assertThat(json.get(0).get("logIndex").asText(), is("0x1"));
+            assertThat(json.get(0).get("logParams").get(1).get("data").asInt(), is(1));
+            assertThat(json.get(json.size() - 1).get("logIndex").asText(), is("0x9"));
+        } finally {
+            pool.shutdown();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        decode.decodeEventReturnJson(logs, out);
+        assertThat(
+                ObjectMapperFactory.getObjectMapper().readTree(out.toByteArray()).size(),
+                is(serial.size()));
+    }
 }